@@ -0,0 +1,97 @@
+package Udistrital.avanzada.ArgollaLlanera.benchmark;
+
+import Udistrital.avanzada.ArgollaLlanera.control.ControlEquipo;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CargaEquiposBenchmark
+ *
+ * Mide el tiempo de {@link ControlEquipo#cargarEquiposDesdeArchivo(String)} sobre
+ * archivos Equipos.properties generados con 10, 1.000 y 100.000 equipos de cuatro jugadores,
+ * comparado con la carga anterior mediante {@link Properties}.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CargaEquiposBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int equipos;
+
+    private Path archivo;
+    private ControlEquipo controlEquipo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        archivo = Files.createTempFile("equipos-bench", ".properties");
+        escribirArchivo(archivo, equipos);
+        controlEquipo = new ControlEquipo();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+
+    @Benchmark
+    public int cargarEquipos() throws IOException {
+        controlEquipo.cargarEquiposDesdeArchivo(archivo.toString());
+        return controlEquipo.listarEquipos().size();
+    }
+
+    @Benchmark
+    public int cargarConProperties() throws IOException {
+        Properties props = new Properties();
+        try (InputStream is = Files.newInputStream(archivo)) {
+            props.load(is);
+        }
+        controlEquipo.cargarEquiposDesdeProperties(props);
+        return controlEquipo.listarEquipos().size();
+    }
+
+    /**
+     * Genera un archivo con el mismo formato de Specs/data/Equipos.properties.
+     */
+    static void escribirArchivo(Path destino, int cantidad) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(destino, StandardCharsets.ISO_8859_1)) {
+            w.write("numeroEquipos.count=" + cantidad + "\n\n");
+            for (int i = 1; i <= cantidad; i++) {
+                w.write("equipo." + i + ".clave=E" + i + "\n");
+                w.write("equipo." + i + ".name=Equipo " + i + "\n");
+                w.write("equipo." + i + ".numeroJugadores=4\n\n");
+                for (int j = 1; j <= 4; j++) {
+                    String prefijo = "equipo." + i + ".player." + j;
+                    w.write(prefijo + ".name=Jugador " + i + "-" + j + "\n");
+                    w.write(prefijo + ".nick=Apodo " + j + "\n");
+                    w.write(prefijo + ".photo=\"src\\\\Specs\\\\Data\\\\files\\\\foto.png\"\n\n");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package Udistrital.avanzada.ArgollaLlanera.benchmark;
+
+import Udistrital.avanzada.ArgollaLlanera.control.MotorPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JuegoBenchmark
+ *
+ * Mide las rutas críticas de las reglas del juego: generación y puntaje de un
+ * lanzamiento, lanzamiento de un equipo completo y una partida completa sin
+ * interfaz con las reglas de ControlJuego.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JuegoBenchmark {
+
+    private List<Equipo> equipos;
+    private Juego juego;
+    private SplittableRandom fuente;
+
+    @Setup
+    public void preparar() {
+        equipos = Arrays.asList(Datos.crearEquipo(1), Datos.crearEquipo(2));
+        fuente = new SplittableRandom(42L);
+        juego = new Juego(equipos, fuente);
+    }
+
+    /** Lanzamiento individual por la ruta de texto: generarResultadoAleatorio + calcularPuntos. */
+    @Benchmark
+    public int generarYCalcularPuntos() {
+        return juego.calcularPuntos(juego.generarResultadoAleatorio());
+    }
+
+    /** Lanzamiento individual por la ruta tipada. */
+    @Benchmark
+    public int lanzarTipado() {
+        return juego.lanzar().getPuntos();
+    }
+
+    /** Lanzamiento de todos los jugadores de un equipo. */
+    @Benchmark
+    public int lanzarEquipo() {
+        return juego.lanzarEquipo(equipos.get(0));
+    }
+
+    /** Partida completa, incluida la muerte súbita cuando corresponde. */
+    @Benchmark
+    public Equipo partidaCompleta() {
+        MotorPartida motor = new MotorPartida(new Juego(equipos, fuente), equipos, fuente.nextInt(2));
+        return motor.jugarHastaTerminar();
+    }
+
+    /**
+     * Datos de prueba compartidos por los benchmarks.
+     */
+    static final class Datos {
+
+        private Datos() {
+        }
+
+        static Equipo crearEquipo(int numero) {
+            Equipo equipo = new Equipo(String.format("E%03d", numero), "Equipo " + numero);
+            for (int j = 1; j <= 4; j++) {
+                equipo.agregarJugador(new Jugador("Jugador " + numero + "-" + j, "Apodo " + j, "foto.png"));
+            }
+            return equipo;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package Udistrital.avanzada.ArgollaLlanera.benchmark;
+
+import Udistrital.avanzada.ArgollaLlanera.control.ControlPersistencia;
+import Udistrital.avanzada.ArgollaLlanera.control.EscritorResultadosPorLotes;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PersistenciaBenchmark
+ *
+ * Mide el rendimiento de {@link ControlPersistencia}: agregado de registros al final
+ * del archivo (directo y por lotes) y recorrido completo del archivo con {@code leerRegistros}.
+ * La salida por consola del recorrido se descarta para medir solo la lectura.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenciaBenchmark {
+
+    private static final String[] JUGADORES = {"Sofia", "Juan", "Steban", "Francined"};
+
+    @Param({"10000"})
+    public int registrosLectura;
+
+    private Path directorio;
+    private ControlPersistencia escritura;
+    private ControlPersistencia lectura;
+    private EscritorResultadosPorLotes escrituraPorLotes;
+    private PrintStream salidaOriginal;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("argolla-bench");
+        escritura = new ControlPersistencia(directorio.resolve("escritura.dat").toString());
+        lectura = new ControlPersistencia(directorio.resolve("lectura.dat").toString());
+        escrituraPorLotes = new EscritorResultadosPorLotes(directorio.resolve("lotes.dat").toString(), 512, false);
+        for (int i = 0; i < registrosLectura; i++) {
+            lectura.escribirRegistro("E001", "ELN", JUGADORES, i % 2 == 0 ? "Ganó" : "Perdió");
+        }
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        System.setOut(salidaOriginal);
+        escritura.close();
+        lectura.close();
+        escrituraPorLotes.close();
+        try (var archivos = Files.list(directorio)) {
+            for (Path p : (Iterable<Path>) archivos::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(directorio);
+    }
+
+    /** Registros agregados por segundo con escribirRegistro. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void escribirRegistro() {
+        escritura.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+    }
+
+    /** Registros agregados por segundo con el escritor por lotes (lotes de 512). */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void escribirRegistroPorLotes() throws IOException {
+        escrituraPorLotes.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+    }
+
+    /** Tiempo de recorrer el archivo completo con leerRegistros. */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void leerRegistros() {
+        lectura.leerRegistros();
+    }
+}
@@ -0,0 +1,326 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import Udistrital.avanzada.ArgollaLlanera.vista.PantallaJuego;
+import Udistrital.avanzada.ArgollaLlanera.vista.VistaJuego;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * ActualizadorVista
+ *
+ * Capa que agrupa los cambios de estado de la vista y los aplica como máximo una vez por
+ * cuadro (60 por segundo por defecto). Cualquier hilo puede registrar cambios; solo se
+ * guarda el último valor de cada elemento (turno, resaltados, puntajes, detalle, tabla),
+ * y al llegar el cuadro se aplica en el hilo de Swing lo que quedó pendiente.
+ *
+ * Así, una repetición rápida con cientos de lanzamientos por segundo produce a lo sumo
+ * 60 actualizaciones de la pantalla en lugar de seis llamadas a la vista por lanzamiento.
+ * {@link VistaJuego} por su parte solo modifica lo que cambió. El actualizador solo
+ * escribe a través de {@link PantallaJuego}.
+ *
+ * Los mensajes para la bitácora no se agrupan: se agregan todos, en orden.
+ *
+ * El tiempo de cada cuadro en el hilo de Swing se registra en {@link Metricas} como
+ * {@code vista.cuadro.ns}.
+ *
+ * @author juanr
+ * @version 1.3
+ */
+public class ActualizadorVista {
+
+    /** Cuadros por segundo por defecto. */
+    public static final int CUADROS_POR_SEGUNDO = 60;
+
+    private static final LongAdder CUADROS = Metricas.global().contador("vista.cuadros");
+    private static final HistogramaLatencia TIEMPO_CUADRO = Metricas.global().histograma("vista.cuadro.ns");
+
+    private final PantallaJuego vista;               // Vista a actualizar
+    private final Runnable programarCuadro;          // Programa la aplicación del siguiente cuadro en el hilo de Swing
+    private final AtomicBoolean programado;          // Hay un cuadro pendiente de aplicar
+    private final Object candado = new Object();     // Protege el estado pendiente
+
+    // Estado pendiente, protegido por candado
+    private List<Equipo> equipos;                    // Equipos a mostrar, null si no cambiaron
+    private String turno;                            // Nombre del equipo en turno, null si no cambió
+    private Equipo equipoResaltado;
+    private boolean cambioEquipo;
+    private Jugador jugadorResaltado;
+    private boolean cambioJugador;
+    private int puntosA;
+    private int puntosB;
+    private boolean cambioPuntos;
+    private String detalle;                          // Detalle del lanzamiento, null si no cambió
+    private String probabilidades;                   // Probabilidades en vivo, null si no cambiaron
+    private Map<Equipo, Integer> puntajes;           // Puntajes de la tabla, null si no cambió
+    private final Map<Jugador, ResultadoLanzamiento> resultados = new LinkedHashMap<>(); // Último resultado por jugador, sin aplicar
+    private final List<String> mensajes = new ArrayList<>(); // Mensajes por agregar a la bitácora
+    private Boolean botonLanzar;                     // Estado del botón, null si no cambió
+
+    private long cambios;                            // Cambios registrados
+    private long cuadros;                            // Cuadros aplicados
+
+    /**
+     * Crea el actualizador a 60 cuadros por segundo.
+     *
+     * @param vista vista a actualizar
+     */
+    public ActualizadorVista(PantallaJuego vista) {
+        this(vista, CUADROS_POR_SEGUNDO);
+    }
+
+    /**
+     * Crea el actualizador con la frecuencia indicada.
+     *
+     * @param vista vista a actualizar
+     * @param cuadrosPorSegundo máximo de actualizaciones por segundo
+     */
+    public ActualizadorVista(PantallaJuego vista, int cuadrosPorSegundo) {
+        if (cuadrosPorSegundo <= 0) {
+            throw new IllegalArgumentException("Cuadros por segundo inválidos: " + cuadrosPorSegundo);
+        }
+        this.vista = vista;
+        this.programado = new AtomicBoolean();
+        Timer temporizador = new Timer(Math.max(1, 1000 / cuadrosPorSegundo), e -> aplicar());
+        temporizador.setRepeats(false);
+        this.programarCuadro = temporizador::restart;
+    }
+
+    /**
+     * Crea el actualizador sin temporizador, para las pruebas: {@code programarCuadro} se
+     * llama con el primer cambio después de cada cuadro y quien lo recibe decide cuándo
+     * llamar a {@link #aplicar()}.
+     *
+     * @param vista vista a actualizar
+     * @param programarCuadro aviso de que hay un cuadro por aplicar
+     */
+    ActualizadorVista(PantallaJuego vista, Runnable programarCuadro) {
+        this.vista = vista;
+        this.programado = new AtomicBoolean();
+        this.programarCuadro = programarCuadro;
+    }
+
+    public void mostrarEquipos(List<Equipo> equipos) {
+        synchronized (candado) {
+            this.equipos = equipos;
+            // Los paneles nuevos empiezan sin resaltar
+            cambioEquipo = true;
+            cambioJugador = true;
+        }
+        programar();
+    }
+
+    public void setTurno(String nombreEquipo) {
+        synchronized (candado) {
+            turno = nombreEquipo;
+        }
+        programar();
+    }
+
+    public void resaltarEquipo(Equipo equipo) {
+        synchronized (candado) {
+            equipoResaltado = equipo;
+            cambioEquipo = true;
+        }
+        programar();
+    }
+
+    public void resaltarJugador(Jugador jugador) {
+        synchronized (candado) {
+            jugadorResaltado = jugador;
+            cambioJugador = true;
+        }
+        programar();
+    }
+
+    public void actualizarPuntajes(int puntosA, int puntosB) {
+        synchronized (candado) {
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+            cambioPuntos = true;
+        }
+        programar();
+    }
+
+    public void actualizarDetalle(String detalle) {
+        synchronized (candado) {
+            this.detalle = detalle;
+        }
+        programar();
+    }
+
+    public void actualizarProbabilidades(String texto) {
+        synchronized (candado) {
+            probabilidades = texto;
+        }
+        programar();
+    }
+
+    /**
+     * Registra el último resultado de un jugador; se asigna al jugador en el hilo de
+     * Swing, justo antes de dibujar la tabla.
+     */
+    public void registrarResultado(Jugador jugador, ResultadoLanzamiento resultado) {
+        synchronized (candado) {
+            resultados.put(jugador, resultado);
+        }
+        programar();
+    }
+
+    /**
+     * Programa la tabla de resultados con los puntajes indicados.
+     *
+     * @param puntajes puntajes por equipo, en el orden a mostrar
+     */
+    public void actualizarVista(Map<Equipo, Integer> puntajes) {
+        synchronized (candado) {
+            this.puntajes = new LinkedHashMap<>(puntajes);
+        }
+        programar();
+    }
+
+    public void mostrarMensajeEnVista(String mensaje) {
+        synchronized (candado) {
+            mensajes.add(mensaje);
+        }
+        programar();
+    }
+
+    public void habilitarBotonLanzar(boolean habilitar) {
+        synchronized (candado) {
+            botonLanzar = habilitar;
+        }
+        programar();
+    }
+
+    /**
+     * Programa el siguiente cuadro si no hay uno pendiente.
+     */
+    private void programar() {
+        synchronized (candado) {
+            cambios++;
+        }
+        if (programado.compareAndSet(false, true)) {
+            programarCuadro.run();
+        }
+    }
+
+    /**
+     * Aplica de inmediato los cambios pendientes. Debe llamarse en el hilo de Swing; se usa
+     * antes de mostrar un diálogo para que la pantalla esté al día.
+     */
+    public void aplicar() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("aplicar() debe llamarse en el hilo de Swing");
+        }
+        programado.set(false);
+        long inicio = System.nanoTime();
+
+        List<Equipo> nuevosEquipos;
+        String nuevoTurno;
+        Equipo nuevoEquipo;
+        boolean aplicarEquipo;
+        Jugador nuevoJugador;
+        boolean aplicarJugador;
+        int nuevosA;
+        int nuevosB;
+        boolean aplicarPuntos;
+        String nuevoDetalle;
+        String nuevasProbabilidades;
+        Map<Equipo, Integer> nuevosPuntajes;
+        Map<Jugador, ResultadoLanzamiento> nuevosResultados;
+        List<String> nuevosMensajes;
+        Boolean nuevoBoton;
+        synchronized (candado) {
+            nuevosEquipos = equipos;
+            nuevoTurno = turno;
+            nuevoEquipo = equipoResaltado;
+            aplicarEquipo = cambioEquipo;
+            nuevoJugador = jugadorResaltado;
+            aplicarJugador = cambioJugador;
+            nuevosA = puntosA;
+            nuevosB = puntosB;
+            aplicarPuntos = cambioPuntos;
+            nuevoDetalle = detalle;
+            nuevasProbabilidades = probabilidades;
+            nuevosPuntajes = puntajes;
+            nuevosResultados = new LinkedHashMap<>(resultados);
+            nuevosMensajes = new ArrayList<>(mensajes);
+            nuevoBoton = botonLanzar;
+
+            equipos = null;
+            turno = null;
+            cambioEquipo = false;
+            cambioJugador = false;
+            cambioPuntos = false;
+            detalle = null;
+            probabilidades = null;
+            puntajes = null;
+            resultados.clear();
+            mensajes.clear();
+            botonLanzar = null;
+        }
+
+        if (nuevosEquipos != null) {
+            vista.mostrarEquipos(nuevosEquipos);
+        }
+        for (Map.Entry<Jugador, ResultadoLanzamiento> entrada : nuevosResultados.entrySet()) {
+            entrada.getKey().setResultado(entrada.getValue().getTexto());
+            entrada.getKey().setPuntos(entrada.getValue().getPuntos());
+        }
+        if (nuevosPuntajes != null) {
+            vista.actualizarVista(nuevosPuntajes);
+        }
+        for (String mensaje : nuevosMensajes) {
+            vista.mostrarMensajeEnVista(mensaje);
+        }
+        if (aplicarPuntos) {
+            vista.actualizarPuntajes(nuevosA, nuevosB);
+        }
+        if (nuevoDetalle != null) {
+            vista.actualizarDetalleLanzamiento(nuevoDetalle);
+        }
+        if (nuevasProbabilidades != null) {
+            vista.actualizarProbabilidades(nuevasProbabilidades);
+        }
+        if (nuevoTurno != null) {
+            vista.setTurno(nuevoTurno);
+        }
+        if (aplicarEquipo) {
+            vista.resaltarEquipo(nuevoEquipo);
+        }
+        if (aplicarJugador) {
+            vista.resaltarJugador(nuevoJugador);
+        }
+        if (nuevoBoton != null) {
+            vista.habilitarBotonLanzar(nuevoBoton);
+        }
+        synchronized (candado) {
+            cuadros++;
+        }
+        TIEMPO_CUADRO.registrarDesde(inicio);
+        CUADROS.increment();
+    }
+
+    /** Devuelve cuántos cambios se registraron. */
+    public long getCambios() {
+        synchronized (candado) {
+            return cambios;
+        }
+    }
+
+    /** Devuelve cuántos cuadros se aplicaron en la vista. */
+    public long getCuadros() {
+        synchronized (candado) {
+            return cuadros;
+        }
+    }
+}
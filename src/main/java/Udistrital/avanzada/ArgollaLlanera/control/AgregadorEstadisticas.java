@@ -0,0 +1,225 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.EstadisticasAcumuladas;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoPartida;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * AgregadorEstadisticas
+ *
+ * Mantiene al día las estadísticas de jugadores y equipos a medida que se juegan las
+ * partidas: recibe los eventos de {@link MotorPartida} como {@link EscuchaPartida} y suma
+ * cada lanzamiento y cada resultado en {@link EstadisticasAcumuladas}, sin volver a leer
+ * el archivo de resultados.
+ *
+ * - Jugadores (por nombre): lanzamientos por tipo y puntos, incluidos los de muerte
+ *   súbita; partidas, victorias y récord en muerte súbita.
+ * - Equipos (por clave): lanzamientos por tipo de las manos normales, cuya suma de puntos
+ *   es el puntaje final de cada partida; partidas, victorias y récord en muerte súbita.
+ *
+ * Los identificadores de los jugadores y equipos de la ronda se resuelven al iniciarla,
+ * así que cada lanzamiento solo incrementa dos posiciones de arreglo.
+ *
+ * El estado se consulta con instantáneas independientes ({@link #instantaneaJugadores()},
+ * {@link #instantaneaEquipos()}) y se guarda o recupera con {@link #guardar(Path)} y
+ * {@link #cargar(Path)}. El historial anterior en resultados.dat solo tiene ganadores y
+ * perdedores, así que {@link #importar(LectorResultados)} únicamente aporta partidas y
+ * victorias.
+ *
+ * Los eventos llegan en el hilo del juego y las consultas pueden hacerse desde otro hilo;
+ * los métodos están sincronizados.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class AgregadorEstadisticas implements EscuchaPartida {
+
+    private static final int MAGICO = 0x41524745;    // "ARGE"
+    private static final int VERSION = 1;
+
+    private final EstadisticasAcumuladas jugadores;  // Por nombre de jugador
+    private final EstadisticasAcumuladas equipos;    // Por clave de equipo
+
+    // Ronda en curso
+    private Equipo[] equiposRonda = new Equipo[0];
+    private int[] idsEquiposRonda = new int[0];
+    private Jugador[] jugadoresRonda = new Jugador[0];
+    private int[] idsJugadoresRonda = new int[0];
+
+    /**
+     * Crea el agregador sin estadísticas.
+     */
+    public AgregadorEstadisticas() {
+        this(new EstadisticasAcumuladas(), new EstadisticasAcumuladas());
+    }
+
+    private AgregadorEstadisticas(EstadisticasAcumuladas jugadores, EstadisticasAcumuladas equipos) {
+        this.jugadores = jugadores;
+        this.equipos = equipos;
+    }
+
+    @Override
+    public synchronized void rondaIniciada(List<Equipo> equiposJuego, Equipo equipoInicial, Jugador jugador, int ronda) {
+        int totalJugadores = 0;
+        for (Equipo equipo : equiposJuego) {
+            totalJugadores += equipo.getCantidadJugadores();
+        }
+        equiposRonda = equiposJuego.toArray(new Equipo[0]);
+        idsEquiposRonda = new int[equiposRonda.length];
+        jugadoresRonda = new Jugador[totalJugadores];
+        idsJugadoresRonda = new int[totalJugadores];
+        int k = 0;
+        for (int e = 0; e < equiposRonda.length; e++) {
+            idsEquiposRonda[e] = equipos.id(equiposRonda[e].getClave());
+            for (Jugador j : equiposRonda[e].getJugadores()) {
+                jugadoresRonda[k] = j;
+                idsJugadoresRonda[k++] = jugadores.id(j.getNombre());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                         int puntosA, int puntosB) {
+        int e = indiceEquipo(equipo);
+        if (e >= 0) {
+            equipos.registrarLanzamiento(idsEquiposRonda[e], resultado);
+        }
+        registrarJugador(jugador, resultado);
+    }
+
+    @Override
+    public synchronized void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                                Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+        registrarJugador(jugadorA, resultadoA);
+        registrarJugador(jugadorB, resultadoB);
+    }
+
+    @Override
+    public synchronized void ganador(Equipo ganador, boolean muerteSubita, int puntosA, int puntosB) {
+        int k = 0;
+        for (int e = 0; e < equiposRonda.length; e++) {
+            boolean gano = equiposRonda[e] == ganador;
+            equipos.registrarPartida(idsEquiposRonda[e], gano, muerteSubita);
+            for (int j = 0; j < equiposRonda[e].getCantidadJugadores(); j++) {
+                jugadores.registrarPartida(idsJugadoresRonda[k++], gano, muerteSubita);
+            }
+        }
+    }
+
+    private void registrarJugador(Jugador jugador, ResultadoLanzamiento resultado) {
+        for (int k = 0; k < jugadoresRonda.length; k++) {
+            if (jugadoresRonda[k] == jugador) {
+                jugadores.registrarLanzamiento(idsJugadoresRonda[k], resultado);
+                return;
+            }
+        }
+        jugadores.registrarLanzamiento(jugadores.id(jugador.getNombre()), resultado);
+    }
+
+    private int indiceEquipo(Equipo equipo) {
+        for (int e = 0; e < equiposRonda.length; e++) {
+            if (equiposRonda[e] == equipo) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Suma las partidas y victorias del historial guardado. Los registros sin resultado
+     * reconocible se ignoran. No debe usarse sobre un historial que ya se agregó en vivo.
+     *
+     * @param lector lector del archivo de resultados
+     * @return registros sumados
+     */
+    public synchronized long importar(LectorResultados lector) {
+        long sumados = 0;
+        LectorResultados.Cursor cursor = lector.cursor();
+        while (cursor.siguiente()) {
+            ResultadoPartida resultado = ResultadoPartida.desdeTexto(cursor.getResultado());
+            if (resultado == ResultadoPartida.DESCONOCIDO) {
+                continue;
+            }
+            boolean gano = resultado == ResultadoPartida.GANO;
+            equipos.registrarPartida(equipos.id(cursor.getClave()), gano, false);
+            for (int i = 0; i < FormatoRegistro.JUGADORES; i++) {
+                String nombre = cursor.getJugador(i);
+                if (!nombre.isEmpty()) {
+                    jugadores.registrarPartida(jugadores.id(nombre), gano, false);
+                }
+            }
+            sumados++;
+        }
+        return sumados;
+    }
+
+    /** Devuelve una copia de las estadísticas de los jugadores. */
+    public synchronized EstadisticasAcumuladas instantaneaJugadores() {
+        return jugadores.copia();
+    }
+
+    /** Devuelve una copia de las estadísticas de los equipos. */
+    public synchronized EstadisticasAcumuladas instantaneaEquipos() {
+        return equipos.copia();
+    }
+
+    /**
+     * Guarda las estadísticas en un archivo binario. Se escribe primero un archivo
+     * temporal y luego se reemplaza el destino, así nunca queda a medias.
+     *
+     * @param ruta archivo destino
+     * @throws IOException si no se puede escribir
+     */
+    public void guardar(Path ruta) throws IOException {
+        EstadisticasAcumuladas copiaJugadores;
+        EstadisticasAcumuladas copiaEquipos;
+        synchronized (this) {
+            copiaJugadores = jugadores.copia();
+            copiaEquipos = equipos.copia();
+        }
+        Path padre = ruta.toAbsolutePath().getParent();
+        if (padre != null) {
+            Files.createDirectories(padre);
+        }
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            copiaJugadores.escribir(salida);
+            copiaEquipos.escribir(salida);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Crea un agregador con las estadísticas guardadas con {@link #guardar(Path)}.
+     *
+     * @param ruta archivo de estadísticas
+     * @return agregador que continúa desde esas estadísticas
+     * @throws IOException si el archivo no existe o no es válido
+     */
+    public static AgregadorEstadisticas cargar(Path ruta) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(ruta)))) {
+            if (entrada.readInt() != MAGICO) {
+                throw new IOException("No es un archivo de estadísticas: " + ruta);
+            }
+            int version = entrada.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de estadísticas no soportada: " + version);
+            }
+            return new AgregadorEstadisticas(EstadisticasAcumuladas.leer(entrada), EstadisticasAcumuladas.leer(entrada));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.InstantaneaPartida;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * ArchivoInstantaneas
+ *
+ * Guarda la última {@link InstantaneaPartida} de la sesión para continuarla al volver a
+ * abrir la aplicación. Está pensado para escribirse después de cada lanzamiento: cada
+ * escritura es un único {@code write} posicional de unos cientos de bytes, sin crear el
+ * archivo de nuevo ni sincronizar con el disco.
+ *
+ * El archivo tiene dos ranuras de {@link #TAM_RANURA} bytes que se escriben por turnos;
+ * cada una lleva un número de secuencia y un CRC32C. Al leer se usa la ranura válida con
+ * la secuencia mayor, así que una escritura interrumpida a medias nunca borra la
+ * instantánea anterior.
+ *
+ * Formato de cada ranura: magia "ARGI" (int), versión (int), secuencia (long), longitud
+ * (int), la instantánea en binario y el CRC32C de la secuencia, la longitud y los datos (int).
+ * Las ranuras de la versión 1 no guardan el estado de la fuente aleatoria; se leen con
+ * {@link InstantaneaPartida#leerSinFuente}.
+ *
+ * Como no se sincroniza en cada escritura, la instantánea sobrevive a la caída del
+ * proceso pero no necesariamente a la del sistema operativo; {@link #close()} sincroniza.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class ArchivoInstantaneas implements Closeable {
+
+    /** Tamaño de cada ranura; limita el tamaño de una instantánea. */
+    public static final int TAM_RANURA = 64 * 1024;
+
+    private static final int MAGICO = 0x41524749;            // "ARGI"
+    private static final int VERSION = 2;
+    private static final int VERSION_SIN_FUENTE = 1;         // Sin el estado de la fuente aleatoria
+    private static final int TAM_CABECERA = 20;              // magia, versión, secuencia y longitud
+
+    private final FileChannel canal;                         // Archivo de instantáneas
+    private final CRC32C crc = new CRC32C();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream salida = new DataOutputStream(bytes);
+    private final ByteBuffer ranura = ByteBuffer.allocate(TAM_RANURA);
+
+    private long secuencia;                                  // Secuencia de la última ranura escrita
+    private InstantaneaPartida ultima;                       // Instantánea vigente, o null
+
+    /**
+     * Abre (o crea) el archivo y lee la instantánea vigente.
+     *
+     * @param ruta archivo de instantáneas
+     * @throws IOException si no se puede abrir
+     */
+    public ArchivoInstantaneas(Path ruta) throws IOException {
+        Path padre = ruta.toAbsolutePath().getParent();
+        if (padre != null) {
+            Files.createDirectories(padre);
+        }
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            for (int r = 0; r < 2; r++) {
+                leerRanura(r);
+            }
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lee una ranura y la toma como vigente si es válida y más reciente.
+     */
+    private void leerRanura(int r) throws IOException {
+        ranura.clear();
+        long posicion = (long) r * TAM_RANURA;
+        while (ranura.hasRemaining() && canal.read(ranura, posicion + ranura.position()) > 0) {
+            // lectura completa de la ranura
+        }
+        ranura.flip();
+        if (ranura.remaining() < TAM_CABECERA + 4 || ranura.getInt(0) != MAGICO) {
+            return;
+        }
+        int version = ranura.getInt(4);
+        if (version != VERSION && version != VERSION_SIN_FUENTE) {
+            return;
+        }
+        long sec = ranura.getLong(8);
+        int longitud = ranura.getInt(16);
+        if (longitud < 0 || TAM_CABECERA + longitud + 4 > ranura.remaining() || sec <= secuencia && ultima != null) {
+            return;
+        }
+        crc.reset();
+        crc.update(ranura.array(), 8, 12 + longitud);
+        if ((int) crc.getValue() != ranura.getInt(TAM_CABECERA + longitud)) {
+            return;
+        }
+        try {
+            DataInputStream entrada = new DataInputStream(
+                    new ByteArrayInputStream(ranura.array(), TAM_CABECERA, longitud));
+            ultima = version == VERSION ? InstantaneaPartida.leer(entrada) : InstantaneaPartida.leerSinFuente(entrada);
+            secuencia = sec;
+        } catch (IOException e) {
+            // ranura con datos inválidos: se conserva la otra
+        }
+    }
+
+    /** Devuelve la instantánea vigente, o null si no hay ninguna. */
+    public synchronized InstantaneaPartida getUltima() {
+        return ultima;
+    }
+
+    /**
+     * Guarda la instantánea en la ranura que no tiene la vigente.
+     *
+     * @param instantanea estado a guardar
+     * @throws IOException si falla la escritura o la instantánea no cabe en una ranura
+     */
+    public synchronized void guardar(InstantaneaPartida instantanea) throws IOException {
+        bytes.reset();
+        instantanea.escribir(salida);
+        salida.flush();
+        int longitud = bytes.size();
+        if (TAM_CABECERA + longitud + 4 > TAM_RANURA) {
+            throw new IOException("La instantánea no cabe en una ranura: " + longitud + " bytes");
+        }
+        long sec = secuencia + 1;
+        ranura.clear();
+        ranura.putInt(MAGICO).putInt(VERSION).putLong(sec).putInt(longitud);
+        ranura.put(bytes.toByteArray());
+        crc.reset();
+        crc.update(ranura.array(), 8, 12 + longitud);
+        ranura.putInt((int) crc.getValue());
+        ranura.flip();
+        long posicion = (sec % 2) * TAM_RANURA;
+        while (ranura.hasRemaining()) {
+            posicion += canal.write(ranura, posicion);
+        }
+        secuencia = sec;
+        ultima = instantanea;
+    }
+
+    /**
+     * Descarta la instantánea vigente: la sesión terminó y no hay nada que continuar.
+     *
+     * @throws IOException si no se puede vaciar el archivo
+     */
+    public synchronized void descartar() throws IOException {
+        canal.truncate(0);
+        ultima = null;
+    }
+
+    /** Sincroniza con el disco y cierra el archivo. */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.PerfilLanzamiento;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CalculadoraProbabilidades
+ *
+ * Calcula de forma exacta, sin simular, la probabilidad de que gane cada equipo y de que
+ * la partida llegue a muerte súbita desde cualquier estado, con las reglas de
+ * {@link MotorPartida}. Cada jugador tiene su propia distribución de resultados, la de su
+ * {@link PerfilLanzamiento}, que es la misma con la que lanza en {@code Juego}.
+ *
+ * Al crearla se llenan por programación dinámica las tablas de todos los estados (puntos
+ * de cada equipo hasta 21, equipo y jugador en turno, equipo que llegó primero a 21);
+ * después cada consulta es una lectura de tabla. Como los puntos solo crecen, los estados
+ * se resuelven de mayor a menor puntaje. La única forma de volver a un mismo estado es
+ * que todos los jugadores de ambos equipos saquen cero en una vuelta completa; ese ciclo
+ * se resuelve en forma cerrada (serie geométrica) en lugar de iterar.
+ *
+ * La muerte súbita se repite mientras haya empate de parejas, así que la probabilidad de
+ * ganarla es la de ganar una repetición dividida entre la de que alguna no empate.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class CalculadoraProbabilidades {
+
+    private static final int OBJETIVO = 21;     // Puntos para llegar a 21
+    private static final int A = 0;             // Componente: gana el equipo A
+    private static final int B = 1;             // Componente: gana el equipo B
+    private static final int MS = 2;            // Componente: se llega a muerte súbita
+    private static final int C = 3;             // Componentes por estado
+
+    private final int jugadoresA;
+    private final int jugadoresB;
+    private final int vuelta;                   // Lanzamientos de una vuelta completa (A y luego B)
+    private final double[][] distribucion;      // Distribución por posición en la vuelta
+    private final double[] muerteSubita;        // Desenlace al entrar en muerte súbita
+
+    private final double[] sinAlcance;          // Nadie en 21: [(puntosA*21 + puntosB)*vuelta + posición]
+    private final double[] trasA;               // A llegó a 21, lanza B: [puntosB*jugadoresB + jugador]
+    private final double[] trasB;               // B llegó a 21, lanza A: [puntosA*jugadoresA + jugador]
+
+    /**
+     * Crea la calculadora para dos equipos con el perfil de lanzamiento de cada jugador.
+     *
+     * @param equipoA equipo A
+     * @param equipoB equipo B
+     */
+    public CalculadoraProbabilidades(Equipo equipoA, Equipo equipoB) {
+        this(distribucion(equipoA), distribucion(equipoB));
+    }
+
+    /**
+     * Crea la calculadora con la distribución de resultados de cada jugador.
+     *
+     * @param distribucionA por jugador de A, la probabilidad de cada código de
+     *                      {@link ResultadoLanzamiento}; cada fila se normaliza
+     * @param distribucionB lo mismo para los jugadores de B
+     */
+    public CalculadoraProbabilidades(double[][] distribucionA, double[][] distribucionB) {
+        if (distribucionA.length == 0 || distribucionB.length == 0) {
+            throw new IllegalArgumentException("Ambos equipos deben tener jugadores.");
+        }
+        this.jugadoresA = distribucionA.length;
+        this.jugadoresB = distribucionB.length;
+        this.vuelta = jugadoresA + jugadoresB;
+        this.distribucion = new double[vuelta][];
+        for (int k = 0; k < vuelta; k++) {
+            distribucion[k] = normalizar(k < jugadoresA ? distribucionA[k] : distribucionB[k - jugadoresA]);
+        }
+        this.muerteSubita = calcularMuerteSubita();
+        this.trasA = new double[OBJETIVO * jugadoresB * C];
+        this.trasB = new double[OBJETIVO * jugadoresA * C];
+        this.sinAlcance = new double[OBJETIVO * OBJETIVO * vuelta * C];
+        llenarTrasAlcance(trasA, jugadoresA, jugadoresB, A);
+        llenarTrasAlcance(trasB, 0, jugadoresA, B);
+        llenarSinAlcance();
+    }
+
+    /**
+     * Distribución de resultados de cada jugador del equipo, según su perfil.
+     */
+    public static double[][] distribucion(Equipo equipo) {
+        List<Jugador> jugadores = equipo.getJugadores();
+        double[][] d = new double[jugadores.size()][];
+        for (int i = 0; i < d.length; i++) {
+            d[i] = jugadores.get(i).getPerfil().getProbabilidades();
+        }
+        return d;
+    }
+
+    /**
+     * Distribución uniforme para la cantidad de jugadores dada.
+     */
+    public static double[][] uniforme(int jugadores) {
+        double[][] d = new double[jugadores][ResultadoLanzamiento.cantidad()];
+        for (double[] fila : d) {
+            Arrays.fill(fila, 1.0 / fila.length);
+        }
+        return d;
+    }
+
+    private static double[] normalizar(double[] fila) {
+        if (fila.length != ResultadoLanzamiento.cantidad()) {
+            throw new IllegalArgumentException("Se esperaban " + ResultadoLanzamiento.cantidad()
+                    + " probabilidades por jugador y hay " + fila.length);
+        }
+        double suma = 0;
+        for (double p : fila) {
+            if (p < 0 || Double.isNaN(p)) {
+                throw new IllegalArgumentException("Probabilidad inválida: " + p);
+            }
+            suma += p;
+        }
+        if (suma <= 0) {
+            throw new IllegalArgumentException("La distribución de un jugador no puede ser nula.");
+        }
+        double[] normalizada = new double[fila.length];
+        for (int i = 0; i < fila.length; i++) {
+            normalizada[i] = fila[i] / suma;
+        }
+        return normalizada;
+    }
+
+    /**
+     * Desenlace de la muerte súbita. Cada repetición enfrenta a las parejas por orden; se
+     * acumula la distribución de (parejas de A - parejas de B) y la repetición por empate
+     * se resuelve como serie geométrica.
+     */
+    private double[] calcularMuerteSubita() {
+        int parejas = Math.min(jugadoresA, jugadoresB);
+        double[] diferencia = new double[2 * parejas + 1];
+        diferencia[parejas] = 1;
+        for (int i = 0; i < parejas; i++) {
+            double[] a = distribucion[i];
+            double[] b = distribucion[jugadoresA + i];
+            double ganaA = 0;
+            double ganaB = 0;
+            for (int x = 0; x < a.length; x++) {
+                for (int y = 0; y < b.length; y++) {
+                    int px = ResultadoLanzamiento.puntosDeCodigo(x);
+                    int py = ResultadoLanzamiento.puntosDeCodigo(y);
+                    if (px > py) {
+                        ganaA += a[x] * b[y];
+                    } else if (py > px) {
+                        ganaB += a[x] * b[y];
+                    }
+                }
+            }
+            double empate = 1 - ganaA - ganaB;
+            double[] siguiente = new double[diferencia.length];
+            for (int d = 0; d < diferencia.length; d++) {
+                if (diferencia[d] == 0) {
+                    continue;
+                }
+                siguiente[d] += diferencia[d] * empate;
+                if (d + 1 < siguiente.length) {
+                    siguiente[d + 1] += diferencia[d] * ganaA;
+                }
+                if (d > 0) {
+                    siguiente[d - 1] += diferencia[d] * ganaB;
+                }
+            }
+            diferencia = siguiente;
+        }
+        double rondaA = 0;
+        double rondaB = 0;
+        for (int d = 0; d < diferencia.length; d++) {
+            if (d > parejas) {
+                rondaA += diferencia[d];
+            } else if (d < parejas) {
+                rondaB += diferencia[d];
+            }
+        }
+        double decide = rondaA + rondaB;
+        // Si ninguna repetición puede decidir, la partida no termina: sin ganador
+        return decide > 0 ? new double[]{rondaA / decide, rondaB / decide, 1} : new double[]{0, 0, 1};
+    }
+
+    /**
+     * Llena la tabla de un equipo que intenta igualar: el rival ya llegó a 21 y este lanza
+     * su mano. Si llega a 21 hay muerte súbita; si termina la mano sin llegar, gana el rival.
+     *
+     * @param tabla tabla a llenar
+     * @param desde posición en la vuelta del primer jugador del equipo que lanza
+     * @param jugadores jugadores del equipo que lanza
+     * @param rival componente del equipo que llegó primero a 21
+     */
+    private void llenarTrasAlcance(double[] tabla, int desde, int jugadores, int rival) {
+        for (int j = jugadores - 1; j >= 0; j--) {
+            double[] dist = distribucion[desde + j];
+            for (int s = OBJETIVO - 1; s >= 0; s--) {
+                int destino = (s * jugadores + j) * C;
+                for (int codigo = 0; codigo < dist.length; codigo++) {
+                    double w = dist[codigo];
+                    if (w == 0) {
+                        continue;
+                    }
+                    int nuevo = s + ResultadoLanzamiento.puntosDeCodigo(codigo);
+                    if (nuevo >= OBJETIVO) {
+                        sumar(tabla, destino, w, muerteSubita, 0);
+                    } else if (j + 1 < jugadores) {
+                        sumar(tabla, destino, w, tabla, (nuevo * jugadores + j + 1) * C);
+                    } else {
+                        tabla[destino + rival] += w;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Llena la tabla de los estados en que nadie ha llegado a 21.
+     */
+    private void llenarSinAlcance() {
+        double[] constante = new double[vuelta * C];   // Aporte de los resultados con puntos
+        double[] ceros = new double[vuelta];           // Probabilidad de sacar cero en cada posición
+        for (int total = 2 * (OBJETIVO - 1); total >= 0; total--) {
+            for (int puntosA = Math.min(total, OBJETIVO - 1); puntosA >= 0 && total - puntosA < OBJETIVO; puntosA--) {
+                int puntosB = total - puntosA;
+                Arrays.fill(constante, 0);
+                Arrays.fill(ceros, 0);
+                for (int k = 0; k < vuelta; k++) {
+                    boolean lanzaA = k < jugadoresA;
+                    int siguiente = (k + 1) % vuelta;
+                    double[] dist = distribucion[k];
+                    for (int codigo = 0; codigo < dist.length; codigo++) {
+                        double w = dist[codigo];
+                        int puntos = ResultadoLanzamiento.puntosDeCodigo(codigo);
+                        if (w == 0) {
+                            continue;
+                        }
+                        if (puntos == 0) {
+                            ceros[k] += w;
+                        } else if (lanzaA) {
+                            int nuevo = puntosA + puntos;
+                            if (nuevo >= OBJETIVO) {
+                                sumar(constante, k * C, w, trasA, puntosB * jugadoresB * C);
+                            } else {
+                                sumar(constante, k * C, w, sinAlcance, indice(nuevo, puntosB, siguiente));
+                            }
+                        } else {
+                            int nuevo = puntosB + puntos;
+                            if (nuevo >= OBJETIVO) {
+                                sumar(constante, k * C, w, trasB, puntosA * jugadoresA * C);
+                            } else {
+                                sumar(constante, k * C, w, sinAlcance, indice(puntosA, nuevo, siguiente));
+                            }
+                        }
+                    }
+                }
+                resolverVuelta(constante, ceros, indice(puntosA, puntosB, 0));
+            }
+        }
+    }
+
+    /**
+     * Resuelve V[k] = constante[k] + ceros[k] * V[k + 1] alrededor de la vuelta:
+     * V[0] = (suma de constante[i] por el producto de los ceros anteriores) / (1 - producto
+     * de todos los ceros), y luego el resto hacia atrás.
+     */
+    private void resolverVuelta(double[] constante, double[] ceros, int base) {
+        double[] acumulado = new double[C];
+        double producto = 1;
+        for (int k = 0; k < vuelta; k++) {
+            for (int c = 0; c < C; c++) {
+                acumulado[c] += producto * constante[k * C + c];
+            }
+            producto *= ceros[k];
+        }
+        double divisor = 1 - producto;
+        for (int c = 0; c < C; c++) {
+            sinAlcance[base + c] = divisor > 0 ? acumulado[c] / divisor : 0;
+        }
+        for (int k = vuelta - 1; k >= 1; k--) {
+            int siguiente = base + ((k + 1) % vuelta) * C;
+            for (int c = 0; c < C; c++) {
+                sinAlcance[base + k * C + c] = constante[k * C + c] + ceros[k] * sinAlcance[siguiente + c];
+            }
+        }
+    }
+
+    private static void sumar(double[] destino, int i, double w, double[] origen, int j) {
+        destino[i + A] += w * origen[j + A];
+        destino[i + B] += w * origen[j + B];
+        destino[i + MS] += w * origen[j + MS];
+    }
+
+    private int indice(int puntosA, int puntosB, int posicion) {
+        return ((puntosA * OBJETIVO + puntosB) * vuelta + posicion) * C;
+    }
+
+    /**
+     * Probabilidades desde un estado de la partida.
+     *
+     * @param puntosA puntos del equipo A
+     * @param puntosB puntos del equipo B
+     * @param equipoEnTurno 0 si lanza A, 1 si lanza B
+     * @param jugador índice del jugador en turno dentro de su equipo
+     * @param primeroEn21 equipo (0 o 1) que llegó primero a 21, o -1 si ninguno
+     * @return probabilidades del desenlace
+     */
+    public ProbabilidadesPartida calcular(int puntosA, int puntosB, int equipoEnTurno, int jugador, int primeroEn21) {
+        if (equipoEnTurno != 0 && equipoEnTurno != 1) {
+            throw new IllegalArgumentException("Equipo en turno inválido: " + equipoEnTurno);
+        }
+        int jugadores = equipoEnTurno == 0 ? jugadoresA : jugadoresB;
+        if (jugador < 0 || jugador >= jugadores) {
+            throw new IllegalArgumentException("Jugador inválido: " + jugador);
+        }
+        if (puntosA < 0 || puntosB < 0) {
+            throw new IllegalArgumentException("Puntos negativos.");
+        }
+        if (primeroEn21 == equipoEnTurno) {
+            // El rival no igualó: al siguiente lanzamiento gana quien llegó primero
+            return equipoEnTurno == 0 ? resultado(new double[]{1, 0, 0}, 0) : resultado(new double[]{0, 1, 0}, 0);
+        }
+        if (primeroEn21 == 0) {
+            return puntosB >= OBJETIVO ? resultado(muerteSubita, 0) : resultado(trasA, (puntosB * jugadoresB + jugador) * C);
+        }
+        if (primeroEn21 == 1) {
+            return puntosA >= OBJETIVO ? resultado(muerteSubita, 0) : resultado(trasB, (puntosA * jugadoresA + jugador) * C);
+        }
+        if (primeroEn21 != -1) {
+            throw new IllegalArgumentException("Equipo que llegó a 21 inválido: " + primeroEn21);
+        }
+        if (puntosA >= OBJETIVO || puntosB >= OBJETIVO) {
+            throw new IllegalArgumentException("Con " + OBJETIVO + " o más puntos debe indicarse quién llegó primero.");
+        }
+        int posicion = equipoEnTurno == 0 ? jugador : jugadoresA + jugador;
+        return resultado(sinAlcance, indice(puntosA, puntosB, posicion));
+    }
+
+    /**
+     * Probabilidades desde el estado actual de una partida en curso. Los equipos de la
+     * partida deben estar en el mismo orden que al crear la calculadora.
+     *
+     * @param motor partida en curso
+     * @return probabilidades del desenlace; si ya terminó, 1 para el ganador
+     */
+    public ProbabilidadesPartida calcular(MotorPartida motor) {
+        if (motor.isTerminada()) {
+            boolean ganaA = motor.getIndiceGanador() == 0;
+            return new ProbabilidadesPartida(ganaA ? 1 : 0, ganaA ? 0 : 1, motor.isMuerteSubita() ? 1 : 0);
+        }
+        return calcular(motor.getPuntos(0), motor.getPuntos(1), motor.getIndiceEquipoActual(), motor.getJugadorActualIndex(),
+                motor.getIndicePrimerAlcance21());
+    }
+
+    private static ProbabilidadesPartida resultado(double[] tabla, int i) {
+        return new ProbabilidadesPartida(tabla[i + A], tabla[i + B], tabla[i + MS]);
+    }
+}
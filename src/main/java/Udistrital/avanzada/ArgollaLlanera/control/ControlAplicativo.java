@@ -2,9 +2,16 @@ package Udistrital.avanzada.ArgollaLlanera.control;
 
 import Udistrital.avanzada.ArgollaLlanera.vista.VistaJuego;
 
+import javax.management.JMException;
 import javax.swing.*;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * ControlAplicativo
@@ -19,9 +26,30 @@ import java.io.IOException;
  *
  * Además, mantiene el flujo MVC al coordinar Vista, ControlVista y ControlJuego.
  *
+ * Los ratings de los equipos ({@link MotorRatings}) se reconstruyen al iniciar desde el
+ * historial de resultados y se actualizan con cada partida en vivo.
+ *
+ * Propiedades del sistema opcionales:
+ *  - {@code argolla.bitacora.lineas}: líneas que conserva la bitácora en pantalla.
+ *  - {@code argolla.bitacora.historial}: archivo donde se guarda la bitácora completa.
+ *  - {@code argolla.estadisticas}: archivo de estadísticas de jugadores y equipos; se
+ *    continúa desde él si existe y se actualiza tras cada partida.
+ *  - {@code argolla.repeticiones}: archivo donde se graban los lanzamientos de cada
+ *    partida (por defecto Specs/data/repeticiones.dat, junto a los resultados).
+ *  - {@code argolla.instantanea}: archivo con el estado de la sesión, que se guarda tras
+ *    cada lanzamiento y permite continuar la partida al volver a abrir la aplicación
+ *    (por defecto Specs/data/partida.snap).
+ *  - {@code argolla.marcador.puerto}: si se indica, publica el marcador por HTTP en ese
+ *    puerto (ver {@link ServidorMarcador}); {@code argolla.marcador.host} elige la
+ *    interfaz (por defecto 127.0.0.1; 0.0.0.0 para la red local) y
+ *    {@code argolla.marcador.clientes} el máximo de pantallas conectadas (500).
+ *  - {@code argolla.metricas.archivo}: si se indica, agrega a ese archivo el volcado de
+ *    {@link Metricas} cada {@code argolla.metricas.periodo} segundos (60) y al salir. Las
+ *    métricas siempre se pueden consultar por JMX.
+ *
  * @author juan valbuena
  * @author sofia modificado 06-05-2025
- * @version 1.1
+ * @version 1.10
  * 
  */
 public class ControlAplicativo {
@@ -35,13 +63,63 @@ public class ControlAplicativo {
      * @throws IOException si ocurre un error al cargar los datos iniciales.
      */
     public void iniciarAplicacion() throws IOException {
-    VistaJuego vista = new VistaJuego();
+    VistaJuego vista = new VistaJuego(Integer.getInteger("argolla.bitacora.lineas", VistaJuego.LINEAS_BITACORA));
     controlVista = new ControlVista(vista);
+    String historial = System.getProperty("argolla.bitacora.historial");
+    if (historial != null) {
+        controlVista.setHistorial(new HistorialBitacora(Paths.get(historial)));
+    }
     controlJuego = new ControlJuego(controlVista);
     controlVista.setControlJuego(controlJuego);
+    String estadisticas = System.getProperty("argolla.estadisticas");
+    if (estadisticas != null) {
+        Path archivo = Paths.get(estadisticas);
+        controlJuego.setEstadisticas(Files.exists(archivo) ? AgregadorEstadisticas.cargar(archivo)
+                : new AgregadorEstadisticas(), archivo);
+    }
+    try {
+        long partidas = controlJuego.setRatings(new MotorRatings());
+        System.out.println("Ratings: " + partidas + " partidas del historial aplicadas.");
+    } catch (IOException e) {
+        System.err.println("Los ratings empiezan sin historial: " + e.getMessage());
+    }
+    GrabadorPartidas grabador = new GrabadorPartidas(
+            Paths.get(System.getProperty("argolla.repeticiones", "Specs/data/repeticiones.dat")));
+    if (grabador.getMarcosDanados() > 0) {
+        System.err.println("Repeticiones: se saltaron " + grabador.getMarcosDanados() + " partidas dañadas.");
+    }
+    controlJuego.setGrabador(grabador);
+    controlJuego.setInstantaneas(new ArchivoInstantaneas(
+            Paths.get(System.getProperty("argolla.instantanea", "Specs/data/partida.snap"))));
+    Integer puertoMarcador = Integer.getInteger("argolla.marcador.puerto");
+    if (puertoMarcador != null) {
+        ServidorMarcador marcador = new ServidorMarcador(
+                new InetSocketAddress(System.getProperty("argolla.marcador.host", "127.0.0.1"), puertoMarcador),
+                ServidorMarcador.CAPACIDAD_POR_DEFECTO, Integer.getInteger("argolla.marcador.clientes", 500));
+        controlJuego.agregarEscucha(marcador);
+        System.out.println("Marcador en http://localhost:" + marcador.getPuerto() + "/eventos");
+    }
+    try {
+        Metricas.global().registrarJmx("global");
+    } catch (JMException e) {
+        System.err.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+    }
+    String archivoMetricas = System.getProperty("argolla.metricas.archivo");
+    if (archivoMetricas != null) {
+        Closeable volcado = Metricas.global().iniciarVolcado(Paths.get(archivoMetricas),
+                Duration.ofSeconds(Long.getLong("argolla.metricas.periodo", 60)));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                volcado.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar el volcado de métricas: " + e.getMessage());
+            }
+        }, "cierre-metricas"));
+    }
 
     JFileChooser fileChooser = new JFileChooser();
-    fileChooser.setDialogTitle("Selecciona el archivo Equipos.properties");
+    fileChooser.setDialogTitle("Selecciona el archivo Equipos.properties o una carpeta de equipos");
+    fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
     int result = fileChooser.showOpenDialog(null);
 
     if (result == JFileChooser.APPROVE_OPTION) {
@@ -50,7 +128,15 @@ public class ControlAplicativo {
 
         // Intentar cargar equipos
         try {
-            controlJuego.cargarEquipos(archivo);
+            if (!controlJuego.cargarEquipos(archivo)) {
+                // El motivo ya se mostró con el evento mensaje; este aviso va detrás en el hilo de Swing
+                System.err.println("No se pudieron cargar los equipos de " + archivo.getAbsolutePath());
+                SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(null, "No se pudieron cargar los equipos. El juego no puede iniciar.");
+                    System.exit(1);
+                });
+                return;
+            }
             System.out.println("Equipos cargados correctamente."); // Log posterior a carga exitosa
 
             // Mostrar la vista en el hilo de Swing
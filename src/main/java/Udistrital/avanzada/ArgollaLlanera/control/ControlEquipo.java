@@ -2,7 +2,16 @@ package Udistrital.avanzada.ArgollaLlanera.control;
 
 import Udistrital.avanzada.ArgollaLlanera.modelo.*;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Controlador encargado de manejar toda la lógica de negocio relacionada con los equipos.
@@ -11,28 +20,162 @@ import java.util.*;
  * y la asignación o cálculo de puntos. De esta forma concentra la lógica del dominio
  * sin depender de la vista ni alterar la capa del modelo.</p>
  * 
+ * <p>Los equipos se pueden cargar también desde varios archivos o una carpeta: cada
+ * archivo se lee en paralelo y luego se combinan en orden, resolviendo las claves
+ * repetidas según una {@link PoliticaDuplicados}.</p>
+ * 
  * @author Sofia
- * @version 1.1
+ * @version 1.2
  */
 public class ControlEquipo {
 
-    /** Almacena los equipos cargados, indexados por su clave única. */
+    /** Almacena los equipos cargados, indexados por su clave única, en orden de carga. */
     private final Map<String, Equipo> equipos;
 
     /** Constructor que inicializa la estructura interna. */
     public ControlEquipo() {
-        equipos = new HashMap<>();
+        equipos = new LinkedHashMap<>();
     }
 
     /**
-     * Carga los equipos desde un archivo .properties utilizando {@link ConexionPropiedades}.
+     * Carga los equipos desde un archivo .properties utilizando {@link ParserEquipos},
+     * que construye los equipos en una sola pasada sin cargar el archivo en un
+     * {@link Properties}.
      *
      * @param rutaArchivo ruta al archivo .properties que contiene la información de los equipos
-     * @throws IOException si ocurre un error al leer el archivo
+     * @throws IOException si ocurre un error al leer el archivo o tiene entradas mal formadas
      */
     public void cargarEquiposDesdeArchivo(String rutaArchivo) throws IOException {
-        ConexionPropiedades conexion = ConexionPropiedades.loadFromFile(rutaArchivo);
-        Properties props = conexion.asProperties();
+        List<Equipo> equiposCargados = ParserEquipos.leer(Paths.get(rutaArchivo));
+        equipos.clear();
+        for (Equipo e : equiposCargados) {
+            equipos.put(e.getClave(), e);
+        }
+    }
+
+    /**
+     * Carga en paralelo todos los archivos .properties de una carpeta y los agrega a los
+     * equipos ya cargados. Los archivos se combinan en orden alfabético de nombre.
+     *
+     * @param directorio carpeta con archivos .properties
+     * @param politica qué hacer con las claves repetidas
+     * @return estadísticas de la carga
+     * @throws IOException si la carpeta no tiene archivos, alguno no puede leerse o hay
+     *                     una clave repetida con {@link PoliticaDuplicados#ERROR}
+     */
+    public EstadisticasCarga cargarEquiposDesdeDirectorio(Path directorio, PoliticaDuplicados politica)
+            throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(directorio, "*.properties")) {
+            for (Path ruta : contenido) {
+                if (Files.isRegularFile(ruta)) {
+                    archivos.add(ruta);
+                }
+            }
+        }
+        if (archivos.isEmpty()) {
+            throw new IOException("No hay archivos .properties en " + directorio);
+        }
+        Collections.sort(archivos);
+        return cargarEquiposDesdeArchivos(archivos, politica);
+    }
+
+    /**
+     * Carga varios archivos .properties en paralelo (una tarea por archivo) y los agrega
+     * a los equipos ya cargados. Los resultados se combinan en el orden de la lista, así
+     * que la resolución de claves repetidas es siempre la misma. Si la carga falla, los
+     * equipos ya cargados no cambian.
+     *
+     * @param archivos archivos de equipos, en orden de prioridad
+     * @param politica qué hacer con las claves repetidas
+     * @return estadísticas de la carga
+     * @throws IOException si algún archivo no puede leerse o hay una clave repetida con
+     *                     {@link PoliticaDuplicados#ERROR}
+     */
+    public EstadisticasCarga cargarEquiposDesdeArchivos(List<Path> archivos, PoliticaDuplicados politica)
+            throws IOException {
+        long inicio = System.nanoTime();
+        List<List<Equipo>> leidos = new ArrayList<>(archivos.size());
+        long[] tiempos = new long[archivos.size()];
+        int hilos = Math.max(1, Math.min(archivos.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<List<Equipo>>> tareas = new ArrayList<>(archivos.size());
+            for (int i = 0; i < archivos.size(); i++) {
+                final int indice = i;
+                final Path ruta = archivos.get(i);
+                tareas.add(pool.submit(() -> {
+                    long t = System.nanoTime();
+                    List<Equipo> lista = ParserEquipos.leer(ruta);
+                    tiempos[indice] = System.nanoTime() - t;
+                    return lista;
+                }));
+            }
+            for (Future<List<Equipo>> tarea : tareas) {
+                leidos.add(esperar(tarea));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Equipo> combinados = new LinkedHashMap<>();
+        Map<String, Path> origenes = new HashMap<>();
+        List<EstadisticasCarga.PorArchivo> porArchivo = new ArrayList<>(archivos.size());
+        int duplicados = 0;
+        for (int i = 0; i < archivos.size(); i++) {
+            Path ruta = archivos.get(i);
+            int jugadoresArchivo = 0;
+            for (Equipo e : leidos.get(i)) {
+                jugadoresArchivo += e.getCantidadJugadores();
+                String clave = e.getClave();
+                if (combinados.containsKey(clave) || equipos.containsKey(clave)) {
+                    duplicados++;
+                    if (politica == PoliticaDuplicados.ERROR) {
+                        Path previo = origenes.get(clave);
+                        throw new IOException("Clave de equipo repetida '" + clave + "' en " + ruta + " (ya definida en "
+                                + (previo != null ? previo : "los equipos cargados") + ")");
+                    }
+                    if (politica == PoliticaDuplicados.CONSERVAR_PRIMERO) {
+                        continue;
+                    }
+                }
+                combinados.put(clave, e);
+                origenes.put(clave, ruta);
+            }
+            porArchivo.add(new EstadisticasCarga.PorArchivo(ruta.toString(), leidos.get(i).size(),
+                    jugadoresArchivo, tiempos[i]));
+        }
+
+        int jugadores = 0;
+        for (Equipo e : combinados.values()) {
+            jugadores += e.getCantidadJugadores();
+        }
+        equipos.putAll(combinados);
+        return new EstadisticasCarga(porArchivo, combinados.size(), jugadores, duplicados,
+                System.nanoTime() - inicio);
+    }
+
+    private static List<Equipo> esperar(Future<List<Equipo>> tarea) throws IOException {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Carga de equipos interrumpida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Error al cargar equipos: " + causa, causa);
+        }
+    }
+
+    /**
+     * Carga los equipos a partir de propiedades ya cargadas en memoria.
+     *
+     * @param props propiedades con el formato de Equipos.properties
+     */
+    public void cargarEquiposDesdeProperties(Properties props) {
         List<Equipo> equiposCargados = construirEquiposDesdeProperties(props);
         equipos.clear();
         for (Equipo e : equiposCargados) {
@@ -63,6 +206,10 @@ public class ControlEquipo {
                 String japodo = props.getProperty("equipo." + i + ".player." + j + ".nick", "");
                 String jfoto = props.getProperty("equipo." + i + ".player." + j + ".photo", "");
                 Jugador jugador = new Jugador(jnombre, japodo, jfoto);
+                String jperfil = props.getProperty("equipo." + i + ".player." + j + ".skill");
+                if (jperfil != null) {
+                    jugador.setPerfil(PerfilLanzamiento.desdeTexto(jperfil));
+                }
                 equipo.agregarJugador(jugador);
             }
             equipos.add(equipo);
@@ -1,432 +1,637 @@
 package Udistrital.avanzada.ArgollaLlanera.control;
 
 import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.EstadisticasCarga;
+import Udistrital.avanzada.ArgollaLlanera.modelo.FuenteAleatoria;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.InstantaneaPartida;
 import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
 import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.PoliticaDuplicados;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import javax.swing.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * ControlJuego
  *
- * Controlador central que gestiona la lógica de partidas, turnos y reglas del juego Argolla Llanera.
- * Orquesta los flujos de la competencia entre equipos, maneja el avance de rondas, lanzamientos
- * de jugadores, cálculo y registro de puntajes, así como manejo de persistencia de resultados.
- * Cumple con la separación MVC, concentrando la lógica sin alterar la vista ni el modelo.
+ * Controlador central que gestiona las partidas del juego Argolla Llanera: carga de equipos,
+ * avance de rondas, lanzamientos y registro de resultados.
+ *
+ * Las reglas de turnos, 21 puntos y muerte súbita las aplica {@link MotorPartida}; este
+ * controlador solo lo maneja y reenvía sus eventos a los {@link EscuchaPartida} registrados.
+ * Toda la lógica corre en un hilo propio del juego, de modo que nunca espera a la interfaz
+ * gráfica: las acciones del usuario ({@link #lanzarTurno()}, {@link #nuevaRonda()}) se
+ * encolan en ese hilo y la vista es solo un receptor más de los eventos, que los atiende
+ * en su propio hilo. Sin vista, el controlador funciona igual (pruebas, consola).
  *
  * Flujos principales:
  * - Carga de equipos para la competencia.
- * - Control de turnos y turnos extra.
- * - Aplicación de reglas para los 21 puntos y muerte súbita.
- * - Manejo de puntajes y decisión de ganador.
- * - Persistencia de resultados en archivo.
+ * - Inicio de rondas y lanzamientos, delegados al motor.
+ * - Persistencia de resultados en archivo al terminar cada partida.
+ * - Grabación de los lanzamientos de cada partida y su repetición ({@link #reproducir}).
+ * - Instantánea del estado después de cada lanzamiento, para continuar la sesión donde
+ *   quedó si el proceso se cierra o se cae ({@link #setInstantaneas}).
+ * - Límite de rondas por sesión.
+ *
+ * Cada ronda usa una {@link FuenteAleatoria} con semilla propia, de la que salen también el
+ * equipo inicial y todos los lanzamientos; la semilla queda en la grabación. La instantánea
+ * guarda además cuántos valores se tomaron de la fuente, así que una partida continuada
+ * sigue con los mismos sorteos y su semilla la regenera completa.
  *
  * @author juanr
  * @author Sofia modificado 05-10-2025
  * @author Sofia modificado 06-10-2025
- * @version 1.3
+ * @version 1.13
  */
 public class ControlJuego {
 
-    private ControlVista controlVista;           // Referencia al controlador de la vista
-    private Juego juego;                         // Instancia que representa la partida actual
-    private ControlPersistencia persistencia;    // Persistencia de resultados
-    private ControlEquipo controlEquipo;         // Auxiliar para gestión y carga de equipos
-
-    private List<Equipo> equiposCargados;        // Todos los equipos disponibles en el archivo
-    private List<Equipo> equiposJuego;           // Equipos seleccionados para la partida
-
-    private int rondasJugadas;                   // Contador de rondas completadas
-    private int jugadorActualIndex;              // Índice del jugador en turno dentro del equipo actual
-    private Equipo equipoActual;                 // Equipo actualmente en turno
-
-    private Map<Equipo, Boolean> manosCompletadas;       // Marcas de equipos que completaron sus manos
-
-    private boolean turnoExtraActivado;                  // Marcas para manejo de rondas extra
-    private int lanzamientosExtraRestantes;
-    private Equipo equipoPrimerAlcance21;                // Equipo que primero alcanzó 21 puntos
-
     private static final int LIMITE_RONDAS = 2;          // Número máximo de rondas
+    private static final LongAdder LANZAMIENTOS = Metricas.global().contador("juego.lanzamientos");
+    private static final LongAdder PARTIDAS = Metricas.global().contador("juego.partidas");
+    private static final HistogramaLatencia TIEMPO_LANZAMIENTO = Metricas.global().histograma("juego.lanzamiento.ns");
+    private static final HistogramaLatencia TIEMPO_CIERRE = Metricas.global().histograma("juego.cierrePartida.ns");
+    private static final HistogramaLatencia TIEMPO_CARGA = Metricas.global().histograma("equipos.carga.ns");
+
+    private final ControlPersistencia persistencia;      // Persistencia de resultados
+    private final ControlEquipo controlEquipo;           // Auxiliar para gestión y carga de equipos
+    private final List<EscuchaPartida> escuchas;         // Receptores de eventos de la partida
+    private final List<EscuchaPartida> escuchasRepeticion; // Receptores de las repeticiones
+    private final ExecutorService hiloJuego;             // Hilo único donde corre la lógica del juego
+    private final ExecutorService hiloRepeticion;        // Hilo de las repeticiones, aparte del juego
+
+    private List<Equipo> equiposJuego;                   // Equipos seleccionados para la partida
+    private MotorPartida motor;                          // Partida en curso, null si no hay
+    private CalculadoraProbabilidades calculadora;       // Probabilidades en vivo de los equipos actuales
+    private volatile AgregadorEstadisticas estadisticas; // Estadísticas acumuladas, null si no se llevan
+    private volatile MotorRatings ratings;               // Ratings de los equipos, null si no se llevan
+    private volatile Path archivoEstadisticas;           // Donde se guardan tras cada partida, null si no se guardan
+    private volatile GrabadorPartidas grabador;          // Grabador de lanzamientos, null si no se graban
+    private volatile ArchivoInstantaneas instantaneas;   // Instantáneas de la sesión, null si no se guardan
+    private FuenteAleatoria fuenteRonda;                 // Fuente aleatoria de la ronda en curso
+    private volatile int rondasJugadas;                  // Contador de rondas completadas
 
     /**
-     * Constructor principal. Inicializa estructuras internas y conecta con la vista.
+     * Crea el controlador sin vista, con la persistencia indicada.
      *
-     * @param controlVista referencia al controlador de la vista asociada
-     * @throws IOException en caso de error de inicialización de persistencia
+     * @param persistencia destino de los resultados, o null para no guardarlos
      */
-    public ControlJuego(ControlVista controlVista) throws IOException {
-        this.controlVista = controlVista;
-        this.persistencia = new ControlPersistencia();
+    public ControlJuego(ControlPersistencia persistencia) {
+        this.persistencia = persistencia;
         this.controlEquipo = new ControlEquipo();
-
-        this.equiposCargados = new ArrayList<>();
+        this.escuchas = new CopyOnWriteArrayList<>();
+        this.escuchasRepeticion = new CopyOnWriteArrayList<>();
         this.equiposJuego = new ArrayList<>();
-        this.manosCompletadas = new HashMap<>();
-        this.rondasJugadas = 0;
-
-        this.jugadorActualIndex = 0;
-        this.turnoExtraActivado = false;
-        this.lanzamientosExtraRestantes = 0;
-        this.equipoPrimerAlcance21 = null;
+        this.hiloJuego = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "hilo-juego");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.hiloRepeticion = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "hilo-repeticion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
     }
 
     /**
-     * Carga los equipos desde el archivo de propiedades.
-     * Verifica que hay al menos dos equipos válidos, inicializa los que jugarán e inicia la partida.
+     * Constructor principal. Usa la persistencia por defecto y registra la vista como
+     * receptor de los eventos.
      *
-     * @param archivoPropiedades archivo .properties seleccionado por el usuario
+     * @param controlVista referencia al controlador de la vista asociada
+     * @throws IOException en caso de error de inicialización de persistencia
      */
-    public void cargarEquipos(File archivoPropiedades) {
-        try {
-            controlEquipo.cargarEquiposDesdeArchivo(archivoPropiedades.getAbsolutePath());
-            equiposCargados = new ArrayList<>(controlEquipo.listarEquipos());
-
-            if (equiposCargados.size() < 2) {
-                controlVista.mostrarMensaje("Debe cargar al menos dos equipos.");
-                return;
-            }
-
-            equiposJuego = Arrays.asList(equiposCargados.get(0), equiposCargados.get(1));
-            juego = new Juego(equiposJuego);
-
-            iniciarPrimeraMano();
+    public ControlJuego(ControlVista controlVista) throws IOException {
+        this(new ControlPersistencia());
+        agregarEscucha(controlVista);
+        agregarEscuchaRepeticiones(controlVista.getEscuchaRepeticiones());
+    }
 
-        } catch (IOException e) {
-            controlVista.mostrarMensaje("Error al cargar equipos: " + e.getMessage());
-        }
+    /**
+     * Registra un receptor de los eventos de la partida. Se aplica desde la siguiente ronda.
+     *
+     * @param escucha receptor a agregar
+     */
+    public void agregarEscucha(EscuchaPartida escucha) {
+        escuchas.add(escucha);
     }
 
     /**
-     * Inicializa el estado y vista de la primera mano de la ronda.
-     * Selecciona de forma aleatoria el equipo que inicia.
+     * Registra un receptor de las repeticiones de {@link #reproducir}. Solo deben
+     * recibirlas los que muestran la partida; los que guardan, cuentan o publican
+     * partidas en vivo no. Las repeticiones corren en su propio hilo, así que sus eventos
+     * pueden llegar mientras se juega: si el mismo objeto muestra ambas, debe registrar
+     * aquí un receptor distinto del de la partida en vivo.
+     *
+     * @param escucha receptor a agregar
      */
-    private void iniciarPrimeraMano() {
-        jugadorActualIndex = 0;
-        Random rand = new Random();
-        int indiceInicial = rand.nextInt(equiposJuego.size());
-        equipoActual = equiposJuego.get(indiceInicial);
-
-        manosCompletadas.clear();
-        for (Equipo eq : equiposJuego) {
-            manosCompletadas.put(eq, false);
-        }
-        controlVista.mostrarEquipos(equiposJuego);
-        controlVista.setTurno(equipoActual.getNombre());
-        controlVista.resaltarEquipo(equipoActual);
-
-        if (!equipoActual.getJugadores().isEmpty()) {
-            controlVista.resaltarJugador(equipoActual.getJugadores().get(jugadorActualIndex));
-        }
-
-        controlVista.actualizarPuntajes(
-                juego.getPuntajes().getOrDefault(equiposJuego.get(0), 0),
-                juego.getPuntajes().getOrDefault(equiposJuego.get(1), 0)
-        );
-        controlVista.actualizarDetalle("");
-        controlVista.mostrarMensajeEnVista("");
-        controlVista.habilitarBotonLanzar(true);
+    public void agregarEscuchaRepeticiones(EscuchaPartida escucha) {
+        escuchasRepeticion.add(escucha);
     }
 
     /**
-     * Ejecuta el turno de lanzamiento para el jugador actual del equipo en turno.
-     * Aplica las reglas del juego, actualiza la vista y controla el avance de rondas.
+     * Lleva las estadísticas de jugadores y equipos desde la siguiente ronda. Si se indica
+     * un archivo, se guardan en él cada vez que se guarda el resultado de una partida.
+     *
+     * @param agregador agregador que recibe los eventos de las partidas
+     * @param archivo archivo de estadísticas, o null para no guardarlas
      */
-    public void lanzarTurno() {
-        if (rondasJugadas >= LIMITE_RONDAS) {
-            controlVista.mostrarMensaje("Ya se jugaron las " + LIMITE_RONDAS + " rondas permitidas.");
-            controlVista.habilitarBotonLanzar(false);
-            return;
+    public void setEstadisticas(AgregadorEstadisticas agregador, Path archivo) {
+        if (estadisticas != null) {
+            escuchas.remove(estadisticas);
         }
-
-        if (equipoActual == null || equipoActual.getJugadores().isEmpty()) {
-            controlVista.mostrarMensaje("Error: equipo o lista de jugadores no inicializada.");
-            return;
+        estadisticas = agregador;
+        archivoEstadisticas = archivo;
+        if (agregador != null) {
+            agregarEscucha(agregador);
         }
+    }
 
-        Jugador jugadorActual = equipoActual.getJugadores().get(jugadorActualIndex);
-
-        String resultado = juego.generarResultadoAleatorio();
-        JOptionPane.showMessageDialog(null, "El jugador " + jugadorActual.getNombre() + " lanzó: " + resultado);
+    /**
+     * Lleva los ratings de los equipos: cada partida en vivo los actualiza al terminar. Si
+     * hay persistencia, antes se aplica en el hilo del juego el historial guardado, así los
+     * ratings continúan donde quedaron. El receptor se registra aunque falle la lectura
+     * del historial.
+     *
+     * @param ratings ratings a actualizar, o null para no llevarlos
+     * @return partidas del historial aplicadas
+     * @throws IOException si no se pudo leer el historial
+     */
+    public long setRatings(MotorRatings ratings) throws IOException {
+        if (this.ratings != null) {
+            escuchas.remove(this.ratings);
+        }
+        this.ratings = ratings;
+        if (ratings == null) {
+            return 0;
+        }
+        agregarEscucha(ratings);
+        if (persistencia == null) {
+            return 0;
+        }
+        try {
+            return hiloJuego.submit(() -> {
+                try (LectorResultados lector = persistencia.abrirLector()) {
+                    return ratings.reconstruir(lector);
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Se interrumpió la lectura del historial", e);
+        } catch (ExecutionException e) {
+            throw new IOException("No se pudo leer el historial: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
 
-        int puntos = juego.calcularPuntos(resultado);
-        jugadorActual.setResultado(resultado);
-        jugadorActual.setPuntos(puntos);
+    /** Devuelve los ratings de los equipos, o null si no se llevan. */
+    public MotorRatings getRatings() {
+        return ratings;
+    }
 
-        int puntosPrevios = juego.getPuntajes().getOrDefault(equipoActual, 0);
-        juego.getPuntajes().put(equipoActual, puntosPrevios + puntos);
+    /**
+     * Graba los lanzamientos de cada partida desde la siguiente ronda. La grabación se
+     * guarda al terminar la partida, junto con los resultados.
+     *
+     * @param grabador grabador de partidas, o null para no grabar; se cierra al cerrar el controlador
+     */
+    public void setGrabador(GrabadorPartidas grabador) {
+        if (this.grabador != null) {
+            escuchas.remove(this.grabador);
+        }
+        this.grabador = grabador;
+        if (grabador != null) {
+            agregarEscucha(grabador);
+        }
+    }
 
-        controlVista.mostrarMensajeEnVista("Equipo: " + equipoActual.getNombre()
-                + " | Jugador: " + jugadorActual.getNombre() + " (" + jugadorActual.getApodo() + ")"
-                + " | Resultado: " + resultado + " | Puntos obtenidos: " + puntos);
+    /** Devuelve el grabador de partidas, o null si no se graban. */
+    public GrabadorPartidas getGrabador() {
+        return grabador;
+    }
 
-        controlVista.actualizarDetalle("Jugador: " + jugadorActual.getNombre() + "\n"
-                + "Jugada: " + resultado + "\n"
-                + "Puntos obtenidos: " + puntos);
-        controlVista.actualizarVista(juego.getPuntajes());
-        controlVista.actualizarPuntajes(
-                juego.getPuntajes().getOrDefault(equiposJuego.get(0), 0),
-                juego.getPuntajes().getOrDefault(equiposJuego.get(1), 0)
-        );
+    /**
+     * Guarda una instantánea de la sesión después de cada lanzamiento y al terminar cada
+     * partida. Al cargar los mismos equipos, la sesión continúa desde la instantánea del
+     * archivo: la partida en curso sigue en el mismo turno y con los mismos puntajes.
+     *
+     * @param archivo archivo de instantáneas, o null para no guardarlas; se cierra al cerrar el controlador
+     */
+    public void setInstantaneas(ArchivoInstantaneas archivo) {
+        this.instantaneas = archivo;
+    }
 
-        controlVista.resaltarEquipo(equipoActual);
-        jugadorActualIndex++;
+    /** Devuelve el agregador de estadísticas, o null si no se llevan. */
+    public AgregadorEstadisticas getEstadisticas() {
+        return estadisticas;
+    }
 
-        int puntosActuales = juego.getPuntajes().getOrDefault(equipoActual, 0);
+    /**
+     * Carga los equipos desde el archivo de propiedades, o desde todos los archivos
+     * .properties si se selecciona una carpeta (en ese caso, ante claves repetidas se
+     * conserva la primera).
+     * Verifica que hay al menos dos equipos válidos, inicializa los que jugarán e inicia la partida.
+     * Espera a que la carga termine; los errores se informan con el evento {@code mensaje}.
+     *
+     * @param archivoPropiedades archivo .properties o carpeta seleccionada por el usuario
+     * @return true si se cargaron los equipos y empezó la primera ronda
+     */
+    public boolean cargarEquipos(File archivoPropiedades) {
+        try {
+            return hiloJuego.submit(() -> cargarEnHiloJuego(archivoPropiedades)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            avisarMensaje("Error al cargar equipos: " + e.getCause().getMessage());
+            return false;
+        }
+    }
 
-        // Gestión de regla de los 21 puntos
-        if (puntosActuales >= 21) {
-           if (equipoPrimerAlcance21 == null) {
-            equipoPrimerAlcance21 = equipoActual;
-            controlVista.mostrarMensaje("El equipo " + equipoActual.getNombre()
-                + " alcanzó 21 puntos. El otro equipo debe completar su turno para intentar igualar.");
-            cambiarTurno();
-            return;
+    private boolean cargarEnHiloJuego(File archivoPropiedades) {
+        long inicio = System.nanoTime();
+        try {
+            if (archivoPropiedades.isDirectory()) {
+                EstadisticasCarga estadisticas = controlEquipo.cargarEquiposDesdeDirectorio(
+                        archivoPropiedades.toPath(), PoliticaDuplicados.CONSERVAR_PRIMERO);
+                avisarMensaje("Carga de equipos: " + estadisticas);
             } else {
-        // Si el segundo equipo termina su turno y no iguala, el primero gana
-            int puntosPrimerEquipo = juego.getPuntajes().getOrDefault(equipoPrimerAlcance21, 0);
-            int puntosSegundoEquipo = juego.getPuntajes().getOrDefault(equipoActual, 0);
-
-            if (puntosSegundoEquipo < 21 && puntosPrimerEquipo >= 21) {
-            controlVista.mostrarGanador(equipoPrimerAlcance21);
-            finalizarJuegoConGanador(equipoPrimerAlcance21);
-            return;
+                controlEquipo.cargarEquiposDesdeArchivo(archivoPropiedades.getAbsolutePath());
             }
+            List<Equipo> equiposCargados = new ArrayList<>(controlEquipo.listarEquipos());
+            TIEMPO_CARGA.registrarDesde(inicio);
 
-        // Si ambos tienen 21 o más, evaluar empate o muerte súbita
-        evaluarGanador();
-        return;
+            if (equiposCargados.size() < 2) {
+                avisarMensaje("Debe cargar al menos dos equipos.");
+                return false;
             }
-        }
 
-        // Gestionar avance de turno y cambio de jugador/equipo
-        if (jugadorActualIndex >= equipoActual.getJugadores().size()) {
-            cambiarTurno();
-            return;
-        }
+            InstantaneaPartida previa = instantaneas != null ? instantaneas.getUltima() : null;
+            if (previa != null && continuarSesion(previa, equiposCargados)) {
+                return true;
+            }
+            equiposJuego = Arrays.asList(equiposCargados.get(0), equiposCargados.get(1));
+            calculadora = new CalculadoraProbabilidades(equiposJuego.get(0), equiposJuego.get(1));
+            iniciarRonda();
+            return true;
 
-        if (jugadorActualIndex < equipoActual.getJugadores().size()) {
-            controlVista.resaltarJugador(equipoActual.getJugadores().get(jugadorActualIndex));
-            controlVista.habilitarBotonLanzar(true);
+        } catch (IOException | RuntimeException e) {
+            avisarMensaje("Error al cargar equipos: " + e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Cambia el turno al siguiente equipo y reinicia índice de jugador.
-     * Actualiza visualmente el equipo y jugador en turno.
+     * Continúa la sesión de la instantánea si sus dos equipos están entre los cargados.
+     *
+     * @return true si se continuó la sesión
      */
-    private void cambiarTurno() {
-        int indexActual = equiposJuego.indexOf(equipoActual);
-        int indexSiguiente = (indexActual + 1) % equiposJuego.size();
-        equipoActual = equiposJuego.get(indexSiguiente);
-        jugadorActualIndex = 0;
-
-        controlVista.setTurno(equipoActual.getNombre());
-        controlVista.resaltarEquipo(equipoActual);
-        if (!equipoActual.getJugadores().isEmpty()) {
-            controlVista.resaltarJugador(equipoActual.getJugadores().get(jugadorActualIndex));
+    private boolean continuarSesion(InstantaneaPartida previa, List<Equipo> equiposCargados) {
+        Equipo a = buscarEquipo(equiposCargados, previa.getClaveA());
+        Equipo b = buscarEquipo(equiposCargados, previa.getClaveB());
+        if (a == null || b == null || a == b || previa.getRondasJugadas() >= LIMITE_RONDAS) {
+            return false;
+        }
+        equiposJuego = Arrays.asList(a, b);
+        calculadora = new CalculadoraProbabilidades(a, b);
+        rondasJugadas = previa.getRondasJugadas();
+        if (!previa.isEnCurso()) {
+            iniciarRonda();
+            return true;
+        }
+        // una instantánea sin el estado de la fuente sigue con otra semilla, que no
+        // regeneraría la partida: esa partida no se graba
+        boolean conFuente = previa.getConsumos() >= 0;
+        FuenteAleatoria fuente = conFuente ? new FuenteAleatoria(previa.getSemilla(), previa.getConsumos())
+                : new FuenteAleatoria(ThreadLocalRandom.current().nextLong());
+        try {
+            motor = MotorPartida.reanudar(new Juego(equiposJuego, fuente), equiposJuego, previa);
+        } catch (IllegalArgumentException e) {
+            avisarMensaje("No se pudo continuar la partida guardada: " + e.getMessage());
+            iniciarRonda();
+            return true;
         }
+        fuenteRonda = fuente;
+        for (EscuchaPartida escucha : escuchas) {
+            motor.agregarEscucha(escucha);
+        }
+        GrabadorPartidas g = grabador;
+        if (g != null) {
+            g.reanudar(fuente.getSemilla(), equiposJuego, previa.getEquipoInicial(), previa.getGrabados(),
+                    conFuente ? motor.getLanzamientos() : -1);
+        }
+        for (EscuchaPartida escucha : escuchas) {
+            escucha.partidaReanudada(equiposJuego, motor.getEquipoActual(), motor.getJugadorActual(),
+                    rondasJugadas + 1, motor.getPuntos(0), motor.getPuntos(1));
+        }
+        avisarProbabilidades();
+        return true;
+    }
 
-        controlVista.habilitarBotonLanzar(true);
+    private static Equipo buscarEquipo(List<Equipo> equipos, String clave) {
+        for (Equipo equipo : equipos) {
+            if (equipo.getClave().equals(clave)) {
+                return equipo;
+            }
+        }
+        return null;
     }
 
     /**
-     * Evalúa, al cerrar ronda, qué equipo ganó, empató o si se necesita muerte súbita.
-     * Persiste los resultados y controla la transición final.
+     * Prepara una partida nueva entre los equipos actuales y avisa el inicio de la ronda.
+     * Selecciona de forma aleatoria el equipo que inicia.
      */
-    private void evaluarGanador() {
-        int puntosA = juego.getPuntajes().getOrDefault(equiposJuego.get(0), 0);
-        int puntosB = juego.getPuntajes().getOrDefault(equiposJuego.get(1), 0);
-
-        // Guardar resultados en archivo
-        for (Equipo eq : equiposJuego) {
-            String res = (juego.getPuntajes().getOrDefault(eq, 0) >= 21) ? "Ganó" : "Perdió";
-            guardarResultado(eq, res);
+    private void iniciarRonda() {
+        FuenteAleatoria fuente = new FuenteAleatoria(ThreadLocalRandom.current().nextLong());
+        fuenteRonda = fuente;
+        int indiceInicial = fuente.nextInt(equiposJuego.size());
+        motor = new MotorPartida(new Juego(equiposJuego, fuente), equiposJuego, indiceInicial);
+        GrabadorPartidas g = grabador;
+        if (g != null) {
+            g.prepararRonda(fuente.getSemilla());
         }
-
-        // Decisión de ganador, empate o avance de ronda extra
-        if (puntosA >= 21 && puntosB < 21) {
-            controlVista.mostrarGanador(equiposJuego.get(0));
-            finalizarJuegoConGanador(equiposJuego.get(0));
-            return;
-        } else if (puntosB >= 21 && puntosA < 21) {
-            controlVista.mostrarGanador(equiposJuego.get(1));
-            finalizarJuegoConGanador(equiposJuego.get(1));
-            return;
+        for (EscuchaPartida escucha : escuchas) {
+            motor.agregarEscucha(escucha);
         }
+        Equipo inicial = motor.getEquipoActual();
+        for (EscuchaPartida escucha : escuchas) {
+            escucha.rondaIniciada(equiposJuego, inicial, motor.getJugadorActual(), rondasJugadas + 1);
+        }
+        avisarProbabilidades();
+        guardarInstantanea();
+    }
 
-        // Empate y muerte súbita
-        if (puntosA >= 21 && puntosB >= 21) {
-            controlVista.mostrarMensaje("¡Empate! Ambos equipos alcanzaron 21 o más puntos.\nSe jugará muerte súbita.");
-            jugarMuerteSubita();
+    /**
+     * Guarda el estado actual de la sesión. Es una escritura pequeña sin sincronizar, así
+     * que puede hacerse después de cada lanzamiento.
+     */
+    private void guardarInstantanea() {
+        ArchivoInstantaneas archivo = instantaneas;
+        if (archivo == null || motor == null) {
             return;
         }
-
-        // Ningún equipo llegó a 21
-        controlVista.mostrarMensajeEnVista("Ningún equipo alcanzó 21. Ronda finalizada sin ganador.");
-        rondasJugadas++;
-        if (rondasJugadas < LIMITE_RONDAS) {
-            reiniciarParaNuevaRonda();
+        String claveA = equiposJuego.get(0).getClave();
+        String claveB = equiposJuego.get(1).getClave();
+        InstantaneaPartida instantanea;
+        if (motor.isTerminada()) {
+            instantanea = InstantaneaPartida.entreRondas(rondasJugadas, claveA, claveB);
         } else {
-            salir();
+            GrabadorPartidas g = grabador;
+            byte[] grabados = g != null ? g.getLanzamientosEnCurso() : null;
+            instantanea = new InstantaneaPartida(rondasJugadas, claveA, claveB, fuenteRonda.getSemilla(),
+                    fuenteRonda.getConsumos(), motor.getIndiceEquipoInicial(), motor.getIndiceEquipoActual(),
+                    motor.getJugadorActualIndex(), motor.getIndicePrimerAlcance21(), motor.getManos(),
+                    motor.getLanzamientos(), motor.getPuntos(0), motor.getPuntos(1),
+                    grabados != null ? grabados : new byte[0]);
+        }
+        try {
+            if (instantanea.getRondasJugadas() >= LIMITE_RONDAS) {
+                archivo.descartar();   // la sesión terminó: no hay nada que continuar
+            } else {
+                archivo.guardar(instantanea);
+            }
+        } catch (IOException ex) {
+            avisarMensaje("No se pudo guardar la instantánea: " + ex.getMessage());
         }
     }
 
     /**
-     * Ejecuta el ciclo de muerte súbita entre ambas parejas de jugadores.
-     * Decide ganador por victorias individuales en cada pareja.
+     * Avisa las probabilidades del estado actual. Es una consulta de tabla, así que puede
+     * hacerse después de cada lanzamiento.
      */
-    private void jugarMuerteSubita() {
-        Equipo equipoA = equiposJuego.get(0);
-        Equipo equipoB = equiposJuego.get(1);
-
-        int victoriasA = 0;
-        int victoriasB = 0;
-        int totalJugadores = Math.min(equipoA.getJugadores().size(), equipoB.getJugadores().size());
-        StringBuilder logMuerteSubita = new StringBuilder("🏹 Inicia Muerte Súbita 🏹\n\n");
-
-        for (int i = 0; i < totalJugadores; i++) {
-            Jugador jugadorA = equipoA.getJugadores().get(i);
-            Jugador jugadorB = equipoB.getJugadores().get(i);
-
-            String resultadoA = juego.generarResultadoAleatorio();
-            int puntosA = juego.calcularPuntos(resultadoA);
-
-            String resultadoB = juego.generarResultadoAleatorio();
-            int puntosB = juego.calcularPuntos(resultadoB);
-
-            logMuerteSubita.append("Pareja ").append(i + 1).append(":\n")
-                    .append(jugadorA.getNombre()).append(" lanza: ").append(resultadoA)
-                    .append(" (").append(puntosA).append(" pts)\n")
-                    .append(jugadorB.getNombre()).append(" lanza: ").append(resultadoB)
-                    .append(" (").append(puntosB).append(" pts)\n");
-
-            if (puntosA > puntosB) {
-                victoriasA++;
-                logMuerteSubita.append("Ganador de la pareja: ")
-                        .append(jugadorA.getNombre()).append(" (")
-                        .append(equipoA.getNombre()).append(")\n\n");
-            } else if (puntosB > puntosA) {
-                victoriasB++;
-                logMuerteSubita.append("Ganador de la pareja: ")
-                        .append(jugadorB.getNombre()).append(" (")
-                        .append(equipoB.getNombre()).append(")\n\n");
-            } else {
-                logMuerteSubita.append("Empate en esta pareja.\n\n");
-            }
+    private void avisarProbabilidades() {
+        if (calculadora == null || escuchas.isEmpty()) {
+            return;
         }
-
-        if (victoriasA > victoriasB) {
-            logMuerteSubita.append("🏆 ¡Gana el equipo ").append(equipoA.getNombre()).append(" en muerte súbita!\n");
-            controlVista.mostrarMensajeEnVista(logMuerteSubita.toString());
-            finalizarJuegoConGanador(equipoA);
-        } else if (victoriasB > victoriasA) {
-            logMuerteSubita.append("🏆 ¡Gana el equipo ").append(equipoB.getNombre()).append(" en muerte súbita!\n");
-            controlVista.mostrarMensajeEnVista(logMuerteSubita.toString());
-            finalizarJuegoConGanador(equipoB);
-        } else {
-            logMuerteSubita.append("🔁 ¡Empate total en muerte súbita, se repite la ronda!\n");
-            controlVista.mostrarMensajeEnVista(logMuerteSubita.toString());
-            jugarMuerteSubita();
+        ProbabilidadesPartida probabilidades = calculadora.calcular(motor);
+        for (EscuchaPartida escucha : escuchas) {
+            escucha.probabilidades(probabilidades);
         }
     }
 
     /**
-     * Finaliza la partida mostrando el ganador y solicitando al usuario si desea seguir jugando o salir.
-     *
-     * @param ganador equipo que ganó la ronda
+     * Encola el lanzamiento del jugador en turno. El motor aplica las reglas y emite los
+     * eventos; si la partida queda decidida se guardan los resultados.
      */
-    private void finalizarJuegoConGanador(Equipo ganador) {
-        rondasJugadas++;
+    public void lanzarTurno() {
+        hiloJuego.execute(this::lanzarEnHiloJuego);
+    }
 
-        StringBuilder mensaje = new StringBuilder();
-        mensaje.append("¡Ganó el equipo ").append(ganador.getNombre()).append("!\nJugadores:\n");
-        for (Jugador jugador : ganador.getJugadores()) {
-            mensaje.append("- ").append(jugador.getNombre()).append(" (").append(jugador.getApodo()).append(")\n");
+    private void lanzarEnHiloJuego() {
+        if (rondasJugadas >= LIMITE_RONDAS) {
+            avisarMensaje("Ya se jugaron las " + LIMITE_RONDAS + " rondas permitidas.");
+            return;
+        }
+        if (motor == null || motor.isTerminada()) {
+            avisarMensaje("No hay una partida en curso.");
+            return;
+        }
+        if (lanzarMedido()) {
+            terminarPartida();
+        } else {
+            avisarProbabilidades();
+            guardarInstantanea();
         }
+    }
+
+    /** Lanza en la partida en curso y registra el tiempo del lanzamiento. */
+    private boolean lanzarMedido() {
+        long inicio = System.nanoTime();
+        boolean terminada = motor.lanzar();
+        TIEMPO_LANZAMIENTO.registrarDesde(inicio);
+        LANZAMIENTOS.increment();
+        return terminada;
+    }
 
-        controlVista.mostrarGanador(ganador);
+    /**
+     * Encola una partida completa sin intervención del usuario. Útil sin vista.
+     *
+     * @return equipo ganador, o null si no había partida que jugar
+     */
+    public Future<Equipo> jugarRondaAutomatica() {
+        return hiloJuego.submit(() -> {
+            while (motor != null && !motor.isTerminada() && rondasJugadas < LIMITE_RONDAS) {
+                if (lanzarMedido()) {
+                    terminarPartida();
+                    return motor.getGanador();
+                }
+                guardarInstantanea();
+            }
+            return null;
+        });
+    }
 
-        int opcion = JOptionPane.showOptionDialog(null,
-                mensaje.toString(),
-                "Resultado final",
-                JOptionPane.YES_NO_OPTION,
-                JOptionPane.INFORMATION_MESSAGE,
-                null,
-                new String[]{"Jugar otra ronda", "Salir"},
-                "Jugar otra ronda");
+    /**
+     * Encola la repetición de una partida grabada entre equipos cargados. Corre en su
+     * propio hilo, así una repetición a ritmo lento no detiene los lanzamientos ni las
+     * rondas en vivo; las repeticiones se atienden de a una. Los eventos van solo a los
+     * receptores de {@link #agregarEscuchaRepeticiones}, entre los avisos
+     * {@code repeticion(true)} y {@code repeticion(false)}; el grabador, las estadísticas y
+     * el marcador no los reciben. La repetición no guarda resultados ni cuenta como ronda.
+     *
+     * @param grabacion partida grabada
+     * @param lanzamientosPorSegundo ritmo de la repetición; 0 o menos para máxima velocidad
+     * @return equipo ganador de la repetición; falla sin emitir eventos si la grabación no
+     *         corresponde a los equipos cargados
+     */
+    public Future<Equipo> reproducir(GrabacionPartida grabacion, double lanzamientosPorSegundo) {
+        return hiloRepeticion.submit(() -> {
+            // los equipos cargados solo se leen en el hilo del juego
+            List<Equipo> cargados = hiloJuego.submit(() -> new ArrayList<>(controlEquipo.listarEquipos())).get();
+            ReproductorPartida reproductor = new ReproductorPartida(grabacion, cargados);
+            List<Equipo> equipos = reproductor.getEquipos();
+            reproductor.setCalculadora(new CalculadoraProbabilidades(equipos.get(0), equipos.get(1)));
+            List<EscuchaPartida> receptores = new ArrayList<>(escuchasRepeticion);
+            for (EscuchaPartida escucha : receptores) {
+                escucha.repeticion(true);
+            }
+            try {
+                return reproductor.reproducir(lanzamientosPorSegundo, rondasJugadas + 1, receptores).getGanador();
+            } finally {
+                for (EscuchaPartida escucha : receptores) {
+                    escucha.repeticion(false);
+                }
+            }
+        });
+    }
 
-        if (opcion == JOptionPane.YES_OPTION) {
+    /**
+     * Encola el inicio de otra ronda entre los mismos equipos. Si ya se jugaron todas las
+     * rondas permitidas, avisa el fin del juego.
+     */
+    public void nuevaRonda() {
+        hiloJuego.execute(() -> {
             if (rondasJugadas >= LIMITE_RONDAS) {
-                controlVista.mostrarMensaje("Se alcanzó el límite de " + LIMITE_RONDAS + " rondas. El juego finaliza.");
-                controlVista.habilitarBotonLanzar(false);
-                salir();
-            } else {
-                reiniciarParaNuevaRonda();
+                avisarMensaje("Se alcanzó el límite de " + LIMITE_RONDAS + " rondas. El juego finaliza.");
+                for (EscuchaPartida escucha : escuchas) {
+                    escucha.juegoTerminado();
+                }
+            } else if (!equiposJuego.isEmpty()) {
+                iniciarRonda();
             }
-        } else {
-            controlVista.habilitarBotonLanzar(false);
-            salir();
-        }
+        });
     }
 
     /**
-     * Reinicia el estado interno para comenzar una nueva ronda entre los equipos actuales.
-     * Se conservan los mismos equipos y jugadores.
+     * Cierra la partida decidida: guarda los resultados y cuenta la ronda.
      */
-    private void reiniciarParaNuevaRonda() {
-        juego = new Juego(equiposJuego);
-        jugadorActualIndex = 0;
-        turnoExtraActivado = false;
-        lanzamientosExtraRestantes = 0;
-        equipoPrimerAlcance21 = null;
-        controlVista.mostrarEquipos(equiposJuego);
-        iniciarPrimeraMano();
+    private void terminarPartida() {
+        long inicio = System.nanoTime();
+        guardarResultados();
+        guardarGrabacion();
+        guardarEstadisticas();
+        rondasJugadas++;
+        guardarInstantanea();
+        TIEMPO_CIERRE.registrarDesde(inicio);
+        PARTIDAS.increment();
+    }
+
+    private void guardarGrabacion() {
+        GrabadorPartidas g = grabador;
+        if (g == null) {
+            return;
+        }
+        try {
+            g.guardarUltima();
+        } catch (IOException ex) {
+            avisarMensaje("No se pudo guardar la grabación: " + ex.getMessage());
+        }
+    }
+
+    private void guardarEstadisticas() {
+        AgregadorEstadisticas agregador = estadisticas;
+        Path archivo = archivoEstadisticas;
+        if (agregador == null || archivo == null) {
+            return;
+        }
+        try {
+            agregador.guardar(archivo);
+        } catch (IOException ex) {
+            avisarMensaje("No se pudieron guardar las estadísticas: " + ex.getMessage());
+        }
     }
 
     /**
-     * Guarda el resultado de la ronda para el equipo en el archivo de persistencia.
-     *
-     * @param equipo equipo cuyos datos se registran
-     * @param resultado texto (“Ganó” o “Perdió”)
+     * Guarda el resultado de la ronda de todos los equipos en el archivo de persistencia.
+     * Los registros se confirman juntos, así una caída no deja la partida a medias.
      */
-    private void guardarResultado(Equipo equipo, String resultado) {
+    private void guardarResultados() {
         if (persistencia == null) {
-            controlVista.mostrarMensaje("No se puede guardar resultado: persistencia no inicializada.");
             return;
         }
-        String[] nombres = new String[4];
-        List<Jugador> jugadores = equipo.getJugadores();
-        for (int i = 0; i < 4; i++) {
-            nombres[i] = i < jugadores.size() ? jugadores.get(i).getNombre() : "";
+        Equipo ganador = motor.getGanador();
+        RegistroResultado[] registros = new RegistroResultado[equiposJuego.size()];
+        for (int e = 0; e < registros.length; e++) {
+            Equipo equipo = equiposJuego.get(e);
+            String resultado = equipo == ganador ? "Ganó" : "Perdió";
+            List<Jugador> jugadores = equipo.getJugadores();
+            String[] nombres = new String[jugadores.size()];
+            for (int i = 0; i < nombres.length; i++) {
+                nombres[i] = jugadores.get(i).getNombre();
+            }
+            registros[e] = new RegistroResultado(equipo.getClave(), equipo.getNombre(), nombres, resultado);
+        }
+        try {
+            persistencia.escribirPartida(registros);
+        } catch (IOException ex) {
+            avisarMensaje("No se pudo guardar el resultado: " + ex.getMessage());
+        }
+    }
+
+    private void avisarMensaje(String texto) {
+        for (EscuchaPartida escucha : escuchas) {
+            escucha.mensaje(texto);
         }
-        persistencia.escribirRegistro(equipo.getClave(), equipo.getNombre(), nombres, resultado);
     }
 
     /**
-     * Finaliza el juego cerrando recursos de persistencia y mostrando los registros al usuario.
-     * Cierra la aplicación.
+     * Termina el hilo del juego, esperando a que acabe la acción en curso, y cierra la
+     * persistencia, el grabador y el archivo de instantáneas. Las acciones encoladas después no se ejecutan.
+     * La repetición en curso, si la hay, se interrumpe.
      */
-    public void salir() {
+    public void cerrar() {
+        hiloRepeticion.shutdownNow();
+        hiloJuego.shutdown();
         try {
-            if (persistencia != null) {
-                persistencia.close();
+            if (!hiloJuego.awaitTermination(10, TimeUnit.SECONDS)) {
+                hiloJuego.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (persistencia != null) {
+            persistencia.close();
+        }
+        GrabadorPartidas g = grabador;
+        if (g != null) {
+            try {
+                g.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar el archivo de repeticiones: " + e.getMessage());
             }
-            JOptionPane.showMessageDialog(null, "Finalizando juego...");
-            JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setDialogTitle("Seleccione archivo de registros para mostrar");
-            int option = fileChooser.showOpenDialog(null);
-            if (option == JFileChooser.APPROVE_OPTION) {
-                File archivo = fileChooser.getSelectedFile();
-                ControlPersistencia persist = new ControlPersistencia(archivo.getAbsolutePath());
-                persist.leerRegistros();
-                persist.close();
+        }
+        ArchivoInstantaneas archivo = instantaneas;
+        if (archivo != null) {
+            try {
+                archivo.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar el archivo de instantáneas: " + e.getMessage());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        System.exit(0);
     }
-}
 
+    /** Devuelve el número de rondas completadas. */
+    public int getRondasJugadas() {
+        return rondasJugadas;
+    }
+}
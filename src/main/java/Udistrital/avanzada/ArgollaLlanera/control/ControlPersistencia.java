@@ -1,9 +1,15 @@
 package Udistrital.avanzada.ArgollaLlanera.control;
 
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Clase encargada de la persistencia de resultados del juego en un archivo de acceso aleatorio.
@@ -15,24 +21,47 @@ import java.nio.charset.StandardCharsets;
  * La estructura fija facilita la lectura secuencial y acceso directo a datos.
  * Las cadenas se rellenan con espacios para garantizar longitud constante.</p>
  * 
- * Implementa lectura y escritura bajo codificación UTF-8.
+ * Implementa lectura y escritura bajo codificación UTF-8. Las columnas del registro
+ * se definen en {@link FormatoRegistro}. Para escrituras masivas existe el modo por
+ * lotes de {@link EscritorResultadosPorLotes} y para consultas, el lector proyectado
+ * en memoria {@link LectorResultados}. Opcionalmente mantiene los índices secundarios
+ * de {@link IndiceResultados} para consultar el historial de un equipo o jugador sin
+ * recorrer todo el archivo.
+ * 
+ * En modo con diario las escrituras pasan por {@link DiarioResultados}: los registros
+ * de una partida se confirman juntos o no se confirman, y al abrir se recupera el
+ * archivo tras una caída.
+ * 
+ * Las escrituras, lecturas y errores se cuentan en {@link Metricas}.
  * 
  * @author juanr
- * @version 1.0
+ * @version 1.4
  */
 public class ControlPersistencia {
 
+    private static final LongAdder REGISTROS_ESCRITOS = Metricas.global().contador("persistencia.registros.escritos");
+    private static final LongAdder BYTES_ESCRITOS = Metricas.global().contador("persistencia.bytes.escritos");
+    private static final LongAdder REGISTROS_LEIDOS = Metricas.global().contador("persistencia.registros.leidos");
+    private static final LongAdder ERRORES = Metricas.global().contador("persistencia.errores");
+    private static final HistogramaLatencia TIEMPO_ESCRITURA = Metricas.global().histograma("persistencia.escritura.ns");
+
     private RandomAccessFile file;
     private String filePath;
+    private final ByteBuffer registro = ByteBuffer.allocate(RECORD_SIZE);   // Reutilizado en cada escritura
+    private IndiceResultados indice;     // Índices por clave y jugador, null si no se usan
+    private DiarioResultados diario;     // Diario de escritura anticipada, null si no se usa
 
     // Tamaño fijo en bytes para cada registro.
     public static final int RECORD_SIZE = 160;
 
+    // Valor de partidasPorSincronizacion que desactiva el diario.
+    public static final int SIN_DIARIO = 0;
+
     /**
      * Crea una instancia para archivo por defecto (ruta fija) y asegura la existencia de la carpeta.
      */
     public ControlPersistencia() throws IOException {
-        this("Specs/data/resultados.dat");
+        this("Specs/data/resultados.dat", true, 1);
     }
 
     /**
@@ -42,6 +71,34 @@ public class ControlPersistencia {
      * @throws IOException si el archivo no puede abrirse
      */
     public ControlPersistencia(String filePath) throws IOException {
+        this(filePath, false);
+    }
+
+    /**
+     * Crea una instancia para archivo con ruta específica e indica si se mantienen
+     * los índices por clave de equipo y por jugador en cada escritura.
+     *
+     * @param filePath ruta al archivo de acceso aleatorio
+     * @param conIndices true para abrir y mantener los índices secundarios
+     * @throws IOException si el archivo o sus índices no pueden abrirse
+     */
+    public ControlPersistencia(String filePath, boolean conIndices) throws IOException {
+        this(filePath, conIndices, SIN_DIARIO);
+    }
+
+    /**
+     * Crea una instancia indicando además si las escrituras pasan por el diario de
+     * escritura anticipada. Con diario, el archivo se recupera antes de abrir los índices;
+     * sin él, solo se recupera si quedó un diario de una ejecución anterior.
+     *
+     * @param filePath ruta al archivo de acceso aleatorio
+     * @param conIndices true para abrir y mantener los índices secundarios
+     * @param partidasPorSincronizacion partidas por cada sincronización del diario
+     *                                  (1 para sincronizar cada partida), o {@link #SIN_DIARIO}
+     * @throws IOException si el archivo, su diario o sus índices no pueden abrirse
+     */
+    public ControlPersistencia(String filePath, boolean conIndices, int partidasPorSincronizacion)
+            throws IOException {
         this.filePath = filePath;
         File archivo = new File(filePath);
         File padre = archivo.getParentFile();
@@ -52,6 +109,20 @@ public class ControlPersistencia {
             }
         }
         this.file = new RandomAccessFile(filePath, "rw");
+        try {
+            if (partidasPorSincronizacion == SIN_DIARIO) {
+                DiarioResultados.recuperar(Paths.get(filePath), file.getChannel());
+            } else {
+                this.diario = new DiarioResultados(Paths.get(filePath), file.getChannel(), partidasPorSincronizacion);
+            }
+            if (conIndices) {
+                this.indice = IndiceResultados.abrir(filePath);
+            }
+        } catch (IOException e) {
+            if (diario != null) diario.close();
+            file.close();
+            throw e;
+        }
     }
 
     /**
@@ -59,35 +130,136 @@ public class ControlPersistencia {
      */
     public void escribirRegistro(String clave, String nombreEquipo, String[] jugadores, String resultado) {
         try {
-            file.seek(file.length());  // Mover el puntero al final para appending
-            StringBuilder registro = new StringBuilder();
-            registro.append(padRight(clave, 20));
-            registro.append(padRight(nombreEquipo, 30));
-            for (String jugador : jugadores) {
-                registro.append(padRight(jugador, 30));
+            escribirPartida(new RegistroResultado(clave, nombreEquipo, jugadores, resultado));
+        } catch (IOException e) {
+            informarError("No se pudo escribir el registro de " + clave, e);
+        }
+    }
+
+    /**
+     * Escribe los registros de una partida, normalmente uno por equipo. Con diario se
+     * confirman de forma atómica y quedan durables en la siguiente sincronización.
+     *
+     * @param registros registros de la partida
+     * @throws IOException si falla la escritura
+     */
+    public void escribirPartida(RegistroResultado... registros) throws IOException {
+        long inicio = System.nanoTime();
+        long primero;
+        if (diario != null) {
+            primero = diario.confirmarPartida(registros);
+        } else {
+            long longitud = file.length();
+            file.seek(longitud);  // Mover el puntero al final para appending
+            for (RegistroResultado r : registros) {
+                registro.clear();
+                FormatoRegistro.codificar(registro, r.getClave(), r.getNombreEquipo(), r.getJugadores(),
+                        r.getResultado());
+                file.write(registro.array(), 0, RECORD_SIZE);
             }
-            registro.append(padRight(resultado, 20));
-
-            byte[] data = registro.toString().getBytes(StandardCharsets.UTF_8);
-
-            // Asegurar longitud exacta del registro con relleno o truncado
-            if (data.length > RECORD_SIZE) {
-                byte[] truncado = new byte[RECORD_SIZE];
-                System.arraycopy(data, 0, truncado, 0, RECORD_SIZE);
-                data = truncado;
-            } else if (data.length < RECORD_SIZE) {
-                byte[] relleno = new byte[RECORD_SIZE];
-                System.arraycopy(data, 0, relleno, 0, data.length);
-                for (int i = data.length; i < RECORD_SIZE; i++) {
-                    relleno[i] = ' ';
-                }
-                data = relleno;
+            primero = longitud / RECORD_SIZE;
+        }
+        if (indice != null) {
+            for (int i = 0; i < registros.length; i++) {
+                indice.registrar(primero + i, registros[i].getClave(), registros[i].getJugadores());
             }
+        }
+        TIEMPO_ESCRITURA.registrarDesde(inicio);
+        REGISTROS_ESCRITOS.add(registros.length);
+        BYTES_ESCRITOS.add((long) registros.length * RECORD_SIZE);
+    }
 
-            file.write(data);
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Sincroniza con el disco las partidas confirmadas en el diario que aún estaban
+     * pendientes. Sin diario no hace nada.
+     *
+     * @throws IOException si falla la sincronización
+     */
+    public void sincronizar() throws IOException {
+        if (diario != null) {
+            diario.sincronizar();
+        }
+    }
+
+    /**
+     * Crea un escritor por lotes sobre el mismo archivo de esta instancia. No pasa por
+     * el diario, así que no debe usarse mientras esta instancia escriba con diario.
+     *
+     * @param registrosPorLote registros que se acumulan antes de escribir
+     * @param forzarEnVaciado true para sincronizar con el disco en cada vaciado
+     * @return escritor por lotes; debe cerrarse al terminar
+     * @throws IOException si el archivo no puede abrirse
+     */
+    public EscritorResultadosPorLotes crearEscritorPorLotes(int registrosPorLote, boolean forzarEnVaciado)
+            throws IOException {
+        return new EscritorResultadosPorLotes(filePath, registrosPorLote, forzarEnVaciado);
+    }
+
+    /**
+     * Abre un lector proyectado en memoria sobre el archivo de esta instancia,
+     * con acceso por índice y búsquedas por clave o resultado. Antes se sincronizan
+     * las partidas pendientes del diario para que el lector las vea.
+     *
+     * @return lector de resultados; debe cerrarse al terminar
+     * @throws IOException si el archivo no puede proyectarse
+     */
+    public LectorResultados abrirLector() throws IOException {
+        sincronizar();
+        return new LectorResultados(filePath);
+    }
+
+    /**
+     * Historial de un equipo consultado mediante el índice por clave.
+     *
+     * @param clave clave del equipo
+     * @return registros del equipo en orden de archivo
+     * @throws IOException si no hay índices o falla la lectura
+     */
+    public List<RegistroResultado> buscarPorClave(String clave) throws IOException {
+        return leerIndices(indiceRequerido().buscarPorClave(clave));
+    }
+
+    /**
+     * Historial de un jugador consultado mediante el índice por nombre.
+     *
+     * @param nombre nombre del jugador
+     * @return registros en los que aparece el jugador, en orden de archivo
+     * @throws IOException si no hay índices o falla la lectura
+     */
+    public List<RegistroResultado> buscarPorJugador(String nombre) throws IOException {
+        return leerIndices(indiceRequerido().buscarPorJugador(nombre));
+    }
+
+    /**
+     * Reconstruye los índices secundarios desde el archivo de datos.
+     *
+     * @throws IOException si no hay índices o falla la reconstrucción
+     */
+    public void reconstruirIndices() throws IOException {
+        indiceRequerido().reconstruir();
+    }
+
+    private IndiceResultados indiceRequerido() throws IOException {
+        if (indice == null) {
+            throw new IOException("La persistencia se abrió sin índices: " + filePath);
         }
+        return indice;
+    }
+
+    /**
+     * Lee directamente los registros indicados, con un acceso por registro. Los registros
+     * antiguos se decodifican en su disposición (ver {@link FormatoRegistro#detectar}).
+     */
+    private List<RegistroResultado> leerIndices(long[] indices) throws IOException {
+        sincronizar();
+        List<RegistroResultado> registros = new ArrayList<>(indices.length);
+        for (long i : indices) {
+            file.seek(i * RECORD_SIZE);
+            file.readFully(registro.array(), 0, RECORD_SIZE);
+            registros.add(FormatoRegistro.decodificar(registro, 0));
+        }
+        REGISTROS_LEIDOS.add(indices.length);
+        return registros;
     }
 
     /**
@@ -95,6 +267,11 @@ public class ControlPersistencia {
      * mostrando el contenido estructurado en forma legible.
      */
     public void leerRegistros() {
+        try {
+            sincronizar();
+        } catch (IOException e) {
+            informarError("No se pudo sincronizar el diario", e);
+        }
         try (RandomAccessFile fileLectura = new RandomAccessFile(filePath, "r")) {
             long totalRegistros = fileLectura.length() / RECORD_SIZE;
             System.out.println("Registros guardados en archivo:");
@@ -105,31 +282,30 @@ public class ControlPersistencia {
                 String registro = new String(datos, StandardCharsets.UTF_8);
                 System.out.println(registro.trim());
             }
+            REGISTROS_LEIDOS.add(totalRegistros);
         } catch (IOException e) {
-            e.printStackTrace();
+            informarError("No se pudieron leer los registros de " + filePath, e);
         }
     }
 
-    /**
-     * Rellena una cadena con espacios a la derecha para alcanzar longitud fija,
-     * o la trunca si es demasiado larga.
-     */
-    private String padRight(String texto, int longitud) {
-        if (texto == null) texto = "";
-        if (texto.length() > longitud) {
-            return texto.substring(0, longitud);
-        }
-        return String.format("%-" + longitud + "s", texto);
-    }
-
     /**
      * Cierra el archivo asociado si está abierto.
      */
     public void close() {
         try {
+            if (diario != null) diario.close();
+            if (indice != null) indice.close();
             if (file != null) file.close();
         } catch (IOException e) {
-            e.printStackTrace();
+            informarError("No se pudo cerrar " + filePath, e);
         }
     }
+
+    /**
+     * Cuenta el error en las métricas y lo informa por la salida de errores.
+     */
+    private static void informarError(String mensaje, IOException e) {
+        ERRORES.increment();
+        System.err.println(mensaje + ": " + e.getMessage());
+    }
 }
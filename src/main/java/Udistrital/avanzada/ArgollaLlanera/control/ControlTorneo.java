@@ -0,0 +1,368 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.FormatoTorneo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoEncuentro;
+import Udistrital.avanzada.ArgollaLlanera.modelo.TablaPosiciones;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * ControlTorneo
+ *
+ * Organiza un torneo entre todos los equipos cargados y lo juega sin interfaz gráfica
+ * con {@link MotorPartida}. Los encuentros de una misma ronda son independientes y se
+ * ejecutan a la vez en un grupo de hilos; la {@link TablaPosiciones} se actualiza a
+ * medida que cada encuentro termina y la ronda siguiente se arma cuando terminan todos.
+ *
+ * Formatos ({@link FormatoTorneo}):
+ * - Todos contra todos: método del círculo, con un descanso por ronda si los equipos son impares.
+ * - Eliminación simple: cuadro sembrado por el orden de la lista (el 1 y el 2 solo pueden
+ *   cruzarse en la final); si los equipos no son potencia de 2, los primeros sembrados descansan.
+ * - Eliminación doble: cuadro de ganadores y de perdedores jugados en la misma ronda, y final
+ *   entre sus campeones con desquite si pierde el invicto.
+ * - Suizo: en cada ronda se enfrentan equipos vecinos en la tabla evitando repetir rivales;
+ *   por defecto se juegan log2(n) rondas.
+ *
+ * Cada encuentro recibe su propia fuente aleatoria, dividida en orden desde la semilla
+ * del torneo, así que el resultado no depende de cuántos hilos se usen.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class ControlTorneo {
+
+    private final List<Equipo> equipos;              // Equipos en orden de siembra
+    private final FormatoTorneo formato;
+    private final SplittableRandom raiz;             // Fuente de la que se dividen las de cada encuentro
+    private final int hilos;                         // Encuentros que se juegan a la vez
+    private final TablaPosiciones tabla;
+    private final List<ResultadoEncuentro> encuentros = new ArrayList<>();
+
+    private Consumer<ResultadoEncuentro> escucha;    // Aviso de cada encuentro terminado, puede ser null
+    private int rondasSuizo;                         // 0 para calcularlas según la cantidad de equipos
+    private int ronda;                               // Última ronda jugada
+    private Equipo campeon;
+
+    /**
+     * Crea un torneo que usa un hilo por procesador.
+     *
+     * @param equipos equipos participantes, en orden de siembra
+     * @param formato formato del torneo
+     * @param semilla semilla de los lanzamientos
+     */
+    public ControlTorneo(List<Equipo> equipos, FormatoTorneo formato, long semilla) {
+        this(equipos, formato, semilla, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un torneo indicando cuántos encuentros se juegan a la vez.
+     *
+     * @param equipos equipos participantes, en orden de siembra
+     * @param formato formato del torneo
+     * @param semilla semilla de los lanzamientos
+     * @param hilos hilos del grupo de trabajo (al menos 1)
+     */
+    public ControlTorneo(List<Equipo> equipos, FormatoTorneo formato, long semilla, int hilos) {
+        if (equipos.size() < 2) {
+            throw new IllegalArgumentException("Se requieren al menos dos equipos para el torneo.");
+        }
+        if (hilos < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un hilo.");
+        }
+        Map<Equipo, Boolean> distintos = new IdentityHashMap<>();
+        for (Equipo equipo : equipos) {
+            if (equipo.getJugadores().isEmpty()) {
+                throw new IllegalArgumentException("El equipo " + equipo.getNombre() + " no tiene jugadores.");
+            }
+            if (distintos.put(equipo, Boolean.TRUE) != null) {
+                throw new IllegalArgumentException("El equipo " + equipo.getNombre() + " está repetido.");
+            }
+        }
+        this.equipos = new ArrayList<>(equipos);
+        this.formato = formato;
+        this.raiz = new SplittableRandom(semilla);
+        this.hilos = hilos;
+        this.tabla = new TablaPosiciones(this.equipos);
+    }
+
+    /**
+     * Registra quién recibe cada encuentro terminado. Se llama desde los hilos del
+     * grupo de trabajo, apenas termina el encuentro.
+     */
+    public void setEscucha(Consumer<ResultadoEncuentro> escucha) {
+        this.escucha = escucha;
+    }
+
+    /**
+     * Fija el número de rondas del sistema suizo.
+     *
+     * @param rondas rondas a jugar, o 0 para usar log2 de la cantidad de equipos
+     */
+    public void setRondasSuizo(int rondas) {
+        this.rondasSuizo = rondas;
+    }
+
+    /**
+     * Juega el torneo completo.
+     *
+     * @return equipo campeón
+     * @throws InterruptedException si se interrumpe la espera de una ronda
+     */
+    public Equipo jugar() throws InterruptedException {
+        if (ronda > 0) {
+            throw new IllegalStateException("El torneo ya se jugó.");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            switch (formato) {
+                case TODOS_CONTRA_TODOS:
+                    jugarTodosContraTodos(pool);
+                    break;
+                case ELIMINACION_SIMPLE:
+                    jugarEliminacionSimple(pool);
+                    break;
+                case ELIMINACION_DOBLE:
+                    jugarEliminacionDoble(pool);
+                    break;
+                default:
+                    jugarSuizo(pool);
+                    break;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return campeon;
+    }
+
+    public Equipo getCampeon() {
+        return campeon;
+    }
+
+    public TablaPosiciones getTabla() {
+        return tabla;
+    }
+
+    /** Encuentros jugados, por ronda y en el orden en que se armaron. */
+    public List<ResultadoEncuentro> getEncuentros() {
+        return Collections.unmodifiableList(encuentros);
+    }
+
+    /** Rondas jugadas. */
+    public int getRondas() {
+        return ronda;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Formatos
+    // ---------------------------------------------------------------------------------
+
+    private void jugarTodosContraTodos(ExecutorService pool) throws InterruptedException {
+        List<Equipo> circulo = new ArrayList<>(equipos);
+        if (circulo.size() % 2 != 0) {
+            circulo.add(null);   // descanso
+        }
+        int n = circulo.size();
+        for (int r = 0; r < n - 1; r++) {
+            List<Equipo[]> parejas = new ArrayList<>(n / 2);
+            for (int i = 0; i < n / 2; i++) {
+                parejas.add(new Equipo[]{circulo.get(i), circulo.get(n - 1 - i)});
+            }
+            jugarRonda(parejas, pool);
+            circulo.add(1, circulo.remove(n - 1));   // el primero queda fijo y los demás rotan
+        }
+        campeon = tabla.getFilas().get(0).getEquipo();
+    }
+
+    private void jugarEliminacionSimple(ExecutorService pool) throws InterruptedException {
+        List<Equipo> vivos = cuadroSembrado();
+        while (vivos.size() > 1) {
+            vivos = ganadores(jugarRonda(parejasVecinas(vivos), pool));
+        }
+        campeon = vivos.get(0);
+    }
+
+    private void jugarEliminacionDoble(ExecutorService pool) throws InterruptedException {
+        List<Equipo> ganadores = cuadroSembrado();
+        List<Equipo> perdedores = new ArrayList<>();
+        while (ganadores.size() > 1 || perdedores.size() > 1) {
+            List<Equipo[]> parejasGanadores = ganadores.size() > 1 ? parejasVecinas(ganadores) : List.of();
+            List<Equipo[]> parejasPerdedores = perdedores.size() > 1 ? parejasVecinas(perdedores) : List.of();
+            List<Equipo[]> parejas = new ArrayList<>(parejasGanadores);
+            parejas.addAll(parejasPerdedores);
+            List<ResultadoEncuentro> resultados = jugarRonda(parejas, pool);
+
+            List<ResultadoEncuentro> deGanadores = resultados.subList(0, parejasGanadores.size());
+            List<ResultadoEncuentro> dePerdedores = resultados.subList(parejasGanadores.size(), resultados.size());
+            List<Equipo> nuevosPerdedores = parejasPerdedores.isEmpty() ? perdedores : ganadores(dePerdedores);
+            for (ResultadoEncuentro r : deGanadores) {
+                if (!r.esDescanso()) {
+                    nuevosPerdedores.add(r.getPerdedor());   // primera derrota: baja al cuadro de perdedores
+                }
+            }
+            if (!parejasGanadores.isEmpty()) {
+                ganadores = ganadores(deGanadores);
+            }
+            perdedores = nuevosPerdedores;
+        }
+        Equipo invicto = ganadores.get(0);
+        Equipo retador = perdedores.get(0);
+        Equipo final1 = jugarRonda(List.<Equipo[]>of(new Equipo[]{invicto, retador}), pool).get(0).getGanador();
+        campeon = final1 == invicto
+                ? invicto
+                : jugarRonda(List.<Equipo[]>of(new Equipo[]{invicto, retador}), pool).get(0).getGanador();
+    }
+
+    private void jugarSuizo(ExecutorService pool) throws InterruptedException {
+        int rondas = rondasSuizo > 0 ? rondasSuizo : 32 - Integer.numberOfLeadingZeros(equipos.size() - 1);
+        Map<Equipo, Integer> siembra = new IdentityHashMap<>();
+        for (int i = 0; i < equipos.size(); i++) {
+            siembra.put(equipos.get(i), i);
+        }
+        Set<Long> enfrentados = new HashSet<>();
+        Map<Equipo, Boolean> descansaron = new IdentityHashMap<>();
+        for (int r = 0; r < rondas; r++) {
+            List<Equipo> orden = new ArrayList<>(equipos.size());
+            tabla.getFilas().forEach(f -> orden.add(f.getEquipo()));
+            List<Equipo[]> parejas = new ArrayList<>();
+            if (orden.size() % 2 != 0) {
+                // descansa el peor ubicado que aún no haya descansado
+                int k = orden.size() - 1;
+                while (k > 0 && descansaron.containsKey(orden.get(k))) {
+                    k--;
+                }
+                Equipo libre = orden.remove(k);
+                descansaron.put(libre, Boolean.TRUE);
+                parejas.add(new Equipo[]{libre, null});
+            }
+            while (!orden.isEmpty()) {
+                Equipo a = orden.remove(0);
+                int k = 0;
+                while (k < orden.size() - 1 && enfrentados.contains(clavePareja(siembra, a, orden.get(k)))) {
+                    k++;
+                }
+                Equipo b = orden.remove(k);
+                enfrentados.add(clavePareja(siembra, a, b));
+                parejas.add(new Equipo[]{a, b});
+            }
+            jugarRonda(parejas, pool);
+        }
+        campeon = tabla.getFilas().get(0).getEquipo();
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Utilidades
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Cuadro de eliminación del tamaño de la siguiente potencia de 2, con null en los
+     * huecos. El sembrado i se cruza con el (tamaño + 1 - i) en la primera ronda.
+     */
+    private List<Equipo> cuadroSembrado() {
+        int tam = 1;
+        while (tam < equipos.size()) {
+            tam <<= 1;
+        }
+        int[] orden = {1};
+        while (orden.length < tam) {
+            int[] siguiente = new int[orden.length * 2];
+            for (int i = 0; i < orden.length; i++) {
+                siguiente[2 * i] = orden[i];
+                siguiente[2 * i + 1] = siguiente.length + 1 - orden[i];
+            }
+            orden = siguiente;
+        }
+        List<Equipo> cuadro = new ArrayList<>(tam);
+        for (int s : orden) {
+            cuadro.add(s <= equipos.size() ? equipos.get(s - 1) : null);
+        }
+        return cuadro;
+    }
+
+    /** Empareja 0-1, 2-3, ...; un último equipo sin rival descansa. */
+    private static List<Equipo[]> parejasVecinas(List<Equipo> lista) {
+        List<Equipo[]> parejas = new ArrayList<>((lista.size() + 1) / 2);
+        for (int i = 0; i < lista.size(); i += 2) {
+            parejas.add(new Equipo[]{lista.get(i), i + 1 < lista.size() ? lista.get(i + 1) : null});
+        }
+        return parejas;
+    }
+
+    private static List<Equipo> ganadores(List<ResultadoEncuentro> resultados) {
+        List<Equipo> lista = new ArrayList<>(resultados.size());
+        for (ResultadoEncuentro r : resultados) {
+            lista.add(r.getGanador());
+        }
+        return lista;
+    }
+
+    private static long clavePareja(Map<Equipo, Integer> siembra, Equipo a, Equipo b) {
+        int x = siembra.get(a);
+        int y = siembra.get(b);
+        return ((long) Math.min(x, y) << 32) | Math.max(x, y);
+    }
+
+    /**
+     * Juega una ronda: los encuentros se reparten en el grupo de hilos y cada uno se
+     * suma a la tabla al terminar. Una pareja con un solo equipo es un descanso.
+     *
+     * @return resultados en el orden de las parejas
+     */
+    private List<ResultadoEncuentro> jugarRonda(List<Equipo[]> parejas, ExecutorService pool)
+            throws InterruptedException {
+        int numeroRonda = ++ronda;
+        List<Future<ResultadoEncuentro>> tareas = new ArrayList<>(parejas.size());
+        for (Equipo[] pareja : parejas) {
+            Equipo a = pareja[0] != null ? pareja[0] : pareja[1];
+            Equipo b = pareja[0] != null ? pareja[1] : null;
+            if (b == null) {
+                ResultadoEncuentro descanso = ResultadoEncuentro.descanso(numeroRonda, a);
+                tareas.add(pool.submit(() -> terminar(descanso)));
+                continue;
+            }
+            SplittableRandom fuente = raiz.split();   // en orden, en este hilo
+            tareas.add(pool.submit(() -> terminar(jugarEncuentro(numeroRonda, a, b, fuente))));
+        }
+        List<ResultadoEncuentro> resultados = new ArrayList<>(tareas.size());
+        for (Future<ResultadoEncuentro> tarea : tareas) {
+            try {
+                resultados.add(tarea.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error al jugar un encuentro del torneo", e.getCause());
+            }
+        }
+        encuentros.addAll(resultados);
+        return resultados;
+    }
+
+    private ResultadoEncuentro terminar(ResultadoEncuentro resultado) {
+        tabla.registrar(resultado);
+        Consumer<ResultadoEncuentro> aviso = escucha;
+        if (aviso != null) {
+            aviso.accept(resultado);
+        }
+        return resultado;
+    }
+
+    private static ResultadoEncuentro jugarEncuentro(int numeroRonda, Equipo a, Equipo b, SplittableRandom fuente) {
+        List<Equipo> pareja = Arrays.asList(a, b);
+        Juego juego = new Juego(pareja, fuente);
+        MotorPartida motor = new MotorPartida(juego, pareja, fuente.nextInt(2));
+        Equipo ganador = motor.jugarHastaTerminar();
+        return new ResultadoEncuentro(numeroRonda, a, b, ganador,
+                motor.getPuntos(0), motor.getPuntos(1), motor.isMuerteSubita());
+    }
+}
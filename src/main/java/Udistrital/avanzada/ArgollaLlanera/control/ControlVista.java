@@ -2,9 +2,16 @@ package Udistrital.avanzada.ArgollaLlanera.control;
 
 import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
 import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
 import Udistrital.avanzada.ArgollaLlanera.vista.VistaJuego;
 
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,15 +28,42 @@ import java.util.Map;
  * - Facilitar la comunicación de mensajes, resultados y cambios de turno en la GUI.
  *
  * No guarda lógica de modelo, solo se encarga de la actualización visual y delega la gestión del juego.
+ * Es un receptor asíncrono de los eventos de la partida: cada evento llega en el hilo del
+ * juego y se traslada al hilo de eventos de Swing, así los diálogos modales nunca detienen
+ * la lógica. Los cambios frecuentes (turno, resaltados, puntajes, detalle y tabla) pasan por
+ * un {@link ActualizadorVista}, que los agrupa en a lo sumo una actualización por cuadro.
+ * El resultado de cada lanzamiento se ve en la bitácora y el detalle; el diálogo por
+ * lanzamiento solo aparece si el usuario lo activa en la vista.
+ * Las repeticiones llegan a otro receptor ({@link #getEscuchaRepeticiones}) con su propio
+ * estado: se muestran en el tablero, pero no abren diálogos (sus avisos van a la
+ * bitácora), no habilitan el botón de lanzar ni preguntan si se juega otra ronda.
  *
  * @author juanr
  * @author Sofia modificado 06-10-2025
- * @version 1.0
+ * @version 1.7
  */
-public class ControlVista {
+public class ControlVista implements EscuchaPartida {
 
     private VistaJuego vista;            // Referencia a la vista principal (JFrame)
     private ControlJuego controlJuego;   // Referencia al controlador principal del juego
+    private final ActualizadorVista actualizador; // Agrupa las actualizaciones por cuadro
+    private volatile boolean avisarLanzamientos;  // Mostrar un diálogo por cada lanzamiento (apagado por defecto)
+    private volatile HistorialBitacora historial; // Copia en disco de la bitácora, null si no hay
+    private final Relato relatoEnVivo = new Relato();       // Estado de la partida en vivo
+    private final Relato relatoRepeticion = new Relato();   // Estado de la repetición en curso
+    private final EscuchaPartida escuchaRepeticiones = new EscuchaRepeticiones(); // Receptor de las repeticiones
+
+    /**
+     * Equipos y relato de muerte súbita de una partida mostrada. La partida en vivo y la
+     * repetición llevan cada una el suyo, así sus eventos no se mezclan.
+     */
+    private static final class Relato {
+
+        volatile List<Equipo> equipos;   // Equipos de la ronda en curso
+        StringBuilder muerteSubita;      // Relato de la muerte súbita en curso (solo en el hilo de Swing)
+        int victoriasA;                  // Parejas ganadas por el equipo A en la muerte súbita
+        int victoriasB;                  // Parejas ganadas por el equipo B en la muerte súbita
+    }
 
     /**
      * Crea el controlador de vista y registra los eventos de acción relacionados con la interfaz gráfica.
@@ -38,9 +72,31 @@ public class ControlVista {
      */
     public ControlVista(VistaJuego vista) {
         this.vista = vista;
+        this.actualizador = new ActualizadorVista(vista);
         configurarEventos();
     }
 
+    /**
+     * Indica si se muestra un diálogo con el resultado de cada lanzamiento. Cada diálogo
+     * detiene la vista hasta cerrarlo, así que está apagado por defecto; el usuario lo
+     * activa con la casilla de la vista.
+     *
+     * @param avisar true para mostrar el diálogo
+     */
+    public void setAvisarLanzamientos(boolean avisar) {
+        this.avisarLanzamientos = avisar;
+        SwingUtilities.invokeLater(() -> vista.getChkAvisarLanzamientos().setSelected(avisar));
+    }
+
+    /**
+     * Guarda en disco la bitácora completa, además de las últimas líneas que muestra la vista.
+     *
+     * @param historial destino de los mensajes; se cierra al salir
+     */
+    public void setHistorial(HistorialBitacora historial) {
+        this.historial = historial;
+    }
+
     /**
      * Asocia el controlador del juego para delegar las acciones previstas de la GUI.
      * Este método permite la vinculación circular necesaria en MVC.
@@ -58,17 +114,330 @@ public class ControlVista {
     private void configurarEventos() {
         vista.getBtnLanzar().addActionListener(e -> {
             if (controlJuego != null) {
+                habilitarBotonLanzar(false);   // se habilita de nuevo con el siguiente turno
+                actualizador.aplicar();
                 controlJuego.lanzarTurno();
             }
         });
 
-        vista.getBtnSalir().addActionListener(e -> {
-            if (controlJuego != null) {
-                controlJuego.salir();
+        vista.getBtnSalir().addActionListener(e -> salir());
+        vista.getChkAvisarLanzamientos().setSelected(avisarLanzamientos);
+        vista.getChkAvisarLanzamientos().addActionListener(
+                e -> avisarLanzamientos = vista.getChkAvisarLanzamientos().isSelected());
+    }
+
+    /**
+     * Devuelve el receptor de las repeticiones de partidas grabadas. Muestra la repetición
+     * en el tablero y sus avisos en la bitácora, pero no abre diálogos, no habilita el
+     * botón de lanzar ni pregunta si se juega otra ronda. Lleva su propio estado, así una
+     * repetición puede correr mientras se juega sin tocar los turnos de la partida en vivo.
+     *
+     * @return receptor para {@link ControlJuego#agregarEscuchaRepeticiones}
+     */
+    public EscuchaPartida getEscuchaRepeticiones() {
+        return escuchaRepeticiones;
+    }
+
+    @Override
+    public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+        iniciarRonda(relatoEnVivo, equipos, equipoInicial, jugador);
+        habilitarBotonLanzar(true);
+    }
+
+    @Override
+    public void partidaReanudada(List<Equipo> equipos, Equipo equipoActual, Jugador jugador, int ronda,
+                                 int puntosA, int puntosB) {
+        rondaIniciada(equipos, equipoActual, jugador, ronda);
+        actualizarPuntajes(puntosA, puntosB);
+        mostrarMensajeEnVista("Se reanudó la ronda " + ronda + " donde quedó.");
+    }
+
+    @Override
+    public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                            int puntosA, int puntosB) {
+        if (avisarLanzamientos) {
+            String texto = resultado.getTexto();
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                    "El jugador " + jugador.getNombre() + " lanzó: " + texto));
+        }
+        mostrarLanzamiento(relatoEnVivo, equipo, jugador, resultado, puntosA, puntosB);
+    }
+
+    @Override
+    public void siguienteJugador(Equipo equipo, Jugador jugador) {
+        resaltarJugador(jugador);
+        habilitarBotonLanzar(true);
+    }
+
+    @Override
+    public void cambioTurno(Equipo equipo, Jugador jugador) {
+        mostrarTurno(equipo, jugador);
+        habilitarBotonLanzar(true);
+    }
+
+    @Override
+    public void alcanzo21(Equipo equipo) {
+        SwingUtilities.invokeLater(() -> mostrarMensaje(avisoAlcanzo21(equipo)));
+    }
+
+    @Override
+    public void muerteSubita(int repeticion) {
+        SwingUtilities.invokeLater(() -> {
+            if (repeticion == 1) {
+                mostrarMensaje("¡Empate! Ambos equipos alcanzaron 21 o más puntos.\nSe jugará muerte súbita.");
             }
+            iniciarMuerteSubita(relatoEnVivo, repeticion);
         });
     }
 
+    @Override
+    public void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                   Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+        SwingUtilities.invokeLater(() -> anotarPareja(relatoEnVivo, pareja, jugadorA, resultadoA, jugadorB, resultadoB));
+    }
+
+    /**
+     * Muestra el ganador y pregunta si se juega otra ronda; la respuesta se devuelve al
+     * controlador del juego, que decide si quedan rondas.
+     */
+    @Override
+    public void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+        SwingUtilities.invokeLater(() -> {
+            cerrarMuerteSubita(relatoEnVivo, equipo, muerteSubita);
+            habilitarBotonLanzar(false);
+            mostrarGanador(equipo);
+
+            StringBuilder mensaje = new StringBuilder();
+            mensaje.append("¡Ganó el equipo ").append(equipo.getNombre()).append("!\nJugadores:\n");
+            for (Jugador jugador : equipo.getJugadores()) {
+                mensaje.append("- ").append(jugador.getNombre()).append(" (").append(jugador.getApodo()).append(")\n");
+            }
+            int opcion = JOptionPane.showOptionDialog(null,
+                    mensaje.toString(),
+                    "Resultado final",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.INFORMATION_MESSAGE,
+                    null,
+                    new String[]{"Jugar otra ronda", "Salir"},
+                    "Jugar otra ronda");
+            if (opcion == JOptionPane.YES_OPTION) {
+                controlJuego.nuevaRonda();
+            } else {
+                salir();
+            }
+        });
+    }
+
+    /**
+     * Muestra las probabilidades en vivo junto a los botones.
+     */
+    @Override
+    public void probabilidades(ProbabilidadesPartida probabilidades) {
+        mostrarProbabilidades(relatoEnVivo, probabilidades);
+    }
+
+    @Override
+    public void mensaje(String texto) {
+        SwingUtilities.invokeLater(() -> mostrarMensaje(texto));
+    }
+
+    /**
+     * Receptor de las repeticiones: los mismos cambios del tablero que la partida en vivo,
+     * con los avisos en la bitácora y sin tocar el botón de lanzar.
+     */
+    private final class EscuchaRepeticiones implements EscuchaPartida {
+
+        @Override
+        public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+            iniciarRonda(relatoRepeticion, equipos, equipoInicial, jugador);
+        }
+
+        @Override
+        public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                int puntosA, int puntosB) {
+            mostrarLanzamiento(relatoRepeticion, equipo, jugador, resultado, puntosA, puntosB);
+        }
+
+        @Override
+        public void siguienteJugador(Equipo equipo, Jugador jugador) {
+            resaltarJugador(jugador);
+        }
+
+        @Override
+        public void cambioTurno(Equipo equipo, Jugador jugador) {
+            mostrarTurno(equipo, jugador);
+        }
+
+        @Override
+        public void alcanzo21(Equipo equipo) {
+            mostrarMensajeEnVista(avisoAlcanzo21(equipo));
+        }
+
+        @Override
+        public void muerteSubita(int repeticion) {
+            SwingUtilities.invokeLater(() -> {
+                if (repeticion == 1) {
+                    mostrarMensajeEnVista("¡Empate! Ambos equipos alcanzaron 21 o más puntos. Se jugará muerte súbita.");
+                }
+                iniciarMuerteSubita(relatoRepeticion, repeticion);
+            });
+        }
+
+        @Override
+        public void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                       Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+            SwingUtilities.invokeLater(
+                    () -> anotarPareja(relatoRepeticion, pareja, jugadorA, resultadoA, jugadorB, resultadoB));
+        }
+
+        @Override
+        public void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+            SwingUtilities.invokeLater(() -> {
+                cerrarMuerteSubita(relatoRepeticion, equipo, muerteSubita);
+                mostrarMensajeEnVista("Fin de la repetición: ganó el equipo " + equipo.getNombre() + ".");
+            });
+        }
+
+        @Override
+        public void probabilidades(ProbabilidadesPartida probabilidades) {
+            mostrarProbabilidades(relatoRepeticion, probabilidades);
+        }
+    }
+
+    // Cambios del tablero comunes a la partida en vivo y a la repetición; cada una pasa su relato.
+
+    private void iniciarRonda(Relato relato, List<Equipo> equipos, Equipo equipoInicial, Jugador jugador) {
+        relato.equipos = equipos;
+        mostrarEquipos(equipos);
+        setTurno(equipoInicial.getNombre());
+        resaltarEquipo(equipoInicial);
+        resaltarJugador(jugador);
+        actualizarPuntajes(0, 0);
+        actualizarDetalle("");
+        mostrarMensajeEnVista("");
+    }
+
+    private void mostrarLanzamiento(Relato relato, Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                    int puntosA, int puntosB) {
+        String texto = resultado.getTexto();
+        int puntos = resultado.getPuntos();
+        actualizador.registrarResultado(jugador, resultado);
+        mostrarMensajeEnVista("Equipo: " + equipo.getNombre()
+                + " | Jugador: " + jugador.getNombre() + " (" + jugador.getApodo() + ")"
+                + " | Resultado: " + texto + " | Puntos obtenidos: " + puntos);
+        List<Equipo> equipos = relato.equipos;
+        Map<Equipo, Integer> puntajes = new LinkedHashMap<>();
+        puntajes.put(equipos.get(0), puntosA);
+        puntajes.put(equipos.get(1), puntosB);
+        actualizarVista(puntajes);
+        actualizarDetalle("Jugador: " + jugador.getNombre() + "\n"
+                + "Jugada: " + texto + "\n"
+                + "Puntos obtenidos: " + puntos);
+        actualizarPuntajes(puntosA, puntosB);
+        resaltarEquipo(equipo);
+    }
+
+    private void mostrarTurno(Equipo equipo, Jugador jugador) {
+        setTurno(equipo.getNombre());
+        resaltarEquipo(equipo);
+        resaltarJugador(jugador);
+    }
+
+    private static String avisoAlcanzo21(Equipo equipo) {
+        return "El equipo " + equipo.getNombre()
+                + " alcanzó 21 puntos. El otro equipo debe completar su turno para intentar igualar.";
+    }
+
+    /** Empieza el relato de una muerte súbita; debe llamarse en el hilo de Swing. */
+    private void iniciarMuerteSubita(Relato relato, int repeticion) {
+        if (repeticion > 1) {
+            relato.muerteSubita.append("🔁 ¡Empate total en muerte súbita, se repite la ronda!\n");
+            mostrarMensajeEnVista(relato.muerteSubita.toString());
+        }
+        relato.muerteSubita = new StringBuilder("🏹 Inicia Muerte Súbita 🏹\n\n");
+        relato.victoriasA = 0;
+        relato.victoriasB = 0;
+    }
+
+    /** Agrega una pareja al relato de la muerte súbita; debe llamarse en el hilo de Swing. */
+    private void anotarPareja(Relato relato, int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                              Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+        int puntosA = resultadoA.getPuntos();
+        int puntosB = resultadoB.getPuntos();
+        StringBuilder log = relato.muerteSubita;
+        log.append("Pareja ").append(pareja).append(":\n")
+                .append(jugadorA.getNombre()).append(" lanza: ").append(resultadoA)
+                .append(" (").append(puntosA).append(" pts)\n")
+                .append(jugadorB.getNombre()).append(" lanza: ").append(resultadoB)
+                .append(" (").append(puntosB).append(" pts)\n");
+        if (puntosA > puntosB) {
+            relato.victoriasA++;
+            log.append("Ganador de la pareja: ").append(jugadorA.getNombre())
+                    .append(" (").append(relato.equipos.get(0).getNombre()).append(")\n\n");
+        } else if (puntosB > puntosA) {
+            relato.victoriasB++;
+            log.append("Ganador de la pareja: ").append(jugadorB.getNombre())
+                    .append(" (").append(relato.equipos.get(1).getNombre()).append(")\n\n");
+        } else {
+            log.append("Empate en esta pareja.\n\n");
+        }
+    }
+
+    /** Cierra el relato de la muerte súbita, si la hubo; debe llamarse en el hilo de Swing. */
+    private void cerrarMuerteSubita(Relato relato, Equipo equipo, boolean muerteSubita) {
+        if (muerteSubita) {
+            relato.muerteSubita.append("🏆 ¡Gana el equipo ").append(equipo.getNombre()).append(" en muerte súbita!\n");
+            mostrarMensajeEnVista(relato.muerteSubita.toString());
+        }
+    }
+
+    private void mostrarProbabilidades(Relato relato, ProbabilidadesPartida probabilidades) {
+        List<Equipo> equipos = relato.equipos;
+        if (equipos == null) {
+            return;
+        }
+        actualizador.actualizarProbabilidades(String.format("%s %.1f%% | %s %.1f%% | Muerte súbita %.1f%%",
+                equipos.get(0).getNombre(), 100 * probabilidades.getProbabilidadA(),
+                equipos.get(1).getNombre(), 100 * probabilidades.getProbabilidadB(),
+                100 * probabilidades.getProbabilidadMuerteSubita()));
+    }
+
+    @Override
+    public void juegoTerminado() {
+        SwingUtilities.invokeLater(() -> {
+            habilitarBotonLanzar(false);
+            salir();
+        });
+    }
+
+    /**
+     * Finaliza el juego: detiene el controlador del juego (que cierra la persistencia),
+     * muestra los registros del archivo que elija el usuario y cierra la aplicación.
+     */
+    public void salir() {
+        try {
+            if (controlJuego != null) {
+                controlJuego.cerrar();
+            }
+            if (historial != null) {
+                historial.close();
+            }
+            JOptionPane.showMessageDialog(null, "Finalizando juego...");
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Seleccione archivo de registros para mostrar");
+            int option = fileChooser.showOpenDialog(null);
+            if (option == JFileChooser.APPROVE_OPTION) {
+                File archivo = fileChooser.getSelectedFile();
+                ControlPersistencia persist = new ControlPersistencia(archivo.getAbsolutePath());
+                persist.leerRegistros();
+                persist.close();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        System.exit(0);
+    }
+
     /**
      * Expone el botón de lanzar argolla de la vista.
      * @return JButton asociado al lanzamiento
@@ -85,12 +454,15 @@ public class ControlVista {
         return vista.getBtnSalir();
     }
 
+    // Los métodos siguientes pueden llamarse desde cualquier hilo: registran el cambio
+    // y la vista lo muestra en el siguiente cuadro.
+
     /**
      * Actualiza el indicador visual del turno de equipo actual en la vista.
      * @param nombreEquipo nombre del equipo en turno
      */
     public void setTurno(String nombreEquipo) {
-        vista.setTurno(nombreEquipo);
+        actualizador.setTurno(nombreEquipo);
     }
 
     /**
@@ -98,7 +470,7 @@ public class ControlVista {
      * @param equipos lista de equipos a presentar
      */
     public void mostrarEquipos(List<Equipo> equipos) {
-        vista.mostrarEquipos(equipos);
+        actualizador.mostrarEquipos(equipos);
     }
 
     /**
@@ -106,7 +478,7 @@ public class ControlVista {
      * @param puntajes mapa de equipos a puntaje
      */
     public void actualizarVista(Map<Equipo, Integer> puntajes) {
-        vista.actualizarVista(puntajes);
+        actualizador.actualizarVista(puntajes);
     }
 
     /**
@@ -115,7 +487,7 @@ public class ControlVista {
      * @param puntosB puntaje del equipo B
      */
     public void actualizarPuntajes(int puntosA, int puntosB) {
-        vista.actualizarPuntajes(puntosA, puntosB);
+        actualizador.actualizarPuntajes(puntosA, puntosB);
     }
 
     /**
@@ -123,7 +495,7 @@ public class ControlVista {
      * @param detalle texto detallado del lanzamiento
      */
     public void actualizarDetalle(String detalle) {
-        vista.actualizarDetalleLanzamiento(detalle);
+        actualizador.actualizarDetalle(detalle);
     }
 
     /**
@@ -131,7 +503,7 @@ public class ControlVista {
      * @param equipo equipo a resaltar
      */
     public void resaltarEquipo(Equipo equipo) {
-        vista.resaltarEquipo(equipo);
+        actualizador.resaltarEquipo(equipo);
     }
 
     /**
@@ -139,30 +511,38 @@ public class ControlVista {
      * @param jugador jugador a resaltar
      */
     public void resaltarJugador(Jugador jugador) {
-        vista.resaltarJugador(jugador);
+        actualizador.resaltarJugador(jugador);
     }
 
     /**
-     * Muestra mensajes o resultados en el área de la vista dedicada a información del juego.
+     * Agrega un mensaje a la bitácora de la vista y, si está configurado, al historial en disco.
      * @param mensaje texto a mostrar
      */
     public void mostrarMensajeEnVista(String mensaje) {
-        vista.mostrarMensajeEnVista(mensaje);
+        HistorialBitacora destino = historial;
+        if (destino != null) {
+            destino.escribir(mensaje);
+        }
+        actualizador.mostrarMensajeEnVista(mensaje);
     }
 
     /**
      * Muestra un mensaje modal genérico al usuario usando JOptionPane.
+     * Antes aplica los cambios pendientes; debe llamarse en el hilo de Swing.
      * @param mensaje texto del mensaje emergente
      */
     public void mostrarMensaje(String mensaje) {
+        actualizador.aplicar();
         vista.mostrarMensaje(mensaje);
     }
 
     /**
      * Notifica visualmente la condición final de victoria para un equipo.
+     * Debe llamarse en el hilo de Swing.
      * @param equipo equipo ganador
      */
     public void mostrarGanador(Equipo equipo) {
+        actualizador.aplicar();
         vista.mostrarGanador(equipo);
     }
 
@@ -182,6 +562,6 @@ public class ControlVista {
      * @param habilitar true para habilitar el botón, false para deshabilitarlo
      */
     public void habilitarBotonLanzar(boolean habilitar) {
-        vista.getBtnLanzar().setEnabled(habilitar);
+        actualizador.habilitarBotonLanzar(habilitar);
     }
 }
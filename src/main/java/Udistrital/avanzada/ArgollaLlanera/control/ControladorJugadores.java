@@ -2,6 +2,8 @@ package Udistrital.avanzada.ArgollaLlanera.control;
 
 import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * ControladorJugadores
@@ -41,6 +43,15 @@ public class ControladorJugadores {
         jugadores.add(jugador);
     }
 
+    /**
+     * Devuelve la lista de jugadores creados, en modo solo lectura.
+     *
+     * @return lista inmodificable de jugadores
+     */
+    public List<Jugador> getJugadores() {
+        return Collections.unmodifiableList(jugadores);
+    }
+
     /**
      * Resetea los puntos acumulados del jugador a cero.
      * 
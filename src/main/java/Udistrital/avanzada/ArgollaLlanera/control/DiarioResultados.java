@@ -0,0 +1,280 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DiarioResultados
+ *
+ * Diario de escritura anticipada (write-ahead log) del archivo de resultados. Los
+ * registros de una partida (normalmente los dos equipos) se agrupan en un marco que se
+ * guarda primero en {@code <datos>.wal} y solo después de sincronizarlo con el disco se
+ * copia al archivo de datos. Así una caída nunca deja media partida ni un registro
+ * partido en el archivo de datos.
+ *
+ * Formato de cada marco:
+ * - magia (int), posición de destino en el archivo de datos (long), cantidad de registros (int);
+ * - por cada registro: CRC32C (int) y los {@link ControlPersistencia#RECORD_SIZE} bytes;
+ * - CRC32C del marco completo (int).
+ *
+ * Confirmación en grupo: los marcos se acumulan y se sincronizan juntos cada
+ * {@code partidasPorSincronizacion} partidas, o al llamar a {@link #sincronizar()}.
+ * Cuando el diario supera cierto tamaño se hace un punto de control: se sincroniza el
+ * archivo de datos y el diario se vacía.
+ *
+ * Recuperación al abrir: se recorta el archivo de datos a un múltiplo del tamaño de
+ * registro (descarta un registro partido), se vuelven a aplicar los marcos completos y
+ * válidos del diario (la escritura es por posición, así que repetirla no duplica nada),
+ * se descarta el marco incompleto del final y se hace un punto de control.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class DiarioResultados implements Closeable {
+
+    private static final int MAGIA_MARCO = 0x4157414C;                 // "AWAL"
+    private static final int TAM_CABECERA_MARCO = 16;
+    private static final int TAM_REGISTRO_DIARIO = 4 + ControlPersistencia.RECORD_SIZE;
+    private static final long LIMITE_DIARIO = 4L * 1024 * 1024;         // Tamaño que dispara un punto de control
+    private static final LongAdder BYTES_VACIADOS = Metricas.global().contador("persistencia.bytes.vaciados");
+    private static final HistogramaLatencia TIEMPO_VACIADO = Metricas.global().histograma("persistencia.vaciado.ns");
+
+    private final FileChannel datos;          // Canal del archivo de datos (compartido, no se cierra aquí)
+    private final FileChannel diario;         // Canal del archivo de diario
+    private final int partidasPorSincronizacion;
+    private final CRC32C crc = new CRC32C();
+
+    private ByteBuffer pendientes;            // Marcos aún no escritos al diario
+    private int partidasPendientes;
+    private long finDatos;                    // Fin lógico del archivo de datos, incluidos los pendientes
+    private long finAplicado;                 // Fin de lo ya copiado al archivo de datos
+    private final ByteBuffer registro = ByteBuffer.allocate(ControlPersistencia.RECORD_SIZE);
+
+    /**
+     * Abre el diario del archivo de datos y recupera lo que haya quedado pendiente.
+     *
+     * @param rutaDatos ruta del archivo de datos (el diario usa la misma ruta con ".wal")
+     * @param datos canal de escritura del archivo de datos
+     * @param partidasPorSincronizacion partidas que se agrupan en cada sincronización (al menos 1)
+     * @throws IOException si falla la recuperación
+     */
+    public DiarioResultados(Path rutaDatos, FileChannel datos, int partidasPorSincronizacion) throws IOException {
+        if (partidasPorSincronizacion < 1) {
+            throw new IllegalArgumentException("Debe sincronizarse al menos cada partida.");
+        }
+        this.datos = datos;
+        this.partidasPorSincronizacion = partidasPorSincronizacion;
+        this.diario = FileChannel.open(rutaDiario(rutaDatos),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pendientes = ByteBuffer.allocate(64 * 1024);
+        try {
+            recuperar();
+        } catch (IOException e) {
+            diario.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ejecuta solo la recuperación del archivo de datos, si existe un diario.
+     *
+     * @param rutaDatos ruta del archivo de datos
+     * @param datos canal de escritura del archivo de datos
+     * @throws IOException si falla la recuperación
+     */
+    public static void recuperar(Path rutaDatos, FileChannel datos) throws IOException {
+        if (Files.exists(rutaDiario(rutaDatos))) {
+            new DiarioResultados(rutaDatos, datos, 1).close();
+        }
+    }
+
+    static Path rutaDiario(Path rutaDatos) {
+        return rutaDatos.resolveSibling(rutaDatos.getFileName() + ".wal");
+    }
+
+    /**
+     * Confirma atómicamente los registros de una partida. Quedan durables en la
+     * siguiente sincronización, que ocurre sola cada {@code partidasPorSincronizacion}.
+     *
+     * @param registros registros de la partida, normalmente uno por equipo
+     * @return índice en el archivo de datos del primer registro de la partida
+     * @throws IOException si falla la escritura del diario o de los datos
+     */
+    public long confirmarPartida(RegistroResultado... registros) throws IOException {
+        int tamMarco = TAM_CABECERA_MARCO + registros.length * TAM_REGISTRO_DIARIO + 4;
+        if (pendientes.remaining() < tamMarco) {
+            if (pendientes.position() > 0) {
+                sincronizar();
+            }
+            if (pendientes.capacity() < tamMarco) {
+                pendientes = ByteBuffer.allocate(tamMarco);
+            }
+        }
+        long destino = finDatos;
+        int inicio = pendientes.position();
+        pendientes.putInt(MAGIA_MARCO).putLong(destino).putInt(registros.length);
+        for (RegistroResultado r : registros) {
+            registro.clear();
+            FormatoRegistro.codificar(registro, r.getClave(), r.getNombreEquipo(), r.getJugadores(),
+                    r.getResultado());
+            crc.reset();
+            crc.update(registro.array(), 0, ControlPersistencia.RECORD_SIZE);
+            pendientes.putInt((int) crc.getValue()).put(registro.array(), 0, ControlPersistencia.RECORD_SIZE);
+        }
+        crc.reset();
+        crc.update(pendientes.array(), inicio, pendientes.position() - inicio);
+        pendientes.putInt((int) crc.getValue());
+
+        finDatos += (long) registros.length * ControlPersistencia.RECORD_SIZE;
+        if (++partidasPendientes >= partidasPorSincronizacion) {
+            sincronizar();
+        }
+        return destino / ControlPersistencia.RECORD_SIZE;
+    }
+
+    /**
+     * Escribe los marcos pendientes al diario, lo sincroniza con el disco y luego copia
+     * sus registros al archivo de datos.
+     *
+     * @throws IOException si falla la escritura o la sincronización
+     */
+    public void sincronizar() throws IOException {
+        if (pendientes.position() == 0) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        pendientes.flip();
+        BYTES_VACIADOS.add(pendientes.remaining());
+        long posicionDiario = diario.size();
+        while (pendientes.hasRemaining()) {
+            posicionDiario += diario.write(pendientes, posicionDiario);
+        }
+        diario.force(false);
+        TIEMPO_VACIADO.registrarDesde(inicio);
+
+        pendientes.flip();   // se vuelve a leer lo recién escrito para aplicarlo
+        aplicarMarcos(pendientes, false);
+        pendientes.clear();
+        partidasPendientes = 0;
+
+        if (diario.size() > LIMITE_DIARIO) {
+            puntoDeControl();
+        }
+    }
+
+    /**
+     * Fin del archivo de datos ya aplicado (en bytes); los registros pendientes de
+     * sincronizar no están incluidos.
+     */
+    public long getFinAplicado() {
+        return finAplicado;
+    }
+
+    /**
+     * Copia a los datos los registros de los marcos del buffer. Con {@code validar}
+     * se verifican las sumas de control y se detiene en el primer marco inválido
+     * (el resto del diario es la cola de una escritura interrumpida).
+     */
+    private void aplicarMarcos(ByteBuffer marcos, boolean validar) throws IOException {
+        while (marcos.remaining() >= TAM_CABECERA_MARCO) {
+            int inicio = marcos.position();
+            if (marcos.getInt() != MAGIA_MARCO) {
+                break;
+            }
+            long destino = marcos.getLong();
+            int cantidad = marcos.getInt();
+            if (cantidad < 0 || destino < 0 || destino % ControlPersistencia.RECORD_SIZE != 0
+                    || marcos.remaining() < (long) cantidad * TAM_REGISTRO_DIARIO + 4) {
+                break;
+            }
+            if (validar && !marcoValido(marcos, inicio, cantidad)) {
+                break;
+            }
+            for (int i = 0; i < cantidad; i++) {
+                marcos.getInt();
+                ByteBuffer datosRegistro = marcos.slice(marcos.position(), ControlPersistencia.RECORD_SIZE);
+                long posicion = destino + (long) i * ControlPersistencia.RECORD_SIZE;
+                while (datosRegistro.hasRemaining()) {
+                    posicion += datos.write(datosRegistro, posicion);
+                }
+                marcos.position(marcos.position() + ControlPersistencia.RECORD_SIZE);
+            }
+            marcos.getInt();
+            finAplicado = Math.max(finAplicado, destino + (long) cantidad * ControlPersistencia.RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Verifica el CRC de cada registro y el del marco sin mover la posición del buffer.
+     */
+    private boolean marcoValido(ByteBuffer marcos, int inicio, int cantidad) {
+        int pos = marcos.position();
+        for (int i = 0; i < cantidad; i++) {
+            int esperado = marcos.getInt(pos);
+            crc.reset();
+            crc.update(marcos.slice(pos + 4, ControlPersistencia.RECORD_SIZE));
+            if ((int) crc.getValue() != esperado) {
+                return false;
+            }
+            pos += TAM_REGISTRO_DIARIO;
+        }
+        crc.reset();
+        crc.update(marcos.slice(inicio, pos - inicio));
+        return (int) crc.getValue() == marcos.getInt(pos);
+    }
+
+    /**
+     * Recupera el archivo de datos a partir del diario al abrir.
+     */
+    private void recuperar() throws IOException {
+        long tamDatos = datos.size();
+        long completo = tamDatos - tamDatos % ControlPersistencia.RECORD_SIZE;
+        if (completo != tamDatos) {
+            datos.truncate(completo);   // registro partido por una escritura interrumpida
+        }
+        finAplicado = completo;
+
+        long tamDiario = diario.size();
+        if (tamDiario > 0) {
+            ByteBuffer contenido = ByteBuffer.allocate((int) Math.min(tamDiario, Integer.MAX_VALUE));
+            while (contenido.hasRemaining() && diario.read(contenido, contenido.position()) >= 0) {
+                // lectura completa del diario
+            }
+            contenido.flip();
+            aplicarMarcos(contenido, true);
+        }
+        finDatos = finAplicado;
+        puntoDeControl();
+    }
+
+    /**
+     * Sincroniza el archivo de datos y vacía el diario, que ya no hace falta.
+     */
+    private void puntoDeControl() throws IOException {
+        datos.force(false);
+        diario.truncate(0);
+        diario.force(false);
+    }
+
+    /**
+     * Sincroniza lo pendiente, hace un punto de control y cierra el diario.
+     * El canal del archivo de datos no se cierra.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sincronizar();
+            puntoDeControl();
+        } finally {
+            diario.close();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EscritorResultadosPorLotes
+ *
+ * Modo de escritura por lotes para el archivo de resultados. Usa el mismo formato
+ * de registro fijo de {@link ControlPersistencia}, pero codifica cada registro
+ * directamente en un {@link ByteBuffer} reutilizable y lo envía al disco mediante un
+ * {@link FileChannel} solo cuando el lote se llena o cuando se pide explícitamente.
+ *
+ * A diferencia de {@link ControlPersistencia#escribirRegistro}, los errores de
+ * entrada/salida se propagan al llamador en lugar de imprimirse.
+ *
+ * Uso típico para repetir temporadas completas:
+ * <pre>
+ * try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(ruta, 512, false)) {
+ *     escritor.escribirRegistro(...);
+ *     ...
+ *     escritor.confirmar();   // fin de jornada: baja a disco todo lo pendiente
+ * }
+ * </pre>
+ *
+ * No es seguro para uso concurrente; cada hilo debe tener su propio escritor.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class EscritorResultadosPorLotes implements Closeable {
+
+    private static final LongAdder BYTES_VACIADOS = Metricas.global().contador("persistencia.bytes.vaciados");
+    private static final HistogramaLatencia TIEMPO_VACIADO = Metricas.global().histograma("persistencia.vaciado.ns");
+
+    private final FileChannel canal;        // Canal abierto en modo de agregado
+    private final ByteBuffer buffer;        // Lote en curso, reutilizado entre vaciados
+    private final boolean forzarEnVaciado;  // Si cada vaciado debe sincronizar con el disco
+
+    private long registrosEscritos;         // Registros aceptados desde la apertura
+    private long bytesVaciados;             // Bytes entregados al canal
+
+    /**
+     * Abre el archivo de resultados para agregar registros por lotes.
+     *
+     * @param rutaArchivo ruta del archivo de resultados
+     * @param registrosPorLote registros que se acumulan antes de escribir al canal
+     * @param forzarEnVaciado true para llamar a {@code force} después de cada vaciado
+     * @throws IOException si el archivo o su carpeta no pueden crearse
+     */
+    public EscritorResultadosPorLotes(String rutaArchivo, int registrosPorLote, boolean forzarEnVaciado)
+            throws IOException {
+        if (registrosPorLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo.");
+        }
+        File archivo = new File(rutaArchivo);
+        File padre = archivo.getParentFile();
+        if (padre != null && !padre.exists() && !padre.mkdirs()) {
+            throw new IOException("No se pudo crear la carpeta para persistencia: " + padre.getAbsolutePath());
+        }
+        this.canal = FileChannel.open(archivo.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(registrosPorLote * ControlPersistencia.RECORD_SIZE);
+        this.forzarEnVaciado = forzarEnVaciado;
+    }
+
+    /**
+     * Agrega un registro al lote en curso; si el lote queda lleno se vacía al canal.
+     *
+     * @param clave clave del equipo
+     * @param nombreEquipo nombre del equipo
+     * @param jugadores nombres de los jugadores
+     * @param resultado texto del resultado
+     * @throws IOException si falla el vaciado del lote
+     */
+    public void escribirRegistro(String clave, String nombreEquipo, String[] jugadores, String resultado)
+            throws IOException {
+        if (buffer.remaining() < ControlPersistencia.RECORD_SIZE) {
+            flush();
+        }
+        FormatoRegistro.codificar(buffer, clave, nombreEquipo, jugadores, resultado);
+        registrosEscritos++;
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /**
+     * Escribe al canal los registros pendientes del lote. Sincroniza con el disco
+     * solo si el escritor se creó con {@code forzarEnVaciado}.
+     *
+     * @throws IOException si falla la escritura
+     */
+    public void flush() throws IOException {
+        vaciar(forzarEnVaciado);
+    }
+
+    /**
+     * Confirmación en grupo: escribe lo pendiente y fuerza su llegada al disco,
+     * de modo que todos los registros aceptados hasta ahora sobrevivan a una caída.
+     *
+     * @throws IOException si falla la escritura o la sincronización
+     */
+    public void confirmar() throws IOException {
+        vaciar(true);
+    }
+
+    private void vaciar(boolean forzar) throws IOException {
+        long inicio = System.nanoTime();
+        buffer.flip();
+        BYTES_VACIADOS.add(buffer.remaining());
+        while (buffer.hasRemaining()) {
+            bytesVaciados += canal.write(buffer);
+        }
+        buffer.clear();
+        if (forzar) {
+            canal.force(false);
+        }
+        TIEMPO_VACIADO.registrarDesde(inicio);
+    }
+
+    /** Registros aceptados desde la apertura, incluidos los que siguen en el lote. */
+    public long getRegistrosEscritos() {
+        return registrosEscritos;
+    }
+
+    /** Bytes ya entregados al canal. */
+    public long getBytesVaciados() {
+        return bytesVaciados;
+    }
+
+    /**
+     * Vacía los registros pendientes y cierra el canal.
+     *
+     * @throws IOException si falla el último vaciado o el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            canal.close();
+        }
+    }
+}
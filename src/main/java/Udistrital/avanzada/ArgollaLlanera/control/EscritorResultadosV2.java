@@ -0,0 +1,185 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoPartida;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EscritorResultadosV2
+ *
+ * Escritor del formato binario compacto {@link FormatoBinarioV2}. Cada texto (clave,
+ * nombre de equipo o de jugador) se agrega al diccionario la primera vez que aparece y
+ * los registros lo referencian por id; admite cualquier cantidad de jugadores por equipo
+ * y guarda además el puntaje y la marca de tiempo.
+ *
+ * Al abrir un archivo existente se recorre para recuperar el diccionario y la última
+ * marca de tiempo, y se descarta una posible entrada incompleta al final. Un archivo
+ * en el formato de 160 bytes no se modifica: debe convertirse antes con
+ * {@link MigradorResultados}.
+ *
+ * Las entradas se acumulan en un buffer y llegan al disco al llenarse, con
+ * {@link #flush()} o al cerrar.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class EscritorResultadosV2 implements Closeable {
+
+    private static final int TAM_BUFFER = 64 * 1024;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocate(TAM_BUFFER);
+    private final Map<String, Integer> diccionario = new HashMap<>();
+    private long ultimaMarca;
+
+    /**
+     * Abre o crea un archivo en formato versión 2 para agregar registros.
+     *
+     * @param rutaArchivo ruta del archivo
+     * @throws IOException si el archivo está en el formato de 160 bytes o no puede abrirse
+     */
+    public EscritorResultadosV2(String rutaArchivo) throws IOException {
+        Path ruta = Paths.get(rutaArchivo);
+        File padre = ruta.toAbsolutePath().getParent().toFile();
+        if (!padre.exists() && !padre.mkdirs()) {
+            throw new IOException("No se pudo crear la carpeta para persistencia: " + padre.getAbsolutePath());
+        }
+        long posicion = 0;
+        if (Files.exists(ruta) && Files.size(ruta) > 0) {
+            try (LectorResultadosV2 lector = new LectorResultadosV2(ruta)) {
+                if (lector.esLegado()) {
+                    throw new IOException("El archivo está en el formato de 160 bytes; migrarlo con MigradorResultados: "
+                            + rutaArchivo);
+                }
+                while (lector.siguiente()) {
+                    // se recorre para reconstruir el diccionario y la última marca
+                }
+                List<String> textos = lector.getDiccionario();
+                for (int i = 0; i < textos.size(); i++) {
+                    diccionario.put(textos.get(i), i);
+                }
+                ultimaMarca = lector.getUltimaMarca();
+                posicion = lector.getPosicionValida();
+            }
+        }
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (posicion == 0) {
+                canal.truncate(0);
+                FormatoBinarioV2.escribirCabecera(buffer);
+            } else {
+                canal.truncate(posicion);   // descarta una entrada incompleta al final
+            }
+            canal.position(posicion);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega un registro.
+     *
+     * @param clave clave del equipo
+     * @param nombreEquipo nombre del equipo
+     * @param jugadores nombres de todos los jugadores del equipo
+     * @param resultado resultado de la ronda
+     * @param puntaje puntaje del equipo, o {@link RegistroResultado#SIN_PUNTAJE}
+     * @param marcaTiempo milisegundos desde la época
+     * @throws IOException si falla la escritura al vaciar el buffer
+     */
+    public void escribir(String clave, String nombreEquipo, String[] jugadores, ResultadoPartida resultado,
+                         int puntaje, long marcaTiempo) throws IOException {
+        int idClave = idDe(clave);
+        int idEquipo = idDe(nombreEquipo);
+        int[] idsJugadores = new int[jugadores.length];
+        for (int i = 0; i < jugadores.length; i++) {
+            idsJugadores[i] = idDe(jugadores[i]);
+        }
+        asegurarEspacio(1 + 5 * (3 + jugadores.length) + 1 + 10 + 10);
+        buffer.put(FormatoBinarioV2.TIPO_REGISTRO);
+        FormatoBinarioV2.escribirVarint(buffer, idClave);
+        FormatoBinarioV2.escribirVarint(buffer, idEquipo);
+        FormatoBinarioV2.escribirVarint(buffer, idsJugadores.length);
+        for (int id : idsJugadores) {
+            FormatoBinarioV2.escribirVarint(buffer, id);
+        }
+        buffer.put(resultado.getCodigo());
+        FormatoBinarioV2.escribirVarint(buffer, FormatoBinarioV2.zigzag(puntaje));
+        FormatoBinarioV2.escribirVarint(buffer, FormatoBinarioV2.zigzag(marcaTiempo - ultimaMarca));
+        ultimaMarca = marcaTiempo;
+    }
+
+    /**
+     * Agrega un registro ya construido.
+     *
+     * @param registro registro a guardar
+     * @throws IOException si falla la escritura al vaciar el buffer
+     */
+    public void escribir(RegistroResultado registro) throws IOException {
+        escribir(registro.getClave(), registro.getNombreEquipo(), registro.getJugadores(),
+                registro.getResultadoPartida(), registro.getPuntaje(), registro.getMarcaTiempo());
+    }
+
+    /**
+     * Devuelve el id del texto, agregándolo al diccionario si es nuevo.
+     */
+    private int idDe(String texto) throws IOException {
+        String valor = texto == null ? "" : texto;
+        Integer id = diccionario.get(valor);
+        if (id != null) {
+            return id;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        asegurarEspacio(1 + 5 + bytes.length);
+        buffer.put(FormatoBinarioV2.TIPO_DICCIONARIO);
+        FormatoBinarioV2.escribirVarint(buffer, bytes.length);
+        buffer.put(bytes);
+        int nuevo = diccionario.size();
+        diccionario.put(valor, nuevo);
+        return nuevo;
+    }
+
+    private void asegurarEspacio(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+            if (buffer.remaining() < bytes) {
+                throw new IOException("Entrada demasiado grande para el formato: " + bytes + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Escribe al archivo las entradas acumuladas.
+     *
+     * @throws IOException si falla la escritura
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.util.List;
+
+/**
+ * EscuchaPartida
+ *
+ * Receptor de los eventos de una partida. {@link MotorPartida} emite los eventos del
+ * juego (lanzamientos, turnos, 21 puntos, muerte súbita y ganador) y {@link ControlJuego}
+ * agrega los de la sesión (rondas, mensajes y fin del juego).
+ *
+ * Los eventos se emiten en el hilo que ejecuta la partida y deben atenderse rápido; un
+ * receptor lento (como la vista) debe pasar el trabajo a su propio hilo. Todos los datos
+ * de los eventos son valores ya calculados: los puntajes se entregan como enteros del
+ * equipo A y B (los dos equipos de la partida, en su orden).
+ *
+ * Las repeticiones de partidas grabadas solo llegan a los receptores que las piden
+ * ({@link ControlJuego#agregarEscuchaRepeticiones}), entre los avisos
+ * {@code repeticion(true)} y {@code repeticion(false)}. Corren en otro hilo que la partida
+ * en vivo.
+ *
+ * Todos los métodos tienen una implementación vacía para atender solo los que interesen.
+ *
+ * @author juanr
+ * @version 1.3
+ */
+public interface EscuchaPartida {
+
+    /**
+     * Empieza una ronda.
+     *
+     * @param equipos los dos equipos de la partida
+     * @param equipoInicial equipo que lanza primero
+     * @param jugador primer jugador en lanzar
+     * @param ronda número de ronda, desde 1
+     */
+    default void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+    }
+
+    /**
+     * Se continúa una partida interrumpida, desde la instantánea guardada. Por defecto se
+     * atiende como el inicio de la ronda; quien muestre puntajes debe usar los recibidos.
+     *
+     * @param equipos los dos equipos de la partida
+     * @param equipoActual equipo en turno
+     * @param jugador jugador en turno
+     * @param ronda número de ronda, desde 1
+     * @param puntosA puntaje actual del equipo A
+     * @param puntosB puntaje actual del equipo B
+     */
+    default void partidaReanudada(List<Equipo> equipos, Equipo equipoActual, Jugador jugador, int ronda,
+                                  int puntosA, int puntosB) {
+        rondaIniciada(equipos, equipoActual, jugador, ronda);
+    }
+
+    /**
+     * Un jugador lanzó en su turno.
+     *
+     * @param equipo equipo del jugador
+     * @param jugador jugador que lanzó
+     * @param resultado resultado del lanzamiento
+     * @param puntosA puntaje del equipo A tras el lanzamiento
+     * @param puntosB puntaje del equipo B tras el lanzamiento
+     */
+    default void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                             int puntosA, int puntosB) {
+    }
+
+    /** Lanza el siguiente jugador del mismo equipo. */
+    default void siguienteJugador(Equipo equipo, Jugador jugador) {
+    }
+
+    /** El turno pasa al otro equipo; {@code jugador} es su primer lanzador. */
+    default void cambioTurno(Equipo equipo, Jugador jugador) {
+    }
+
+    /** Un equipo llegó a 21 por primera vez; el otro tiene una mano para igualar. */
+    default void alcanzo21(Equipo equipo) {
+    }
+
+    /**
+     * Empieza la muerte súbita, o se repite por empate.
+     *
+     * @param repeticion 1 la primera vez
+     */
+    default void muerteSubita(int repeticion) {
+    }
+
+    /** Resultado de una pareja de la muerte súbita. */
+    default void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                    Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+    }
+
+    /**
+     * La partida terminó.
+     *
+     * @param equipo equipo ganador
+     * @param muerteSubita true si se definió en muerte súbita
+     * @param puntosA puntaje final del equipo A
+     * @param puntosB puntaje final del equipo B
+     */
+    default void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+    }
+
+    /**
+     * Probabilidades exactas del desenlace desde el estado actual, al iniciar la ronda y
+     * después de cada lanzamiento que no decide la partida.
+     */
+    default void probabilidades(ProbabilidadesPartida probabilidades) {
+    }
+
+    /** Mensaje informativo o de error para el usuario. */
+    default void mensaje(String texto) {
+    }
+
+    /** Se jugaron todas las rondas permitidas; no habrá más partidas. */
+    default void juegoTerminado() {
+    }
+
+    /**
+     * Empieza o termina la repetición de una partida grabada. Los eventos recibidos entre
+     * ambos avisos son de la repetición: no hay turnos que jugar ni resultados que guardar.
+     *
+     * @param enCurso true al empezar la repetición, false al terminar
+     */
+    default void repeticion(boolean enCurso) {
+    }
+}
@@ -0,0 +1,93 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FormatoBinarioV2
+ *
+ * Constantes y utilidades del formato binario compacto (versión 2) del archivo de resultados.
+ *
+ * Estructura:
+ * - Cabecera de 8 bytes: magia "ARGL", versión (2), esquema (1) y dos bytes reservados.
+ * - Secuencia de entradas, cada una iniciada por un byte de tipo:
+ *   - {@link #TIPO_DICCIONARIO}: longitud (varint) y texto UTF-8. Cada texto nuevo
+ *     recibe el siguiente identificador, empezando en 0.
+ *   - {@link #TIPO_REGISTRO}: id de clave, id de nombre de equipo, cantidad de jugadores
+ *     y sus ids (varints), código de {@code ResultadoPartida} (un byte), puntaje
+ *     (varint zigzag) y diferencia de la marca de tiempo respecto del registro anterior
+ *     (varint zigzag, en milisegundos).
+ *
+ * Los nombres se guardan una sola vez en el diccionario y los registros los referencian
+ * por id, por lo que un registro típico ocupa entre 10 y 20 bytes frente a los 160 del
+ * formato de tamaño fijo.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class FormatoBinarioV2 {
+
+    public static final int MAGIA = 0x4152474C;   // "ARGL"
+    public static final byte VERSION = 2;
+    public static final byte ESQUEMA = 1;
+    public static final int TAM_CABECERA = 8;
+
+    public static final byte TIPO_DICCIONARIO = 1;
+    public static final byte TIPO_REGISTRO = 2;
+
+    private FormatoBinarioV2() {
+    }
+
+    /**
+     * Escribe la cabecera del formato en la posición actual del buffer.
+     */
+    static void escribirCabecera(ByteBuffer destino) {
+        destino.putInt(MAGIA).put(VERSION).put(ESQUEMA).putShort((short) 0);
+    }
+
+    /**
+     * Indica si el archivo empieza con la cabecera del formato versión 2.
+     * Un archivo vacío o inexistente no es versión 2.
+     *
+     * @param ruta archivo a revisar
+     * @return true si la cabecera coincide
+     * @throws IOException si el archivo existe pero no puede leerse
+     */
+    public static boolean esV2(Path ruta) throws IOException {
+        if (!Files.exists(ruta) || Files.size(ruta) < TAM_CABECERA) {
+            return false;
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAM_CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                // lectura de la cabecera
+            }
+            cabecera.flip();
+            return cabecera.remaining() == TAM_CABECERA
+                    && cabecera.getInt() == MAGIA && cabecera.get() == VERSION;
+        }
+    }
+
+    /** Escribe un entero sin signo en formato varint (7 bits por byte). */
+    static void escribirVarint(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    /** Codifica un entero con signo para que los valores pequeños ocupen pocos bytes. */
+    static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    /** Inverso de {@link #zigzag(long)}. */
+    static long desZigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
@@ -0,0 +1,275 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FormatoRegistro
+ *
+ * Define las columnas del registro de tamaño fijo de {@link ControlPersistencia}
+ * y lo codifica directamente en bytes UTF-8, sin pasar por cadenas intermedias.
+ *
+ * Cada campo ocupa un número fijo de bytes y se rellena con espacios; si un texto no
+ * cabe, se corta antes del carácter que no entra completo, nunca a mitad de un
+ * carácter multibyte. Así cada campo empieza siempre en la misma posición del registro.
+ *
+ * Columnas (bytes): clave 20, equipo 30, cuatro jugadores de 22, resultado 20 y
+ * una marca de dos bytes (0 y la versión de la disposición), para un total de
+ * {@link ControlPersistencia#RECORD_SIZE}. Ningún texto contiene el byte 0, así que la
+ * marca distingue estos registros de los antiguos.
+ *
+ * Los archivos existentes pueden traer registros escritos antes, sin marca, en alguna
+ * de las disposiciones de {@link Disposicion}. Se reconocen registro por registro con
+ * {@link #detectar(ByteBuffer, int)} y {@link #decodificar(ByteBuffer, int)} los lee en
+ * cualquiera de ellas; los registros nuevos siempre se escriben con la actual.
+ *
+ * @author juanr
+ * @version 1.2
+ */
+public final class FormatoRegistro {
+
+    public static final int LONG_CLAVE = 20;
+    public static final int LONG_EQUIPO = 30;
+    public static final int LONG_JUGADOR = 22;
+    public static final int JUGADORES = 4;
+    public static final int LONG_RESULTADO = 20;
+
+    public static final int POS_CLAVE = 0;
+    public static final int POS_EQUIPO = POS_CLAVE + LONG_CLAVE;
+    public static final int POS_JUGADORES = POS_EQUIPO + LONG_EQUIPO;
+    public static final int POS_RESULTADO = POS_JUGADORES + JUGADORES * LONG_JUGADOR;
+    public static final int POS_MARCA = POS_RESULTADO + LONG_RESULTADO;
+
+    /** Versión de la disposición actual, segundo byte de la marca. */
+    public static final byte VERSION = 1;
+
+    private static final byte ESPACIO = ' ';
+    private static final byte INICIO_MARCA = 0;
+
+    /**
+     * Disposiciones de registro que pueden aparecer en un archivo de resultados.
+     *
+     * Las dos antiguas rellenaban cada campo hasta un número de caracteres (no de bytes)
+     * y cortaban el registro en 160 bytes, así que se decodifican sobre el texto del
+     * registro completo.
+     */
+    public enum Disposicion {
+
+        /** La actual: columnas en bytes y marca de versión al final. */
+        ACTUAL,
+        /**
+         * La de la primera versión de {@code ControlPersistencia}: clave 20, equipo 30 y
+         * cuatro jugadores de 30 caracteres. No cabía en 160 bytes: el cuarto jugador queda
+         * en 20 caracteres y el resultado se perdió.
+         */
+        ORIGINAL(20, 30, 30, 30, 30, 20, 0),
+        /**
+         * La de los primeros registros de Specs/Data/resultados.dat: clave 10, equipo 20,
+         * cuatro jugadores de 20 y resultado de 20 caracteres.
+         */
+        COMPACTA(10, 20, 20, 20, 20, 20, 20);
+
+        private final int[] anchos;      // Caracteres de clave, equipo, jugadores y resultado
+
+        Disposicion(int... anchos) {
+            this.anchos = anchos;
+        }
+    }
+
+    private FormatoRegistro() {
+    }
+
+    /**
+     * Escribe un registro completo de {@link ControlPersistencia#RECORD_SIZE} bytes
+     * a partir de la posición actual del buffer.
+     *
+     * @param destino buffer con al menos RECORD_SIZE bytes disponibles
+     * @param clave clave del equipo
+     * @param nombreEquipo nombre del equipo
+     * @param jugadores nombres de los jugadores; se guardan los cuatro primeros
+     * @param resultado texto del resultado
+     */
+    public static void codificar(ByteBuffer destino, String clave, String nombreEquipo,
+                                 String[] jugadores, String resultado) {
+        int inicio = destino.position();
+        escribirCampo(destino, clave, LONG_CLAVE);
+        escribirCampo(destino, nombreEquipo, LONG_EQUIPO);
+        for (int i = 0; i < JUGADORES; i++) {
+            String jugador = jugadores != null && i < jugadores.length ? jugadores[i] : null;
+            escribirCampo(destino, jugador, LONG_JUGADOR);
+        }
+        escribirCampo(destino, resultado, LONG_RESULTADO);
+        destino.put(INICIO_MARCA);
+        destino.put(VERSION);
+        while (destino.position() - inicio < ControlPersistencia.RECORD_SIZE) {
+            destino.put(ESPACIO);
+        }
+    }
+
+    /**
+     * Reconoce la disposición de un registro. Los que llevan la marca son de la actual y
+     * los que no, siempre de una antigua: se elige la compacta solo si en ella empiezan
+     * más campos justo donde termina el relleno del anterior; si no, la original.
+     *
+     * @param origen buffer con el registro
+     * @param base posición absoluta del registro en el buffer
+     * @return disposición del registro
+     */
+    public static Disposicion detectar(ByteBuffer origen, int base) {
+        if (origen.get(base + POS_MARCA) == INICIO_MARCA && origen.get(base + POS_MARCA + 1) == VERSION) {
+            return Disposicion.ACTUAL;
+        }
+        String texto = textoRegistro(origen, base);
+        return inicios(texto, Disposicion.COMPACTA) > inicios(texto, Disposicion.ORIGINAL)
+                ? Disposicion.COMPACTA : Disposicion.ORIGINAL;
+    }
+
+    /**
+     * Decodifica un registro completo en la disposición que tenga.
+     *
+     * @param origen buffer con el registro
+     * @param base posición absoluta del registro en el buffer
+     * @return registro decodificado; en la disposición original el resultado es vacío
+     */
+    public static RegistroResultado decodificar(ByteBuffer origen, int base) {
+        Disposicion disposicion = detectar(origen, base);
+        String[] jugadores = new String[JUGADORES];
+        if (disposicion == Disposicion.ACTUAL) {
+            for (int i = 0; i < JUGADORES; i++) {
+                jugadores[i] = decodificarCampo(origen, base + POS_JUGADORES + i * LONG_JUGADOR, LONG_JUGADOR);
+            }
+            return new RegistroResultado(decodificarCampo(origen, base + POS_CLAVE, LONG_CLAVE),
+                    decodificarCampo(origen, base + POS_EQUIPO, LONG_EQUIPO), jugadores,
+                    decodificarCampo(origen, base + POS_RESULTADO, LONG_RESULTADO));
+        }
+        String texto = textoRegistro(origen, base);
+        int[] anchos = disposicion.anchos;
+        String[] campos = new String[anchos.length];
+        int inicio = 0;
+        for (int i = 0; i < anchos.length; i++) {
+            int fin = Math.min(texto.length(), inicio + anchos[i]);
+            campos[i] = inicio < fin ? sinRelleno(texto.substring(inicio, fin)) : "";
+            inicio += anchos[i];
+        }
+        System.arraycopy(campos, 2, jugadores, 0, JUGADORES);
+        return new RegistroResultado(campos[0], campos[1], jugadores, campos[2 + JUGADORES]);
+    }
+
+    /**
+     * Codifica un texto como lo haría en una columna del registro, para comparar
+     * campos byte a byte sin decodificar el archivo.
+     *
+     * @param texto texto a codificar
+     * @param longitud ancho de la columna en bytes
+     * @return arreglo de exactamente {@code longitud} bytes
+     */
+    public static byte[] codificarCampo(String texto, int longitud) {
+        ByteBuffer campo = ByteBuffer.allocate(longitud);
+        escribirCampo(campo, texto, longitud);
+        return campo.array();
+    }
+
+    /**
+     * Devuelve el texto tal como quedaría guardado en una columna: cortado al ancho
+     * y sin el relleno final. Sirve para comparar valores de entrada con los leídos.
+     *
+     * @param texto texto original
+     * @param longitud ancho de la columna en bytes
+     * @return texto normalizado
+     */
+    public static String normalizar(String texto, int longitud) {
+        return decodificarCampo(ByteBuffer.wrap(codificarCampo(texto, longitud)), 0, longitud);
+    }
+
+    /**
+     * Decodifica una columna quitando el relleno de espacios a la derecha.
+     *
+     * @param origen buffer con el registro
+     * @param posicion posición absoluta de la columna en el buffer
+     * @param longitud ancho de la columna en bytes
+     * @return texto del campo
+     */
+    public static String decodificarCampo(ByteBuffer origen, int posicion, int longitud) {
+        int fin = longitud;
+        while (fin > 0 && origen.get(posicion + fin - 1) == ESPACIO) {
+            fin--;
+        }
+        byte[] bytes = new byte[fin];
+        origen.get(posicion, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Texto del registro completo; un carácter cortado al final queda como U+FFFD. */
+    private static String textoRegistro(ByteBuffer origen, int base) {
+        byte[] bytes = new byte[ControlPersistencia.RECORD_SIZE];
+        origen.get(base, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Cuenta los campos que empiezan con texto justo después del relleno del anterior. */
+    private static int inicios(String texto, Disposicion disposicion) {
+        int cuenta = 0;
+        int inicio = 0;
+        for (int ancho : disposicion.anchos) {
+            if (ancho > 0 && inicio < texto.length() && texto.charAt(inicio) != ' '
+                    && (inicio == 0 || texto.charAt(inicio - 1) == ' ')) {
+                cuenta++;
+            }
+            inicio += ancho;
+        }
+        return cuenta;
+    }
+
+    /** Quita el relleno de espacios y el carácter cortado por el límite de 160 bytes. */
+    private static String sinRelleno(String campo) {
+        int fin = campo.length();
+        while (fin > 0 && (campo.charAt(fin - 1) == ' ' || campo.charAt(fin - 1) == '\uFFFD')) {
+            fin--;
+        }
+        return campo.substring(0, fin);
+    }
+
+    /**
+     * Codifica un texto en UTF-8 ocupando exactamente {@code longitud} bytes.
+     */
+    private static void escribirCampo(ByteBuffer destino, String texto, int longitud) {
+        int usados = 0;
+        if (texto != null) {
+            int n = texto.length();
+            for (int i = 0; i < n; i++) {
+                int c = texto.charAt(i);
+                if (Character.isHighSurrogate((char) c) && i + 1 < n
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    c = Character.toCodePoint((char) c, texto.charAt(i + 1));
+                } else if (Character.isSurrogate((char) c)) {
+                    c = '?';   // sustituto huérfano: se reemplaza igual que en String.getBytes
+                }
+                int bytes = c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+                if (usados + bytes > longitud) {
+                    break;
+                }
+                if (bytes == 1) {
+                    destino.put((byte) c);
+                } else if (bytes == 2) {
+                    destino.put((byte) (0xC0 | (c >> 6)));
+                    destino.put((byte) (0x80 | (c & 0x3F)));
+                } else if (bytes == 3) {
+                    destino.put((byte) (0xE0 | (c >> 12)));
+                    destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    destino.put((byte) (0x80 | (c & 0x3F)));
+                } else {
+                    destino.put((byte) (0xF0 | (c >> 18)));
+                    destino.put((byte) (0x80 | ((c >> 12) & 0x3F)));
+                    destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    destino.put((byte) (0x80 | (c & 0x3F)));
+                    i++;
+                }
+                usados += bytes;
+            }
+        }
+        for (; usados < longitud; usados++) {
+            destino.put(ESPACIO);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * GrabadorPartidas
+ *
+ * Graba la secuencia de lanzamientos de cada partida en un archivo de repeticiones, junto
+ * al de resultados. Recibe los eventos de {@link MotorPartida} como {@link EscuchaPartida}
+ * y guarda un byte por lanzamiento, en el mismo orden en que el juego los sorteó; con eso
+ * {@link ReproductorPartida} vuelve a jugar la partida con las mismas reglas.
+ *
+ * Quien crea el {@link Udistrital.avanzada.ArgollaLlanera.modelo.Juego} informa la semilla
+ * con {@link #prepararRonda(long)} antes de iniciar la ronda. Al terminar la partida la
+ * grabación queda pendiente y se escribe con {@link #guardarUltima()}, para que el error
+ * de escritura lo atienda quien guarda los resultados. Una partida que se continúa desde
+ * una instantánea retoma sus lanzamientos con {@link #reanudar}.
+ *
+ * Formato del archivo:
+ * - cabecera: magia "ARGR" (int) y versión (int);
+ * - un marco por partida: longitud (int), la {@link GrabacionPartida} en binario y el
+ *   CRC32C de esos bytes (int).
+ *
+ * Al abrir un archivo existente se descarta lo que sigue al último marco válido, que solo
+ * puede venir de una escritura interrumpida; los siguientes marcos se agregan detrás. Un
+ * marco dañado con marcos válidos después no se descarta: la lectura lo salta, sigue en el
+ * siguiente marco válido y lo cuenta en {@link #getMarcosDanados()}. Cada marco se
+ * sincroniza con el disco al escribirlo.
+ *
+ * Los eventos llegan en el hilo del juego; los métodos están sincronizados.
+ *
+ * @author juanr
+ * @version 1.3
+ */
+public class GrabadorPartidas implements EscuchaPartida, Closeable {
+
+    private static final int MAGICO = 0x41524752;            // "ARGR"
+    private static final int VERSION = 1;
+    private static final int TAM_CABECERA = 8;
+    private static final int TAM_MAXIMO_MARCO = 16 * 1024 * 1024;
+
+    private final FileChannel canal;                         // Archivo de repeticiones
+    private final CRC32C crc = new CRC32C();
+    private long fin;                                        // Fin del último marco válido
+    private int marcosDanados;                               // Marcos dañados saltados al abrir
+
+    // Partida en curso
+    private long semilla;                                    // Semilla informada para la ronda
+    private Equipo[] equiposRonda = new Equipo[0];
+    private int equipoInicial;                               // Índice (0 o 1) del equipo que inició
+    private byte[] lanzamientos = new byte[64];              // Códigos de resultado en orden
+    private int cantidad;                                    // Lanzamientos grabados en la partida
+    private boolean grabando;                                // Hay una partida de dos equipos en curso
+    private GrabacionPartida ultima;                         // Partida terminada sin guardar, o null
+
+    /**
+     * Abre (o crea) el archivo de repeticiones.
+     *
+     * @param ruta archivo de repeticiones
+     * @throws IOException si no se puede abrir o no es un archivo de repeticiones
+     */
+    public GrabadorPartidas(Path ruta) throws IOException {
+        Path padre = ruta.toAbsolutePath().getParent();
+        if (padre != null) {
+            Files.createDirectories(padre);
+        }
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            abrir(ruta);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private void abrir(Path ruta) throws IOException {
+        if (canal.size() == 0) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAM_CABECERA).putInt(MAGICO).putInt(VERSION);
+            cabecera.flip();
+            canal.write(cabecera, 0);
+            canal.force(false);
+            fin = TAM_CABECERA;
+            return;
+        }
+        validarCabecera(canal, ruta);
+        Recorrido recorrido = recorrer(canal, null);
+        fin = recorrido.fin;
+        marcosDanados = recorrido.danados;
+        if (fin < canal.size()) {
+            canal.truncate(fin);   // cola partida por una escritura interrumpida
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Devuelve cuántos marcos dañados, seguidos de marcos válidos, se saltaron al abrir el
+     * archivo. Esas partidas no se pueden repetir; las demás siguen disponibles.
+     *
+     * @return cantidad de marcos dañados
+     */
+    public synchronized int getMarcosDanados() {
+        return marcosDanados;
+    }
+
+    /**
+     * Informa la semilla de la fuente aleatoria de la siguiente ronda.
+     *
+     * @param semilla semilla con la que se creó el juego
+     */
+    public synchronized void prepararRonda(long semilla) {
+        this.semilla = semilla;
+    }
+
+    @Override
+    public synchronized void rondaIniciada(List<Equipo> equipos, Equipo inicial, Jugador jugador, int ronda) {
+        equiposRonda = equipos.toArray(new Equipo[0]);
+        equipoInicial = indice(inicial);
+        cantidad = 0;
+        grabando = equiposRonda.length == 2 && equipoInicial >= 0;
+    }
+
+    /**
+     * Retoma la grabación de una partida interrumpida con los lanzamientos que ya tenía.
+     * Si no están todos, la partida no se graba.
+     *
+     * @param semilla semilla de la ronda; la fuente continuada debe seguir su secuencia
+     * @param equipos equipos A y B
+     * @param inicial índice (0 o 1) del equipo que inició
+     * @param grabados códigos de los lanzamientos hechos antes de la interrupción
+     * @param lanzamientosPartida lanzamientos que lleva la partida, o -1 para no grabarla
+     */
+    public synchronized void reanudar(long semilla, List<Equipo> equipos, int inicial, byte[] grabados,
+                                      int lanzamientosPartida) {
+        this.semilla = semilla;
+        equiposRonda = equipos.toArray(new Equipo[0]);
+        equipoInicial = inicial;
+        lanzamientos = Arrays.copyOf(grabados, Math.max(64, grabados.length * 2));
+        cantidad = grabados.length;
+        grabando = equiposRonda.length == 2 && grabados.length == lanzamientosPartida;
+    }
+
+    /** La grabación de una partida reanudada la prepara {@link #reanudar}. */
+    @Override
+    public void partidaReanudada(List<Equipo> equipos, Equipo equipoActual, Jugador jugador, int ronda,
+                                 int puntosA, int puntosB) {
+    }
+
+    /**
+     * Devuelve los lanzamientos grabados de la partida en curso.
+     *
+     * @return copia de los códigos, o null si la partida en curso no se está grabando
+     */
+    public synchronized byte[] getLanzamientosEnCurso() {
+        return grabando ? Arrays.copyOf(lanzamientos, cantidad) : null;
+    }
+
+    @Override
+    public synchronized void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                         int puntosA, int puntosB) {
+        agregar(resultado);
+    }
+
+    @Override
+    public synchronized void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                                Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+        agregar(resultadoA);
+        agregar(resultadoB);
+    }
+
+    @Override
+    public synchronized void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+        int indiceGanador = indice(equipo);
+        if (!grabando || indiceGanador < 0) {
+            return;
+        }
+        ultima = new GrabacionPartida(System.currentTimeMillis(), semilla, equiposRonda[0].getClave(),
+                equiposRonda[1].getClave(), equipoInicial, indiceGanador, Arrays.copyOf(lanzamientos, cantidad));
+        grabando = false;
+    }
+
+    private void agregar(ResultadoLanzamiento resultado) {
+        if (!grabando) {
+            return;
+        }
+        if (cantidad == lanzamientos.length) {
+            lanzamientos = Arrays.copyOf(lanzamientos, cantidad * 2);
+        }
+        lanzamientos[cantidad++] = resultado.getCodigo();
+    }
+
+    private int indice(Equipo equipo) {
+        for (int e = 0; e < equiposRonda.length; e++) {
+            if (equiposRonda[e] == equipo) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /** Devuelve la última partida terminada que aún no se guardó, o null. */
+    public synchronized GrabacionPartida getUltima() {
+        return ultima;
+    }
+
+    /**
+     * Guarda la última partida terminada, si hay una pendiente.
+     *
+     * @return true si se guardó una partida
+     * @throws IOException si falla la escritura; la partida sigue pendiente
+     */
+    public synchronized boolean guardarUltima() throws IOException {
+        if (ultima == null) {
+            return false;
+        }
+        grabar(ultima);
+        ultima = null;
+        return true;
+    }
+
+    /**
+     * Agrega una grabación al archivo y la sincroniza con el disco.
+     *
+     * @param grabacion partida a guardar
+     * @throws IOException si falla la escritura
+     */
+    public synchronized void grabar(GrabacionPartida grabacion) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + grabacion.getCantidadLanzamientos());
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            grabacion.escribir(salida);
+        }
+        byte[] datos = bytes.toByteArray();
+        crc.reset();
+        crc.update(datos);
+        ByteBuffer marco = ByteBuffer.allocate(datos.length + 8);
+        marco.putInt(datos.length).put(datos).putInt((int) crc.getValue());
+        marco.flip();
+        long posicion = fin;
+        while (marco.hasRemaining()) {
+            posicion += canal.write(marco, posicion);
+        }
+        canal.force(false);
+        fin = posicion;
+    }
+
+    /**
+     * Lee todas las partidas grabadas en un archivo. Un marco incompleto o dañado al
+     * final se ignora; uno dañado en medio se salta y la lectura sigue en el siguiente
+     * marco válido.
+     *
+     * @param ruta archivo de repeticiones
+     * @return partidas en el orden en que se grabaron
+     * @throws IOException si no se puede leer o no es un archivo de repeticiones
+     */
+    public static List<GrabacionPartida> leer(Path ruta) throws IOException {
+        try (FileChannel entrada = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            validarCabecera(entrada, ruta);
+            List<GrabacionPartida> grabaciones = new ArrayList<>();
+            recorrer(entrada, grabaciones);
+            return grabaciones;
+        }
+    }
+
+    private static void validarCabecera(FileChannel canal, Path ruta) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAM_CABECERA);
+        while (cabecera.hasRemaining() && canal.read(cabecera, cabecera.position()) >= 0) {
+            // lectura completa de la cabecera
+        }
+        if (cabecera.hasRemaining() || cabecera.getInt(0) != MAGICO) {
+            throw new IOException("No es un archivo de repeticiones: " + ruta);
+        }
+        if (cabecera.getInt(4) != VERSION) {
+            throw new IOException("Versión de repeticiones no soportada: " + cabecera.getInt(4));
+        }
+    }
+
+    /** Resultado de {@link #recorrer}. */
+    private static final class Recorrido {
+
+        long fin;       // Fin del último marco válido
+        int danados;    // Marcos dañados seguidos de marcos válidos
+    }
+
+    /**
+     * Recorre los marcos desde la cabecera. Al encontrar uno incompleto o inválido busca
+     * el siguiente marco válido: si lo hay, cuenta el dañado y sigue desde ahí; si no,
+     * lo dañado es la cola del archivo y el recorrido termina.
+     *
+     * @param destino lista donde agregar las grabaciones, o null para solo validar
+     * @return fin del último marco válido y cantidad de marcos dañados saltados
+     */
+    private static Recorrido recorrer(FileChannel canal, List<GrabacionPartida> destino) throws IOException {
+        long tam = canal.size();
+        CRC32C crc = new CRC32C();
+        Recorrido recorrido = new Recorrido();
+        recorrido.fin = TAM_CABECERA;
+        long posicion = TAM_CABECERA;
+        while (posicion + 8 <= tam) {
+            GrabacionPartida grabacion = leerMarco(canal, posicion, tam, crc);
+            if (grabacion == null) {
+                posicion = buscarMarco(canal, posicion, tam, crc);
+                if (posicion < 0) {
+                    break;
+                }
+                recorrido.danados++;
+                grabacion = leerMarco(canal, posicion, tam, crc);
+            }
+            if (destino != null) {
+                destino.add(grabacion);
+            }
+            posicion += 8 + longitud(canal, posicion);
+            recorrido.fin = posicion;
+        }
+        return recorrido;
+    }
+
+    /**
+     * Busca el primer marco válido después del marco dañado que empieza en la posición
+     * dada. Prueba primero donde terminaría el dañado según su longitud y, si ahí no hay
+     * uno, avanza byte a byte.
+     *
+     * @return posición del siguiente marco válido, o -1 si no hay ninguno
+     */
+    private static long buscarMarco(FileChannel canal, long danado, long tam, CRC32C crc) throws IOException {
+        int longitud = longitud(canal, danado);
+        if (longitud > 0 && longitud <= TAM_MAXIMO_MARCO) {
+            long siguiente = danado + 8 + longitud;
+            if (siguiente + 8 <= tam && leerMarco(canal, siguiente, tam, crc) != null) {
+                return siguiente;
+            }
+        }
+        for (long posicion = danado + 1; posicion + 8 <= tam; posicion++) {
+            if (leerMarco(canal, posicion, tam, crc) != null) {
+                return posicion;
+            }
+        }
+        return -1;
+    }
+
+    private static int longitud(FileChannel canal, long posicion) throws IOException {
+        ByteBuffer entero = ByteBuffer.allocate(4);
+        while (entero.hasRemaining() && canal.read(entero, posicion + entero.position()) >= 0) {
+            // lectura completa del entero
+        }
+        return entero.hasRemaining() ? -1 : entero.getInt(0);
+    }
+
+    /**
+     * Lee el marco que empieza en la posición dada.
+     *
+     * @return la grabación, o null si el marco está incompleto o dañado
+     */
+    private static GrabacionPartida leerMarco(FileChannel canal, long posicion, long tam, CRC32C crc)
+            throws IOException {
+        int longitud = longitud(canal, posicion);
+        if (longitud <= 0 || longitud > TAM_MAXIMO_MARCO || posicion + 8 + longitud > tam) {
+            return null;
+        }
+        ByteBuffer marco = ByteBuffer.allocate(longitud + 4);
+        while (marco.hasRemaining() && canal.read(marco, posicion + 4 + marco.position()) >= 0) {
+            // lectura completa del marco
+        }
+        crc.reset();
+        crc.update(marco.array(), 0, longitud);
+        if ((int) crc.getValue() != marco.getInt(longitud)) {
+            return null;
+        }
+        try {
+            return GrabacionPartida.leer(new DataInputStream(
+                    new ByteArrayInputStream(marco.array(), 0, longitud)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Cierra el archivo; una partida pendiente sin guardar se pierde. */
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+}
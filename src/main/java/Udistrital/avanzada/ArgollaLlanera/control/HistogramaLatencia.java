@@ -0,0 +1,118 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HistogramaLatencia
+ *
+ * Histograma de valores no negativos (normalmente nanosegundos) con precisión relativa
+ * fija, al estilo de HdrHistogram: cada potencia de dos se divide en
+ * {@link #SUBDIVISIONES} casillas iguales, así que cualquier valor queda en una casilla
+ * cuyo ancho es a lo sumo 1/32 (unos 3 %) del valor. Con menos de 2 000 casillas cubre
+ * desde 1 ns hasta siglos, sin configurar rangos.
+ *
+ * Registrar un valor es calcular la casilla con unas operaciones de bits e incrementar un
+ * contador atómico; no crea objetos ni toma candados, así que puede usarse desde varios
+ * hilos en los caminos críticos. Los percentiles se calculan al consultarlos recorriendo
+ * las casillas; una consulta concurrente con registros es aproximada.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class HistogramaLatencia {
+
+    /** Casillas por cada potencia de dos. */
+    public static final int SUBDIVISIONES = 32;
+
+    private static final int BITS_SUBDIVISION = 5;                        // log2(SUBDIVISIONES)
+    private static final int CASILLAS = (64 - BITS_SUBDIVISION) * SUBDIVISIONES;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CASILLAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Registra un valor. Los negativos se cuentan como 0.
+     *
+     * @param valor valor a registrar
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        conteos.incrementAndGet(casilla(v));
+        cantidad.increment();
+        suma.add(v);
+        maximo.accumulate(v);
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde una marca de {@link System#nanoTime()}.
+     *
+     * @param inicioNanos marca tomada al empezar la operación
+     */
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    static int casilla(long v) {
+        if (v < SUBDIVISIONES) {
+            return (int) v;
+        }
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(v) - BITS_SUBDIVISION;
+        return desplazamiento * SUBDIVISIONES + (int) (v >>> desplazamiento);
+    }
+
+    /** Mayor valor que cae en la casilla indicada. */
+    static long limiteSuperior(int casilla) {
+        if (casilla < 2 * SUBDIVISIONES) {
+            return casilla;
+        }
+        int desplazamiento = casilla / SUBDIVISIONES - 1;
+        long base = casilla % SUBDIVISIONES + SUBDIVISIONES;
+        return ((base + 1) << desplazamiento) - 1;
+    }
+
+    /** Valores registrados. */
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    /** Mayor valor registrado, o 0 si no hay ninguno. */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /** Promedio exacto de los valores registrados, o 0 si no hay ninguno. */
+    public double getPromedio() {
+        long n = cantidad.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * Valor bajo el cual queda el porcentaje indicado de los registros, con la precisión
+     * de las casillas (nunca mayor que el máximo registrado).
+     *
+     * @param porcentaje entre 0 y 100
+     * @return percentil, o 0 si no hay registros
+     */
+    public long percentil(double porcentaje) {
+        long total = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            total += conteos.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, porcentaje)) / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            acumulado += conteos.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+}
@@ -0,0 +1,69 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * HistorialBitacora
+ *
+ * Copia en disco de todos los mensajes de la bitácora. La vista solo conserva las últimas
+ * líneas; este archivo guarda la sesión completa, cada mensaje precedido de la hora.
+ *
+ * Cada mensaje se arma en un buffer en memoria y se lleva al archivo completo, en una
+ * sola escritura, antes de volver; así un cierre abrupto de la aplicación no pierde los
+ * mensajes ya mostrados. Puede usarse desde varios hilos.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class HistorialBitacora implements Closeable {
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedWriter escritor;   // Archivo abierto para agregar al final
+
+    /**
+     * Abre el historial, agregando al final si el archivo ya existe.
+     *
+     * @param ruta archivo del historial
+     * @throws IOException si no se puede abrir
+     */
+    public HistorialBitacora(Path ruta) throws IOException {
+        Path carpeta = ruta.toAbsolutePath().getParent();
+        if (carpeta != null) {
+            Files.createDirectories(carpeta);
+        }
+        this.escritor = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Agrega un mensaje con la hora actual y lo lleva al archivo. Los errores de escritura se informan en la
+     * salida de error y no interrumpen el juego.
+     *
+     * @param mensaje texto a guardar
+     */
+    public synchronized void escribir(String mensaje) {
+        try {
+            escritor.write(LocalDateTime.now().format(FORMATO_HORA));
+            escritor.write(' ');
+            escritor.write(mensaje);
+            escritor.newLine();
+            escritor.flush();
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir el historial: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        escritor.close();
+    }
+}
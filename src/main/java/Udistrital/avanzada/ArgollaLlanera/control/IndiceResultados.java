@@ -0,0 +1,342 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * IndiceResultados
+ *
+ * Índices secundarios persistentes del archivo de resultados, guardados en archivos
+ * auxiliares junto al archivo de datos:
+ * - {@code <datos>.idx-equipos}: clave de equipo → índices de registro.
+ * - {@code <datos>.idx-jugadores}: nombre de jugador → índices de registro.
+ *
+ * El índice de registro i corresponde al desplazamiento {@code i * RECORD_SIZE} del
+ * archivo de datos. Cada archivo auxiliar tiene una cabecera con el número de
+ * registros cubiertos, seguida de entradas agregadas al final
+ * (longitud de la clave, clave en UTF-8, índice de registro). Al abrir, se cargan en
+ * memoria y se indexan los registros del archivo de datos que aún no estuvieran
+ * cubiertos (por ejemplo, los escritos por lotes). Si el archivo de datos es más corto
+ * de lo que el índice dice cubrir, o un archivo auxiliar tiene otra magia o versión,
+ * el índice se reconstruye completo: solo son datos derivados, así que nunca impiden
+ * abrir la persistencia.
+ *
+ * Las claves se guardan tal como quedan en las columnas del registro (cortadas al
+ * ancho de la columna), de modo que las búsquedas coinciden con lo leído del archivo.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class IndiceResultados implements Closeable {
+
+    private static final int MAGIA = 0x41494458;            // "AIDX"
+    private static final int VERSION = 2;                  // 2: registros antiguos decodificados en su disposición
+    private static final int TAM_CABECERA = 16;            // magia, versión, registros cubiertos
+    private static final int POS_CUBIERTOS = 8;
+
+    private final Path rutaDatos;
+    private final Archivo equipos;
+    private final Archivo jugadores;
+    private long registrosCubiertos;
+
+    private IndiceResultados(Path rutaDatos) throws IOException {
+        this.rutaDatos = rutaDatos;
+        this.equipos = new Archivo(Paths.get(rutaDatos + ".idx-equipos"));
+        try {
+            this.jugadores = new Archivo(Paths.get(rutaDatos + ".idx-jugadores"));
+        } catch (IOException e) {
+            equipos.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre (o crea) los índices del archivo de datos y los pone al día con él.
+     *
+     * @param rutaDatos ruta del archivo de resultados
+     * @return índices listos para consultar y mantener
+     * @throws IOException si los archivos auxiliares no pueden leerse o escribirse
+     */
+    public static IndiceResultados abrir(String rutaDatos) throws IOException {
+        IndiceResultados indice = new IndiceResultados(Paths.get(rutaDatos));
+        try {
+            indice.cargar();
+        } catch (IOException | RuntimeException e) {
+            indice.close();
+            throw e;
+        }
+        return indice;
+    }
+
+    /**
+     * Carga las entradas de ambos archivos y completa lo que falte desde los datos.
+     */
+    private void cargar() throws IOException {
+        long registrosDatos = registrosEnDatos();
+        long cubiertosEquipos = equipos.cargar();
+        long cubiertosJugadores = jugadores.cargar();
+        if (cubiertosEquipos < 0 || cubiertosEquipos != cubiertosJugadores || cubiertosEquipos > registrosDatos) {
+            reconstruir();
+            return;
+        }
+        registrosCubiertos = cubiertosEquipos;
+        if (registrosCubiertos < registrosDatos) {
+            indexarDesde(registrosCubiertos);
+        }
+    }
+
+    /**
+     * Registra en ambos índices un registro recién agregado al archivo de datos.
+     *
+     * @param indiceRegistro índice del registro en el archivo de datos
+     * @param clave clave del equipo
+     * @param nombresJugadores nombres de los jugadores del registro
+     * @throws IOException si no se pueden escribir los archivos auxiliares
+     */
+    public void registrar(long indiceRegistro, String clave, String[] nombresJugadores) throws IOException {
+        if (indiceRegistro < registrosCubiertos) {
+            return;   // ya indexado, p. ej. por la puesta al día al abrir
+        }
+        if (indiceRegistro > registrosCubiertos) {
+            indexarDesde(registrosCubiertos);
+            if (indiceRegistro < registrosCubiertos) {
+                return;
+            }
+        }
+        agregarEntradas(indiceRegistro, clave, nombresJugadores);
+        registrosCubiertos = indiceRegistro + 1;
+        equipos.escribirCubiertos(registrosCubiertos);
+        jugadores.escribirCubiertos(registrosCubiertos);
+    }
+
+    private void agregarEntradas(long indiceRegistro, String clave, String[] nombresJugadores) throws IOException {
+        equipos.agregar(FormatoRegistro.normalizar(clave, FormatoRegistro.LONG_CLAVE), indiceRegistro);
+        int total = nombresJugadores == null ? 0 : Math.min(nombresJugadores.length, FormatoRegistro.JUGADORES);
+        for (int i = 0; i < total; i++) {
+            String nombre = FormatoRegistro.normalizar(nombresJugadores[i], FormatoRegistro.LONG_JUGADOR);
+            if (!nombre.isEmpty()) {
+                jugadores.agregar(nombre, indiceRegistro);
+            }
+        }
+    }
+
+    /**
+     * Índices de los registros de un equipo, en orden de archivo.
+     *
+     * @param clave clave del equipo
+     * @return índices de registro; vacío si no hay coincidencias
+     */
+    public long[] buscarPorClave(String clave) {
+        return equipos.buscar(FormatoRegistro.normalizar(clave, FormatoRegistro.LONG_CLAVE));
+    }
+
+    /**
+     * Índices de los registros en los que aparece un jugador, en orden de archivo.
+     *
+     * @param nombre nombre del jugador
+     * @return índices de registro; vacío si no hay coincidencias
+     */
+    public long[] buscarPorJugador(String nombre) {
+        return jugadores.buscar(FormatoRegistro.normalizar(nombre, FormatoRegistro.LONG_JUGADOR));
+    }
+
+    /** Número de registros del archivo de datos cubiertos por los índices. */
+    public long getRegistrosCubiertos() {
+        return registrosCubiertos;
+    }
+
+    /**
+     * Descarta ambos índices y los reconstruye recorriendo todo el archivo de datos.
+     *
+     * @throws IOException si falla la lectura de datos o la escritura de índices
+     */
+    public void reconstruir() throws IOException {
+        equipos.vaciar();
+        jugadores.vaciar();
+        registrosCubiertos = 0;
+        indexarDesde(0);
+    }
+
+    /**
+     * Indexa los registros del archivo de datos a partir de {@code desde}.
+     */
+    private void indexarDesde(long desde) throws IOException {
+        if (!Files.exists(rutaDatos)) {
+            return;
+        }
+        int tam = ControlPersistencia.RECORD_SIZE;
+        ByteBuffer bloque = ByteBuffer.allocate(tam * 1024);
+        try (FileChannel datos = FileChannel.open(rutaDatos, StandardOpenOption.READ)) {
+            long total = datos.size() / tam;
+            long siguiente = desde;
+            while (siguiente < total) {
+                bloque.clear();
+                bloque.limit((int) Math.min(bloque.capacity(), (total - siguiente) * tam));
+                long posicion = siguiente * tam;
+                while (bloque.hasRemaining()) {
+                    int leidos = datos.read(bloque, posicion + bloque.position());
+                    if (leidos < 0) {
+                        throw new IOException("Fin inesperado del archivo de resultados.");
+                    }
+                }
+                for (int base = 0; base < bloque.limit(); base += tam) {
+                    RegistroResultado registro = FormatoRegistro.decodificar(bloque, base);
+                    agregarEntradas(siguiente++, registro.getClave(), registro.getJugadores());
+                }
+            }
+            registrosCubiertos = Math.max(registrosCubiertos, total);
+        }
+        equipos.escribirCubiertos(registrosCubiertos);
+        jugadores.escribirCubiertos(registrosCubiertos);
+    }
+
+    private long registrosEnDatos() throws IOException {
+        return Files.exists(rutaDatos) ? Files.size(rutaDatos) / ControlPersistencia.RECORD_SIZE : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            equipos.close();
+        } finally {
+            jugadores.close();
+        }
+    }
+
+    /**
+     * Un archivo auxiliar de índice: cabecera, entradas en disco y su copia en memoria.
+     */
+    private static final class Archivo implements Closeable {
+
+        private final FileChannel canal;
+        private final Map<String, long[]> entradas = new HashMap<>();   // posición 0: cantidad usada
+        private final ByteBuffer escritura = ByteBuffer.allocate(64 * 1024);   // Entradas aún no escritas
+
+        Archivo(Path ruta) throws IOException {
+            this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * Lee la cabecera y las entradas válidas; descarta entradas incompletas o más
+         * allá de los registros cubiertos. Devuelve los registros cubiertos, o -1 si la
+         * cabecera es de otro formato (el archivo queda para reconstruir).
+         */
+        long cargar() throws IOException {
+            entradas.clear();
+            long tam = canal.size();
+            if (tam < TAM_CABECERA) {
+                vaciar();
+                return 0;
+            }
+            ByteBuffer contenido = ByteBuffer.allocate((int) Math.min(tam, Integer.MAX_VALUE));
+            while (contenido.hasRemaining() && canal.read(contenido, contenido.position()) >= 0) {
+                // lectura completa del archivo auxiliar
+            }
+            contenido.flip();
+            if (contenido.getInt() != MAGIA || contenido.getInt() != VERSION) {
+                return -1;
+            }
+            long cubiertos = contenido.getLong();
+            int valido = contenido.position();
+            while (contenido.remaining() >= Short.BYTES) {
+                int largo = contenido.getShort() & 0xFFFF;
+                if (contenido.remaining() < largo + Long.BYTES) {
+                    break;
+                }
+                byte[] bytes = new byte[largo];
+                contenido.get(bytes);
+                long indice = contenido.getLong();
+                if (indice >= cubiertos) {
+                    break;
+                }
+                anotar(new String(bytes, StandardCharsets.UTF_8), indice);
+                valido = contenido.position();
+            }
+            if (valido < tam) {
+                canal.truncate(valido);
+            }
+            canal.position(valido);
+            return cubiertos;
+        }
+
+        /**
+         * Agrega una entrada al buffer de escritura; llega al archivo en el siguiente
+         * {@link #escribirCubiertos}, antes de actualizar la cabecera.
+         */
+        void agregar(String clave, long indice) throws IOException {
+            byte[] bytes = clave.getBytes(StandardCharsets.UTF_8);
+            if (escritura.remaining() < Short.BYTES + bytes.length + Long.BYTES) {
+                escribirPendientes();
+            }
+            escritura.putShort((short) bytes.length).put(bytes).putLong(indice);
+            anotar(clave, indice);
+        }
+
+        private void escribirPendientes() throws IOException {
+            escritura.flip();
+            while (escritura.hasRemaining()) {
+                canal.write(escritura);
+            }
+            escritura.clear();
+        }
+
+        private void anotar(String clave, long indice) {
+            long[] lista = entradas.get(clave);
+            if (lista == null) {
+                lista = new long[4];
+                entradas.put(clave, lista);
+            }
+            int usados = (int) lista[0];
+            if (usados + 1 == lista.length) {
+                lista = Arrays.copyOf(lista, lista.length * 2);
+                entradas.put(clave, lista);
+            }
+            lista[usados + 1] = indice;
+            lista[0] = usados + 1;
+        }
+
+        long[] buscar(String clave) {
+            long[] lista = entradas.get(clave);
+            return lista == null ? new long[0] : Arrays.copyOfRange(lista, 1, (int) lista[0] + 1);
+        }
+
+        /**
+         * Escribe las entradas pendientes y luego actualiza la cabecera, de modo que
+         * la cabecera nunca cubre entradas que no estén en el archivo.
+         */
+        void escribirCubiertos(long cubiertos) throws IOException {
+            escribirPendientes();
+            ByteBuffer valor = ByteBuffer.allocate(Long.BYTES).putLong(cubiertos);
+            valor.flip();
+            canal.write(valor, POS_CUBIERTOS);
+        }
+
+        /** Deja el archivo solo con la cabecera y sin entradas. */
+        void vaciar() throws IOException {
+            entradas.clear();
+            escritura.clear();
+            canal.truncate(0);
+            ByteBuffer cabecera = ByteBuffer.allocate(TAM_CABECERA).putInt(MAGIA).putInt(VERSION).putLong(0);
+            cabecera.flip();
+            canal.write(cabecera, 0);
+            canal.position(TAM_CABECERA);
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.FormatoTorneo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.PoliticaDuplicados;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoEncuentro;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoSimulacion;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LanzadorConsola
+ *
+ * Modo de línea de comandos para jugar partidas en lote en servidores sin pantalla.
+ * No usa Swing ni AWT: {@link Launcher} llega aquí antes de cargar cualquier clase de la
+ * interfaz gráfica, y se fija {@code java.awt.headless=true} por si alguna dependencia
+ * lo intentara.
+ *
+ * Uso:
+ * <pre>
+ * java -jar ArgollaLlanera.jar --consola --equipos Equipos.properties --partidas 100000
+ *      [--semilla 42] [--hilos 8] [--salida resultados.dat]
+ * java -jar ArgollaLlanera.jar --consola --equipos Equipos.properties --torneo suizo
+ *      [--semilla 42] [--hilos 8]
+ * </pre>
+ *
+ * Las partidas se reparten entre todas las parejas de equipos cargados, de forma cíclica.
+ * Se juegan en bloques paralelos, cada uno con su {@link SplittableRandom} dividido en
+ * orden desde la semilla, y los bloques se escriben en orden con
+ * {@link ControlPersistencia#crearEscritorPorLotes}: con la misma semilla el archivo sale
+ * igual, sin importar cuántos hilos se usen. Al final se imprime el rendimiento y un
+ * resumen por enfrentamiento.
+ *
+ * Con {@code --torneo} se juega en cambio un torneo con {@link ControlTorneo} entre los
+ * equipos cargados, sembrados en el orden en que se cargaron. El formato es uno de
+ * {@link FormatoTorneo}, sin importar mayúsculas y con guiones o guiones bajos
+ * ({@code todos-contra-todos}, {@code eliminacion-simple}, {@code eliminacion-doble},
+ * {@code suizo}). Se imprimen los encuentros de cada ronda, la tabla de posiciones y el
+ * campeón.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public final class LanzadorConsola {
+
+    /** Opción que activa este modo en {@link Launcher}. */
+    public static final String OPCION = "--consola";
+
+    private static final int PARTIDAS_POR_BLOQUE = 4096;   // Partidas de cada tarea paralela
+    private static final int REGISTROS_POR_LOTE = 4096;    // Registros por escritura al archivo
+
+    private static final String USO = "Uso: " + OPCION + " --equipos <archivo|carpeta> --partidas <n>"
+            + " [--semilla <n>] [--hilos <n>] [--salida <archivo.dat>]\n"
+            + "     " + OPCION + " --equipos <archivo|carpeta> --torneo <formato> [--semilla <n>] [--hilos <n>]";
+
+    private final Path equipos;      // Archivo o carpeta de equipos
+    private final long partidas;     // Partidas a jugar en total
+    private final long semilla;      // Semilla de la fuente aleatoria raíz
+    private final int hilos;         // Hilos de simulación
+    private final String salida;     // Archivo de resultados, null para no guardar
+    private final FormatoTorneo torneo; // Formato del torneo a jugar, null para partidas en lote
+
+    private LanzadorConsola(Path equipos, long partidas, long semilla, int hilos, String salida,
+                            FormatoTorneo torneo) {
+        this.equipos = equipos;
+        this.partidas = partidas;
+        this.semilla = semilla;
+        this.hilos = hilos;
+        this.salida = salida;
+        this.torneo = torneo;
+    }
+
+    /**
+     * Punto de entrada del modo consola; termina el proceso con el código de
+     * {@link #ejecutar}.
+     *
+     * @param args argumentos de la línea de comandos
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(ejecutar(args, System.out, System.err));
+    }
+
+    /**
+     * Interpreta los argumentos y juega las partidas o el torneo.
+     *
+     * @param args argumentos; se ignora {@value #OPCION} si está presente
+     * @param salida destino del resumen
+     * @param errores destino de los errores
+     * @return 0 si terminó bien, 1 si falló la carga o la escritura, 2 si los argumentos no son válidos
+     */
+    public static int ejecutar(String[] args, PrintStream salida, PrintStream errores) {
+        LanzadorConsola lanzador;
+        try {
+            lanzador = desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            errores.println(e.getMessage());
+            errores.println(USO);
+            return 2;
+        }
+        try {
+            lanzador.correr(salida);
+            return 0;
+        } catch (IOException e) {
+            errores.println("Error: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errores.println("Interrumpido.");
+            return 1;
+        }
+    }
+
+    private static LanzadorConsola desdeArgumentos(String[] args) {
+        Path equipos = null;
+        long partidas = -1;
+        long semilla = System.nanoTime();
+        int hilos = Runtime.getRuntime().availableProcessors();
+        String salida = null;
+        FormatoTorneo torneo = null;
+        for (int i = 0; i < args.length; i++) {
+            String opcion = args[i];
+            if (opcion.equals(OPCION)) {
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + opcion);
+            }
+            String valor = args[++i];
+            switch (opcion) {
+                case "--equipos":
+                    equipos = Paths.get(valor);
+                    break;
+                case "--partidas":
+                    partidas = numero(opcion, valor);
+                    break;
+                case "--semilla":
+                    semilla = numero(opcion, valor);
+                    break;
+                case "--hilos":
+                    hilos = (int) Math.min(Integer.MAX_VALUE, numero(opcion, valor));
+                    break;
+                case "--salida":
+                    salida = valor;
+                    break;
+                case "--torneo":
+                    torneo = formato(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + opcion);
+            }
+        }
+        if (equipos == null) {
+            throw new IllegalArgumentException("Falta --equipos");
+        }
+        if (torneo != null && (partidas >= 0 || salida != null)) {
+            throw new IllegalArgumentException("--partidas y --salida no se usan con --torneo");
+        }
+        if (torneo == null && partidas < 0) {
+            throw new IllegalArgumentException("Falta --partidas o es negativo");
+        }
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("--hilos debe ser positivo");
+        }
+        return new LanzadorConsola(equipos, partidas, semilla, hilos, salida, torneo);
+    }
+
+    private static FormatoTorneo formato(String valor) {
+        try {
+            return FormatoTorneo.valueOf(valor.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de torneo desconocido: " + valor
+                    + " (todos-contra-todos, eliminacion-simple, eliminacion-doble o suizo)");
+        }
+    }
+
+    private static long numero(String opcion, String valor) {
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no numérico para " + opcion + ": " + valor);
+        }
+    }
+
+    /**
+     * Pareja de equipos que se enfrentan, con los nombres de sus jugadores ya listos para
+     * los registros.
+     */
+    private static final class Pareja {
+
+        final List<Equipo> equipos;          // Equipo A y equipo B
+        final String[][] jugadores;          // Nombres de los jugadores de cada equipo
+
+        Pareja(Equipo a, Equipo b) {
+            this.equipos = Arrays.asList(a, b);
+            this.jugadores = new String[][]{nombres(a), nombres(b)};
+        }
+    }
+
+    /**
+     * Resultado de un bloque de partidas: el ganador de cada una y los acumulados por pareja.
+     */
+    private static final class Bloque {
+
+        final long inicio;                   // Número de la primera partida del bloque
+        final byte[] ganadores;              // Índice (0 o 1) del ganador de cada partida
+        final ResultadoSimulacion[] porPareja;
+
+        Bloque(long inicio, int cantidad, ResultadoSimulacion[] porPareja) {
+            this.inicio = inicio;
+            this.ganadores = new byte[cantidad];
+            this.porPareja = porPareja;
+        }
+    }
+
+    /**
+     * Carga los equipos, juega las partidas, guarda los resultados e imprime el resumen.
+     *
+     * @param out destino del resumen
+     * @throws IOException si falla la carga de equipos o la escritura de resultados
+     * @throws InterruptedException si se interrumpe la espera de los bloques
+     */
+    private void correr(PrintStream out) throws IOException, InterruptedException {
+        if (torneo != null) {
+            jugarTorneo(out);
+            return;
+        }
+        long inicioCarga = System.nanoTime();
+        List<Equipo> cargados = cargarEquipos();
+        List<Pareja> parejas = new ArrayList<>();
+        for (int i = 0; i < cargados.size(); i++) {
+            for (int j = i + 1; j < cargados.size(); j++) {
+                parejas.add(new Pareja(cargados.get(i), cargados.get(j)));
+            }
+        }
+        out.printf("Equipos: %d | enfrentamientos: %d | partidas: %d | hilos: %d | semilla: %d%n",
+                cargados.size(), parejas.size(), partidas, hilos, semilla);
+        out.printf("Carga de equipos: %.1f ms%n", (System.nanoTime() - inicioCarga) / 1e6);
+
+        ResultadoSimulacion[] totales = nuevosAcumulados(parejas);
+        long registros = 0;
+        long inicio = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "consola-simulacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ControlPersistencia persistencia = salida != null ? new ControlPersistencia(salida, false) : null;
+        try (EscritorResultadosPorLotes escritor = persistencia != null
+                ? persistencia.crearEscritorPorLotes(REGISTROS_POR_LOTE, false) : null) {
+            SplittableRandom raiz = new SplittableRandom(semilla);
+            Deque<Future<Bloque>> ventana = new ArrayDeque<>();
+            for (long desde = 0; desde < partidas; desde += PARTIDAS_POR_BLOQUE) {
+                long primera = desde;
+                int cantidad = (int) Math.min(PARTIDAS_POR_BLOQUE, partidas - desde);
+                SplittableRandom fuente = raiz.split();
+                ventana.add(pool.submit(() -> jugarBloque(parejas, primera, cantidad, fuente)));
+                // Ventana acotada: memoria constante aunque se pidan miles de millones de partidas
+                if (ventana.size() >= hilos * 2) {
+                    registros += consumir(esperar(ventana.poll()), parejas, totales, escritor);
+                }
+            }
+            while (!ventana.isEmpty()) {
+                registros += consumir(esperar(ventana.poll()), parejas, totales, escritor);
+            }
+        } finally {
+            pool.shutdownNow();
+            if (persistencia != null) {
+                persistencia.close();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        out.printf("Partidas jugadas: %d en %.3f s (%.0f partidas/s)%n",
+                partidas, segundos, segundos > 0 ? partidas / segundos : 0);
+        if (salida != null) {
+            out.printf("Registros escritos: %d en %s%n", registros, salida);
+        }
+        for (ResultadoSimulacion r : totales) {
+            out.println(r);
+        }
+    }
+
+    /**
+     * Carga los equipos, juega el torneo e imprime los encuentros, la tabla y el campeón.
+     *
+     * @param out destino del resumen
+     * @throws IOException si falla la carga de equipos
+     * @throws InterruptedException si se interrumpe la espera de una ronda
+     */
+    private void jugarTorneo(PrintStream out) throws IOException, InterruptedException {
+        List<Equipo> cargados = cargarEquipos();
+        out.printf("Torneo %s | equipos: %d | hilos: %d | semilla: %d%n",
+                torneo, cargados.size(), hilos, semilla);
+        ControlTorneo control = new ControlTorneo(cargados, torneo, semilla, hilos);
+        long inicio = System.nanoTime();
+        Equipo campeon = control.jugar();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        for (ResultadoEncuentro encuentro : control.getEncuentros()) {
+            out.println(encuentro);
+        }
+        out.print(control.getTabla());
+        out.printf("Campeón: %s (%d rondas en %.3f s)%n", campeon.getNombre(), control.getRondas(), segundos);
+    }
+
+    private List<Equipo> cargarEquipos() throws IOException {
+        if (!Files.exists(equipos)) {
+            throw new IOException("No existe " + equipos);
+        }
+        ControlEquipo controlEquipo = new ControlEquipo();
+        if (Files.isDirectory(equipos)) {
+            controlEquipo.cargarEquiposDesdeDirectorio(equipos, PoliticaDuplicados.CONSERVAR_PRIMERO);
+        } else {
+            controlEquipo.cargarEquiposDesdeArchivo(equipos.toString());
+        }
+        List<Equipo> cargados = new ArrayList<>();
+        for (Equipo equipo : controlEquipo.listarEquipos()) {
+            if (!equipo.getJugadores().isEmpty()) {
+                cargados.add(equipo);
+            }
+        }
+        if (cargados.size() < 2) {
+            throw new IOException("Se requieren al menos dos equipos con jugadores en " + equipos);
+        }
+        return cargados;
+    }
+
+    private static ResultadoSimulacion[] nuevosAcumulados(List<Pareja> parejas) {
+        ResultadoSimulacion[] acumulados = new ResultadoSimulacion[parejas.size()];
+        for (int p = 0; p < acumulados.length; p++) {
+            List<Equipo> equipos = parejas.get(p).equipos;
+            acumulados[p] = new ResultadoSimulacion(equipos.get(0), equipos.get(1));
+        }
+        return acumulados;
+    }
+
+    /**
+     * Juega un bloque de partidas en el hilo actual. La partida número {@code n} enfrenta
+     * a la pareja {@code n % parejas}.
+     */
+    private static Bloque jugarBloque(List<Pareja> parejas, long primera, int cantidad, SplittableRandom rand) {
+        Bloque bloque = new Bloque(primera, cantidad, nuevosAcumulados(parejas));
+        for (int k = 0; k < cantidad; k++) {
+            int p = (int) ((primera + k) % parejas.size());
+            List<Equipo> equiposJuego = parejas.get(p).equipos;
+            MotorPartida motor = new MotorPartida(new Juego(equiposJuego, rand), equiposJuego, rand.nextInt(2));
+            motor.jugarHastaTerminar();
+            bloque.ganadores[k] = (byte) motor.getIndiceGanador();
+            bloque.porPareja[p].registrarPartida(motor.getIndiceGanador(), motor.isMuerteSubita(),
+                    motor.getManos(), motor.getLanzamientos());
+        }
+        return bloque;
+    }
+
+    private static Bloque esperar(Future<Bloque> futuro) throws IOException, InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Falló la simulación: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * Suma un bloque a los totales y escribe sus registros, dos por partida.
+     *
+     * @return registros escritos
+     */
+    private static long consumir(Bloque bloque, List<Pareja> parejas, ResultadoSimulacion[] totales,
+                                 EscritorResultadosPorLotes escritor) throws IOException {
+        for (int p = 0; p < totales.length; p++) {
+            totales[p].combinar(bloque.porPareja[p]);
+        }
+        if (escritor == null) {
+            return 0;
+        }
+        for (int k = 0; k < bloque.ganadores.length; k++) {
+            Pareja pareja = parejas.get((int) ((bloque.inicio + k) % parejas.size()));
+            int ganador = bloque.ganadores[k];
+            for (int e = 0; e < 2; e++) {
+                Equipo equipo = pareja.equipos.get(e);
+                escritor.escribirRegistro(equipo.getClave(), equipo.getNombre(), pareja.jugadores[e],
+                        e == ganador ? "Ganó" : "Perdió");
+            }
+        }
+        return 2L * bloque.ganadores.length;
+    }
+
+    private static String[] nombres(Equipo equipo) {
+        List<Jugador> jugadores = equipo.getJugadores();
+        String[] nombres = new String[jugadores.size()];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = jugadores.get(i).getNombre();
+        }
+        return nombres;
+    }
+}
@@ -10,12 +10,27 @@ package Udistrital.avanzada.ArgollaLlanera.control;
  * la configuración y lógica al ControlAplicativo.
  * 
  * También respeta el patrón MVC al no tener lógica de vista ni de modelo.
+ *
+ * Con la opción {@code --consola} se ejecuta {@link LanzadorConsola}, que juega partidas
+ * en lote sin interfaz gráfica. La decisión se toma antes de tocar cualquier clase de
+ * Swing, así ese modo arranca rápido y funciona en servidores sin pantalla. Del mismo
+ * modo, {@code --reproducir} ejecuta {@link ReproductorConsola}, que repite partidas grabadas.
  * 
  * @author Sara
  */
 public class Launcher {
 
     public static void main(String[] args) {
+        for (String arg : args) {
+            if (LanzadorConsola.OPCION.equals(arg)) {
+                LanzadorConsola.main(args);
+                return;
+            }
+            if (ReproductorConsola.OPCION.equals(arg)) {
+                ReproductorConsola.main(args);
+                return;
+            }
+        }
         try {
             // Crear instancia del controlador principal de la aplicación
             ControlAplicativo controlAplicativo = new ControlAplicativo();
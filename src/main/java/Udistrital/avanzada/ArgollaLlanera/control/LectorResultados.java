@@ -0,0 +1,295 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * LectorResultados
+ *
+ * Lector de solo lectura del archivo de resultados que proyecta el archivo en memoria
+ * ({@link MappedByteBuffer}). Como todos los registros miden
+ * {@link ControlPersistencia#RECORD_SIZE} bytes, el registro i se ubica con una
+ * multiplicación y se accede en tiempo constante.
+ *
+ * Ofrece:
+ * - {@link #get(long)}: registro decodificado por índice.
+ * - {@link #cursor()}: recorrido secuencial que no crea objetos por fila; los campos
+ *   se comparan directamente sobre los bytes proyectados.
+ * - {@link #buscar(String, String)}: índices de los registros que cumplen un filtro
+ *   por clave de equipo y/o resultado.
+ *
+ * Los archivos de más de 2 GB se proyectan por segmentos; ningún registro queda
+ * partido entre dos segmentos. Los bytes sobrantes de un registro incompleto al
+ * final del archivo se ignoran. El lector refleja el tamaño del archivo al abrirse.
+ *
+ * Los registros antiguos que quedaron en el archivo (ver {@link FormatoRegistro.Disposicion})
+ * se reconocen uno por uno y se decodifican en su disposición; en ellos las comparaciones
+ * se hacen sobre el texto decodificado.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class LectorResultados implements Closeable {
+
+    /** Registros por segmento proyectado, para no superar el límite de 2 GB de un buffer. */
+    private static final int REGISTROS_POR_SEGMENTO = Integer.MAX_VALUE / ControlPersistencia.RECORD_SIZE;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer[] segmentos;
+    private final long cantidad;
+
+    /**
+     * Abre y proyecta en memoria el archivo de resultados.
+     *
+     * @param rutaArchivo ruta del archivo de resultados
+     * @throws IOException si el archivo no existe o no puede proyectarse
+     */
+    public LectorResultados(String rutaArchivo) throws IOException {
+        this(Paths.get(rutaArchivo));
+    }
+
+    /**
+     * Abre y proyecta en memoria el archivo de resultados.
+     *
+     * @param ruta ruta del archivo de resultados
+     * @throws IOException si el archivo no existe o no puede proyectarse
+     */
+    public LectorResultados(Path ruta) throws IOException {
+        this.canal = FileChannel.open(ruta, StandardOpenOption.READ);
+        try {
+            this.cantidad = canal.size() / ControlPersistencia.RECORD_SIZE;
+            int total = (int) ((cantidad + REGISTROS_POR_SEGMENTO - 1) / REGISTROS_POR_SEGMENTO);
+            this.segmentos = new MappedByteBuffer[total];
+            for (int i = 0; i < total; i++) {
+                long primero = (long) i * REGISTROS_POR_SEGMENTO;
+                long registros = Math.min(REGISTROS_POR_SEGMENTO, cantidad - primero);
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY,
+                        primero * ControlPersistencia.RECORD_SIZE,
+                        registros * ControlPersistencia.RECORD_SIZE);
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /** Número de registros completos del archivo. */
+    public long cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Decodifica el registro de la posición indicada.
+     *
+     * @param indice índice del registro, desde 0
+     * @return registro decodificado
+     */
+    public RegistroResultado get(long indice) {
+        Cursor cursor = new Cursor();
+        cursor.posicionar(indice);
+        return cursor.aRegistro();
+    }
+
+    /**
+     * Crea un cursor posicionado antes del primer registro.
+     *
+     * @return cursor reutilizable para recorrer el archivo
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Devuelve los índices de todos los registros de un equipo.
+     *
+     * @param clave clave del equipo
+     * @return índices en orden de archivo
+     */
+    public long[] buscarPorClave(String clave) {
+        return buscar(clave, null);
+    }
+
+    /**
+     * Devuelve los índices de todos los registros con un resultado dado.
+     *
+     * @param resultado texto del resultado (p. ej. "Ganó")
+     * @return índices en orden de archivo
+     */
+    public long[] buscarPorResultado(String resultado) {
+        return buscar(null, resultado);
+    }
+
+    /**
+     * Recorre el archivo y devuelve los índices de los registros que cumplen el filtro.
+     * Las comparaciones se hacen sobre los bytes proyectados, sin decodificar filas.
+     *
+     * @param clave clave del equipo, o null para cualquiera
+     * @param resultado texto del resultado, o null para cualquiera
+     * @return índices en orden de archivo
+     */
+    public long[] buscar(String clave, String resultado) {
+        byte[] campoClave = clave == null ? null
+                : FormatoRegistro.codificarCampo(clave, FormatoRegistro.LONG_CLAVE);
+        byte[] campoResultado = resultado == null ? null
+                : FormatoRegistro.codificarCampo(resultado, FormatoRegistro.LONG_RESULTADO);
+
+        long[] indices = new long[16];
+        int total = 0;
+        Cursor cursor = new Cursor();
+        while (cursor.siguiente()) {
+            if ((campoClave == null || cursor.claveEs(campoClave))
+                    && (campoResultado == null || cursor.resultadoEs(campoResultado))) {
+                if (total == indices.length) {
+                    indices = Arrays.copyOf(indices, total * 2);
+                }
+                indices[total++] = cursor.getIndice();
+            }
+        }
+        return Arrays.copyOf(indices, total);
+    }
+
+    /**
+     * Libera el canal del archivo. Las proyecciones se liberan cuando el recolector
+     * de basura reclama los buffers.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Cursor secuencial sobre los registros. Un mismo cursor se reutiliza para todas
+     * las filas: avanzar y comparar campos no crea objetos; solo los métodos que
+     * devuelven texto decodifican. Los registros antiguos se decodifican completos al
+     * posicionarse en ellos.
+     */
+    public final class Cursor {
+
+        private long indice = -1;
+        private MappedByteBuffer segmento;
+        private int base;
+        private RegistroResultado legado;   // Registro actual si es de una disposición antigua, si no null
+
+        private Cursor() {
+        }
+
+        /**
+         * Avanza al siguiente registro.
+         *
+         * @return false si ya no hay más registros
+         */
+        public boolean siguiente() {
+            if (indice + 1 >= cantidad) {
+                return false;
+            }
+            posicionar(indice + 1);
+            return true;
+        }
+
+        /**
+         * Ubica el cursor en un registro arbitrario.
+         *
+         * @param nuevoIndice índice del registro, desde 0
+         */
+        public void posicionar(long nuevoIndice) {
+            if (nuevoIndice < 0 || nuevoIndice >= cantidad) {
+                throw new IndexOutOfBoundsException("Registro inexistente: " + nuevoIndice);
+            }
+            indice = nuevoIndice;
+            segmento = segmentos[(int) (nuevoIndice / REGISTROS_POR_SEGMENTO)];
+            base = (int) (nuevoIndice % REGISTROS_POR_SEGMENTO) * ControlPersistencia.RECORD_SIZE;
+            legado = FormatoRegistro.detectar(segmento, base) == FormatoRegistro.Disposicion.ACTUAL
+                    ? null : FormatoRegistro.decodificar(segmento, base);
+        }
+
+        /** Índice del registro actual. */
+        public long getIndice() {
+            return indice;
+        }
+
+        /** Compara la clave del registro actual con una columna ya codificada. */
+        public boolean claveEs(byte[] campo) {
+            return legado != null ? legado.getClave().equals(texto(campo))
+                    : campoIgual(FormatoRegistro.POS_CLAVE, campo);
+        }
+
+        /** Compara el resultado del registro actual con una columna ya codificada. */
+        public boolean resultadoEs(byte[] campo) {
+            return legado != null ? legado.getResultado().equals(texto(campo))
+                    : campoIgual(FormatoRegistro.POS_RESULTADO, campo);
+        }
+
+        /** Compara el jugador {@code i} del registro actual con una columna ya codificada. */
+        public boolean jugadorEs(int i, byte[] campo) {
+            return legado != null ? legado.getJugadores()[i].equals(texto(campo))
+                    : campoIgual(FormatoRegistro.POS_JUGADORES + i * FormatoRegistro.LONG_JUGADOR, campo);
+        }
+
+        private String texto(byte[] campo) {
+            return FormatoRegistro.decodificarCampo(ByteBuffer.wrap(campo), 0, campo.length);
+        }
+
+        private boolean campoIgual(int posicion, byte[] campo) {
+            int inicio = base + posicion;
+            for (int i = 0; i < campo.length; i++) {
+                if (segmento.get(inicio + i) != campo[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String getClave() {
+            if (legado != null) {
+                return legado.getClave();
+            }
+            return FormatoRegistro.decodificarCampo(segmento, base + FormatoRegistro.POS_CLAVE,
+                    FormatoRegistro.LONG_CLAVE);
+        }
+
+        public String getNombreEquipo() {
+            if (legado != null) {
+                return legado.getNombreEquipo();
+            }
+            return FormatoRegistro.decodificarCampo(segmento, base + FormatoRegistro.POS_EQUIPO,
+                    FormatoRegistro.LONG_EQUIPO);
+        }
+
+        public String getJugador(int i) {
+            if (legado != null) {
+                return legado.getJugadores()[i];
+            }
+            return FormatoRegistro.decodificarCampo(segmento,
+                    base + FormatoRegistro.POS_JUGADORES + i * FormatoRegistro.LONG_JUGADOR,
+                    FormatoRegistro.LONG_JUGADOR);
+        }
+
+        public String getResultado() {
+            if (legado != null) {
+                return legado.getResultado();
+            }
+            return FormatoRegistro.decodificarCampo(segmento, base + FormatoRegistro.POS_RESULTADO,
+                    FormatoRegistro.LONG_RESULTADO);
+        }
+
+        /** Decodifica el registro actual completo. */
+        public RegistroResultado aRegistro() {
+            if (legado != null) {
+                return legado;
+            }
+            String[] jugadores = new String[FormatoRegistro.JUGADORES];
+            for (int i = 0; i < jugadores.length; i++) {
+                jugadores[i] = getJugador(i);
+            }
+            return new RegistroResultado(getClave(), getNombreEquipo(), jugadores, getResultado());
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoPartida;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LectorResultadosV2
+ *
+ * Lector secuencial del archivo de resultados que entiende tanto el formato binario
+ * versión 2 ({@link FormatoBinarioV2}) como el formato de registros de 160 bytes de
+ * {@link ControlPersistencia}. El formato se detecta por la cabecera al abrir; en el de
+ * 160 bytes cada registro se decodifica en su disposición, también las anteriores a la
+ * actual (ver {@link FormatoRegistro.Disposicion}).
+ *
+ * En el formato versión 2 los textos salen del diccionario, así que todos los registros
+ * de un mismo equipo comparten las mismas instancias de {@code String}. Una entrada
+ * incompleta al final del archivo (escritura interrumpida) se ignora y
+ * {@link #getPosicionValida()} indica dónde termina la última entrada completa.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class LectorResultadosV2 implements Closeable {
+
+    private static final int TAM_BUFFER = 64 * 1024;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final boolean legado;
+
+    private long inicioBuffer;                       // Posición del archivo del primer byte del buffer
+    private long posicionValida;                     // Fin de la última entrada completa
+    private final List<String> diccionario = new ArrayList<>();
+    private long ultimaMarca;                        // Marca de tiempo del último registro leído
+    private boolean fin;                             // Se llegó al final o a una entrada incompleta
+
+    private RegistroResultado actual;
+    private int idClaveActual = -1;
+    private ResultadoPartida resultadoActual;
+
+    /**
+     * Abre el archivo y detecta su formato.
+     *
+     * @param ruta archivo de resultados en cualquiera de los dos formatos
+     * @throws IOException si el archivo no puede abrirse o la cabecera es de otra versión
+     */
+    public LectorResultadosV2(Path ruta) throws IOException {
+        this.legado = !FormatoBinarioV2.esV2(ruta);
+        this.canal = FileChannel.open(ruta, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(TAM_BUFFER);
+        this.buffer.limit(0);
+        if (!legado) {
+            try {
+                rellenar(FormatoBinarioV2.TAM_CABECERA);
+                buffer.getInt();
+                buffer.get();
+                byte esquema = buffer.get();
+                buffer.getShort();
+                if (esquema != FormatoBinarioV2.ESQUEMA) {
+                    throw new IOException("Esquema de resultados no soportado: " + esquema);
+                }
+                posicionValida = FormatoBinarioV2.TAM_CABECERA;
+            } catch (IOException e) {
+                canal.close();
+                throw e;
+            }
+        }
+    }
+
+    /** Indica si el archivo está en el formato de 160 bytes. */
+    public boolean esLegado() {
+        return legado;
+    }
+
+    /**
+     * Avanza al siguiente registro; las entradas de diccionario se procesan por el camino.
+     *
+     * @return false al llegar al final o a una entrada incompleta
+     * @throws IOException si hay un error de lectura o una entrada de tipo desconocido
+     */
+    public boolean siguiente() throws IOException {
+        return legado ? siguienteLegado() : siguienteV2();
+    }
+
+    private boolean siguienteLegado() throws IOException {
+        int tam = ControlPersistencia.RECORD_SIZE;
+        if (fin) {
+            return false;
+        }
+        try {
+            rellenar(tam);
+        } catch (EOFException e) {
+            fin = true;
+            return false;
+        }
+        int base = buffer.position();
+        actual = FormatoRegistro.decodificar(buffer, base);
+        resultadoActual = actual.getResultadoPartida();
+        buffer.position(base + tam);
+        posicionValida = inicioBuffer + buffer.position();
+        return true;
+    }
+
+    private boolean siguienteV2() throws IOException {
+        if (fin) {
+            return false;
+        }
+        int diccionarioPrevio = diccionario.size();
+        try {
+            while (true) {
+                byte tipo = leerByte();
+                if (tipo == FormatoBinarioV2.TIPO_DICCIONARIO) {
+                    int largo = (int) leerVarint();
+                    byte[] bytes = new byte[largo];
+                    for (int i = 0; i < largo; i++) {
+                        bytes[i] = leerByte();
+                    }
+                    diccionario.add(new String(bytes, StandardCharsets.UTF_8));
+                } else if (tipo == FormatoBinarioV2.TIPO_REGISTRO) {
+                    leerRegistroV2();
+                    posicionValida = inicioBuffer + buffer.position();
+                    return true;
+                } else {
+                    throw new IOException("Tipo de entrada desconocido " + tipo
+                            + " en la posición " + (inicioBuffer + buffer.position() - 1));
+                }
+            }
+        } catch (EOFException e) {
+            // Las entradas de diccionario sin un registro completo después quedan fuera
+            diccionario.subList(diccionarioPrevio, diccionario.size()).clear();
+            fin = true;
+            return false;
+        }
+    }
+
+    private void leerRegistroV2() throws IOException {
+        int idClave = (int) leerVarint();
+        int idEquipo = (int) leerVarint();
+        int cantidad = (int) leerVarint();
+        String[] jugadores = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            jugadores[i] = texto((int) leerVarint());
+        }
+        ResultadoPartida resultado = ResultadoPartida.desdeCodigo(leerByte());
+        int puntaje = (int) FormatoBinarioV2.desZigzag(leerVarint());
+        long marca = ultimaMarca + FormatoBinarioV2.desZigzag(leerVarint());
+
+        ultimaMarca = marca;
+        idClaveActual = idClave;
+        resultadoActual = resultado;
+        actual = new RegistroResultado(texto(idClave), texto(idEquipo), jugadores, resultado.getTexto(),
+                puntaje, marca);
+    }
+
+    private String texto(int id) throws IOException {
+        if (id < 0 || id >= diccionario.size()) {
+            throw new IOException("Referencia a diccionario inexistente: " + id);
+        }
+        return diccionario.get(id);
+    }
+
+    /** Registro en el que está el lector tras el último {@link #siguiente()}. */
+    public RegistroResultado getRegistro() {
+        return actual;
+    }
+
+    /** Resultado tipado del registro actual. */
+    public ResultadoPartida getResultado() {
+        return resultadoActual;
+    }
+
+    /**
+     * Id de diccionario de la clave del registro actual (solo formato versión 2),
+     * útil para filtrar sin comparar cadenas. En el formato de 160 bytes vale -1.
+     */
+    public int getIdClave() {
+        return legado ? -1 : idClaveActual;
+    }
+
+    /** Posición del archivo donde termina la última entrada completa leída. */
+    public long getPosicionValida() {
+        return posicionValida;
+    }
+
+    /** Textos del diccionario leídos hasta ahora, en orden de id. */
+    List<String> getDiccionario() {
+        return Collections.unmodifiableList(diccionario);
+    }
+
+    /** Marca de tiempo del último registro leído. */
+    long getUltimaMarca() {
+        return ultimaMarca;
+    }
+
+    private byte leerByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            rellenar(1);
+        }
+        return buffer.get();
+    }
+
+    private long leerVarint() throws IOException {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            byte b = leerByte();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Varint mal formado en la posición " + (inicioBuffer + buffer.position()));
+    }
+
+    /**
+     * Garantiza al menos {@code minimo} bytes disponibles en el buffer.
+     *
+     * @throws EOFException si el archivo termina antes
+     */
+    private void rellenar(int minimo) throws IOException {
+        if (buffer.remaining() >= minimo) {
+            return;
+        }
+        inicioBuffer += buffer.position();
+        buffer.compact();
+        while (buffer.position() < minimo) {
+            if (canal.read(buffer) < 0) {
+                buffer.flip();
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,258 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Metricas
+ *
+ * Registro de métricas de la aplicación: contadores ({@link LongAdder}) y histogramas de
+ * latencia ({@link HistogramaLatencia}) identificados por nombre. Sirve para ver qué
+ * etapa se vuelve lenta durante una jornada larga: lanzamientos, cierre de partidas,
+ * escritura y lectura de resultados, vaciados al disco, carga de equipos y
+ * actualizaciones de la vista.
+ *
+ * Los componentes guardan sus contadores e histogramas en constantes al cargarse la
+ * clase, así que medir en el camino crítico es un {@code nanoTime} y unos incrementos
+ * atómicos. Los histogramas de tiempos terminan en {@code .ns}.
+ *
+ * Las métricas se consultan:
+ * - por JMX ({@link #registrarJmx(String)}): un atributo por contador y, por cada
+ *   histograma, su cantidad, p50, p99 y máximo en nanosegundos; la operación
+ *   {@code volcar} devuelve el texto completo;
+ * - como texto ({@link #volcar()}), o agregándolo a un archivo cada cierto tiempo
+ *   ({@link #iniciarVolcado(Path, Duration)}).
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class Metricas {
+
+    private static final Metricas GLOBAL = new Metricas();
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> histogramas = new ConcurrentHashMap<>();
+
+    /** Registro compartido por toda la aplicación. */
+    public static Metricas global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Devuelve el contador con ese nombre, creándolo si no existe.
+     *
+     * @param nombre nombre de la métrica, p. ej. {@code juego.lanzamientos}
+     * @return contador
+     */
+    public LongAdder contador(String nombre) {
+        return contadores.computeIfAbsent(nombre, n -> new LongAdder());
+    }
+
+    /**
+     * Devuelve el histograma con ese nombre, creándolo si no existe.
+     *
+     * @param nombre nombre de la métrica, p. ej. {@code juego.lanzamiento.ns}
+     * @return histograma
+     */
+    public HistogramaLatencia histograma(String nombre) {
+        return histogramas.computeIfAbsent(nombre, n -> new HistogramaLatencia());
+    }
+
+    /**
+     * Texto con todas las métricas, en orden alfabético: una línea por contador con su
+     * valor y una por histograma con cantidad, promedio, percentiles y máximo (los de
+     * tiempo, en microsegundos).
+     *
+     * @return volcado de las métricas
+     */
+    public String volcar() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(contadores).entrySet()) {
+            sb.append(e.getKey()).append(' ').append(e.getValue().sum()).append('\n');
+        }
+        for (Map.Entry<String, HistogramaLatencia> e : new TreeMap<>(histogramas).entrySet()) {
+            HistogramaLatencia h = e.getValue();
+            boolean tiempo = e.getKey().endsWith(".ns");
+            double escala = tiempo ? 1e3 : 1;
+            sb.append(e.getKey()).append(" n=").append(h.getCantidad())
+              .append(String.format(Locale.ROOT, " media=%.1f p50=%.1f p90=%.1f p99=%.1f p999=%.1f max=%.1f",
+                      h.getPromedio() / escala, h.percentil(50) / escala, h.percentil(90) / escala,
+                      h.percentil(99) / escala, h.percentil(99.9) / escala, h.getMaximo() / escala));
+            if (tiempo) {
+                sb.append(" us");
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Registra las métricas en el servidor JMX de la plataforma como
+     * {@code Udistrital.avanzada.ArgollaLlanera:type=Metricas,name=<nombre>}.
+     *
+     * @param nombre nombre del registro en JMX
+     * @return nombre del MBean registrado
+     * @throws JMException si no se puede registrar (p. ej. el nombre ya existe)
+     */
+    public ObjectName registrarJmx(String nombre) throws JMException {
+        ObjectName objeto = new ObjectName("Udistrital.avanzada.ArgollaLlanera:type=Metricas,name="
+                + ObjectName.quote(nombre));
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        servidor.registerMBean(new BeanMetricas(), objeto);
+        return objeto;
+    }
+
+    /**
+     * Agrega el volcado de las métricas al archivo indicado cada cierto tiempo, en un
+     * hilo demonio, precedido de la hora. Al cerrar el resultado se agrega un último volcado.
+     *
+     * @param archivo archivo de destino
+     * @param periodo tiempo entre volcados
+     * @return programación del volcado; se detiene al cerrarla
+     * @throws IOException si no se puede crear la carpeta del archivo
+     */
+    public Closeable iniciarVolcado(Path archivo, Duration periodo) throws IOException {
+        Path carpeta = archivo.toAbsolutePath().getParent();
+        if (carpeta != null) {
+            Files.createDirectories(carpeta);
+        }
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "volcado-metricas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long nanos = periodo.toNanos();
+        programador.scheduleAtFixedRate(() -> escribirVolcado(archivo), nanos, nanos, TimeUnit.NANOSECONDS);
+        return () -> {
+            programador.shutdownNow();
+            try {
+                programador.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            escribirVolcado(archivo);
+        };
+    }
+
+    private void escribirVolcado(Path archivo) {
+        String texto = "# " + LocalDateTime.now().format(FORMATO_HORA) + '\n' + volcar() + '\n';
+        try {
+            Files.writeString(archivo, texto, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("No se pudieron volcar las métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vista JMX del registro. Los atributos se calculan en cada consulta, así que las
+     * métricas creadas después del registro también aparecen.
+     */
+    private final class BeanMetricas implements DynamicMBean {
+
+        private static final String CANTIDAD = ".cantidad";
+        private static final String P50 = ".p50";
+        private static final String P99 = ".p99";
+        private static final String MAXIMO = ".max";
+
+        @Override
+        public Object getAttribute(String atributo) throws AttributeNotFoundException {
+            LongAdder contador = contadores.get(atributo);
+            if (contador != null) {
+                return contador.sum();
+            }
+            int punto = atributo.lastIndexOf('.');
+            HistogramaLatencia h = punto > 0 ? histogramas.get(atributo.substring(0, punto)) : null;
+            if (h != null) {
+                switch (atributo.substring(punto)) {
+                    case CANTIDAD: return h.getCantidad();
+                    case P50: return h.percentil(50);
+                    case P99: return h.percentil(99);
+                    case MAXIMO: return h.getMaximo();
+                    default: break;
+                }
+            }
+            throw new AttributeNotFoundException(atributo);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] atributos) {
+            AttributeList lista = new AttributeList();
+            for (String atributo : atributos) {
+                try {
+                    lista.add(new Attribute(atributo, getAttribute(atributo)));
+                } catch (AttributeNotFoundException e) {
+                    // los atributos desconocidos se omiten
+                }
+            }
+            return lista;
+        }
+
+        @Override
+        public void setAttribute(Attribute atributo) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Las métricas son de solo lectura: " + atributo.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList atributos) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String operacion, Object[] parametros, String[] firma) throws ReflectionException {
+            if ("volcar".equals(operacion)) {
+                return volcar();
+            }
+            throw new ReflectionException(new NoSuchMethodException(operacion));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> atributos = new ArrayList<>();
+            for (String nombre : new TreeMap<>(contadores).keySet()) {
+                atributos.add(new MBeanAttributeInfo(nombre, "long", "Contador " + nombre, true, false, false));
+            }
+            for (String nombre : new TreeMap<>(histogramas).keySet()) {
+                for (String sufijo : new String[]{CANTIDAD, P50, P99, MAXIMO}) {
+                    atributos.add(new MBeanAttributeInfo(nombre + sufijo, "long", "Histograma " + nombre + sufijo,
+                            true, false, false));
+                }
+            }
+            MBeanOperationInfo volcar = new MBeanOperationInfo("volcar", "Texto con todas las métricas",
+                    null, "java.lang.String", MBeanOperationInfo.INFO);
+            return new MBeanInfo(Metricas.class.getName(), "Métricas de Argolla Llanera",
+                    atributos.toArray(new MBeanAttributeInfo[0]), null,
+                    new MBeanOperationInfo[]{volcar}, null);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * MigradorResultados
+ *
+ * Conversión de una sola pasada de un archivo de resultados en el formato de 160 bytes
+ * al formato binario compacto {@link FormatoBinarioV2}. Los registros antiguos no tienen
+ * puntaje ni marca de tiempo, así que se guardan sin puntaje y con marca 0. Cada registro
+ * se lee en su disposición ({@link FormatoRegistro#decodificar}); los de la disposición
+ * original nunca guardaron el resultado y se migran como {@code DESCONOCIDO}.
+ *
+ * Uso desde consola:
+ * <pre>
+ * java -cp ArgollaLlanera.jar Udistrital.avanzada.ArgollaLlanera.control.MigradorResultados origen.dat destino.dat
+ * </pre>
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public final class MigradorResultados {
+
+    private MigradorResultados() {
+    }
+
+    /**
+     * Convierte el archivo de origen y escribe el resultado en el destino.
+     * El destino no debe existir, para no mezclar resultados.
+     *
+     * @param origen archivo en el formato de 160 bytes
+     * @param destino archivo nuevo en formato versión 2
+     * @return número de registros migrados
+     * @throws IOException si el origen ya está en formato versión 2, el destino existe
+     *                     o falla la lectura o la escritura
+     */
+    public static long migrar(Path origen, Path destino) throws IOException {
+        if (Files.exists(destino) && Files.size(destino) > 0) {
+            throw new IOException("El archivo de destino ya existe: " + destino);
+        }
+        long registros = 0;
+        try (LectorResultadosV2 lector = new LectorResultadosV2(origen)) {
+            if (!lector.esLegado()) {
+                throw new IOException("El archivo ya está en formato versión 2: " + origen);
+            }
+            try (EscritorResultadosV2 escritor = new EscritorResultadosV2(destino.toString())) {
+                while (lector.siguiente()) {
+                    escritor.escribir(lector.getRegistro());
+                    registros++;
+                }
+            }
+        }
+        return registros;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Uso: MigradorResultados <origen.dat> <destino.dat>");
+            System.exit(2);
+        }
+        try {
+            Path origen = Paths.get(args[0]);
+            Path destino = Paths.get(args[1]);
+            long registros = migrar(origen, destino);
+            System.out.println("Registros migrados: " + registros + " (" + Files.size(origen) + " -> "
+                    + Files.size(destino) + " bytes)");
+        } catch (IOException e) {
+            System.err.println("Error al migrar resultados: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
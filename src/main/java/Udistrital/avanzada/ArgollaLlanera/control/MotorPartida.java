@@ -0,0 +1,376 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.InstantaneaPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MotorPartida
+ *
+ * Motor sin interfaz gráfica que aplica las reglas de turnos, 21 puntos y
+ * muerte súbita de las partidas que maneja {@link ControlJuego}, sin depender de la
+ * vista ni de {@code JOptionPane}. Permite jugar una partida completa lanzamiento a lanzamiento
+ * o de una sola vez, y consultar al final el ganador y los contadores de la partida.
+ *
+ * Reglas aplicadas:
+ * - Los jugadores del equipo en turno lanzan en orden hasta completar su mano.
+ * - El primer equipo en alcanzar 21 puntos cede el turno para que el otro intente igualar
+ *   con una mano completa.
+ * - Si el otro equipo no iguala, gana el primero; si iguala, se juega muerte súbita
+ *   por parejas, repitiéndola mientras haya empate.
+ *
+ * El motor no modifica el estado de los {@code Jugador}, de modo que varias partidas
+ * pueden jugarse en paralelo sobre los mismos equipos. Cada jugador lanza según su
+ * {@link Udistrital.avanzada.ArgollaLlanera.modelo.PerfilLanzamiento}.
+ *
+ * Es una máquina de estados ({@link Estado}) que avisa cada transición a los
+ * {@link EscuchaPartida} registrados, en el mismo hilo que llama a {@link #lanzar()}.
+ * Sin receptores no hay costo adicional, así que el simulador usa el mismo motor.
+ *
+ * Una partida en curso puede continuarse desde una {@link InstantaneaPartida} con
+ * {@link #reanudar}.
+ *
+ * @author juanr
+ * @version 1.4
+ */
+public class MotorPartida {
+
+    /**
+     * Estados de la partida.
+     */
+    public enum Estado {
+        /** Ningún equipo ha llegado a 21. */
+        EN_JUEGO,
+        /** Un equipo llegó a 21 y el otro intenta igualar. */
+        INTENTO_IGUALAR,
+        /** Partida decidida. */
+        TERMINADA
+    }
+
+    private static final int PUNTOS_OBJETIVO = 21;   // Puntos necesarios para ganar
+    private static final EscuchaPartida[] SIN_ESCUCHAS = new EscuchaPartida[0];
+
+    private final Juego juego;                       // Modelo con puntajes y tabla de resultados
+    private final Equipo[] equipos;                  // Los dos equipos de la partida
+    private final int[] posiciones;                  // Posición de cada equipo en los puntajes del juego
+
+    private final int equipoInicial;                 // Índice del equipo que inició
+    private int equipoActual;                        // Índice del equipo en turno
+    private int jugadorActualIndex;                  // Índice del jugador en turno
+    private int equipoPrimerAlcance21;               // Índice del primer equipo en llegar a 21, -1 si ninguno
+
+    private int ganador;                             // Índice del ganador, -1 mientras la partida sigue
+    private boolean muerteSubita;                    // Indica si la partida se definió en muerte súbita
+    private int repeticionesMuerteSubita;            // Veces que se jugó la muerte súbita
+    private int manos;                               // Manos iniciadas (turnos de equipo)
+    private int lanzamientos;                        // Lanzamientos realizados en la partida
+    private EscuchaPartida[] escuchas = SIN_ESCUCHAS; // Receptores de eventos
+
+    /**
+     * Crea el motor para una partida entre los dos primeros equipos de la lista.
+     *
+     * @param juego modelo de la partida, con los puntajes en cero
+     * @param equiposJuego equipos participantes (se usan los dos primeros)
+     * @param equipoInicial índice (0 o 1) del equipo que inicia
+     */
+    public MotorPartida(Juego juego, List<Equipo> equiposJuego, int equipoInicial) {
+        if (equiposJuego.size() < 2) {
+            throw new IllegalArgumentException("Se requieren dos equipos para la partida.");
+        }
+        this.juego = juego;
+        this.equipos = new Equipo[]{equiposJuego.get(0), equiposJuego.get(1)};
+        for (Equipo equipo : equipos) {
+            if (equipo.getJugadores().isEmpty()) {
+                throw new IllegalArgumentException("El equipo " + equipo.getNombre() + " no tiene jugadores.");
+            }
+        }
+        this.posiciones = new int[2];
+        for (int i = 0; i < 2; i++) {
+            posiciones[i] = juego.indiceDe(equipos[i]);
+            if (posiciones[i] < 0) {
+                throw new IllegalArgumentException("El equipo " + equipos[i].getNombre() + " no está en el juego.");
+            }
+        }
+        this.equipoInicial = equipoInicial;
+        this.equipoActual = equipoInicial;
+        this.jugadorActualIndex = 0;
+        this.equipoPrimerAlcance21 = -1;
+        this.ganador = -1;
+        this.manos = 1;
+    }
+
+    /**
+     * Continúa una partida en curso desde una instantánea. El juego debe tener los
+     * puntajes en cero; se le suman los de la instantánea.
+     *
+     * @param juego modelo de la partida, con los puntajes en cero
+     * @param equiposJuego equipos A y B, en el orden de la instantánea
+     * @param instantanea estado de la partida
+     * @return motor en el estado de la instantánea
+     * @throws IllegalArgumentException si la instantánea no es un estado válido para estos equipos
+     */
+    public static MotorPartida reanudar(Juego juego, List<Equipo> equiposJuego, InstantaneaPartida instantanea) {
+        if (!instantanea.isEnCurso()) {
+            throw new IllegalArgumentException("La instantánea no tiene una partida en curso.");
+        }
+        MotorPartida motor = new MotorPartida(juego, equiposJuego, instantanea.getEquipoInicial());
+        int actual = instantanea.getEquipoActual();
+        int primero = instantanea.getPrimerAlcance21();
+        if (actual != 0 && actual != 1 || primero < -1 || primero > 1
+                || instantanea.getJugadorActual() < 0
+                || instantanea.getJugadorActual() >= motor.equipos[actual].getJugadores().size()) {
+            throw new IllegalArgumentException("Instantánea inválida: " + instantanea);
+        }
+        for (int i = 0; i < 2; i++) {
+            int puntos = instantanea.getPuntos(i);
+            if (puntos < 0 || puntos >= PUNTOS_OBJETIVO && primero < 0) {
+                throw new IllegalArgumentException("Instantánea inválida: " + instantanea);
+            }
+            juego.sumarPuntos(motor.posiciones[i], puntos);
+        }
+        motor.equipoActual = actual;
+        motor.jugadorActualIndex = instantanea.getJugadorActual();
+        motor.equipoPrimerAlcance21 = primero;
+        motor.manos = instantanea.getManos();
+        motor.lanzamientos = instantanea.getLanzamientos();
+        return motor;
+    }
+
+    /**
+     * Registra un receptor de los eventos de la partida.
+     *
+     * @param escucha receptor a agregar
+     */
+    public void agregarEscucha(EscuchaPartida escucha) {
+        escuchas = Arrays.copyOf(escuchas, escuchas.length + 1);
+        escuchas[escuchas.length - 1] = escucha;
+    }
+
+    /**
+     * Ejecuta el lanzamiento del jugador en turno y aplica las reglas de avance.
+     *
+     * @return true si con este lanzamiento la partida quedó decidida
+     */
+    public boolean lanzar() {
+        if (ganador >= 0) {
+            return true;
+        }
+        Equipo equipo = equipos[equipoActual];
+        ResultadoLanzamiento resultado = juego.lanzar(equipo.getJugadores().get(jugadorActualIndex));
+        lanzamientos++;
+
+        int puntosActuales = juego.sumarPuntos(posiciones[equipoActual], resultado.getPuntos());
+        if (escuchas.length > 0) {
+            Jugador jugador = equipo.getJugadores().get(jugadorActualIndex);
+            int puntosA = puntos(0);
+            int puntosB = puntos(1);
+            for (EscuchaPartida e : escuchas) {
+                e.lanzamiento(equipo, jugador, resultado, puntosA, puntosB);
+            }
+        }
+        jugadorActualIndex++;
+
+        if (puntosActuales >= PUNTOS_OBJETIVO) {
+            if (equipoPrimerAlcance21 < 0) {
+                equipoPrimerAlcance21 = equipoActual;
+                for (EscuchaPartida e : escuchas) {
+                    e.alcanzo21(equipo);
+                }
+                cambiarTurno();
+                return false;
+            }
+            evaluarGanador();
+            return true;
+        }
+
+        if (jugadorActualIndex >= equipo.getJugadores().size()) {
+            cambiarTurno();
+        } else if (escuchas.length > 0) {
+            Jugador siguiente = equipo.getJugadores().get(jugadorActualIndex);
+            for (EscuchaPartida e : escuchas) {
+                e.siguienteJugador(equipo, siguiente);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lanza hasta que la partida quede decidida.
+     *
+     * @return equipo ganador
+     */
+    public Equipo jugarHastaTerminar() {
+        while (!lanzar()) {
+            // cada iteración es un lanzamiento
+        }
+        return getGanador();
+    }
+
+    /**
+     * Pasa el turno al otro equipo y reinicia el índice de jugador.
+     */
+    private void cambiarTurno() {
+        equipoActual = 1 - equipoActual;
+        jugadorActualIndex = 0;
+        manos++;
+        if (escuchas.length > 0) {
+            Equipo equipo = equipos[equipoActual];
+            Jugador primero = equipo.getJugadores().get(0);
+            for (EscuchaPartida e : escuchas) {
+                e.cambioTurno(equipo, primero);
+            }
+        }
+    }
+
+    /**
+     * Decide el ganador cuando el segundo equipo cerró su intento de igualar.
+     */
+    private void evaluarGanador() {
+        int puntosA = puntos(0);
+        int puntosB = puntos(1);
+
+        if (puntosA >= PUNTOS_OBJETIVO && puntosB < PUNTOS_OBJETIVO) {
+            ganador = 0;
+        } else if (puntosB >= PUNTOS_OBJETIVO && puntosA < PUNTOS_OBJETIVO) {
+            ganador = 1;
+        } else {
+            jugarMuerteSubita();
+        }
+        for (EscuchaPartida e : escuchas) {
+            e.ganador(equipos[ganador], muerteSubita, puntosA, puntosB);
+        }
+    }
+
+    /**
+     * Juega muerte súbita por parejas hasta que un equipo gane más parejas que el otro.
+     */
+    private void jugarMuerteSubita() {
+        muerteSubita = true;
+        int totalParejas = Math.min(equipos[0].getJugadores().size(), equipos[1].getJugadores().size());
+        while (ganador < 0) {
+            repeticionesMuerteSubita++;
+            for (EscuchaPartida e : escuchas) {
+                e.muerteSubita(repeticionesMuerteSubita);
+            }
+            int victoriasA = 0;
+            int victoriasB = 0;
+            for (int i = 0; i < totalParejas; i++) {
+                ResultadoLanzamiento resultadoA = juego.lanzar(equipos[0].getJugadores().get(i));
+                ResultadoLanzamiento resultadoB = juego.lanzar(equipos[1].getJugadores().get(i));
+                int puntosA = resultadoA.getPuntos();
+                int puntosB = resultadoB.getPuntos();
+                lanzamientos += 2;
+                for (EscuchaPartida e : escuchas) {
+                    e.parejaMuerteSubita(i + 1, equipos[0].getJugadores().get(i), resultadoA,
+                            equipos[1].getJugadores().get(i), resultadoB);
+                }
+                if (puntosA > puntosB) {
+                    victoriasA++;
+                } else if (puntosB > puntosA) {
+                    victoriasB++;
+                }
+            }
+            if (victoriasA > victoriasB) {
+                ganador = 0;
+            } else if (victoriasB > victoriasA) {
+                ganador = 1;
+            }
+        }
+    }
+
+    private int puntos(int indice) {
+        return juego.getPuntos(posiciones[indice]);
+    }
+
+    /** Estado actual de la partida. */
+    public Estado getEstado() {
+        if (ganador >= 0) {
+            return Estado.TERMINADA;
+        }
+        return equipoPrimerAlcance21 < 0 ? Estado.EN_JUEGO : Estado.INTENTO_IGUALAR;
+    }
+
+    /** Devuelve los dos equipos de la partida, en orden A y B. */
+    public List<Equipo> getEquipos() {
+        return Arrays.asList(equipos.clone());
+    }
+
+    /** Devuelve el jugador en turno. */
+    public Jugador getJugadorActual() {
+        return equipos[equipoActual].getJugadores().get(jugadorActualIndex);
+    }
+
+    /** Indica si la partida ya tiene ganador. */
+    public boolean isTerminada() {
+        return ganador >= 0;
+    }
+
+    /** Devuelve el equipo ganador o null si la partida sigue en juego. */
+    public Equipo getGanador() {
+        return ganador >= 0 ? equipos[ganador] : null;
+    }
+
+    /** Devuelve el índice (0 o 1) del ganador, o -1 si la partida sigue en juego. */
+    public int getIndiceGanador() {
+        return ganador;
+    }
+
+    /** Devuelve el equipo en turno. */
+    public Equipo getEquipoActual() {
+        return equipos[equipoActual];
+    }
+
+    /** Devuelve los puntos actuales del equipo A (0) o B (1). */
+    public int getPuntos(int indice) {
+        return puntos(indice);
+    }
+
+    /** Devuelve el índice (0 o 1) del equipo que inició la partida. */
+    public int getIndiceEquipoInicial() {
+        return equipoInicial;
+    }
+
+    /** Devuelve el índice (0 o 1) del equipo en turno. */
+    public int getIndiceEquipoActual() {
+        return equipoActual;
+    }
+
+    /** Devuelve el índice (0 o 1) del primer equipo en llegar a 21, o -1 si ninguno. */
+    public int getIndicePrimerAlcance21() {
+        return equipoPrimerAlcance21;
+    }
+
+    /** Devuelve el índice del jugador en turno dentro de su equipo. */
+    public int getJugadorActualIndex() {
+        return jugadorActualIndex;
+    }
+
+    /** Indica si la partida se decidió en muerte súbita. */
+    public boolean isMuerteSubita() {
+        return muerteSubita;
+    }
+
+    /** Devuelve cuántas veces se jugó la muerte súbita (0 si no hubo). */
+    public int getRepeticionesMuerteSubita() {
+        return repeticionesMuerteSubita;
+    }
+
+    /** Devuelve el número de manos iniciadas en la partida. */
+    public int getManos() {
+        return manos;
+    }
+
+    /** Devuelve el total de lanzamientos, incluidos los de muerte súbita. */
+    public int getLanzamientos() {
+        return lanzamientos;
+    }
+
+    /** Devuelve el modelo con los puntajes de la partida. */
+    public Juego getJuego() {
+        return juego;
+    }
+}
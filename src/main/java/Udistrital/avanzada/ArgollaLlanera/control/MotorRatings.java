@@ -0,0 +1,310 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoEncuentro;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoPartida;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * MotorRatings
+ *
+ * Ratings de los equipos, identificados por {@link Equipo#getClave()}, con el sistema
+ * Glicko: cada equipo tiene un rating y una desviación que mide la incertidumbre. Un
+ * equipo nuevo empieza en 1500 con desviación 350, así sus primeras partidas lo mueven
+ * mucho; la desviación baja con cada partida y vuelve a subir un poco antes de la
+ * siguiente, para que el rating pueda seguir cambiando. Con desviación fija el cálculo es
+ * el de Elo.
+ *
+ * Se actualiza partida a partida (cada partida es un período de Glicko), desde:
+ * - Las partidas de {@link ControlJuego}, como {@link EscuchaPartida}.
+ * - Los encuentros de {@link ControlTorneo}, con {@link #registrar(ResultadoEncuentro)}.
+ * - El historial completo de resultados.dat en una sola pasada, con
+ *   {@link #reconstruir(LectorResultados)}; los dos registros de cada partida están juntos.
+ *
+ * Los ratings viven en arreglos primitivos indexados por un identificador asignado a cada
+ * clave la primera vez que aparece. Temporadas independientes (un archivo por temporada)
+ * se reconstruyen en paralelo con {@link #reconstruirTemporadas(List, int)}.
+ *
+ * Para sembrar torneos se ordena por rating conservador (rating - 2 desviaciones), que no
+ * premia a un equipo con pocas partidas y un par de victorias.
+ *
+ * Los métodos están sincronizados: los eventos llegan en el hilo del juego o en los del
+ * torneo y las consultas pueden hacerse desde cualquiera.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class MotorRatings implements EscuchaPartida {
+
+    /** Rating de un equipo sin partidas. */
+    public static final double RATING_INICIAL = 1500;
+    /** Desviación de un equipo sin partidas. */
+    public static final double DESVIACION_INICIAL = 350;
+    /** Desviación mínima; evita que un rating quede congelado. */
+    public static final double DESVIACION_MINIMA = 30;
+    /** Incertidumbre que se suma antes de cada partida (constante c de Glicko). */
+    public static final double INCERTIDUMBRE_POR_PARTIDA = 10;
+
+    private static final double Q = Math.log(10) / 400;
+    private static final double PI2 = Math.PI * Math.PI;
+    private static final byte[] GANO = FormatoRegistro.codificarCampo(ResultadoPartida.GANO.getTexto(),
+            FormatoRegistro.LONG_RESULTADO);
+    private static final byte[] PERDIO = FormatoRegistro.codificarCampo(ResultadoPartida.PERDIO.getTexto(),
+            FormatoRegistro.LONG_RESULTADO);
+
+    private final Map<String, Integer> ids = new HashMap<>();   // Clave -> identificador
+    private String[] claves = new String[16];                    // Identificador -> clave
+    private double[] ratings = new double[16];
+    private double[] desviaciones = new double[16];
+    private int[] partidas = new int[16];
+    private int cantidad;                                        // Equipos con rating
+    private long partidasRegistradas;
+
+    private List<Equipo> equiposRonda = List.of();               // Equipos de la ronda en curso
+
+    private int id(String clave) {
+        Integer id = ids.get(clave);
+        if (id != null) {
+            return id;
+        }
+        if (cantidad == claves.length) {
+            int capacidad = cantidad * 2;
+            claves = Arrays.copyOf(claves, capacidad);
+            ratings = Arrays.copyOf(ratings, capacidad);
+            desviaciones = Arrays.copyOf(desviaciones, capacidad);
+            partidas = Arrays.copyOf(partidas, capacidad);
+        }
+        claves[cantidad] = clave;
+        ratings[cantidad] = RATING_INICIAL;
+        desviaciones[cantidad] = DESVIACION_INICIAL;
+        ids.put(clave, cantidad);
+        return cantidad++;
+    }
+
+    /**
+     * Actualiza los ratings con el resultado de una partida.
+     *
+     * @param claveGanador clave del equipo ganador
+     * @param clavePerdedor clave del equipo perdedor
+     */
+    public synchronized void registrarPartida(String claveGanador, String clavePerdedor) {
+        if (claveGanador.equals(clavePerdedor)) {
+            throw new IllegalArgumentException("Un equipo no puede jugar contra sí mismo: " + claveGanador);
+        }
+        actualizar(id(claveGanador), id(clavePerdedor));
+    }
+
+    /**
+     * Aplica Glicko a los dos equipos con los valores previos a la partida.
+     */
+    private void actualizar(int ganador, int perdedor) {
+        double rdG = inflar(desviaciones[ganador]);
+        double rdP = inflar(desviaciones[perdedor]);
+        double rG = ratings[ganador];
+        double rP = ratings[perdedor];
+        ajustar(ganador, rG, rdG, rP, rdP, 1);
+        ajustar(perdedor, rP, rdP, rG, rdG, 0);
+        partidas[ganador]++;
+        partidas[perdedor]++;
+        partidasRegistradas++;
+    }
+
+    private static double inflar(double desviacion) {
+        return Math.min(DESVIACION_INICIAL,
+                Math.sqrt(desviacion * desviacion + INCERTIDUMBRE_POR_PARTIDA * INCERTIDUMBRE_POR_PARTIDA));
+    }
+
+    private void ajustar(int id, double r, double rd, double rRival, double rdRival, double puntaje) {
+        double g = g(rdRival);
+        double esperado = esperado(r, rRival, g);
+        double inversaD2 = Q * Q * g * g * esperado * (1 - esperado);
+        double precision = 1 / (rd * rd) + inversaD2;
+        ratings[id] = r + Q / precision * g * (puntaje - esperado);
+        desviaciones[id] = Math.max(DESVIACION_MINIMA, Math.sqrt(1 / precision));
+    }
+
+    private static double g(double rd) {
+        return 1 / Math.sqrt(1 + 3 * Q * Q * rd * rd / PI2);
+    }
+
+    private static double esperado(double r, double rRival, double g) {
+        return 1 / (1 + Math.pow(10, -g * (r - rRival) / 400));
+    }
+
+    /**
+     * Registra un encuentro de torneo; los descansos se ignoran. Puede pasarse como
+     * escucha: {@code torneo.setEscucha(ratings::registrar)}.
+     *
+     * @param encuentro encuentro terminado
+     */
+    public void registrar(ResultadoEncuentro encuentro) {
+        if (!encuentro.esDescanso()) {
+            registrarPartida(encuentro.getGanador().getClave(), encuentro.getPerdedor().getClave());
+        }
+    }
+
+    @Override
+    public synchronized void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial,
+                                           Jugador jugador, int ronda) {
+        equiposRonda = equipos;
+    }
+
+    @Override
+    public synchronized void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+        for (Equipo otro : equiposRonda) {
+            if (otro != equipo) {
+                registrarPartida(equipo.getClave(), otro.getClave());
+            }
+        }
+    }
+
+    /**
+     * Aplica todo el historial de un archivo de resultados en una pasada, en orden. Cada
+     * partida son dos registros seguidos, uno "Ganó" y otro "Perdió" de equipos distintos;
+     * los registros que no forman pareja se saltan y la lectura se vuelve a alinear.
+     *
+     * @param lector lector del archivo de resultados
+     * @return partidas aplicadas
+     */
+    public synchronized long reconstruir(LectorResultados lector) {
+        long aplicadas = 0;
+        LectorResultados.Cursor cursor = lector.cursor();
+        int pendiente = -1;             // Identificador del registro sin pareja, -1 si no hay
+        boolean pendienteGano = false;
+        while (cursor.siguiente()) {
+            boolean gano = cursor.resultadoEs(GANO);
+            if (!gano && !cursor.resultadoEs(PERDIO)) {
+                pendiente = -1;
+                continue;
+            }
+            int actual = id(cursor.getClave());
+            if (pendiente >= 0 && pendiente != actual && pendienteGano != gano) {
+                if (gano) {
+                    actualizar(actual, pendiente);
+                } else {
+                    actualizar(pendiente, actual);
+                }
+                aplicadas++;
+                pendiente = -1;
+            } else {
+                pendiente = actual;
+                pendienteGano = gano;
+            }
+        }
+        return aplicadas;
+    }
+
+    /**
+     * Reconstruye varias temporadas independientes a la vez, una por archivo.
+     *
+     * @param archivos archivos de resultados, uno por temporada
+     * @param hilos temporadas que se procesan a la vez (al menos 1)
+     * @return ratings de cada temporada, en el orden de los archivos
+     * @throws IOException si algún archivo no puede leerse
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    public static List<MotorRatings> reconstruirTemporadas(List<Path> archivos, int hilos)
+            throws IOException, InterruptedException {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un hilo.");
+        }
+        ExecutorService grupo = Executors.newFixedThreadPool(Math.min(hilos, Math.max(1, archivos.size())), r -> {
+            Thread hilo = new Thread(r, "ratings");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            List<Future<MotorRatings>> futuros = new ArrayList<>(archivos.size());
+            for (Path archivo : archivos) {
+                futuros.add(grupo.submit(() -> {
+                    MotorRatings ratings = new MotorRatings();
+                    try (LectorResultados lector = new LectorResultados(archivo)) {
+                        ratings.reconstruir(lector);
+                    }
+                    return ratings;
+                }));
+            }
+            List<MotorRatings> resultado = new ArrayList<>(archivos.size());
+            for (Future<MotorRatings> futuro : futuros) {
+                try {
+                    resultado.add(futuro.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IOException("No se pudo reconstruir una temporada: " + e.getCause(), e.getCause());
+                }
+            }
+            return resultado;
+        } finally {
+            grupo.shutdownNow();
+        }
+    }
+
+    /**
+     * Ordena los equipos para sembrar un torneo: de mayor a menor rating conservador.
+     * Los equipos sin rating quedan al final, en el orden recibido.
+     *
+     * @param equipos equipos a sembrar
+     * @return nueva lista en orden de siembra
+     */
+    public synchronized List<Equipo> sembrar(List<Equipo> equipos) {
+        List<Equipo> orden = new ArrayList<>(equipos);
+        orden.sort(Comparator.comparingDouble((Equipo e) -> {
+            Integer id = ids.get(e.getClave());
+            return id == null ? Double.NEGATIVE_INFINITY : ratings[id] - 2 * desviaciones[id];
+        }).reversed());
+        return orden;
+    }
+
+    /**
+     * Probabilidad de que el primer equipo le gane al segundo según sus ratings.
+     */
+    public synchronized double probabilidadVictoria(String claveA, String claveB) {
+        double rA = getRating(claveA);
+        double rB = getRating(claveB);
+        double rdA = getDesviacion(claveA);
+        double rdB = getDesviacion(claveB);
+        return esperado(rA, rB, g(Math.sqrt(rdA * rdA + rdB * rdB)));
+    }
+
+    /** Rating del equipo, o el inicial si no tiene partidas. */
+    public synchronized double getRating(String clave) {
+        Integer id = ids.get(clave);
+        return id == null ? RATING_INICIAL : ratings[id];
+    }
+
+    /** Desviación del rating del equipo, o la inicial si no tiene partidas. */
+    public synchronized double getDesviacion(String clave) {
+        Integer id = ids.get(clave);
+        return id == null ? DESVIACION_INICIAL : desviaciones[id];
+    }
+
+    /** Partidas con las que se calculó el rating del equipo. */
+    public synchronized int getPartidas(String clave) {
+        Integer id = ids.get(clave);
+        return id == null ? 0 : partidas[id];
+    }
+
+    /** Claves de los equipos con rating, en orden de aparición. */
+    public synchronized List<String> getClaves() {
+        return List.copyOf(Arrays.asList(claves).subList(0, cantidad));
+    }
+
+    /** Total de partidas aplicadas. */
+    public synchronized long getPartidasRegistradas() {
+        return partidasRegistradas;
+    }
+}
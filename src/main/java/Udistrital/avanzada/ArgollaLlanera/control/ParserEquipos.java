@@ -0,0 +1,470 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.PerfilLanzamiento;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ParserEquipos
+ *
+ * Lector de una sola pasada de archivos Equipos.properties. Entiende la misma sintaxis
+ * que {@link java.util.Properties#load(java.io.InputStream)} (ISO-8859-1, comentarios con
+ * '#' o '!', separadores '=', ':' o espacio, líneas continuadas con '\' y escapes
+ * {@code \t \n \r \f \\uXXXX}) pero no construye un mapa: reconoce las claves
+ * {@code numeroEquipos.count}, {@code equipo.<i>.clave|name|numeroJugadores} y
+ * {@code equipo.<i>.player.<j>.name|nick|photo|skill} directamente sobre los caracteres y solo
+ * crea cadenas para los valores que usa. Las demás claves se ignoran.
+ *
+ * El resultado es el mismo que la carga original con {@code Properties}: se construyen
+ * los equipos 1..count, cada uno con los jugadores 1..numeroJugadores que tengan nombre,
+ * con apodo y foto "" si faltan; si una clave se repite vale la última. La clave
+ * {@code skill} es el {@link PerfilLanzamiento} del jugador; si falta, es el uniforme.
+ *
+ * Las entradas mal formadas (escape {@code \\uXXXX} inválido, índice de equipo o jugador
+ * que no es un número, cantidades no numéricas, perfiles inválidos) se informan como {@link IOException}
+ * con el número de línea.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public final class ParserEquipos {
+
+    private static final int MAX_INDICE = 1 << 24;        // Cota para no reservar memoria por un índice absurdo
+
+    private static final char[] CLAVE_CANTIDAD = "numeroEquipos.count".toCharArray();
+    private static final char[] PREFIJO_EQUIPO = "equipo.".toCharArray();
+    private static final char[] PREFIJO_JUGADOR = "player.".toCharArray();
+    private static final char[] CAMPO_CLAVE = "clave".toCharArray();
+    private static final char[] CAMPO_NOMBRE = "name".toCharArray();
+    private static final char[] CAMPO_NUM_JUGADORES = "numeroJugadores".toCharArray();
+    private static final char[] CAMPO_APODO = "nick".toCharArray();
+    private static final char[] CAMPO_FOTO = "photo".toCharArray();
+    private static final char[] CAMPO_PERFIL = "skill".toCharArray();
+
+    private final Reader entrada;
+    private final String origen;                          // Nombre del archivo para los mensajes de error
+
+    private final char[] lectura = new char[8192];        // Buffer de lectura
+    private int posLectura;
+    private int finLectura;
+    private int lineaFisica = 1;                          // Línea del próximo carácter
+    private boolean saltarLF;                             // Se leyó '\r' y puede seguir '\n'
+
+    private char[] linea = new char[256];                 // Línea lógica, con continuaciones unidas
+    private int largoLinea;
+    private int inicioLinea;                              // Línea física donde empieza la línea lógica
+
+    private char[] clave = new char[64];                  // Clave ya sin escapes
+    private int largoClave;
+    private char[] valor = new char[256];                 // Valor ya sin escapes
+    private int largoValor;
+
+    private String cantidad;                              // Valor de numeroEquipos.count
+    private int lineaCantidad;
+    private Borrador[] borradores = new Borrador[16];     // Equipos por índice (base 1)
+
+    /**
+     * Datos de un equipo a medida que aparecen sus claves.
+     */
+    private static final class Borrador {
+        String clave;
+        String nombre;
+        String numJugadores;
+        int lineaNumJugadores;
+        String[] nombres = new String[4];     // Por índice de jugador (base 1)
+        String[] apodos = new String[4];
+        String[] fotos = new String[4];
+        String[] perfiles = new String[4];
+        int[] lineasPerfil = new int[4];
+    }
+
+    private ParserEquipos(Reader entrada, String origen) {
+        this.entrada = entrada;
+        this.origen = origen;
+    }
+
+    /**
+     * Lee los equipos de un archivo .properties.
+     *
+     * @param ruta archivo de equipos
+     * @return equipos en orden de índice
+     * @throws IOException si el archivo no existe, no puede leerse o tiene entradas mal formadas
+     */
+    public static List<Equipo> leer(Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            throw new IOException("Archivo de propiedades no encontrado: " + ruta);
+        }
+        try (Reader r = new InputStreamReader(Files.newInputStream(ruta), StandardCharsets.ISO_8859_1)) {
+            return leer(r, ruta.toString());
+        }
+    }
+
+    /**
+     * Lee los equipos desde un lector de caracteres. El lector no se cierra.
+     *
+     * @param entrada contenido en formato .properties
+     * @param origen nombre que se usa en los mensajes de error
+     * @return equipos en orden de índice
+     * @throws IOException si falla la lectura o hay entradas mal formadas
+     */
+    public static List<Equipo> leer(Reader entrada, String origen) throws IOException {
+        ParserEquipos parser = new ParserEquipos(entrada, origen);
+        while (parser.leerLineaLogica()) {
+            parser.procesarLinea();
+        }
+        return parser.construir();
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Lectura de líneas lógicas, con las mismas reglas de java.util.Properties
+    // ---------------------------------------------------------------------------------
+
+    private int leerCaracter() throws IOException {
+        if (posLectura == finLectura) {
+            finLectura = entrada.read(lectura, 0, lectura.length);
+            posLectura = 0;
+            if (finLectura <= 0) {
+                finLectura = 0;
+                return -1;
+            }
+        }
+        return lectura[posLectura++];
+    }
+
+    /**
+     * Arma la siguiente línea lógica no vacía y que no sea comentario.
+     *
+     * @return false al llegar al final del archivo
+     */
+    private boolean leerLineaLogica() throws IOException {
+        largoLinea = 0;
+        boolean saltarEspacios = true;
+        boolean comentario = false;
+        boolean lineaNueva = true;
+        boolean continuacion = false;        // Se unió una línea y se saltan sus espacios iniciales
+        boolean barraPrevia = false;
+        while (true) {
+            int leido = leerCaracter();
+            if (leido < 0) {
+                if (comentario || largoLinea == 0) {
+                    return false;
+                }
+                if (barraPrevia) {
+                    largoLinea--;
+                }
+                return true;
+            }
+            char c = (char) leido;
+            if (saltarLF) {
+                saltarLF = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            boolean finDeLinea = c == '\n' || c == '\r';
+            if (finDeLinea) {
+                lineaFisica++;
+                saltarLF = c == '\r';
+            }
+            if (saltarEspacios) {
+                if (c == ' ' || c == '\t' || c == '\f') {
+                    continue;
+                }
+                if (!continuacion && finDeLinea) {
+                    continue;
+                }
+                saltarEspacios = false;
+                continuacion = false;
+            }
+            if (lineaNueva) {
+                lineaNueva = false;
+                inicioLinea = lineaFisica;
+                if (c == '#' || c == '!') {
+                    comentario = true;
+                    continue;
+                }
+            }
+            if (!finDeLinea) {
+                if (comentario) {
+                    continue;
+                }
+                if (largoLinea == linea.length) {
+                    linea = Arrays.copyOf(linea, linea.length * 2);
+                }
+                linea[largoLinea++] = c;
+                barraPrevia = c == '\\' && !barraPrevia;
+            } else if (comentario || largoLinea == 0) {
+                comentario = false;
+                lineaNueva = true;
+                saltarEspacios = true;
+                largoLinea = 0;
+            } else if (barraPrevia) {
+                largoLinea--;              // la barra final une la línea siguiente
+                barraPrevia = false;
+                saltarEspacios = true;
+                continuacion = true;
+            } else {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Separa la clave y el valor de la línea lógica y aplica la entrada si es conocida.
+     */
+    private void procesarLinea() throws IOException {
+        int finClave = 0;
+        int inicioValor = largoLinea;
+        boolean separador = false;
+        boolean barraPrevia = false;
+        while (finClave < largoLinea) {
+            char c = linea[finClave];
+            if ((c == '=' || c == ':') && !barraPrevia) {
+                inicioValor = finClave + 1;
+                separador = true;
+                break;
+            } else if ((c == ' ' || c == '\t' || c == '\f') && !barraPrevia) {
+                inicioValor = finClave + 1;
+                break;
+            }
+            barraPrevia = c == '\\' && !barraPrevia;
+            finClave++;
+        }
+        while (inicioValor < largoLinea) {
+            char c = linea[inicioValor];
+            if (c != ' ' && c != '\t' && c != '\f') {
+                if (!separador && (c == '=' || c == ':')) {
+                    separador = true;
+                } else {
+                    break;
+                }
+            }
+            inicioValor++;
+        }
+        clave = convertir(0, finClave, clave, true);
+        aplicar(inicioValor);
+    }
+
+    /**
+     * Quita los escapes de {@code linea[desde, hasta)} y deja el resultado en {@code destino}.
+     *
+     * @return el buffer de destino, agrandado si hizo falta
+     */
+    private char[] convertir(int desde, int hasta, char[] destino, boolean esClave) throws IOException {
+        if (destino.length < hasta - desde) {
+            destino = new char[Math.max(hasta - desde, destino.length * 2)];
+        }
+        int n = 0;
+        int i = desde;
+        while (i < hasta) {
+            char c = linea[i++];
+            if (c == '\\' && i < hasta) {
+                c = linea[i++];
+                if (c == 'u') {
+                    if (i + 4 > hasta) {
+                        throw error(inicioLinea, "escape \\uXXXX incompleto");
+                    }
+                    int codigo = 0;
+                    for (int k = 0; k < 4; k++) {
+                        int digito = Character.digit(linea[i++], 16);
+                        if (digito < 0) {
+                            throw error(inicioLinea, "escape \\uXXXX mal formado");
+                        }
+                        codigo = (codigo << 4) | digito;
+                    }
+                    c = (char) codigo;
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            destino[n++] = c;
+        }
+        if (esClave) {
+            largoClave = n;
+        } else {
+            largoValor = n;
+        }
+        return destino;
+    }
+
+    private String valorDesde(int inicioValor) throws IOException {
+        valor = convertir(inicioValor, largoLinea, valor, false);
+        return new String(valor, 0, largoValor);
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Reconocimiento de claves
+    // ---------------------------------------------------------------------------------
+
+    private void aplicar(int inicioValor) throws IOException {
+        if (coincide(0, largoClave, CLAVE_CANTIDAD)) {
+            cantidad = valorDesde(inicioValor);
+            lineaCantidad = inicioLinea;
+            return;
+        }
+        if (!empiezaCon(0, PREFIJO_EQUIPO)) {
+            return;
+        }
+        int pos = PREFIJO_EQUIPO.length;
+        int finIndice = finDeIndice(pos);
+        int i = indice(pos, finIndice, "equipo");
+        pos = finIndice + 1;
+        Borrador b = borrador(i);
+        if (coincide(pos, largoClave, CAMPO_CLAVE)) {
+            b.clave = valorDesde(inicioValor);
+        } else if (coincide(pos, largoClave, CAMPO_NOMBRE)) {
+            b.nombre = valorDesde(inicioValor);
+        } else if (coincide(pos, largoClave, CAMPO_NUM_JUGADORES)) {
+            b.numJugadores = valorDesde(inicioValor);
+            b.lineaNumJugadores = inicioLinea;
+        } else if (empiezaCon(pos, PREFIJO_JUGADOR)) {
+            pos += PREFIJO_JUGADOR.length;
+            int finJugador = finDeIndice(pos);
+            int j = indice(pos, finJugador, "jugador");
+            pos = finJugador + 1;
+            asegurarJugador(b, j);
+            if (coincide(pos, largoClave, CAMPO_NOMBRE)) {
+                b.nombres[j] = valorDesde(inicioValor);
+            } else if (coincide(pos, largoClave, CAMPO_APODO)) {
+                b.apodos[j] = valorDesde(inicioValor);
+            } else if (coincide(pos, largoClave, CAMPO_FOTO)) {
+                b.fotos[j] = valorDesde(inicioValor);
+            } else if (coincide(pos, largoClave, CAMPO_PERFIL)) {
+                b.perfiles[j] = valorDesde(inicioValor);
+                b.lineasPerfil[j] = inicioLinea;
+            }
+        }
+    }
+
+    private boolean coincide(int desde, int hasta, char[] texto) {
+        return hasta - desde == texto.length && empiezaCon(desde, texto);
+    }
+
+    private boolean empiezaCon(int desde, char[] texto) {
+        if (largoClave - desde < texto.length) {
+            return false;
+        }
+        for (int k = 0; k < texto.length; k++) {
+            if (clave[desde + k] != texto[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Posición del '.' que cierra el índice que empieza en {@code desde}. */
+    private int finDeIndice(int desde) throws IOException {
+        for (int k = desde; k < largoClave; k++) {
+            if (clave[k] == '.') {
+                return k;
+            }
+        }
+        throw error(inicioLinea, "clave incompleta '" + new String(clave, 0, largoClave) + "'");
+    }
+
+    /**
+     * Convierte el índice de la clave. Solo se aceptan números sin ceros a la izquierda,
+     * que son los únicos que la carga original podía encontrar.
+     */
+    private int indice(int desde, int hasta, String tipo) throws IOException {
+        boolean valido = hasta > desde && hasta - desde <= 9 && (clave[desde] != '0' || hasta - desde == 1);
+        int n = 0;
+        for (int k = desde; valido && k < hasta; k++) {
+            int digito = clave[k] - '0';
+            valido = digito >= 0 && digito <= 9;
+            n = n * 10 + digito;
+        }
+        if (!valido || n < 1 || n > MAX_INDICE) {
+            throw error(inicioLinea, "índice de " + tipo + " inválido en '" + new String(clave, 0, largoClave) + "'");
+        }
+        return n;
+    }
+
+    private Borrador borrador(int i) {
+        if (i >= borradores.length) {
+            borradores = Arrays.copyOf(borradores, Math.max(i + 1, borradores.length * 2));
+        }
+        Borrador b = borradores[i];
+        if (b == null) {
+            b = new Borrador();
+            borradores[i] = b;
+        }
+        return b;
+    }
+
+    private static void asegurarJugador(Borrador b, int j) {
+        if (j >= b.nombres.length) {
+            int nuevo = Math.max(j + 1, b.nombres.length * 2);
+            b.nombres = Arrays.copyOf(b.nombres, nuevo);
+            b.apodos = Arrays.copyOf(b.apodos, nuevo);
+            b.fotos = Arrays.copyOf(b.fotos, nuevo);
+            b.perfiles = Arrays.copyOf(b.perfiles, nuevo);
+            b.lineasPerfil = Arrays.copyOf(b.lineasPerfil, nuevo);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Construcción final
+    // ---------------------------------------------------------------------------------
+
+    private List<Equipo> construir() throws IOException {
+        int total = numero(cantidad, lineaCantidad, "numeroEquipos.count");
+        List<Equipo> equipos = new ArrayList<>(Math.max(total, 0));
+        for (int i = 1; i <= total; i++) {
+            Borrador b = i < borradores.length ? borradores[i] : null;
+            if (b == null) {
+                equipos.add(new Equipo(null, null));
+                continue;
+            }
+            Equipo equipo = new Equipo(b.clave, b.nombre);
+            int numJugadores = numero(b.numJugadores, b.lineaNumJugadores, "numeroJugadores");
+            int limite = Math.min(numJugadores, b.nombres.length - 1);
+            for (int j = 1; j <= limite; j++) {
+                if (b.nombres[j] == null) continue;
+                Jugador jugador = new Jugador(b.nombres[j],
+                        b.apodos[j] == null ? "" : b.apodos[j],
+                        b.fotos[j] == null ? "" : b.fotos[j]);
+                if (b.perfiles[j] != null) {
+                    try {
+                        jugador.setPerfil(PerfilLanzamiento.desdeTexto(b.perfiles[j]));
+                    } catch (IllegalArgumentException e) {
+                        throw error(b.lineasPerfil[j], "perfil inválido: " + e.getMessage());
+                    }
+                }
+                equipo.agregarJugador(jugador);
+            }
+            equipos.add(equipo);
+        }
+        return equipos;
+    }
+
+    private int numero(String texto, int lineaTexto, String nombre) throws IOException {
+        if (texto == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw error(lineaTexto, nombre + " no es un número: '" + texto + "'");
+        }
+    }
+
+    private IOException error(int numeroLinea, String mensaje) {
+        return new IOException(origen + ":" + numeroLinea + ": " + mensaje);
+    }
+}
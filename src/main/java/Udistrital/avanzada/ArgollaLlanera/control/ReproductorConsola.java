@@ -0,0 +1,224 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ReproductorConsola
+ *
+ * Modo de línea de comandos que repite partidas grabadas por {@link GrabadorPartidas} e
+ * imprime sus lanzamientos. Como {@link LanzadorConsola}, no usa Swing: {@link Launcher}
+ * llega aquí antes de cargar la interfaz gráfica.
+ *
+ * Uso:
+ * <pre>
+ * java -jar ArgollaLlanera.jar --reproducir repeticiones.dat --equipos Equipos.properties
+ *      [--indice 3] [--ritmo 2]
+ * </pre>
+ *
+ * Sin {@code --indice} se repiten todas las partidas del archivo, en orden. Cada una pasa
+ * por {@link ControlJuego#reproducir}, que la verifica antes de emitir: si la grabación no
+ * corresponde a los equipos cargados no se imprime ningún lanzamiento de ella.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class ReproductorConsola {
+
+    /** Opción que activa este modo en {@link Launcher}. */
+    public static final String OPCION = "--reproducir";
+
+    private static final String USO = "Uso: " + OPCION + " <repeticiones.dat> --equipos <archivo|carpeta>"
+            + " [--indice <n>] [--ritmo <lanzamientos por segundo>]";
+
+    private final Path archivo;      // Archivo de repeticiones
+    private final Path equipos;      // Archivo o carpeta de equipos
+    private final int indice;        // Partida a repetir, -1 para todas
+    private final double ritmo;      // Lanzamientos por segundo, 0 para máxima velocidad
+
+    private ReproductorConsola(Path archivo, Path equipos, int indice, double ritmo) {
+        this.archivo = archivo;
+        this.equipos = equipos;
+        this.indice = indice;
+        this.ritmo = ritmo;
+    }
+
+    /**
+     * Punto de entrada del modo repetición; termina el proceso con el código de
+     * {@link #ejecutar}.
+     *
+     * @param args argumentos de la línea de comandos
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(ejecutar(args, System.out, System.err));
+    }
+
+    /**
+     * Interpreta los argumentos y repite las partidas.
+     *
+     * @param args argumentos de la línea de comandos
+     * @param salida destino de los lanzamientos
+     * @param errores destino de los errores
+     * @return 0 si terminó bien, 1 si falló la lectura o una grabación no coincide, 2 si
+     *         los argumentos no son válidos
+     */
+    public static int ejecutar(String[] args, PrintStream salida, PrintStream errores) {
+        ReproductorConsola reproductor;
+        try {
+            reproductor = desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            errores.println(e.getMessage());
+            errores.println(USO);
+            return 2;
+        }
+        try {
+            reproductor.correr(salida);
+            return 0;
+        } catch (IOException e) {
+            errores.println("Error: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errores.println("Interrumpido.");
+            return 1;
+        }
+    }
+
+    private static ReproductorConsola desdeArgumentos(String[] args) {
+        Path archivo = null;
+        Path equipos = null;
+        int indice = -1;
+        double ritmo = 0;
+        for (int i = 0; i < args.length; i++) {
+            String opcion = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + opcion);
+            }
+            String valor = args[++i];
+            switch (opcion) {
+                case OPCION:
+                    archivo = Paths.get(valor);
+                    break;
+                case "--equipos":
+                    equipos = Paths.get(valor);
+                    break;
+                case "--indice":
+                    try {
+                        indice = Integer.parseInt(valor.trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Valor no numérico para " + opcion + ": " + valor);
+                    }
+                    if (indice < 0) {
+                        throw new IllegalArgumentException("--indice no puede ser negativo");
+                    }
+                    break;
+                case "--ritmo":
+                    try {
+                        ritmo = Double.parseDouble(valor.trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Valor no numérico para " + opcion + ": " + valor);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + opcion);
+            }
+        }
+        if (archivo == null) {
+            throw new IllegalArgumentException("Falta " + OPCION);
+        }
+        if (equipos == null) {
+            throw new IllegalArgumentException("Falta --equipos");
+        }
+        return new ReproductorConsola(archivo, equipos, indice, ritmo);
+    }
+
+    /**
+     * Carga los equipos y las grabaciones y repite las pedidas.
+     *
+     * @param out destino de los lanzamientos
+     * @throws IOException si falla la lectura o una grabación no coincide
+     * @throws InterruptedException si se interrumpe la espera de una repetición
+     */
+    private void correr(PrintStream out) throws IOException, InterruptedException {
+        if (!Files.exists(equipos)) {
+            throw new IOException("No existe " + equipos);
+        }
+        List<GrabacionPartida> grabaciones = GrabadorPartidas.leer(archivo);
+        if (indice >= grabaciones.size()) {
+            throw new IOException("El archivo tiene " + grabaciones.size() + " partidas; no existe la " + indice);
+        }
+        ControlJuego control = new ControlJuego((ControlPersistencia) null);
+        try {
+            control.agregarEscuchaRepeticiones(new Impresora(out));
+            if (!control.cargarEquipos(equipos.toFile())) {
+                throw new IOException("No se pudieron cargar los equipos de " + equipos);
+            }
+            int desde = indice < 0 ? 0 : indice;
+            int hasta = indice < 0 ? grabaciones.size() : indice + 1;
+            for (int i = desde; i < hasta; i++) {
+                out.println("Partida " + i + ": " + grabaciones.get(i));
+                try {
+                    control.reproducir(grabaciones.get(i), ritmo).get();
+                } catch (ExecutionException e) {
+                    throw new IOException("No se pudo repetir la partida " + i + ": " + e.getCause().getMessage(),
+                            e.getCause());
+                }
+            }
+        } finally {
+            control.cerrar();
+        }
+    }
+
+    /**
+     * Receptor que imprime los eventos de la repetición, una línea por evento.
+     */
+    private static final class Impresora implements EscuchaPartida {
+
+        private final PrintStream out;    // Destino de las líneas
+
+        Impresora(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+            out.println(equipos.get(0).getNombre() + " vs " + equipos.get(1).getNombre()
+                    + " | empieza " + equipoInicial.getNombre());
+        }
+
+        @Override
+        public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                int puntosA, int puntosB) {
+            out.println("  " + equipo.getNombre() + " | " + jugador.getNombre() + ": " + resultado.getTexto()
+                    + " (" + resultado.getPuntos() + " pts) | " + puntosA + "-" + puntosB);
+        }
+
+        @Override
+        public void muerteSubita(int repeticion) {
+            out.println("  Muerte súbita" + (repeticion > 1 ? " (se repite)" : ""));
+        }
+
+        @Override
+        public void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                       Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+            out.println("  Pareja " + pareja + ": " + jugadorA.getNombre() + " " + resultadoA.getTexto()
+                    + " / " + jugadorB.getNombre() + " " + resultadoB.getTexto());
+        }
+
+        @Override
+        public void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+            out.println("Ganó el equipo " + equipo.getNombre() + " (" + puntosA + "-" + puntosB
+                    + (muerteSubita ? ", en muerte súbita" : "") + ")");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReproductorPartida
+ *
+ * Vuelve a jugar una {@link GrabacionPartida} con {@link MotorPartida}: el juego entrega
+ * los resultados grabados en lugar de sortearlos, así que las reglas de turnos, 21 puntos
+ * y muerte súbita producen exactamente los mismos eventos que la partida original. Los
+ * receptores (la vista, por ejemplo) no distinguen una repetición de una partida en vivo.
+ *
+ * La repetición puede ir a máxima velocidad (auditorías, pruebas) o a un ritmo fijo de
+ * lanzamientos por segundo para el marcador. Las parejas de una muerte súbita se lanzan
+ * juntas en un mismo paso, como en la partida en vivo.
+ *
+ * Antes de emitir el primer evento se juega la grabación en silencio y se verifica que
+ * alcance, que el ganador coincida y que no sobren lanzamientos; si no, la grabación no
+ * corresponde a estos equipos o a estas reglas y los receptores no reciben nada.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class ReproductorPartida {
+
+    private final GrabacionPartida grabacion;               // Partida a repetir
+    private final List<Equipo> equipos;                     // Equipos A y B de la grabación
+    private CalculadoraProbabilidades calculadora;          // Probabilidades a avisar, o null
+
+    /**
+     * Prepara la repetición buscando por clave los equipos de la grabación.
+     *
+     * @param grabacion partida grabada
+     * @param disponibles equipos cargados
+     * @throws IllegalArgumentException si falta alguno de los equipos
+     */
+    public ReproductorPartida(GrabacionPartida grabacion, Collection<Equipo> disponibles) {
+        this.grabacion = grabacion;
+        this.equipos = Arrays.asList(buscar(disponibles, grabacion.getClaveA()),
+                buscar(disponibles, grabacion.getClaveB()));
+    }
+
+    private static Equipo buscar(Collection<Equipo> disponibles, String clave) {
+        for (Equipo equipo : disponibles) {
+            if (equipo.getClave().equals(clave)) {
+                return equipo;
+            }
+        }
+        throw new IllegalArgumentException("No está cargado el equipo " + clave + " de la grabación.");
+    }
+
+    /**
+     * Avisa también las probabilidades después de cada lanzamiento, como en vivo.
+     *
+     * @param calculadora calculadora de los dos equipos de la grabación, o null para no avisarlas
+     */
+    public void setCalculadora(CalculadoraProbabilidades calculadora) {
+        this.calculadora = calculadora;
+    }
+
+    /** Devuelve los equipos A y B de la grabación. */
+    public List<Equipo> getEquipos() {
+        return equipos;
+    }
+
+    /**
+     * Repite la partida en el hilo actual.
+     *
+     * @param lanzamientosPorSegundo ritmo de la repetición; 0 o menos para máxima velocidad
+     * @param ronda número de ronda que se informa a los receptores
+     * @param escuchas receptores de los eventos
+     * @return motor de la partida repetida, ya terminada
+     * @throws InterruptedException si se interrumpe la espera entre lanzamientos
+     * @throws IllegalStateException si la repetición no coincide con la grabación; en ese
+     *         caso no se emite ningún evento
+     */
+    public MotorPartida reproducir(double lanzamientosPorSegundo, int ronda, List<EscuchaPartida> escuchas)
+            throws InterruptedException {
+        if (!escuchas.isEmpty()) {
+            jugar(0, ronda, Collections.emptyList());
+        }
+        return jugar(lanzamientosPorSegundo, ronda, escuchas);
+    }
+
+    /**
+     * Juega la grabación avisando a los receptores y verifica al final que coincida.
+     */
+    private MotorPartida jugar(double lanzamientosPorSegundo, int ronda, List<EscuchaPartida> escuchas)
+            throws InterruptedException {
+        Juego juego = Juego.desdeGrabacion(equipos, grabacion.getLanzamientos());
+        MotorPartida motor = new MotorPartida(juego, equipos, grabacion.getEquipoInicial());
+        for (EscuchaPartida escucha : escuchas) {
+            motor.agregarEscucha(escucha);
+        }
+        for (EscuchaPartida escucha : escuchas) {
+            escucha.rondaIniciada(equipos, motor.getEquipoActual(), motor.getJugadorActual(), ronda);
+        }
+        avisarProbabilidades(motor, escuchas);
+
+        long periodo = lanzamientosPorSegundo > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / lanzamientosPorSegundo) : 0;
+        long siguiente = System.nanoTime();
+        while (true) {
+            if (periodo > 0) {
+                siguiente += periodo;
+                long espera = siguiente - System.nanoTime();
+                if (espera > 0) {
+                    TimeUnit.NANOSECONDS.sleep(espera);
+                }
+            }
+            boolean terminada;
+            try {
+                terminada = motor.lanzar();
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException("La grabación terminó antes que la partida: " + grabacion, e);
+            }
+            if (terminada) {
+                break;
+            }
+            avisarProbabilidades(motor, escuchas);
+        }
+        if (motor.getIndiceGanador() != grabacion.getGanador() || juego.getLanzamientosGrabadosRestantes() != 0) {
+            throw new IllegalStateException("La repetición no coincide con la grabación: " + grabacion);
+        }
+        return motor;
+    }
+
+    private void avisarProbabilidades(MotorPartida motor, List<EscuchaPartida> escuchas) {
+        if (calculadora == null || escuchas.isEmpty()) {
+            return;
+        }
+        ProbabilidadesPartida probabilidades = calculadora.calcular(motor);
+        for (EscuchaPartida escucha : escuchas) {
+            escucha.probabilidades(probabilidades);
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ServidorMarcador
+ *
+ * Servidor HTTP embebido que publica el marcador de la partida para otras pantallas del
+ * lugar. Recibe los eventos de {@link ControlJuego} como {@link EscuchaPartida} y los
+ * reenvía como JSON:
+ * - {@code GET /marcador}: estado actual (equipos, puntajes, turno, ronda, probabilidades
+ *   y ganador).
+ * - {@code GET /eventos}: flujo server-sent events; primero un evento {@code estado} y
+ *   luego un evento por cada lanzamiento, turno, muerte súbita, ganador, etc.
+ *
+ * Cada evento se convierte a bytes una sola vez y se encola en todos los clientes. El
+ * hilo del juego nunca escribe en un socket: cada cliente tiene una cola acotada y su
+ * propio hilo que la vacía. Si la cola de un cliente se llena (cliente lento o que dejó
+ * de leer), el cliente se descarta y se le cierra la conexión aunque su hilo siga
+ * bloqueado escribiendo; los demás no se enteran.
+ * Los clientes inactivos reciben un comentario cada {@code 15} segundos para detectar
+ * conexiones muertas.
+ *
+ * Los hilos del servidor son demonios, así que no impiden cerrar la aplicación.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class ServidorMarcador implements EscuchaPartida, Closeable {
+
+    /** Capacidad por defecto de la cola de cada cliente. */
+    public static final int CAPACIDAD_POR_DEFECTO = 256;
+
+    private static final byte[] FIN = new byte[0];                       // Marca de cierre en la cola
+    private static final byte[] LATIDO = ": latido\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final long SEGUNDOS_LATIDO = 15;
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos;                 // Atiende solicitudes y flujos de clientes
+    private final int capacidadPorCliente;
+    private final int maxClientes;
+    private final Object candado = new Object();         // Ordena publicación y altas de clientes
+    private final List<Cliente> clientes = new ArrayList<>();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong publicados = new AtomicLong();
+
+    // Estado del marcador; solo se modifica bajo el candado
+    private String claveA = "";
+    private String nombreA = "";
+    private String claveB = "";
+    private String nombreB = "";
+    private int ronda;
+    private int puntosA;
+    private int puntosB;
+    private String turnoEquipo = "";
+    private String turnoJugador = "";
+    private String probabilidades = "null";
+    private String ganador = "null";
+    private volatile byte[] estado;                      // JSON del estado actual
+
+    /** Cliente conectado al flujo de eventos. */
+    private static final class Cliente {
+
+        final BlockingQueue<byte[]> cola;
+        final HttpExchange intercambio;                 // Conexión del cliente
+        volatile boolean activo = true;
+        private Thread hilo;                             // Hilo que escribe; null al terminar
+
+        Cliente(int capacidad, HttpExchange intercambio) {
+            this.cola = new ArrayBlockingQueue<>(capacidad);
+            this.intercambio = intercambio;
+        }
+
+        synchronized void asignarHilo(Thread hilo) {
+            this.hilo = hilo;
+        }
+
+        /**
+         * Libera el hilo del cliente. Cerrar el intercambio no basta si el hilo está
+         * bloqueado en una escritura, porque el cierre espera el mismo flujo; el canal del
+         * socket es interrumpible, así que interrumpir el hilo cierra la conexión y la
+         * escritura falla al instante.
+         */
+        synchronized void interrumpir() {
+            if (hilo != null) {
+                hilo.interrupt();
+            }
+        }
+
+        /** Marca el fin del hilo y limpia una interrupción que haya llegado tarde. */
+        synchronized void terminarHilo() {
+            hilo = null;
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Crea el servidor y empieza a atender.
+     *
+     * @param direccion dirección y puerto (0 para uno libre); use 127.0.0.1 para solo este equipo
+     * @param capacidadPorCliente eventos que puede acumular un cliente antes de descartarlo
+     * @param maxClientes clientes simultáneos del flujo de eventos
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorMarcador(InetSocketAddress direccion, int capacidadPorCliente, int maxClientes) throws IOException {
+        if (capacidadPorCliente < 1 || maxClientes < 1) {
+            throw new IllegalArgumentException("La capacidad y el máximo de clientes deben ser positivos.");
+        }
+        this.capacidadPorCliente = capacidadPorCliente;
+        this.maxClientes = maxClientes;
+        this.estado = serializarEstado();
+        AtomicInteger contador = new AtomicInteger();
+        this.hilos = Executors.newCachedThreadPool(r -> {
+            Thread hilo = new Thread(r, "marcador-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.servidor = HttpServer.create(direccion, 0);
+        servidor.setExecutor(hilos);
+        servidor.createContext("/marcador", this::atenderMarcador);
+        servidor.createContext("/eventos", this::atenderEventos);
+        servidor.start();
+    }
+
+    /** Devuelve el puerto en que atiende el servidor. */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /** Número de clientes conectados al flujo de eventos. */
+    public int getClientes() {
+        synchronized (candado) {
+            return clientes.size();
+        }
+    }
+
+    /** Clientes descartados por no leer a tiempo. */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /** Eventos publicados desde que se creó el servidor. */
+    public long getPublicados() {
+        return publicados.get();
+    }
+
+    private void atenderMarcador(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            if (!"GET".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] cuerpo = estado;
+            intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            intercambio.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            intercambio.getResponseBody().write(cuerpo);
+        }
+    }
+
+    /**
+     * Atiende un cliente del flujo de eventos en un hilo del servidor hasta que se
+     * desconecta, se descarta o se cierra el servidor.
+     */
+    private void atenderEventos(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            if (!"GET".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            Cliente cliente = new Cliente(capacidadPorCliente, intercambio);
+            cliente.asignarHilo(Thread.currentThread());
+            synchronized (candado) {
+                if (clientes.size() >= maxClientes) {
+                    intercambio.sendResponseHeaders(503, -1);
+                    return;
+                }
+                cliente.cola.add(mensaje("estado", new String(estado, StandardCharsets.UTF_8)));
+                clientes.add(cliente);
+            }
+            try {
+                intercambio.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+                intercambio.getResponseHeaders().set("Cache-Control", "no-cache");
+                intercambio.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+                intercambio.sendResponseHeaders(200, 0);
+                OutputStream salida = intercambio.getResponseBody();
+                while (cliente.activo) {
+                    byte[] datos = cliente.cola.poll(SEGUNDOS_LATIDO, TimeUnit.SECONDS);
+                    if (datos == FIN) {
+                        break;
+                    }
+                    salida.write(datos != null ? datos : LATIDO);
+                    if (cliente.cola.isEmpty()) {
+                        salida.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // el cliente se desconectó
+            } finally {
+                quitar(cliente);
+                cliente.terminarHilo();
+            }
+        }
+    }
+
+    private void quitar(Cliente cliente) {
+        cliente.activo = false;
+        synchronized (candado) {
+            clientes.remove(cliente);
+        }
+    }
+
+    /**
+     * Descarta un cliente que no lee a tiempo. Se vacía su cola para que la marca de fin
+     * quepa, se interrumpe su hilo por si está bloqueado escribiendo y se cierra el
+     * intercambio en otro hilo, para que quien publica nunca espere al socket.
+     */
+    private void descartar(Cliente cliente) {
+        cliente.activo = false;
+        cliente.cola.clear();
+        cliente.cola.offer(FIN);
+        cliente.interrumpir();
+        try {
+            hilos.execute(cliente.intercambio::close);
+        } catch (RejectedExecutionException e) {
+            // el servidor se está cerrando y ya corta las conexiones
+        }
+        descartados.incrementAndGet();
+    }
+
+    /**
+     * Actualiza el estado y encola el evento en todos los clientes sin esperar a ninguno.
+     * Debe llamarse con el candado tomado.
+     */
+    private void publicar(String tipo, String json) {
+        estado = serializarEstado();
+        byte[] datos = mensaje(tipo, json);
+        for (int i = clientes.size() - 1; i >= 0; i--) {
+            Cliente cliente = clientes.get(i);
+            if (!cliente.cola.offer(datos)) {
+                clientes.remove(i);
+                descartar(cliente);
+            }
+        }
+        publicados.incrementAndGet();
+    }
+
+    private static byte[] mensaje(String tipo, String json) {
+        return ("event: " + tipo + "\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] serializarEstado() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"ronda\":").append(ronda)
+          .append(",\"equipoA\":{\"clave\":").append(texto(claveA)).append(",\"nombre\":").append(texto(nombreA))
+          .append(",\"puntos\":").append(puntosA).append('}')
+          .append(",\"equipoB\":{\"clave\":").append(texto(claveB)).append(",\"nombre\":").append(texto(nombreB))
+          .append(",\"puntos\":").append(puntosB).append('}')
+          .append(",\"turno\":{\"equipo\":").append(texto(turnoEquipo))
+          .append(",\"jugador\":").append(texto(turnoJugador)).append('}')
+          .append(",\"probabilidades\":").append(probabilidades)
+          .append(",\"ganador\":").append(ganador).append('}');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Texto como cadena JSON, con los caracteres de control escapados. */
+    static String texto(String valor) {
+        StringBuilder sb = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void turno(Equipo equipo, Jugador jugador) {
+        turnoEquipo = equipo.getClave();
+        turnoJugador = jugador.getNombre();
+    }
+
+    @Override
+    public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+        partidaReanudada(equipos, equipoInicial, jugador, ronda, 0, 0);
+    }
+
+    @Override
+    public void partidaReanudada(List<Equipo> equipos, Equipo equipoActual, Jugador jugador, int ronda,
+                                 int puntosA, int puntosB) {
+        synchronized (candado) {
+            claveA = equipos.get(0).getClave();
+            nombreA = equipos.get(0).getNombre();
+            claveB = equipos.get(1).getClave();
+            nombreB = equipos.get(1).getNombre();
+            this.ronda = ronda;
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+            probabilidades = "null";
+            ganador = "null";
+            turno(equipoActual, jugador);
+            publicar("ronda", new String(serializarEstado(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                            int puntosA, int puntosB) {
+        synchronized (candado) {
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+            publicar("lanzamiento", "{\"equipo\":" + texto(equipo.getClave()) + ",\"jugador\":" + texto(jugador.getNombre())
+                    + ",\"resultado\":" + texto(resultado.getTexto()) + ",\"puntos\":" + resultado.getPuntos()
+                    + ",\"puntosA\":" + puntosA + ",\"puntosB\":" + puntosB + "}");
+        }
+    }
+
+    @Override
+    public void siguienteJugador(Equipo equipo, Jugador jugador) {
+        synchronized (candado) {
+            turno(equipo, jugador);
+            publicar("turno", "{\"equipo\":" + texto(equipo.getClave()) + ",\"jugador\":" + texto(jugador.getNombre()) + "}");
+        }
+    }
+
+    @Override
+    public void cambioTurno(Equipo equipo, Jugador jugador) {
+        siguienteJugador(equipo, jugador);
+    }
+
+    @Override
+    public void alcanzo21(Equipo equipo) {
+        synchronized (candado) {
+            publicar("alcanzo21", "{\"equipo\":" + texto(equipo.getClave()) + "}");
+        }
+    }
+
+    @Override
+    public void muerteSubita(int repeticion) {
+        synchronized (candado) {
+            publicar("muerteSubita", "{\"repeticion\":" + repeticion + "}");
+        }
+    }
+
+    @Override
+    public void parejaMuerteSubita(int pareja, Jugador jugadorA, ResultadoLanzamiento resultadoA,
+                                   Jugador jugadorB, ResultadoLanzamiento resultadoB) {
+        synchronized (candado) {
+            publicar("pareja", "{\"pareja\":" + pareja
+                    + ",\"jugadorA\":" + texto(jugadorA.getNombre()) + ",\"resultadoA\":" + texto(resultadoA.getTexto())
+                    + ",\"jugadorB\":" + texto(jugadorB.getNombre()) + ",\"resultadoB\":" + texto(resultadoB.getTexto()) + "}");
+        }
+    }
+
+    @Override
+    public void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+        synchronized (candado) {
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+            ganador = texto(equipo.getClave());
+            publicar("ganador", "{\"equipo\":" + ganador + ",\"muerteSubita\":" + muerteSubita
+                    + ",\"puntosA\":" + puntosA + ",\"puntosB\":" + puntosB + "}");
+        }
+    }
+
+    @Override
+    public void probabilidades(ProbabilidadesPartida p) {
+        synchronized (candado) {
+            probabilidades = String.format(Locale.ROOT, "{\"a\":%.4f,\"b\":%.4f,\"muerteSubita\":%.4f}",
+                    p.getProbabilidadA(), p.getProbabilidadB(), p.getProbabilidadMuerteSubita());
+            publicar("probabilidades", probabilidades);
+        }
+    }
+
+    @Override
+    public void mensaje(String texto) {
+        synchronized (candado) {
+            publicar("mensaje", "{\"texto\":" + texto(texto) + "}");
+        }
+    }
+
+    @Override
+    public void juegoTerminado() {
+        synchronized (candado) {
+            publicar("juegoTerminado", "{}");
+        }
+    }
+
+    /**
+     * Cierra los flujos de los clientes y detiene el servidor.
+     */
+    @Override
+    public void close() {
+        synchronized (candado) {
+            for (Cliente cliente : clientes) {
+                cliente.activo = false;
+                cliente.cola.clear();
+                cliente.cola.offer(FIN);
+            }
+            clientes.clear();
+        }
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
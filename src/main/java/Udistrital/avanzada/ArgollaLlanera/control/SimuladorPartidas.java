@@ -0,0 +1,115 @@
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoSimulacion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * SimuladorPartidas
+ *
+ * Simulador Monte Carlo que juega muchas partidas sin interfaz gráfica usando
+ * {@link MotorPartida}, con las mismas reglas de {@link ControlJuego}.
+ * Reparte las partidas en bloques que se ejecutan en paralelo sobre el
+ * ForkJoinPool común, cada bloque con su propio acumulador, y al final combina
+ * los acumuladores en un {@link ResultadoSimulacion} por enfrentamiento.
+ *
+ * Se usa para estimar probabilidades de victoria, rondas promedio y frecuencia de
+ * muerte súbita antes de cada jornada.
+ *
+ * Cada bloque recibe su propio {@link SplittableRandom}, dividido en orden desde una
+ * fuente raíz con semilla, de modo que una misma semilla produce siempre los mismos
+ * resultados sin importar cuántos hilos participen.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class SimuladorPartidas {
+
+    /** Partidas que juega cada tarea paralela antes de combinar resultados. */
+    private static final int PARTIDAS_POR_BLOQUE = 4096;
+
+    private final SplittableRandom raiz;   // Fuente de la que se dividen las de cada bloque
+
+    /**
+     * Crea un simulador con una semilla aleatoria.
+     */
+    public SimuladorPartidas() {
+        this.raiz = new SplittableRandom();
+    }
+
+    /**
+     * Crea un simulador reproducible a partir de una semilla.
+     *
+     * @param semilla semilla de la fuente aleatoria raíz
+     */
+    public SimuladorPartidas(long semilla) {
+        this.raiz = new SplittableRandom(semilla);
+    }
+
+    /**
+     * Simula partidas entre dos equipos. El equipo que inicia se sortea en cada partida,
+     * igual que en {@link ControlJuego}.
+     *
+     * @param equipoA primer equipo
+     * @param equipoB segundo equipo
+     * @param partidas número de partidas a simular
+     * @return resultados acumulados del enfrentamiento
+     */
+    public ResultadoSimulacion simular(Equipo equipoA, Equipo equipoB, long partidas) {
+        if (partidas < 0) {
+            throw new IllegalArgumentException("El número de partidas no puede ser negativo.");
+        }
+        List<Equipo> equiposJuego = Arrays.asList(equipoA, equipoB);
+        int bloques = Math.toIntExact((partidas + PARTIDAS_POR_BLOQUE - 1) / PARTIDAS_POR_BLOQUE);
+        SplittableRandom[] fuentes = new SplittableRandom[bloques];
+        for (int i = 0; i < bloques; i++) {
+            fuentes[i] = raiz.split();
+        }
+
+        return IntStream.range(0, bloques)
+                .parallel()
+                .mapToObj(bloque -> {
+                    long inicio = (long) bloque * PARTIDAS_POR_BLOQUE;
+                    long fin = Math.min(partidas, inicio + PARTIDAS_POR_BLOQUE);
+                    return simularBloque(equiposJuego, fin - inicio, fuentes[bloque]);
+                })
+                .reduce(ResultadoSimulacion::combinar)
+                .orElseGet(() -> new ResultadoSimulacion(equipoA, equipoB));
+    }
+
+    /**
+     * Simula todos los enfrentamientos posibles entre los equipos dados.
+     *
+     * @param equipos equipos a enfrentar entre sí
+     * @param partidasPorEnfrentamiento partidas a simular por cada pareja
+     * @return un resultado por cada pareja, en el orden de la lista de equipos
+     */
+    public List<ResultadoSimulacion> simularTodos(List<Equipo> equipos, long partidasPorEnfrentamiento) {
+        List<ResultadoSimulacion> resultados = new ArrayList<>();
+        for (int i = 0; i < equipos.size(); i++) {
+            for (int j = i + 1; j < equipos.size(); j++) {
+                resultados.add(simular(equipos.get(i), equipos.get(j), partidasPorEnfrentamiento));
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Juega secuencialmente un bloque de partidas en el hilo actual con la fuente del bloque.
+     */
+    private ResultadoSimulacion simularBloque(List<Equipo> equiposJuego, long partidas, SplittableRandom rand) {
+        ResultadoSimulacion parcial = new ResultadoSimulacion(equiposJuego.get(0), equiposJuego.get(1));
+        for (long i = 0; i < partidas; i++) {
+            MotorPartida motor = new MotorPartida(new Juego(equiposJuego, rand), equiposJuego, rand.nextInt(2));
+            motor.jugarHastaTerminar();
+            parcial.registrarPartida(motor.getIndiceGanador(), motor.isMuerteSubita(),
+                    motor.getManos(), motor.getLanzamientos());
+        }
+        return parcial;
+    }
+}
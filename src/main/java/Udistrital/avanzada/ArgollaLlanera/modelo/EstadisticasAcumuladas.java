@@ -0,0 +1,285 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase EstadisticasAcumuladas
+ *
+ * Contadores acumulados de un conjunto de jugadores o de equipos: lanzamientos por tipo de
+ * resultado, puntos, partidas, victorias y partidas en muerte súbita (jugadas y ganadas).
+ *
+ * Cada nombre (o clave de equipo) se convierte una sola vez en un identificador entero
+ * consecutivo; los contadores viven en arreglos primitivos indexados por ese
+ * identificador, así que sumar un lanzamiento o una partida no crea objetos ni recorre
+ * nada. Los arreglos crecen al doble cuando llegan identificadores nuevos.
+ *
+ * No es segura para varios hilos; quien la comparte debe sincronizar. {@link #copia()}
+ * produce una instantánea independiente, que se puede guardar con {@link #escribir} y
+ * recuperar con {@link #leer}.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class EstadisticasAcumuladas {
+
+    private static final int RESULTADOS = ResultadoLanzamiento.cantidad();
+
+    private final Map<String, Integer> ids;     // Nombre -> identificador
+    private String[] nombres;                   // Identificador -> nombre
+    private int cantidad;                       // Identificadores asignados
+
+    private long[] lanzamientos;                // [id * RESULTADOS + código]
+    private long[] puntos;                      // Puntos acumulados por identificador
+    private int[] partidas;                     // Partidas jugadas
+    private int[] victorias;                    // Partidas ganadas
+    private int[] muerteSubita;                 // Partidas definidas en muerte súbita
+    private int[] victoriasMuerteSubita;        // Partidas ganadas en muerte súbita
+
+    /**
+     * Crea el acumulador vacío.
+     */
+    public EstadisticasAcumuladas() {
+        this(16);
+    }
+
+    private EstadisticasAcumuladas(int capacidad) {
+        this.ids = new HashMap<>(capacidad * 2);
+        this.nombres = new String[capacidad];
+        this.lanzamientos = new long[capacidad * RESULTADOS];
+        this.puntos = new long[capacidad];
+        this.partidas = new int[capacidad];
+        this.victorias = new int[capacidad];
+        this.muerteSubita = new int[capacidad];
+        this.victoriasMuerteSubita = new int[capacidad];
+    }
+
+    /**
+     * Devuelve el identificador del nombre, asignándole uno nuevo si no lo tenía.
+     *
+     * @param nombre nombre del jugador o clave del equipo
+     * @return identificador, desde 0
+     */
+    public int id(String nombre) {
+        Integer id = ids.get(nombre);
+        if (id != null) {
+            return id;
+        }
+        if (cantidad == nombres.length) {
+            crecer(cantidad * 2);
+        }
+        nombres[cantidad] = nombre;
+        ids.put(nombre, cantidad);
+        return cantidad++;
+    }
+
+    /**
+     * Busca el identificador de un nombre sin asignarlo.
+     *
+     * @return identificador, o -1 si el nombre no tiene estadísticas
+     */
+    public int buscar(String nombre) {
+        Integer id = ids.get(nombre);
+        return id != null ? id : -1;
+    }
+
+    private void crecer(int capacidad) {
+        nombres = Arrays.copyOf(nombres, capacidad);
+        lanzamientos = Arrays.copyOf(lanzamientos, capacidad * RESULTADOS);
+        puntos = Arrays.copyOf(puntos, capacidad);
+        partidas = Arrays.copyOf(partidas, capacidad);
+        victorias = Arrays.copyOf(victorias, capacidad);
+        muerteSubita = Arrays.copyOf(muerteSubita, capacidad);
+        victoriasMuerteSubita = Arrays.copyOf(victoriasMuerteSubita, capacidad);
+    }
+
+    /**
+     * Suma un lanzamiento y sus puntos.
+     *
+     * @param id identificador
+     * @param resultado resultado del lanzamiento
+     */
+    public void registrarLanzamiento(int id, ResultadoLanzamiento resultado) {
+        lanzamientos[id * RESULTADOS + resultado.ordinal()]++;
+        puntos[id] += resultado.getPuntos();
+    }
+
+    /**
+     * Suma puntos que no vienen de un lanzamiento registrado (p. ej. el puntaje final
+     * de un equipo).
+     */
+    public void sumarPuntos(int id, int cantidadPuntos) {
+        puntos[id] += cantidadPuntos;
+    }
+
+    /**
+     * Suma una partida terminada.
+     *
+     * @param id identificador
+     * @param gano true si ganó la partida
+     * @param definidaEnMuerteSubita true si la partida se definió en muerte súbita
+     */
+    public void registrarPartida(int id, boolean gano, boolean definidaEnMuerteSubita) {
+        partidas[id]++;
+        if (gano) {
+            victorias[id]++;
+        }
+        if (definidaEnMuerteSubita) {
+            muerteSubita[id]++;
+            if (gano) {
+                victoriasMuerteSubita[id]++;
+            }
+        }
+    }
+
+    /**
+     * Suma los contadores de otro acumulador, identificando las entradas por nombre.
+     *
+     * @param otro acumulador a sumar
+     */
+    public void combinar(EstadisticasAcumuladas otro) {
+        for (int o = 0; o < otro.cantidad; o++) {
+            int id = id(otro.nombres[o]);
+            for (int r = 0; r < RESULTADOS; r++) {
+                lanzamientos[id * RESULTADOS + r] += otro.lanzamientos[o * RESULTADOS + r];
+            }
+            puntos[id] += otro.puntos[o];
+            partidas[id] += otro.partidas[o];
+            victorias[id] += otro.victorias[o];
+            muerteSubita[id] += otro.muerteSubita[o];
+            victoriasMuerteSubita[id] += otro.victoriasMuerteSubita[o];
+        }
+    }
+
+    /** Devuelve una copia independiente, ajustada a la cantidad actual. */
+    public EstadisticasAcumuladas copia() {
+        EstadisticasAcumuladas c = new EstadisticasAcumuladas(Math.max(1, cantidad));
+        c.ids.putAll(ids);
+        System.arraycopy(nombres, 0, c.nombres, 0, cantidad);
+        System.arraycopy(lanzamientos, 0, c.lanzamientos, 0, cantidad * RESULTADOS);
+        System.arraycopy(puntos, 0, c.puntos, 0, cantidad);
+        System.arraycopy(partidas, 0, c.partidas, 0, cantidad);
+        System.arraycopy(victorias, 0, c.victorias, 0, cantidad);
+        System.arraycopy(muerteSubita, 0, c.muerteSubita, 0, cantidad);
+        System.arraycopy(victoriasMuerteSubita, 0, c.victoriasMuerteSubita, 0, cantidad);
+        c.cantidad = cantidad;
+        return c;
+    }
+
+    /**
+     * Escribe los contadores en binario, en orden de identificador.
+     *
+     * @param salida destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeInt(cantidad);
+        salida.writeInt(RESULTADOS);
+        for (int id = 0; id < cantidad; id++) {
+            salida.writeUTF(nombres[id]);
+            for (int r = 0; r < RESULTADOS; r++) {
+                salida.writeLong(lanzamientos[id * RESULTADOS + r]);
+            }
+            salida.writeLong(puntos[id]);
+            salida.writeInt(partidas[id]);
+            salida.writeInt(victorias[id]);
+            salida.writeInt(muerteSubita[id]);
+            salida.writeInt(victoriasMuerteSubita[id]);
+        }
+    }
+
+    /**
+     * Lee contadores escritos con {@link #escribir}; los identificadores se conservan.
+     *
+     * @param entrada origen
+     * @return contadores leídos
+     * @throws IOException si falla la lectura o los datos no son válidos
+     */
+    public static EstadisticasAcumuladas leer(DataInput entrada) throws IOException {
+        int n = entrada.readInt();
+        int resultados = entrada.readInt();
+        if (n < 0 || resultados != RESULTADOS) {
+            throw new IOException("Estadísticas inválidas: " + n + " entradas con " + resultados + " resultados");
+        }
+        EstadisticasAcumuladas e = new EstadisticasAcumuladas(Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            int id = e.id(entrada.readUTF());
+            if (id != i) {
+                throw new IOException("Nombre repetido en las estadísticas: " + e.nombres[id]);
+            }
+            for (int r = 0; r < RESULTADOS; r++) {
+                e.lanzamientos[id * RESULTADOS + r] = entrada.readLong();
+            }
+            e.puntos[id] = entrada.readLong();
+            e.partidas[id] = entrada.readInt();
+            e.victorias[id] = entrada.readInt();
+            e.muerteSubita[id] = entrada.readInt();
+            e.victoriasMuerteSubita[id] = entrada.readInt();
+        }
+        return e;
+    }
+
+    /** Número de jugadores o equipos con estadísticas. */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /** Devuelve los nombres en orden de identificador. */
+    public List<String> getNombres() {
+        return List.copyOf(Arrays.asList(nombres).subList(0, cantidad));
+    }
+
+    public String getNombre(int id) {
+        return nombres[id];
+    }
+
+    /** Lanzamientos de un tipo de resultado. */
+    public long getLanzamientos(int id, ResultadoLanzamiento resultado) {
+        return lanzamientos[id * RESULTADOS + resultado.ordinal()];
+    }
+
+    /** Total de lanzamientos. */
+    public long getLanzamientos(int id) {
+        long total = 0;
+        for (int r = 0; r < RESULTADOS; r++) {
+            total += lanzamientos[id * RESULTADOS + r];
+        }
+        return total;
+    }
+
+    public long getPuntos(int id) {
+        return puntos[id];
+    }
+
+    public int getPartidas(int id) {
+        return partidas[id];
+    }
+
+    public int getVictorias(int id) {
+        return victorias[id];
+    }
+
+    public int getMuerteSubita(int id) {
+        return muerteSubita[id];
+    }
+
+    public int getVictoriasMuerteSubita(int id) {
+        return victoriasMuerteSubita[id];
+    }
+
+    /** Fracción de partidas ganadas; 0 si no ha jugado. */
+    public double getTasaVictoria(int id) {
+        return partidas[id] == 0 ? 0 : (double) victorias[id] / partidas[id];
+    }
+
+    /** Puntos promedio por lanzamiento; 0 si no ha lanzado. */
+    public double getPuntosPorLanzamiento(int id) {
+        long n = getLanzamientos(id);
+        return n == 0 ? 0 : (double) puntos[id] / n;
+    }
+}
@@ -0,0 +1,102 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase EstadisticasCarga
+ *
+ * Resumen de una carga de equipos desde varios archivos: totales combinados y, por
+ * cada archivo, los equipos y jugadores leídos y el tiempo que tomó su lectura.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class EstadisticasCarga {
+
+    /**
+     * Datos de la lectura de un archivo.
+     */
+    public static final class PorArchivo {
+
+        private final String ruta;
+        private final int equipos;
+        private final int jugadores;
+        private final long nanos;
+
+        public PorArchivo(String ruta, int equipos, int jugadores, long nanos) {
+            this.ruta = ruta;
+            this.equipos = equipos;
+            this.jugadores = jugadores;
+            this.nanos = nanos;
+        }
+
+        public String getRuta() {
+            return ruta;
+        }
+
+        public int getEquipos() {
+            return equipos;
+        }
+
+        public int getJugadores() {
+            return jugadores;
+        }
+
+        /** Tiempo de lectura del archivo en milisegundos. */
+        public double getMilisegundos() {
+            return nanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d equipos, %d jugadores, %.1f ms", ruta, equipos, jugadores, getMilisegundos());
+        }
+    }
+
+    private final List<PorArchivo> archivos;
+    private final int equipos;            // Equipos agregados o reemplazados en el mapa
+    private final int jugadores;          // Jugadores de esos equipos
+    private final int duplicados;         // Claves repetidas resueltas por la política
+    private final long nanos;             // Tiempo total de la carga
+
+    public EstadisticasCarga(List<PorArchivo> archivos, int equipos, int jugadores, int duplicados, long nanos) {
+        this.archivos = Collections.unmodifiableList(archivos);
+        this.equipos = equipos;
+        this.jugadores = jugadores;
+        this.duplicados = duplicados;
+        this.nanos = nanos;
+    }
+
+    /** Estadísticas de cada archivo, en el orden en que se combinaron. */
+    public List<PorArchivo> getArchivos() {
+        return archivos;
+    }
+
+    public int getCantidadArchivos() {
+        return archivos.size();
+    }
+
+    public int getEquipos() {
+        return equipos;
+    }
+
+    public int getJugadores() {
+        return jugadores;
+    }
+
+    public int getDuplicados() {
+        return duplicados;
+    }
+
+    /** Tiempo total de la carga en milisegundos, incluida la combinación. */
+    public double getMilisegundos() {
+        return nanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d archivos, %d equipos, %d jugadores, %d duplicados, %.1f ms",
+                archivos.size(), equipos, jugadores, duplicados, getMilisegundos());
+    }
+}
@@ -0,0 +1,24 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Enumeración FormatoTorneo
+ *
+ * Formatos de torneo que puede organizar {@code ControlTorneo}.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public enum FormatoTorneo {
+
+    /** Todos contra todos (método del círculo); gana el primero de la tabla. */
+    TODOS_CONTRA_TODOS,
+
+    /** Eliminación simple con cuadro sembrado según el orden de los equipos. */
+    ELIMINACION_SIMPLE,
+
+    /** Eliminación doble: cuadro de ganadores, de perdedores y final con desquite. */
+    ELIMINACION_DOBLE,
+
+    /** Sistema suizo: cada ronda enfrenta equipos con el mismo número de victorias. */
+    SUIZO
+}
@@ -0,0 +1,70 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Clase FuenteAleatoria
+ *
+ * Fuente aleatoria con semilla cuyo estado cabe en dos números: la semilla y la cantidad
+ * de valores ya tomados. Todos los métodos de {@link RandomGenerator} salen de
+ * {@link #nextLong()}, que avanza un {@link SplittableRandom} y cuenta; con
+ * {@link #FuenteAleatoria(long, long)} se recrea la fuente en el mismo punto.
+ *
+ * La usa la partida en vivo, para que una partida continuada desde una
+ * {@link InstantaneaPartida} siga con la misma secuencia que si no se hubiera
+ * interrumpido y la semilla de su {@link GrabacionPartida} la regenere completa.
+ *
+ * No es segura entre hilos.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class FuenteAleatoria implements RandomGenerator {
+
+    private final long semilla;            // Semilla de la fuente
+    private final SplittableRandom base;   // Generador que produce los valores
+    private long consumos;                 // Valores tomados desde la semilla
+
+    /**
+     * Crea la fuente al inicio de la secuencia de la semilla.
+     *
+     * @param semilla semilla de la fuente
+     */
+    public FuenteAleatoria(long semilla) {
+        this.semilla = semilla;
+        this.base = new SplittableRandom(semilla);
+    }
+
+    /**
+     * Recrea la fuente después de los valores ya tomados.
+     *
+     * @param semilla semilla de la fuente
+     * @param consumos valores tomados, según {@link #getConsumos()}
+     * @throws IllegalArgumentException si los consumos son negativos
+     */
+    public FuenteAleatoria(long semilla, long consumos) {
+        this(semilla);
+        if (consumos < 0) {
+            throw new IllegalArgumentException("Consumos negativos: " + consumos);
+        }
+        while (this.consumos < consumos) {
+            nextLong();
+        }
+    }
+
+    @Override
+    public long nextLong() {
+        consumos++;
+        return base.nextLong();
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /** Devuelve cuántos valores se han tomado desde la semilla. */
+    public long getConsumos() {
+        return consumos;
+    }
+}
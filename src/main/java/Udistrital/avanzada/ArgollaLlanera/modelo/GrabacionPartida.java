@@ -0,0 +1,135 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Clase GrabacionPartida
+ *
+ * Registro compacto de una partida para repetirla o auditarla: claves de los dos equipos
+ * en el orden de la partida, semilla de la fuente aleatoria, equipo que inició, ganador y
+ * la secuencia de lanzamientos, un byte por lanzamiento con el código de
+ * {@link ResultadoLanzamiento} (los de muerte súbita van por parejas, A y luego B).
+ *
+ * Con los lanzamientos basta para repetir la partida aunque cambien los perfiles de los
+ * jugadores; la semilla, la de su {@link FuenteAleatoria}, permite además regenerarla
+ * desde cero, también si se continuó desde una {@link InstantaneaPartida}, porque la fuente
+ * continúa en el mismo punto. Inmutable.
+ *
+ * @author juanr
+ * @version 1.2
+ */
+public final class GrabacionPartida {
+
+    private final long marcaTiempo;        // Milisegundos desde la época al terminar la partida
+    private final long semilla;            // Semilla de la FuenteAleatoria de la partida
+    private final String claveA;
+    private final String claveB;
+    private final int equipoInicial;       // 0 o 1
+    private final int ganador;             // 0 o 1
+    private final byte[] lanzamientos;     // Códigos de resultado en orden
+
+    public GrabacionPartida(long marcaTiempo, long semilla, String claveA, String claveB,
+                            int equipoInicial, int ganador, byte[] lanzamientos) {
+        if (equipoInicial != 0 && equipoInicial != 1 || ganador != 0 && ganador != 1) {
+            throw new IllegalArgumentException("Equipo inicial o ganador inválido.");
+        }
+        for (byte codigo : lanzamientos) {
+            if (codigo < 0 || codigo >= ResultadoLanzamiento.cantidad()) {
+                throw new IllegalArgumentException("Código de lanzamiento inválido: " + codigo);
+            }
+        }
+        this.marcaTiempo = marcaTiempo;
+        this.semilla = semilla;
+        this.claveA = claveA;
+        this.claveB = claveB;
+        this.equipoInicial = equipoInicial;
+        this.ganador = ganador;
+        this.lanzamientos = lanzamientos.clone();
+    }
+
+    /**
+     * Escribe la grabación en binario.
+     *
+     * @param salida destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeLong(marcaTiempo);
+        salida.writeLong(semilla);
+        salida.writeUTF(claveA);
+        salida.writeUTF(claveB);
+        salida.writeByte(equipoInicial);
+        salida.writeByte(ganador);
+        salida.writeInt(lanzamientos.length);
+        salida.write(lanzamientos);
+    }
+
+    /**
+     * Lee una grabación escrita con {@link #escribir}.
+     *
+     * @param entrada origen
+     * @return grabación leída
+     * @throws IOException si falla la lectura o los datos no son válidos
+     */
+    public static GrabacionPartida leer(DataInput entrada) throws IOException {
+        long marcaTiempo = entrada.readLong();
+        long semilla = entrada.readLong();
+        String claveA = entrada.readUTF();
+        String claveB = entrada.readUTF();
+        int equipoInicial = entrada.readByte();
+        int ganador = entrada.readByte();
+        int n = entrada.readInt();
+        if (n < 0) {
+            throw new IOException("Cantidad de lanzamientos inválida: " + n);
+        }
+        byte[] lanzamientos = new byte[n];
+        entrada.readFully(lanzamientos);
+        try {
+            return new GrabacionPartida(marcaTiempo, semilla, claveA, claveB, equipoInicial, ganador, lanzamientos);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Grabación inválida: " + e.getMessage(), e);
+        }
+    }
+
+    public long getMarcaTiempo() {
+        return marcaTiempo;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public String getClaveA() {
+        return claveA;
+    }
+
+    public String getClaveB() {
+        return claveB;
+    }
+
+    public int getEquipoInicial() {
+        return equipoInicial;
+    }
+
+    public int getGanador() {
+        return ganador;
+    }
+
+    /** Número de lanzamientos grabados. */
+    public int getCantidadLanzamientos() {
+        return lanzamientos.length;
+    }
+
+    /** Devuelve una copia de los códigos de los lanzamientos. */
+    public byte[] getLanzamientos() {
+        return lanzamientos.clone();
+    }
+
+    @Override
+    public String toString() {
+        return claveA + " vs " + claveB + " (inicia " + (equipoInicial == 0 ? claveA : claveB)
+                + ", gana " + (ganador == 0 ? claveA : claveB) + ", " + lanzamientos.length + " lanzamientos)";
+    }
+}
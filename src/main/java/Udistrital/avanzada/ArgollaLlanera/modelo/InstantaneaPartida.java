@@ -0,0 +1,242 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Clase InstantaneaPartida
+ *
+ * Estado de la sesión de juego en un momento dado, suficiente para continuarla después de
+ * cerrar o perder el proceso: rondas jugadas, claves de los dos equipos y, si hay una
+ * partida en curso, su posición exacta (equipo y jugador en turno, primer equipo en llegar
+ * a 21, manos, lanzamientos y puntajes), el estado de su {@link FuenteAleatoria} (semilla y
+ * valores tomados), para que siga con los mismos sorteos, y los lanzamientos ya hechos,
+ * para que la grabación de la partida siga completa.
+ *
+ * Entre lanzamientos nunca hay una muerte súbita a medias (se juega completa dentro de un
+ * lanzamiento), así que no hace falta guardarla. Inmutable.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public final class InstantaneaPartida {
+
+    private static final byte[] SIN_LANZAMIENTOS = new byte[0];
+
+    private final int rondasJugadas;       // Rondas completadas en la sesión
+    private final String claveA;
+    private final String claveB;
+    private final boolean enCurso;         // Hay una partida sin decidir
+    private final long semilla;            // Semilla de la ronda en curso
+    private final long consumos;           // Valores tomados de la fuente, -1 si no se guardaron
+    private final int equipoInicial;       // Índice (0 o 1) del equipo que inició
+    private final int equipoActual;        // Índice (0 o 1) del equipo en turno
+    private final int jugadorActual;       // Índice del jugador en turno dentro de su equipo
+    private final int primerAlcance21;     // Índice del primer equipo en llegar a 21, -1 si ninguno
+    private final int manos;               // Manos iniciadas
+    private final int lanzamientos;        // Lanzamientos realizados
+    private final int puntosA;
+    private final int puntosB;
+    private final byte[] grabados;         // Códigos de los lanzamientos hechos, si se grabaron
+
+    /**
+     * Crea la instantánea de una partida en curso.
+     *
+     * @param semilla semilla de la {@link FuenteAleatoria} de la ronda
+     * @param consumos valores tomados de esa fuente
+     * @param grabados códigos de los lanzamientos hechos en orden, o un arreglo vacío si no se grabaron
+     */
+    public InstantaneaPartida(int rondasJugadas, String claveA, String claveB, long semilla, long consumos,
+                              int equipoInicial, int equipoActual, int jugadorActual, int primerAlcance21,
+                              int manos, int lanzamientos, int puntosA, int puntosB, byte[] grabados) {
+        this(rondasJugadas, claveA, claveB, true, semilla, consumos, equipoInicial, equipoActual, jugadorActual,
+                primerAlcance21, manos, lanzamientos, puntosA, puntosB, grabados.clone());
+    }
+
+    private InstantaneaPartida(int rondasJugadas, String claveA, String claveB, boolean enCurso, long semilla,
+                               long consumos, int equipoInicial, int equipoActual, int jugadorActual, int primerAlcance21,
+                               int manos, int lanzamientos, int puntosA, int puntosB, byte[] grabados) {
+        this.rondasJugadas = rondasJugadas;
+        this.claveA = claveA;
+        this.claveB = claveB;
+        this.enCurso = enCurso;
+        this.semilla = semilla;
+        this.consumos = consumos;
+        this.equipoInicial = equipoInicial;
+        this.equipoActual = equipoActual;
+        this.jugadorActual = jugadorActual;
+        this.primerAlcance21 = primerAlcance21;
+        this.manos = manos;
+        this.lanzamientos = lanzamientos;
+        this.puntosA = puntosA;
+        this.puntosB = puntosB;
+        this.grabados = grabados;
+    }
+
+    /**
+     * Crea la instantánea de una sesión sin partida en curso (entre rondas).
+     *
+     * @param rondasJugadas rondas completadas
+     * @param claveA clave del equipo A
+     * @param claveB clave del equipo B
+     * @return instantánea sin partida
+     */
+    public static InstantaneaPartida entreRondas(int rondasJugadas, String claveA, String claveB) {
+        return new InstantaneaPartida(rondasJugadas, claveA, claveB, false, 0, 0, 0, 0, 0, -1, 0, 0, 0, 0,
+                SIN_LANZAMIENTOS);
+    }
+
+    /**
+     * Escribe la instantánea en binario.
+     *
+     * @param salida destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeInt(rondasJugadas);
+        salida.writeUTF(claveA);
+        salida.writeUTF(claveB);
+        salida.writeBoolean(enCurso);
+        if (!enCurso) {
+            return;
+        }
+        salida.writeLong(semilla);
+        salida.writeLong(consumos);
+        salida.writeByte(equipoInicial);
+        salida.writeByte(equipoActual);
+        salida.writeShort(jugadorActual);
+        salida.writeByte(primerAlcance21);
+        salida.writeInt(manos);
+        salida.writeInt(lanzamientos);
+        salida.writeInt(puntosA);
+        salida.writeInt(puntosB);
+        salida.writeInt(grabados.length);
+        salida.write(grabados);
+    }
+
+    /**
+     * Lee una instantánea escrita con {@link #escribir}.
+     *
+     * @param entrada origen
+     * @return instantánea leída
+     * @throws IOException si falla la lectura o los datos no son válidos
+     */
+    public static InstantaneaPartida leer(DataInput entrada) throws IOException {
+        return leer(entrada, true);
+    }
+
+    /**
+     * Lee una instantánea escrita antes de guardar el estado de la fuente aleatoria; sus
+     * consumos quedan en -1.
+     *
+     * @param entrada origen
+     * @return instantánea leída
+     * @throws IOException si falla la lectura o los datos no son válidos
+     */
+    public static InstantaneaPartida leerSinFuente(DataInput entrada) throws IOException {
+        return leer(entrada, false);
+    }
+
+    private static InstantaneaPartida leer(DataInput entrada, boolean conFuente) throws IOException {
+        int rondasJugadas = entrada.readInt();
+        String claveA = entrada.readUTF();
+        String claveB = entrada.readUTF();
+        if (!entrada.readBoolean()) {
+            return entreRondas(rondasJugadas, claveA, claveB);
+        }
+        long semilla = entrada.readLong();
+        long consumos = conFuente ? entrada.readLong() : -1;
+        if (conFuente && consumos < 0) {
+            throw new IOException("Consumos de la fuente inválidos: " + consumos);
+        }
+        int equipoInicial = entrada.readByte();
+        int equipoActual = entrada.readByte();
+        int jugadorActual = entrada.readShort();
+        int primerAlcance21 = entrada.readByte();
+        int manos = entrada.readInt();
+        int lanzamientos = entrada.readInt();
+        int puntosA = entrada.readInt();
+        int puntosB = entrada.readInt();
+        int n = entrada.readInt();
+        if (n < 0 || n > lanzamientos) {
+            throw new IOException("Cantidad de lanzamientos grabados inválida: " + n);
+        }
+        byte[] grabados = new byte[n];
+        entrada.readFully(grabados);
+        return new InstantaneaPartida(rondasJugadas, claveA, claveB, true, semilla, consumos, equipoInicial,
+                equipoActual, jugadorActual, primerAlcance21, manos, lanzamientos, puntosA, puntosB, grabados);
+    }
+
+    public int getRondasJugadas() {
+        return rondasJugadas;
+    }
+
+    public String getClaveA() {
+        return claveA;
+    }
+
+    public String getClaveB() {
+        return claveB;
+    }
+
+    /** Indica si hay una partida sin decidir; si no, los demás datos de partida no aplican. */
+    public boolean isEnCurso() {
+        return enCurso;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Devuelve cuántos valores se tomaron de la fuente de la ronda, o -1 si la instantánea
+     * se guardó sin ese dato.
+     */
+    public long getConsumos() {
+        return consumos;
+    }
+
+    public int getEquipoInicial() {
+        return equipoInicial;
+    }
+
+    public int getEquipoActual() {
+        return equipoActual;
+    }
+
+    public int getJugadorActual() {
+        return jugadorActual;
+    }
+
+    public int getPrimerAlcance21() {
+        return primerAlcance21;
+    }
+
+    public int getManos() {
+        return manos;
+    }
+
+    public int getLanzamientos() {
+        return lanzamientos;
+    }
+
+    /** Devuelve los puntos del equipo A (0) o B (1). */
+    public int getPuntos(int indice) {
+        return indice == 0 ? puntosA : puntosB;
+    }
+
+    /** Devuelve una copia de los códigos de los lanzamientos grabados. */
+    public byte[] getGrabados() {
+        return grabados.clone();
+    }
+
+    @Override
+    public String toString() {
+        if (!enCurso) {
+            return claveA + " vs " + claveB + " (" + rondasJugadas + " rondas jugadas, sin partida en curso)";
+        }
+        return claveA + " " + puntosA + " - " + puntosB + " " + claveB + " (ronda " + (rondasJugadas + 1)
+                + ", " + lanzamientos + " lanzamientos)";
+    }
+}
@@ -1,10 +1,14 @@
 package Udistrital.avanzada.ArgollaLlanera.modelo;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Clase Juego
@@ -14,36 +18,104 @@ import java.util.Random;
  * cálculo de puntos, y evaluación de condiciones de victoria y empate.
  *
  * Esta clase actúa como el modelo central para puntajes y reglas del juego.
+ *
+ * Los lanzamientos se generan con una fuente aleatoria intercambiable: por defecto
+ * la del hilo actual, o una fuente explícita con semilla (p. ej. {@code SplittableRandom})
+ * para obtener partidas reproducibles. Cada hilo debe usar su propia fuente.
+ *
+ * Los lanzamientos de un jugador siguen su {@link PerfilLanzamiento}.
+ *
+ * Los puntajes se guardan en un arreglo de enteros indexado por la posición del equipo
+ * en la lista de la partida; sumar puntos no crea objetos ni calcula hashes. Para el
+ * código que trabaja con mapas, {@link #getPuntajes()} ofrece una vista de solo lectura.
+ *
+ * Un juego creado con {@link #desdeGrabacion} no sortea nada: entrega en orden los
+ * resultados de una {@link GrabacionPartida}, de modo que las reglas repiten la partida
+ * exactamente aunque los perfiles de los jugadores hayan cambiado.
  * 
  * @author juan
- * @version 1.0
+ * @version 1.4
  */
 public class Juego {
 
     /** Lista de equipos que participan en este juego */
     private List<Equipo> equipos;
 
-    /** Mapa que almacena los puntajes actuales de cada equipo */
-    private Map<Equipo, Integer> puntajes;
+    /** Equipos por posición; la posición indexa {@link #puntos} */
+    private final Equipo[] posiciones;
+
+    /** Puntaje actual de cada equipo, por posición */
+    private final int[] puntos;
+
+    /** Vista de solo lectura de los puntajes */
+    private final Map<Equipo, Integer> puntajes;
 
     /** Indica si actualmente hay empate según reglas del juego */
     private boolean empate;
 
+    /** Fuente aleatoria de los lanzamientos; null para usar la del hilo actual */
+    private final RandomGenerator generador;
+
+    /** Resultados grabados que se entregan en lugar de sortear, o null */
+    private final byte[] grabados;
+
+    /** Posición del siguiente resultado grabado */
+    private int siguienteGrabado;
+
     /**
      * Constructor que inicializa el juego con los equipos participantes.
-     * Inicializa los puntajes a cero.
+     * Inicializa los puntajes a cero y usa la fuente aleatoria del hilo actual.
      *
      * @param equipos lista de equipos en la partida
      */
     public Juego(List<Equipo> equipos) {
+        this(equipos, null);
+    }
+
+    /**
+     * Constructor que inicializa el juego con una fuente aleatoria explícita,
+     * lo que permite reproducir los lanzamientos a partir de una semilla.
+     *
+     * @param equipos lista de equipos en la partida
+     * @param generador fuente aleatoria de los lanzamientos, o null para la del hilo actual
+     */
+    public Juego(List<Equipo> equipos, RandomGenerator generador) {
+        this(equipos, generador, null);
+    }
+
+    private Juego(List<Equipo> equipos, RandomGenerator generador, byte[] grabados) {
         this.equipos = equipos;
-        this.puntajes = new HashMap<>();
-        for (Equipo equipo : equipos) {
-            puntajes.put(equipo, 0);
-        }
+        this.generador = generador;
+        this.grabados = grabados;
+        this.posiciones = equipos.toArray(new Equipo[0]);
+        this.puntos = new int[posiciones.length];
+        this.puntajes = new VistaPuntajes();
         this.empate = false;
     }
 
+    /**
+     * Crea un juego que repite los lanzamientos de una grabación en lugar de sortearlos.
+     *
+     * @param equipos lista de equipos en la partida, en el orden de la grabación
+     * @param lanzamientos códigos de resultado en el orden en que se lanzaron
+     * @return juego que entrega esos resultados
+     */
+    public static Juego desdeGrabacion(List<Equipo> equipos, byte[] lanzamientos) {
+        return new Juego(equipos, null, lanzamientos.clone());
+    }
+
+    /** Lanzamientos grabados que aún no se han entregado; 0 si el juego sortea. */
+    public int getLanzamientosGrabadosRestantes() {
+        return grabados == null ? 0 : grabados.length - siguienteGrabado;
+    }
+
+    private ResultadoLanzamiento siguienteGrabado() {
+        if (siguienteGrabado >= grabados.length) {
+            throw new IllegalStateException("La grabación no tiene más lanzamientos.");
+        }
+        return ResultadoLanzamiento.desdeCodigo(grabados[siguienteGrabado++]);
+    }
+
     /**
      * Genera el resultado completo del lanzamiento para un equipo
      * sumando puntos de todos sus jugadores.
@@ -55,14 +127,91 @@ public class Juego {
     public int lanzarEquipo(Equipo equipo) {
         int total = 0;
         for (Jugador jugador : equipo.getJugadores()) {
-            String resultado = generarResultadoAleatorio();
-            int puntos = calcularPuntos(resultado);
-            jugador.setResultado(resultado);
+            ResultadoLanzamiento resultado = lanzar(jugador);
+            int puntos = resultado.getPuntos();
+            jugador.setResultado(resultado.getTexto());
             jugador.setPuntos(puntos);
             total += puntos;
         }
-        puntajes.put(equipo, puntajes.get(equipo) + total);
-        return puntajes.get(equipo);
+        return sumarPuntos(indiceRequerido(equipo), total);
+    }
+
+    /**
+     * Devuelve la posición del equipo en la partida.
+     *
+     * @param equipo equipo a buscar (se compara por identidad)
+     * @return posición desde 0, o -1 si el equipo no juega esta partida
+     */
+    public int indiceDe(Object equipo) {
+        for (int i = 0; i < posiciones.length; i++) {
+            if (posiciones[i] == equipo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indiceRequerido(Equipo equipo) {
+        int i = indiceDe(equipo);
+        if (i < 0) {
+            throw new IllegalArgumentException("El equipo " + equipo.getNombre() + " no juega esta partida.");
+        }
+        return i;
+    }
+
+    /**
+     * Suma puntos al equipo de una posición.
+     *
+     * @param indice posición del equipo
+     * @param cantidad puntos a sumar
+     * @return nuevo puntaje del equipo
+     */
+    public int sumarPuntos(int indice, int cantidad) {
+        return puntos[indice] += cantidad;
+    }
+
+    /**
+     * Devuelve el puntaje del equipo de una posición.
+     *
+     * @param indice posición del equipo
+     * @return puntaje actual
+     */
+    public int getPuntos(int indice) {
+        return puntos[indice];
+    }
+
+    /** Número de equipos de la partida. */
+    public int getCantidadEquipos() {
+        return posiciones.length;
+    }
+
+    /**
+     * Genera un lanzamiento individual con la fuente aleatoria del juego.
+     * Todos los resultados son igualmente probables. No crea objetos.
+     *
+     * @return resultado del lanzamiento
+     */
+    public ResultadoLanzamiento lanzar() {
+        if (grabados != null) {
+            return siguienteGrabado();
+        }
+        RandomGenerator rand = generador != null ? generador : ThreadLocalRandom.current();
+        return ResultadoLanzamiento.desdeCodigo(rand.nextInt(ResultadoLanzamiento.cantidad()));
+    }
+
+    /**
+     * Genera el lanzamiento de un jugador según su perfil, en tiempo constante.
+     * Con el perfil uniforme consume la fuente aleatoria igual que {@link #lanzar()}.
+     *
+     * @param jugador jugador que lanza
+     * @return resultado del lanzamiento
+     */
+    public ResultadoLanzamiento lanzar(Jugador jugador) {
+        if (grabados != null) {
+            return siguienteGrabado();
+        }
+        RandomGenerator rand = generador != null ? generador : ThreadLocalRandom.current();
+        return jugador.getPerfil().muestrear(rand);
     }
 
     /**
@@ -72,9 +221,7 @@ public class Juego {
      * @return String resultado aleatorio
      */
     public String generarResultadoAleatorio() {
-        String[] opciones = {"moñona", "engarzada", "hueco", "palmo", "timbre", "otro"};
-        Random rand = new Random();
-        return opciones[rand.nextInt(opciones.length)];
+        return lanzar().getTexto();
     }
 
     /**
@@ -95,6 +242,16 @@ public class Juego {
         }
     }
 
+    /**
+     * Calcula los puntos de un resultado ya tipado, mediante la tabla precalculada.
+     *
+     * @param resultado resultado del lanzamiento
+     * @return puntos asociados al resultado
+     */
+    public int calcularPuntos(ResultadoLanzamiento resultado) {
+        return resultado.getPuntos();
+    }
+
     /**
      * Determina si un equipo ha ganado con base en los puntos acumulados,
      * considerando la regla de mínimo 21 puntos para ganar.
@@ -103,7 +260,7 @@ public class Juego {
      * @return true si el equipo tiene al menos 21 puntos, false en otro caso
      */
     public boolean equipoHaGanado(Equipo equipo) {
-        return puntajes.get(equipo) >= 21;
+        return puntos[indiceRequerido(equipo)] >= 21;
     }
 
     /**
@@ -112,9 +269,8 @@ public class Juego {
      * @return true si hay empate, false en caso contrario
      */
     public boolean hayEmpate() {
-        List<Integer> puntos = new ArrayList<>(puntajes.values());
         int conteoMayoresIguales21 = 0;
-        for (Integer p : puntos) {
+        for (int p : puntos) {
             if (p >= 21) conteoMayoresIguales21++;
         }
         return conteoMayoresIguales21 > 1;
@@ -122,10 +278,66 @@ public class Juego {
 
     /**
      * Obtiene el mapa completo de puntajes de todos los equipos en el juego.
+     * Es una vista de solo lectura, en el orden de la partida, que siempre refleja los
+     * puntajes actuales; para modificarlos se usa {@link #sumarPuntos(int, int)}.
      *
      * @return mapa con clave equipo y valor su puntaje actual
      */
     public Map<Equipo, Integer> getPuntajes() {
         return puntajes;
     }
+
+    /**
+     * Vista de los puntajes como mapa. Las consultas buscan la posición del equipo y leen
+     * el arreglo; los valores solo se convierten a Integer al leerlos.
+     */
+    private final class VistaPuntajes extends AbstractMap<Equipo, Integer> {
+
+        @Override
+        public Integer get(Object equipo) {
+            int i = indiceDe(equipo);
+            return i < 0 ? null : puntos[i];
+        }
+
+        @Override
+        public boolean containsKey(Object equipo) {
+            return indiceDe(equipo) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return posiciones.length;
+        }
+
+        @Override
+        public Set<Map.Entry<Equipo, Integer>> entrySet() {
+            return new AbstractSet<Map.Entry<Equipo, Integer>>() {
+                @Override
+                public Iterator<Map.Entry<Equipo, Integer>> iterator() {
+                    return new Iterator<Map.Entry<Equipo, Integer>>() {
+                        private int siguiente;
+
+                        @Override
+                        public boolean hasNext() {
+                            return siguiente < posiciones.length;
+                        }
+
+                        @Override
+                        public Map.Entry<Equipo, Integer> next() {
+                            if (siguiente >= posiciones.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = siguiente++;
+                            return new AbstractMap.SimpleImmutableEntry<>(posiciones[i], puntos[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return posiciones.length;
+                }
+            };
+        }
+    }
 }
@@ -5,14 +5,17 @@ import java.io.Serializable;
 /**
  * Clase Jugador que representa un jugador dentro de un equipo determinado.
  * Recibe nombre, apodo y foto (genérica).
+ * Cada jugador tiene un {@link PerfilLanzamiento} con la probabilidad de cada resultado;
+ * si no se indica, todos los resultados son igualmente probables.
  * @author juan-
- * @version 1.1
+ * @version 1.2
  */
 public class Jugador implements Serializable {
 
     private String nombre;
     private String apodo;
     private String foto;
+    private PerfilLanzamiento perfil = PerfilLanzamiento.UNIFORME; // Habilidad del jugador
 
     // Campos transitorios que no se serializan
     private transient int puntos;
@@ -65,6 +68,18 @@ public class Jugador implements Serializable {
         this.foto = foto;
     }
 
+    public PerfilLanzamiento getPerfil() {
+        return perfil;
+    }
+
+    /**
+     * Asigna la habilidad del jugador.
+     * @param perfil perfil de lanzamiento, o null para el uniforme
+     */
+    public void setPerfil(PerfilLanzamiento perfil) {
+        this.perfil = perfil != null ? perfil : PerfilLanzamiento.UNIFORME;
+    }
+
     public int getPuntos() {
         return puntos;
     }
@@ -0,0 +1,239 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Clase PerfilLanzamiento
+ *
+ * Habilidad de un jugador expresada como el peso de cada {@link ResultadoLanzamiento}.
+ * El perfil se usa tanto para lanzar ({@link Juego}) como para calcular probabilidades,
+ * así que simulación y pronóstico parten del mismo modelo.
+ *
+ * Para que lanzar cueste lo mismo con cualquier distribución, al crear el perfil se
+ * arma una tabla de alias (método de Vose): cada lanzamiento elige una casilla al azar y
+ * con un segundo número decide entre el resultado de la casilla y su alias. El perfil
+ * uniforme lanza con un único {@code nextInt}, igual que antes de existir los perfiles,
+ * de modo que las partidas con semilla se reproducen igual.
+ *
+ * El texto del perfil en Equipos.properties admite dos formas:
+ * - Seis pesos en el orden de los resultados: {@code 1,2,4,4,5,10}
+ * - Pares resultado:peso, donde los omitidos pesan 0:
+ *   {@code moñona:1, engarzada:2, hueco:4, palmo:4, timbre:5, otro:10}
+ *   (se acepta {@code monona} para no depender de la codificación del archivo).
+ *
+ * Inmutable.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public final class PerfilLanzamiento implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Perfil con todos los resultados igualmente probables. */
+    public static final PerfilLanzamiento UNIFORME = crearUniforme();
+
+    private final double[] probabilidades;   // Probabilidad por código de resultado
+    private final double[] corte;            // Tabla de alias: probabilidad de quedarse en la casilla
+    private final int[] alias;               // Tabla de alias: resultado alterno de cada casilla
+    private final boolean uniforme;          // Todos los resultados igual de probables
+
+    /**
+     * Crea un perfil a partir de los pesos de cada resultado.
+     *
+     * @param pesos peso por código de {@link ResultadoLanzamiento}; no tienen que sumar 1
+     * @throws IllegalArgumentException si falta algún peso, hay pesos negativos o todos son 0
+     */
+    public PerfilLanzamiento(double[] pesos) {
+        int n = ResultadoLanzamiento.cantidad();
+        if (pesos.length != n) {
+            throw new IllegalArgumentException("Se esperaban " + n + " pesos y hay " + pesos.length);
+        }
+        double suma = 0;
+        for (double p : pesos) {
+            if (!(p >= 0) || Double.isInfinite(p)) {
+                throw new IllegalArgumentException("Peso inválido: " + p);
+            }
+            suma += p;
+        }
+        if (suma <= 0) {
+            throw new IllegalArgumentException("Al menos un resultado debe tener peso.");
+        }
+        this.probabilidades = new double[n];
+        boolean iguales = true;
+        for (int i = 0; i < n; i++) {
+            probabilidades[i] = pesos[i] / suma;
+            iguales &= pesos[i] == pesos[0];
+        }
+        this.uniforme = iguales;
+        this.corte = new double[n];
+        this.alias = new int[n];
+        construirAlias();
+    }
+
+    private static PerfilLanzamiento crearUniforme() {
+        double[] pesos = new double[ResultadoLanzamiento.cantidad()];
+        Arrays.fill(pesos, 1);
+        return new PerfilLanzamiento(pesos);
+    }
+
+    /**
+     * Arma la tabla de alias: reparte las casillas con probabilidad escalada menor a 1
+     * con las que la superan, hasta que todas queden llenas.
+     */
+    private void construirAlias() {
+        int n = probabilidades.length;
+        double[] escalada = new double[n];
+        int[] pequenas = new int[n];
+        int[] grandes = new int[n];
+        int np = 0;
+        int ng = 0;
+        for (int i = 0; i < n; i++) {
+            escalada[i] = probabilidades[i] * n;
+            alias[i] = i;
+            if (escalada[i] < 1) {
+                pequenas[np++] = i;
+            } else {
+                grandes[ng++] = i;
+            }
+        }
+        while (np > 0 && ng > 0) {
+            int p = pequenas[--np];
+            int g = grandes[--ng];
+            corte[p] = escalada[p];
+            alias[p] = g;
+            escalada[g] = escalada[g] + escalada[p] - 1;
+            if (escalada[g] < 1) {
+                pequenas[np++] = g;
+            } else {
+                grandes[ng++] = g;
+            }
+        }
+        // Lo que queda es 1 salvo error de redondeo
+        while (ng > 0) {
+            corte[grandes[--ng]] = 1;
+        }
+        while (np > 0) {
+            corte[pequenas[--np]] = 1;
+        }
+    }
+
+    /**
+     * Lee un perfil escrito como en Equipos.properties.
+     *
+     * @param texto seis pesos separados por comas, o pares resultado:peso
+     * @return perfil leído
+     * @throws IllegalArgumentException si el texto no es un perfil válido
+     */
+    public static PerfilLanzamiento desdeTexto(String texto) {
+        String[] partes = texto.trim().split("\\s*,\\s*");
+        double[] pesos = new double[ResultadoLanzamiento.cantidad()];
+        boolean conNombres = partes[0].indexOf(':') >= 0;
+        if (!conNombres && partes.length != pesos.length) {
+            throw new IllegalArgumentException("Se esperaban " + pesos.length + " pesos separados por comas: '" + texto + "'");
+        }
+        for (int i = 0; i < partes.length; i++) {
+            String parte = partes[i];
+            int codigo = i;
+            if (conNombres) {
+                int dosPuntos = parte.indexOf(':');
+                if (dosPuntos < 0) {
+                    throw new IllegalArgumentException("Falta ':' en '" + parte + "'");
+                }
+                codigo = codigoDeNombre(parte.substring(0, dosPuntos).trim());
+                parte = parte.substring(dosPuntos + 1).trim();
+            }
+            try {
+                pesos[codigo] = Double.parseDouble(parte);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Peso no numérico: '" + parte + "'");
+            }
+        }
+        return new PerfilLanzamiento(pesos);
+    }
+
+    private static int codigoDeNombre(String nombre) {
+        String buscado = nombre.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < ResultadoLanzamiento.cantidad(); i++) {
+            ResultadoLanzamiento r = ResultadoLanzamiento.desdeCodigo(i);
+            if (r.getTexto().equals(buscado) || r.name().toLowerCase(Locale.ROOT).equals(buscado)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Resultado desconocido: '" + nombre + "'");
+    }
+
+    /**
+     * Elige el código de un resultado en tiempo constante.
+     *
+     * @param rand fuente aleatoria
+     * @return código del resultado
+     */
+    public int muestrearCodigo(RandomGenerator rand) {
+        int casilla = rand.nextInt(probabilidades.length);
+        if (uniforme) {
+            return casilla;
+        }
+        return rand.nextDouble() < corte[casilla] ? casilla : alias[casilla];
+    }
+
+    /**
+     * Elige un resultado en tiempo constante.
+     *
+     * @param rand fuente aleatoria
+     * @return resultado del lanzamiento
+     */
+    public ResultadoLanzamiento muestrear(RandomGenerator rand) {
+        return ResultadoLanzamiento.desdeCodigo(muestrearCodigo(rand));
+    }
+
+    /** Devuelve la probabilidad del resultado con el código indicado. */
+    public double getProbabilidad(int codigo) {
+        return probabilidades[codigo];
+    }
+
+    /** Devuelve una copia de las probabilidades por código de resultado. */
+    public double[] getProbabilidades() {
+        return probabilidades.clone();
+    }
+
+    /** Indica si todos los resultados son igualmente probables. */
+    public boolean isUniforme() {
+        return uniforme;
+    }
+
+    /** Puntos esperados por lanzamiento. */
+    public double getPuntosEsperados() {
+        double esperado = 0;
+        for (int i = 0; i < probabilidades.length; i++) {
+            esperado += probabilidades[i] * ResultadoLanzamiento.puntosDeCodigo(i);
+        }
+        return esperado;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PerfilLanzamiento && Arrays.equals(probabilidades, ((PerfilLanzamiento) o).probabilidades);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(probabilidades);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < probabilidades.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(ResultadoLanzamiento.desdeCodigo(i).getTexto()).append(':')
+                    .append(String.format(Locale.ROOT, "%.4f", probabilidades[i]));
+        }
+        return sb.toString();
+    }
+}
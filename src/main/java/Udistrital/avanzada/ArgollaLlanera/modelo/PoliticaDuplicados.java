@@ -0,0 +1,24 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Enumeración PoliticaDuplicados
+ *
+ * Qué hacer cuando al combinar varios archivos de equipos aparece una clave repetida,
+ * ya sea entre archivos, dentro de un mismo archivo o contra un equipo ya cargado.
+ * Los archivos se combinan siempre en el mismo orden, así que el resultado no depende
+ * del orden en que terminen las lecturas en paralelo.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public enum PoliticaDuplicados {
+
+    /** Se conserva el equipo que apareció primero y se descartan los demás. */
+    CONSERVAR_PRIMERO,
+
+    /** El último equipo con la clave reemplaza a los anteriores. */
+    REEMPLAZAR,
+
+    /** La carga falla sin modificar los equipos cargados. */
+    ERROR
+}
@@ -0,0 +1,50 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Clase ProbabilidadesPartida
+ *
+ * Probabilidades exactas del desenlace de una partida desde un estado dado: que gane
+ * cada equipo y que la partida llegue a muerte súbita. Inmutable.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class ProbabilidadesPartida {
+
+    private final double probabilidadA;            // Probabilidad de que gane el equipo A
+    private final double probabilidadB;            // Probabilidad de que gane el equipo B
+    private final double probabilidadMuerteSubita; // Probabilidad de llegar a muerte súbita
+
+    public ProbabilidadesPartida(double probabilidadA, double probabilidadB, double probabilidadMuerteSubita) {
+        this.probabilidadA = probabilidadA;
+        this.probabilidadB = probabilidadB;
+        this.probabilidadMuerteSubita = probabilidadMuerteSubita;
+    }
+
+    public double getProbabilidadA() {
+        return probabilidadA;
+    }
+
+    public double getProbabilidadB() {
+        return probabilidadB;
+    }
+
+    public double getProbabilidadMuerteSubita() {
+        return probabilidadMuerteSubita;
+    }
+
+    /**
+     * Probabilidad de que la partida no tenga ganador. Mientras algún jugador pueda sumar
+     * puntos siempre hay ganador y esto solo refleja el error de redondeo; es positiva
+     * únicamente si ningún jugador puede sumar o desempatar.
+     */
+    public double getProbabilidadSinGanador() {
+        return Math.max(0, 1 - probabilidadA - probabilidadB);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("P(A)=%.4f P(B)=%.4f muerte súbita=%.4f",
+                probabilidadA, probabilidadB, probabilidadMuerteSubita);
+    }
+}
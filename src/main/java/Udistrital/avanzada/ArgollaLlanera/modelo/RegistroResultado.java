@@ -0,0 +1,94 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Clase RegistroResultado
+ *
+ * Representa, de forma inmutable, un registro leído del archivo de resultados:
+ * clave y nombre del equipo, nombres de sus jugadores y el resultado de la ronda.
+ * Los registros del formato binario incluyen además el puntaje y la marca de tiempo;
+ * en los del formato de 160 bytes esos campos valen {@link #SIN_PUNTAJE} y 0.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class RegistroResultado {
+
+    private final String clave;
+    private final String nombreEquipo;
+    private final String[] jugadores;
+    private final String resultado;
+    private final int puntaje;
+    private final long marcaTiempo;
+
+    /** Valor de puntaje para registros que no lo guardan. */
+    public static final int SIN_PUNTAJE = -1;
+
+    /**
+     * Crea un registro con los datos ya decodificados, sin puntaje ni marca de tiempo.
+     *
+     * @param clave clave del equipo
+     * @param nombreEquipo nombre del equipo
+     * @param jugadores nombres de los jugadores del equipo
+     * @param resultado texto del resultado (p. ej. "Ganó" o "Perdió")
+     */
+    public RegistroResultado(String clave, String nombreEquipo, String[] jugadores, String resultado) {
+        this(clave, nombreEquipo, jugadores, resultado, SIN_PUNTAJE, 0L);
+    }
+
+    /**
+     * Crea un registro completo.
+     *
+     * @param clave clave del equipo
+     * @param nombreEquipo nombre del equipo
+     * @param jugadores nombres de los jugadores del equipo
+     * @param resultado texto del resultado
+     * @param puntaje puntaje del equipo en la ronda, o {@link #SIN_PUNTAJE}
+     * @param marcaTiempo milisegundos desde la época, o 0 si se desconoce
+     */
+    public RegistroResultado(String clave, String nombreEquipo, String[] jugadores, String resultado,
+                             int puntaje, long marcaTiempo) {
+        this.clave = clave;
+        this.nombreEquipo = nombreEquipo;
+        this.jugadores = jugadores.clone();
+        this.resultado = resultado;
+        this.puntaje = puntaje;
+        this.marcaTiempo = marcaTiempo;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public String getNombreEquipo() {
+        return nombreEquipo;
+    }
+
+    /** Devuelve una copia de los nombres de jugadores. */
+    public String[] getJugadores() {
+        return jugadores.clone();
+    }
+
+    public String getResultado() {
+        return resultado;
+    }
+
+    /** Devuelve el resultado tipado; {@link ResultadoPartida#DESCONOCIDO} si el texto no se reconoce. */
+    public ResultadoPartida getResultadoPartida() {
+        return ResultadoPartida.desdeTexto(resultado);
+    }
+
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    public long getMarcaTiempo() {
+        return marcaTiempo;
+    }
+
+    @Override
+    public String toString() {
+        return clave + " | " + nombreEquipo + " | " + Arrays.toString(jugadores) + " | " + resultado;
+    }
+}
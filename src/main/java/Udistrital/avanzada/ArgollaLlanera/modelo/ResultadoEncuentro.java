@@ -0,0 +1,93 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Clase ResultadoEncuentro
+ *
+ * Resultado inmutable de un encuentro de torneo. Un encuentro sin segundo equipo es
+ * un descanso: el equipo avanza como ganador sin jugar.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class ResultadoEncuentro {
+
+    private final int ronda;               // Ronda del torneo, desde 1
+    private final Equipo equipoA;
+    private final Equipo equipoB;          // null si es un descanso
+    private final Equipo ganador;
+    private final int puntosA;
+    private final int puntosB;
+    private final boolean muerteSubita;    // El encuentro se definió en muerte súbita
+
+    public ResultadoEncuentro(int ronda, Equipo equipoA, Equipo equipoB, Equipo ganador,
+                              int puntosA, int puntosB, boolean muerteSubita) {
+        this.ronda = ronda;
+        this.equipoA = equipoA;
+        this.equipoB = equipoB;
+        this.ganador = ganador;
+        this.puntosA = puntosA;
+        this.puntosB = puntosB;
+        this.muerteSubita = muerteSubita;
+    }
+
+    /**
+     * Crea el resultado de un descanso.
+     *
+     * @param ronda ronda del torneo
+     * @param equipo equipo que descansa y avanza
+     * @return resultado con el equipo como ganador
+     */
+    public static ResultadoEncuentro descanso(int ronda, Equipo equipo) {
+        return new ResultadoEncuentro(ronda, equipo, null, equipo, 0, 0, false);
+    }
+
+    public int getRonda() {
+        return ronda;
+    }
+
+    public Equipo getEquipoA() {
+        return equipoA;
+    }
+
+    public Equipo getEquipoB() {
+        return equipoB;
+    }
+
+    public Equipo getGanador() {
+        return ganador;
+    }
+
+    /** Equipo que perdió el encuentro, o null si fue un descanso. */
+    public Equipo getPerdedor() {
+        if (equipoB == null) {
+            return null;
+        }
+        return ganador == equipoA ? equipoB : equipoA;
+    }
+
+    public int getPuntosA() {
+        return puntosA;
+    }
+
+    public int getPuntosB() {
+        return puntosB;
+    }
+
+    public boolean isMuerteSubita() {
+        return muerteSubita;
+    }
+
+    public boolean esDescanso() {
+        return equipoB == null;
+    }
+
+    @Override
+    public String toString() {
+        if (esDescanso()) {
+            return "Ronda " + ronda + ": " + equipoA.getNombre() + " descansa";
+        }
+        return "Ronda " + ronda + ": " + equipoA.getNombre() + " " + puntosA + " - " + puntosB + " "
+                + equipoB.getNombre() + (muerteSubita ? " (muerte súbita)" : "")
+                + " -> " + ganador.getNombre();
+    }
+}
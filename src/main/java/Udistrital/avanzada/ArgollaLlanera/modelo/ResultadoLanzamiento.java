@@ -0,0 +1,105 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Enumeración ResultadoLanzamiento
+ *
+ * Representa los posibles resultados de un lanzamiento de argolla con su texto
+ * y su puntaje. Cada resultado tiene además un código de un byte (su posición en
+ * la tabla) que permite guardarlo o transmitirlo sin usar cadenas.
+ *
+ * Las tablas de valores y puntos se calculan una sola vez, así que convertir un
+ * código en resultado o en puntos no crea objetos.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public enum ResultadoLanzamiento {
+
+    MONONA("moñona", 8),
+    ENGARZADA("engarzada", 5),
+    HUECO("hueco", 3),
+    PALMO("palmo", 2),
+    TIMBRE("timbre", 1),
+    OTRO("otro", 0);
+
+    /** Tabla de resultados indexada por código. */
+    private static final ResultadoLanzamiento[] VALORES = values();
+
+    /** Tabla de puntos indexada por código. */
+    private static final int[] PUNTOS = new int[VALORES.length];
+
+    static {
+        for (ResultadoLanzamiento r : VALORES) {
+            PUNTOS[r.ordinal()] = r.puntos;
+        }
+    }
+
+    private final String texto;
+    private final int puntos;
+
+    ResultadoLanzamiento(String texto, int puntos) {
+        this.texto = texto;
+        this.puntos = puntos;
+    }
+
+    /** Devuelve el texto con el que se muestra el resultado. */
+    public String getTexto() {
+        return texto;
+    }
+
+    /** Devuelve los puntos que otorga el resultado. */
+    public int getPuntos() {
+        return puntos;
+    }
+
+    /** Devuelve el código de un byte del resultado. */
+    public byte getCodigo() {
+        return (byte) ordinal();
+    }
+
+    /** Número de resultados posibles. */
+    public static int cantidad() {
+        return VALORES.length;
+    }
+
+    /**
+     * Obtiene el resultado asociado a un código.
+     *
+     * @param codigo código entre 0 y {@link #cantidad()} - 1
+     * @return resultado correspondiente
+     */
+    public static ResultadoLanzamiento desdeCodigo(int codigo) {
+        return VALORES[codigo];
+    }
+
+    /**
+     * Obtiene los puntos asociados a un código sin pasar por el objeto.
+     *
+     * @param codigo código del resultado
+     * @return puntos del resultado
+     */
+    public static int puntosDeCodigo(int codigo) {
+        return PUNTOS[codigo];
+    }
+
+    /**
+     * Obtiene el resultado a partir de su texto. Cualquier texto desconocido
+     * se interpreta como {@link #OTRO}, igual que en {@link Juego#calcularPuntos(String)}.
+     *
+     * @param texto texto del resultado
+     * @return resultado correspondiente
+     */
+    public static ResultadoLanzamiento desdeTexto(String texto) {
+        for (ResultadoLanzamiento r : VALORES) {
+            if (r.texto.equals(texto)) {
+                return r;
+            }
+        }
+        return OTRO;
+    }
+
+    @Override
+    public String toString() {
+        return texto;
+    }
+}
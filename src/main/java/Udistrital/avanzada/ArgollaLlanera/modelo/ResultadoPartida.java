@@ -0,0 +1,67 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Enumeración ResultadoPartida
+ *
+ * Resultado de una ronda para un equipo, tal como se guarda en el archivo de
+ * resultados. Cada valor tiene el texto que usa {@code ControlJuego} y un código
+ * de un byte para el formato binario.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public enum ResultadoPartida {
+
+    DESCONOCIDO(""),
+    GANO("Ganó"),
+    PERDIO("Perdió");
+
+    private static final ResultadoPartida[] VALORES = values();
+
+    private final String texto;
+
+    ResultadoPartida(String texto) {
+        this.texto = texto;
+    }
+
+    /** Devuelve el texto del resultado. */
+    public String getTexto() {
+        return texto;
+    }
+
+    /** Devuelve el código de un byte del resultado. */
+    public byte getCodigo() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Obtiene el resultado asociado a un código; los códigos desconocidos
+     * se interpretan como {@link #DESCONOCIDO}.
+     *
+     * @param codigo código leído del archivo
+     * @return resultado correspondiente
+     */
+    public static ResultadoPartida desdeCodigo(int codigo) {
+        return codigo >= 0 && codigo < VALORES.length ? VALORES[codigo] : DESCONOCIDO;
+    }
+
+    /**
+     * Obtiene el resultado a partir de su texto.
+     *
+     * @param texto texto del resultado, p. ej. "Ganó"
+     * @return resultado correspondiente, o {@link #DESCONOCIDO} si no se reconoce
+     */
+    public static ResultadoPartida desdeTexto(String texto) {
+        for (ResultadoPartida r : VALORES) {
+            if (r != DESCONOCIDO && r.texto.equals(texto)) {
+                return r;
+            }
+        }
+        return DESCONOCIDO;
+    }
+
+    @Override
+    public String toString() {
+        return texto;
+    }
+}
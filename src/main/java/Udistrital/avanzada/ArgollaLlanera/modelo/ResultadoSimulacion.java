@@ -0,0 +1,132 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ * Clase ResultadoSimulacion
+ *
+ * Acumula los resultados de muchas partidas simuladas entre una misma pareja de equipos:
+ * victorias de cada uno, partidas definidas en muerte súbita, manos y lanzamientos.
+ * Los acumuladores parciales de cada hilo se combinan con {@link #combinar}.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class ResultadoSimulacion {
+
+    private final Equipo equipoA;
+    private final Equipo equipoB;
+
+    private long partidas;
+    private long victoriasA;
+    private long victoriasB;
+    private long muertesSubitas;
+    private long totalManos;
+    private long totalLanzamientos;
+
+    /**
+     * Crea un acumulador vacío para la pareja de equipos.
+     *
+     * @param equipoA primer equipo del enfrentamiento
+     * @param equipoB segundo equipo del enfrentamiento
+     */
+    public ResultadoSimulacion(Equipo equipoA, Equipo equipoB) {
+        this.equipoA = equipoA;
+        this.equipoB = equipoB;
+    }
+
+    /**
+     * Registra una partida terminada.
+     *
+     * @param indiceGanador 0 si ganó el equipo A, 1 si ganó el equipo B
+     * @param muerteSubita true si la partida se definió en muerte súbita
+     * @param manos manos jugadas en la partida
+     * @param lanzamientos lanzamientos realizados en la partida
+     */
+    public void registrarPartida(int indiceGanador, boolean muerteSubita, int manos, int lanzamientos) {
+        partidas++;
+        if (indiceGanador == 0) {
+            victoriasA++;
+        } else {
+            victoriasB++;
+        }
+        if (muerteSubita) {
+            muertesSubitas++;
+        }
+        totalManos += manos;
+        totalLanzamientos += lanzamientos;
+    }
+
+    /**
+     * Suma a este acumulador los valores de otro de la misma pareja.
+     *
+     * @param otro acumulador parcial
+     * @return este mismo acumulador, para encadenar reducciones
+     */
+    public ResultadoSimulacion combinar(ResultadoSimulacion otro) {
+        partidas += otro.partidas;
+        victoriasA += otro.victoriasA;
+        victoriasB += otro.victoriasB;
+        muertesSubitas += otro.muertesSubitas;
+        totalManos += otro.totalManos;
+        totalLanzamientos += otro.totalLanzamientos;
+        return this;
+    }
+
+    public Equipo getEquipoA() {
+        return equipoA;
+    }
+
+    public Equipo getEquipoB() {
+        return equipoB;
+    }
+
+    public long getPartidas() {
+        return partidas;
+    }
+
+    public long getVictoriasA() {
+        return victoriasA;
+    }
+
+    public long getVictoriasB() {
+        return victoriasB;
+    }
+
+    public long getMuertesSubitas() {
+        return muertesSubitas;
+    }
+
+    /** Probabilidad estimada de que gane el equipo A. */
+    public double getProbabilidadA() {
+        return partidas == 0 ? 0 : (double) victoriasA / partidas;
+    }
+
+    /** Probabilidad estimada de que gane el equipo B. */
+    public double getProbabilidadB() {
+        return partidas == 0 ? 0 : (double) victoriasB / partidas;
+    }
+
+    /** Frecuencia de partidas que se definieron en muerte súbita. */
+    public double getFrecuenciaMuerteSubita() {
+        return partidas == 0 ? 0 : (double) muertesSubitas / partidas;
+    }
+
+    /**
+     * Promedio de rondas por partida. Una ronda es una mano de cada equipo,
+     * por lo que equivale a la mitad de las manos jugadas.
+     */
+    public double getPromedioRondas() {
+        return partidas == 0 ? 0 : totalManos / 2.0 / partidas;
+    }
+
+    /** Promedio de lanzamientos por partida, incluidos los de muerte súbita. */
+    public double getPromedioLanzamientos() {
+        return partidas == 0 ? 0 : (double) totalLanzamientos / partidas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s: %d partidas | P(A)=%.4f P(B)=%.4f | muerte súbita=%.4f | rondas=%.2f",
+                equipoA.getNombre(), equipoB.getNombre(), partidas,
+                getProbabilidadA(), getProbabilidadB(), getFrecuenciaMuerteSubita(), getPromedioRondas());
+    }
+}
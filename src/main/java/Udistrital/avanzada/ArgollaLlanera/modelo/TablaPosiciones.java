@@ -0,0 +1,176 @@
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase TablaPosiciones
+ *
+ * Tabla de posiciones de un torneo. Se actualiza con cada encuentro terminado, desde
+ * cualquier hilo, y entrega copias ordenadas por victorias, diferencia de puntos,
+ * puntos a favor y finalmente por el orden de siembra. Un descanso cuenta como victoria
+ * sin puntos.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class TablaPosiciones {
+
+    /**
+     * Fila de la tabla para un equipo.
+     */
+    public static final class Fila {
+
+        private final Equipo equipo;
+        private final int siembra;          // Posición del equipo en la lista original
+        private int jugados;
+        private int ganados;
+        private int perdidos;
+        private int descansos;
+        private int muertesSubitas;
+        private long puntosAFavor;
+        private long puntosEnContra;
+
+        private Fila(Equipo equipo, int siembra) {
+            this.equipo = equipo;
+            this.siembra = siembra;
+        }
+
+        private Fila(Fila otra) {
+            this(otra.equipo, otra.siembra);
+            jugados = otra.jugados;
+            ganados = otra.ganados;
+            perdidos = otra.perdidos;
+            descansos = otra.descansos;
+            muertesSubitas = otra.muertesSubitas;
+            puntosAFavor = otra.puntosAFavor;
+            puntosEnContra = otra.puntosEnContra;
+        }
+
+        public Equipo getEquipo() {
+            return equipo;
+        }
+
+        public int getSiembra() {
+            return siembra;
+        }
+
+        public int getJugados() {
+            return jugados;
+        }
+
+        public int getGanados() {
+            return ganados;
+        }
+
+        public int getPerdidos() {
+            return perdidos;
+        }
+
+        public int getDescansos() {
+            return descansos;
+        }
+
+        public int getMuertesSubitas() {
+            return muertesSubitas;
+        }
+
+        public long getPuntosAFavor() {
+            return puntosAFavor;
+        }
+
+        public long getPuntosEnContra() {
+            return puntosEnContra;
+        }
+
+        public long getDiferencia() {
+            return puntosAFavor - puntosEnContra;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s PJ %3d  G %3d  P %3d  PF %5d  PC %5d", equipo.getNombre(),
+                    jugados, ganados, perdidos, puntosAFavor, puntosEnContra);
+        }
+    }
+
+    private static final Comparator<Fila> ORDEN = Comparator
+            .comparingInt(Fila::getGanados).reversed()
+            .thenComparing(Comparator.comparingLong(Fila::getDiferencia).reversed())
+            .thenComparing(Comparator.comparingLong(Fila::getPuntosAFavor).reversed())
+            .thenComparingInt(Fila::getSiembra);
+
+    private final Map<Equipo, Fila> filas = new IdentityHashMap<>();
+
+    /**
+     * Crea la tabla con todos los equipos en cero.
+     *
+     * @param equipos equipos del torneo, en orden de siembra
+     */
+    public TablaPosiciones(List<Equipo> equipos) {
+        for (int i = 0; i < equipos.size(); i++) {
+            filas.put(equipos.get(i), new Fila(equipos.get(i), i));
+        }
+    }
+
+    /**
+     * Suma un encuentro terminado a la tabla.
+     *
+     * @param resultado encuentro o descanso
+     */
+    public synchronized void registrar(ResultadoEncuentro resultado) {
+        Fila a = filas.get(resultado.getEquipoA());
+        if (resultado.esDescanso()) {
+            a.descansos++;
+            a.ganados++;
+            return;
+        }
+        Fila b = filas.get(resultado.getEquipoB());
+        a.jugados++;
+        b.jugados++;
+        a.puntosAFavor += resultado.getPuntosA();
+        a.puntosEnContra += resultado.getPuntosB();
+        b.puntosAFavor += resultado.getPuntosB();
+        b.puntosEnContra += resultado.getPuntosA();
+        if (resultado.isMuerteSubita()) {
+            a.muertesSubitas++;
+            b.muertesSubitas++;
+        }
+        Fila ganadora = resultado.getGanador() == resultado.getEquipoA() ? a : b;
+        Fila perdedora = ganadora == a ? b : a;
+        ganadora.ganados++;
+        perdedora.perdidos++;
+    }
+
+    /** Victorias actuales del equipo. */
+    public synchronized int getGanados(Equipo equipo) {
+        return filas.get(equipo).ganados;
+    }
+
+    /**
+     * Copia de la tabla en orden de posiciones.
+     *
+     * @return filas ordenadas; no cambian con encuentros posteriores
+     */
+    public synchronized List<Fila> getFilas() {
+        List<Fila> copia = new ArrayList<>(filas.size());
+        for (Fila f : filas.values()) {
+            copia.add(new Fila(f));
+        }
+        copia.sort(ORDEN);
+        return copia;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int posicion = 1;
+        for (Fila f : getFilas()) {
+            sb.append(String.format("%3d. ", posicion++)).append(f).append('\n');
+        }
+        return sb.toString();
+    }
+}
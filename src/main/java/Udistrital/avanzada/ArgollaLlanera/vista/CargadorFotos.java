@@ -0,0 +1,227 @@
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+/**
+ * Cargador de las fotos de los jugadores.
+ *
+ * Lee y decodifica las imágenes en hilos propios, nunca en el de Swing, y las reduce una
+ * sola vez al tamaño del panel. Las imágenes reducidas se guardan en una caché LRU
+ * limitada por memoria y compartida por todos los jugadores: si varios apuntan al mismo
+ * archivo, se decodifica una vez, incluso cuando se piden a la vez.
+ *
+ * Las rutas se normalizan antes de usarse: se quitan comillas y espacios alrededor y las
+ * barras invertidas de Windows se cambian por barras normales, como en las rutas del
+ * archivo de equipos ({@code "src\\Specs\\Data\\files\\foto.png"}). Las rutas relativas se
+ * resuelven desde la carpeta de trabajo.
+ *
+ * Si la foto no existe o no se puede leer, el resultado es null y el jugador se muestra
+ * sin foto; ese resultado también se guarda para no reintentarlo.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public class CargadorFotos {
+
+    /** Memoria máxima de la caché por defecto, en bytes. */
+    public static final long CAPACIDAD_POR_DEFECTO = 16L * 1024 * 1024;
+
+    private static final BufferedImage SIN_FOTO = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB); // Marca de foto ausente
+    private static final AtomicInteger HILOS = new AtomicInteger();
+
+    private final long capacidad;                                    // Bytes máximos en caché
+    private final LinkedHashMap<String, BufferedImage> cache;        // Imágenes por ruta y tamaño, en orden de uso
+    private final Map<String, CompletableFuture<BufferedImage>> enCurso; // Cargas pendientes por clave
+    private final ExecutorService hilos;                             // Hilos de lectura y decodificación
+    private long bytesEnCache;                                       // Memoria usada por la caché
+    private final AtomicLong decodificaciones = new AtomicLong();    // Archivos decodificados
+
+    /**
+     * Crea el cargador con la capacidad por defecto.
+     */
+    public CargadorFotos() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea el cargador.
+     *
+     * @param capacidad memoria máxima de la caché, en bytes
+     */
+    public CargadorFotos(long capacidad) {
+        this.capacidad = capacidad;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        this.enCurso = new HashMap<>();
+        this.hilos = Executors.newFixedThreadPool(2, r -> {
+            Thread hilo = new Thread(r, "cargador-fotos-" + HILOS.incrementAndGet());
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+    }
+
+    /**
+     * Pide la foto reducida para caber en {@code ancho} x {@code alto}, conservando la
+     * proporción. Si está en caché el resultado ya viene completo; si no, se completa en
+     * un hilo del cargador (no en el de Swing).
+     *
+     * @param foto ruta tal como viene en el archivo de equipos; puede ser null
+     * @param ancho ancho máximo en píxeles
+     * @param alto alto máximo en píxeles
+     * @return imagen reducida, o null si no hay foto
+     */
+    public CompletableFuture<BufferedImage> cargar(String foto, int ancho, int alto) {
+        Path ruta = normalizarRuta(foto);
+        if (ruta == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String clave = ruta + "@" + ancho + "x" + alto;
+        CompletableFuture<BufferedImage> futuro;
+        synchronized (this) {
+            BufferedImage guardada = cache.get(clave);
+            if (guardada != null) {
+                return CompletableFuture.completedFuture(guardada == SIN_FOTO ? null : guardada);
+            }
+            futuro = enCurso.get(clave);
+            if (futuro != null) {
+                return futuro;
+            }
+            futuro = new CompletableFuture<>();
+            enCurso.put(clave, futuro);
+        }
+        CompletableFuture<BufferedImage> resultado = futuro;
+        hilos.execute(() -> {
+            BufferedImage imagen = leer(ruta, ancho, alto);
+            synchronized (this) {
+                enCurso.remove(clave);
+                guardar(clave, imagen != null ? imagen : SIN_FOTO);
+            }
+            resultado.complete(imagen);
+        });
+        return resultado;
+    }
+
+    private BufferedImage leer(Path ruta, int ancho, int alto) {
+        try {
+            if (!Files.isRegularFile(ruta)) {
+                return null;
+            }
+            BufferedImage original = ImageIO.read(ruta.toFile());
+            if (original == null) {
+                return null;
+            }
+            decodificaciones.incrementAndGet();
+            return reducir(original, ancho, alto);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo cargar la foto " + ruta + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reduce la imagen para caber en el tamaño indicado; nunca la agranda.
+     */
+    static BufferedImage reducir(BufferedImage original, int ancho, int alto) {
+        double escala = Math.min(1.0, Math.min((double) ancho / original.getWidth(),
+                (double) alto / original.getHeight()));
+        int w = Math.max(1, (int) Math.round(original.getWidth() * escala));
+        int h = Math.max(1, (int) Math.round(original.getHeight() * escala));
+        BufferedImage reducida = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = reducida.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(original, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return reducida;
+    }
+
+    /**
+     * Agrega una imagen a la caché y descarta las menos usadas hasta quedar dentro de la
+     * capacidad. Debe llamarse con el monitor tomado.
+     */
+    private void guardar(String clave, BufferedImage imagen) {
+        BufferedImage anterior = cache.put(clave, imagen);
+        if (anterior != null) {
+            bytesEnCache -= tamano(anterior);
+        }
+        bytesEnCache += tamano(imagen);
+        Iterator<BufferedImage> it = cache.values().iterator();
+        while (bytesEnCache > capacidad && it.hasNext()) {
+            BufferedImage vieja = it.next();
+            if (vieja == imagen) {
+                break;    // la recién agregada se conserva aunque sola supere la capacidad
+            }
+            bytesEnCache -= tamano(vieja);
+            it.remove();
+        }
+    }
+
+    private static long tamano(BufferedImage imagen) {
+        return (long) imagen.getWidth() * imagen.getHeight() * 4;
+    }
+
+    /**
+     * Normaliza la ruta de una foto del archivo de equipos.
+     *
+     * @param foto ruta original, con o sin comillas y barras invertidas
+     * @return ruta normalizada, o null si está vacía o no es válida
+     */
+    public static Path normalizarRuta(String foto) {
+        if (foto == null) {
+            return null;
+        }
+        String texto = foto.trim();
+        if (texto.length() >= 2 && (texto.startsWith("\"") && texto.endsWith("\"")
+                || texto.startsWith("'") && texto.endsWith("'"))) {
+            texto = texto.substring(1, texto.length() - 1).trim();
+        }
+        if (texto.isEmpty()) {
+            return null;
+        }
+        texto = texto.replace('\\', '/');
+        try {
+            return Paths.get(texto).normalize();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Devuelve cuántos archivos se decodificaron. */
+    public long getDecodificaciones() {
+        return decodificaciones.get();
+    }
+
+    /** Devuelve la memoria usada por la caché, en bytes. */
+    public synchronized long getBytesEnCache() {
+        return bytesEnCache;
+    }
+
+    /** Devuelve cuántas imágenes (o fotos ausentes) hay en caché. */
+    public synchronized int getCantidadEnCache() {
+        return cache.size();
+    }
+
+    /** Detiene los hilos del cargador. */
+    public void cerrar() {
+        hilos.shutdownNow();
+    }
+}
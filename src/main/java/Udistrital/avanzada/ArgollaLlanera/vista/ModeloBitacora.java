@@ -0,0 +1,102 @@
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import java.util.Arrays;
+import javax.swing.AbstractListModel;
+
+/**
+ * Modelo de la bitácora de mensajes del juego.
+ *
+ * Guarda las últimas líneas en un buffer circular de capacidad fija: al llenarse, cada
+ * línea nueva reemplaza a la más antigua, de modo que la memoria y el costo de agregar
+ * no crecen con la duración de la sesión. Se muestra con un {@code JList}, que solo
+ * dibuja las filas visibles.
+ *
+ * Debe usarse en el hilo de Swing, como cualquier modelo de lista.
+ *
+ * @author juanr
+ * @version 1.1
+ */
+public class ModeloBitacora extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] lineas;   // Buffer circular de líneas
+    private int inicio;              // Posición de la línea más antigua
+    private int cantidad;            // Líneas guardadas
+    private long descartadas;        // Líneas que salieron del buffer
+
+    /**
+     * Crea la bitácora.
+     *
+     * @param capacidad máximo de líneas que se conservan
+     */
+    public ModeloBitacora(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("Capacidad inválida: " + capacidad);
+        }
+        this.lineas = new String[capacidad];
+    }
+
+    /**
+     * Agrega un mensaje; si tiene varias líneas, cada una ocupa una fila.
+     *
+     * @param mensaje texto a agregar
+     */
+    public void agregar(String mensaje) {
+        int desde = 0;
+        int salto;
+        while ((salto = mensaje.indexOf('\n', desde)) >= 0) {
+            agregarLinea(mensaje.substring(desde, salto));
+            desde = salto + 1;
+        }
+        agregarLinea(mensaje.substring(desde));
+    }
+
+    private void agregarLinea(String linea) {
+        if (cantidad == lineas.length) {
+            lineas[inicio] = null;
+            inicio = (inicio + 1) % lineas.length;
+            cantidad--;
+            descartadas++;
+            fireIntervalRemoved(this, 0, 0);
+        }
+        lineas[(inicio + cantidad) % lineas.length] = linea;
+        cantidad++;
+        fireIntervalAdded(this, cantidad - 1, cantidad - 1);
+    }
+
+    /** Borra todas las líneas. */
+    public void limpiar() {
+        if (cantidad == 0) {
+            return;
+        }
+        int anterior = cantidad;
+        Arrays.fill(lineas, null);
+        inicio = 0;
+        cantidad = 0;
+        fireIntervalRemoved(this, 0, anterior - 1);
+    }
+
+    @Override
+    public int getSize() {
+        return cantidad;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index < 0 || index >= cantidad) {
+            throw new IndexOutOfBoundsException("Línea " + index + " de " + cantidad);
+        }
+        return lineas[(inicio + index) % lineas.length];
+    }
+
+    /** Devuelve el máximo de líneas que se conservan. */
+    public int getCapacidad() {
+        return lineas.length;
+    }
+
+    /** Devuelve cuántas líneas salieron del buffer por falta de espacio. */
+    public long getDescartadas() {
+        return descartadas;
+    }
+}
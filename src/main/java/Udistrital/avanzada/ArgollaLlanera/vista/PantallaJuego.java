@@ -0,0 +1,52 @@
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PantallaJuego
+ *
+ * Elementos de la pantalla del juego que cambian durante la partida: equipos, turno,
+ * resaltados, puntajes, detalle, probabilidades, tabla de resultados, bitácora y botón de
+ * lanzar. {@link VistaJuego} la implementa; el actualizador de la vista solo escribe a
+ * través de ella, así que puede probarse sin abrir una ventana.
+ *
+ * Todos los métodos deben llamarse en el hilo de Swing.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+public interface PantallaJuego {
+
+    /** Muestra los paneles de los dos equipos, sin resaltar. */
+    void mostrarEquipos(List<Equipo> equipos);
+
+    /** Muestra la tabla de puntajes y resultados por jugador. */
+    void actualizarVista(Map<Equipo, Integer> puntajes);
+
+    /** Agrega un mensaje a la bitácora. */
+    void mostrarMensajeEnVista(String mensaje);
+
+    /** Muestra los puntajes de los equipos A y B. */
+    void actualizarPuntajes(int puntosA, int puntosB);
+
+    /** Muestra el detalle del último lanzamiento. */
+    void actualizarDetalleLanzamiento(String texto);
+
+    /** Muestra las probabilidades en vivo. */
+    void actualizarProbabilidades(String texto);
+
+    /** Muestra el nombre del equipo en turno. */
+    void setTurno(String nombreEquipo);
+
+    /** Resalta el equipo en turno. */
+    void resaltarEquipo(Equipo equipo);
+
+    /** Resalta el jugador en turno. */
+    void resaltarJugador(Jugador jugador);
+
+    /** Habilita o deshabilita el botón de lanzar. */
+    void habilitarBotonLanzar(boolean habilitar);
+}
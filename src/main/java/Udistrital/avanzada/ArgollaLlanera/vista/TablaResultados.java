@@ -0,0 +1,73 @@
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JTextArea;
+
+/**
+ * Tabla de puntajes y resultados por jugador que muestra {@link VistaJuego}.
+ *
+ * Recuerda las líneas mostradas: si la tabla nueva tiene la misma cantidad de líneas,
+ * solo reemplaza en el área de texto las que cambiaron, así Swing repinta solo esas
+ * regiones. Si cambia la cantidad de líneas, o alguien más modificó el texto, la
+ * reescribe completa.
+ *
+ * Debe usarse en el hilo de Swing.
+ *
+ * @author juanr
+ * @version 1.0
+ */
+class TablaResultados {
+
+    private final JTextArea area;                    // Área donde se muestra la tabla
+    private List<String> lineas = new ArrayList<>(); // Líneas mostradas
+    private int largo;                               // Caracteres mostrados
+
+    /**
+     * Crea la tabla sobre el área indicada.
+     *
+     * @param area área de texto donde se muestra
+     */
+    TablaResultados(JTextArea area) {
+        this.area = area;
+    }
+
+    /**
+     * Muestra los puntajes de cada equipo seguidos del último resultado de sus jugadores.
+     *
+     * @param puntajes puntajes por equipo, en el orden a mostrar
+     */
+    void mostrar(Map<Equipo, Integer> puntajes) {
+        List<String> nuevas = new ArrayList<>();
+        for (Map.Entry<Equipo, Integer> entry : puntajes.entrySet()) {
+            nuevas.add(entry.getKey().getNombre() + ": " + entry.getValue() + " puntos");
+            for (Jugador j : entry.getKey().getJugadores()) {
+                nuevas.add(" - " + j.getNombre() + ": " + j.getResultado() + " (" + j.getPuntos() + " pts)");
+            }
+        }
+
+        if (nuevas.size() != lineas.size() || area.getDocument().getLength() != largo) {
+            StringBuilder texto = new StringBuilder();
+            for (String linea : nuevas) {
+                texto.append(linea).append('\n');
+            }
+            area.setText(texto.toString());
+            largo = texto.length();
+        } else {
+            int inicio = 0;
+            for (int i = 0; i < nuevas.size(); i++) {
+                String nueva = nuevas.get(i);
+                String anterior = lineas.get(i);
+                if (!nueva.equals(anterior)) {
+                    area.replaceRange(nueva, inicio, inicio + anterior.length());
+                }
+                inicio += nueva.length() + 1;
+            }
+            largo = inicio;
+        }
+        lineas = nuevas;
+    }
+}
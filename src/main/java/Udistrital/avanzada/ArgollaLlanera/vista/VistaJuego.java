@@ -16,23 +16,38 @@ import javax.swing.border.Border;
  * detalle de lanzamientos y controla visualización de estados activos.
  * 
  * <p>Gestiona la interacción visual en conjunto con ControlVista y ControlJuego.</p>
+ *
+ * <p>Las actualizaciones solo tocan lo que cambió: los textos iguales no se vuelven a
+ * asignar, el resaltado cambia solo los dos paneles afectados y la tabla de resultados
+ * reemplaza únicamente las líneas distintas ({@link TablaResultados}), así Swing repinta
+ * solo esas regiones.</p>
+ *
+ * <p>Los mensajes del juego van a una bitácora aparte, con un máximo de líneas
+ * ({@link ModeloBitacora}) y mostrada en una lista que solo dibuja las filas visibles.</p>
+ *
+ * <p>Las fotos de los jugadores las carga {@link CargadorFotos} fuera del hilo de Swing;
+ * mostrar los equipos nunca espera la lectura de imágenes.</p>
  * 
  * @author juanr
  * @author Sofia modificado 05-10-2025
  * @author sofia modificado 06-10-2025
- * @version 1.3
+ * @version 1.8
  */
-public class VistaJuego extends JFrame {
+public class VistaJuego extends JFrame implements PantallaJuego {
 
     private JPanel panelEquipos;
     private JButton btnLanzar;
     private JButton btnSalir;
+    private JCheckBox chkAvisarLanzamientos;        // Mostrar un diálogo por cada lanzamiento
     private JLabel lblTurno;
     private JTextArea areaResultados;
+    private JList<String> listaBitacora;
+    private final ModeloBitacora bitacora;
 
     private JTextArea areaDetalleLanzamiento;
     private JLabel lblPuntosEquipoA;
     private JLabel lblPuntosEquipoB;
+    private JLabel lblProbabilidades;                // Probabilidades en vivo de la partida
 
     private JPanel panelEquipoA;
     private JPanel panelEquipoB;
@@ -42,12 +57,37 @@ public class VistaJuego extends JFrame {
 
     private Map<Jugador, JPanel> panelesJugadores = new HashMap<>();
 
+    private Equipo equipoResaltado;                  // Equipo con el borde resaltado
+    private Jugador jugadorResaltado;                // Jugador con el fondo resaltado
+    private TablaResultados tablaResultados;         // Tabla de resultados mostrada en areaResultados
+
+    private final CargadorFotos cargadorFotos = new CargadorFotos(); // Fotos de jugadores, en segundo plano y con caché
+
+    private final Font fuenteTurno = new Font("Segoe UI", Font.BOLD, 22);
+    private final Color colorTurno = new Color(30, 144, 255);
+
     private final Border bordeNormal = BorderFactory.createTitledBorder(BorderFactory.createLineBorder(Color.DARK_GRAY, 1));
     private final Border bordeResaltado = BorderFactory.createTitledBorder(BorderFactory.createLineBorder(new Color(30, 144, 255), 3));
     private final Color colorFondoResaltado = new Color(173, 216, 230);
     private final Color colorFondoNormal = Color.WHITE;
 
+    /** Lado en píxeles del espacio para la foto de cada jugador. */
+    public static final int TAMANO_FOTO = 48;
+
+    /** Líneas de la bitácora que se conservan por defecto. */
+    public static final int LINEAS_BITACORA = 1000;
+
     public VistaJuego() {
+        this(LINEAS_BITACORA);
+    }
+
+    /**
+     * Crea la vista.
+     *
+     * @param lineasBitacora máximo de líneas que conserva la bitácora de mensajes
+     */
+    public VistaJuego(int lineasBitacora) {
+        bitacora = new ModeloBitacora(lineasBitacora);
         setTitle("Juego de la Argolla Llanera");
         setSize(1100, 650);
         setMinimumSize(new Dimension(900, 600));
@@ -84,10 +124,23 @@ public class VistaJuego extends JFrame {
         areaResultados.setEditable(false);
         areaResultados.setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(Color.GRAY), "Resultados"));
         areaResultados.setBackground(new Color(245, 245, 245));
+        tablaResultados = new TablaResultados(areaResultados);
 
         JScrollPane scrollResultados = new JScrollPane(areaResultados);
-        scrollResultados.setPreferredSize(new Dimension(350, 0));
-        add(scrollResultados, BorderLayout.EAST);
+
+        listaBitacora = new JList<>(bitacora);
+        listaBitacora.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        listaBitacora.setBackground(new Color(245, 245, 245));
+        // Altura y ancho fijos: la lista no mide todas las filas, solo dibuja las visibles
+        listaBitacora.setFixedCellHeight(18);
+        listaBitacora.setFixedCellWidth(600);
+        JScrollPane scrollBitacora = new JScrollPane(listaBitacora);
+        scrollBitacora.setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(Color.GRAY), "Bitácora"));
+
+        JSplitPane panelDerecho = new JSplitPane(JSplitPane.VERTICAL_SPLIT, scrollResultados, scrollBitacora);
+        panelDerecho.setResizeWeight(0.5);
+        panelDerecho.setPreferredSize(new Dimension(350, 0));
+        add(panelDerecho, BorderLayout.EAST);
 
         areaDetalleLanzamiento = new JTextArea(4, 30);
         areaDetalleLanzamiento.setLineWrap(true);
@@ -132,11 +185,22 @@ public class VistaJuego extends JFrame {
         btnSalir.setForeground(Color.WHITE);
         btnSalir.setFocusPainted(false);
 
+        lblProbabilidades = new JLabel(" ");
+        lblProbabilidades.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+
+        // Apagado por defecto: el resultado de cada lanzamiento ya queda en la bitácora y el detalle
+        chkAvisarLanzamientos = new JCheckBox("Avisar cada lanzamiento");
+        chkAvisarLanzamientos.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        chkAvisarLanzamientos.setOpaque(false);
+
+        panelBotones.add(lblProbabilidades);
+        panelBotones.add(chkAvisarLanzamientos);
         panelBotones.add(btnLanzar);
         panelBotones.add(btnSalir);
         add(panelBotones, BorderLayout.SOUTH);
     }
 
+    @Override
     public void mostrarEquipos(List<Equipo> equipos) {
         if (equipos.size() < 2) return;
         equipoA = equipos.get(0);
@@ -160,8 +224,13 @@ public class VistaJuego extends JFrame {
         panelEquipoB.revalidate();
         panelEquipoB.repaint();
 
-        resaltarEquipo(null);
-        resaltarJugador(null);
+        equipoResaltado = null;
+        jugadorResaltado = null;
+        panelEquipoA.setBorder(bordeNormal);
+        panelEquipoB.setBorder(bordeNormal);
+        for (JPanel panel : panelesJugadores.values()) {
+            panel.setBackground(colorFondoNormal);
+        }
     }
 
     private JPanel crearPanelJugadores(Equipo equipo) {
@@ -173,7 +242,17 @@ public class VistaJuego extends JFrame {
         JPanel jugadorPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         jugadorPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 
-        // --- SOLO MOSTRAR NOMBRE Y APODO, SIN FOTO ---
+        // La foto se carga en segundo plano; mientras tanto el espacio queda reservado
+        JLabel fotoLabel = new JLabel();
+        fotoLabel.setPreferredSize(new Dimension(TAMANO_FOTO, TAMANO_FOTO));
+        fotoLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        jugadorPanel.add(fotoLabel);
+        cargadorFotos.cargar(jugador.getFoto(), TAMANO_FOTO, TAMANO_FOTO).thenAccept(imagen -> {
+            if (imagen != null) {
+                SwingUtilities.invokeLater(() -> fotoLabel.setIcon(new ImageIcon(imagen)));
+            }
+        });
+
         JLabel nombreLabel = new JLabel(jugador.getNombre() + " (" + jugador.getApodo() + ")");
         nombreLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
 
@@ -186,28 +265,49 @@ public class VistaJuego extends JFrame {
 }
 
 
+    @Override
     public void actualizarDetalleLanzamiento(String texto) {
-        areaDetalleLanzamiento.setText(texto);
+        if (!texto.equals(areaDetalleLanzamiento.getText())) {
+            areaDetalleLanzamiento.setText(texto);
+        }
     }
 
+    /**
+     * Muestra la tabla de puntajes y resultados por jugador en el área de resultados.
+     * Si la tabla tiene las mismas líneas que la anterior, solo se reemplazan las que
+     * cambiaron.
+     */
+    @Override
     public void actualizarVista(Map<Equipo, Integer> puntajes) {
-        areaResultados.setText("");
-        for (Map.Entry<Equipo, Integer> entry : puntajes.entrySet()) {
-            areaResultados.append(entry.getKey().getNombre() + ": " + entry.getValue() + " puntos\n");
-            for (Jugador j : entry.getKey().getJugadores()) {
-                areaResultados.append(" - " + j.getNombre() + ": " + j.getResultado() + " (" + j.getPuntos() + " pts)\n");
-            }
-        }
+        tablaResultados.mostrar(puntajes);
     }
 
+    @Override
     public void actualizarPuntajes(int puntosA, int puntosB) {
-        lblPuntosEquipoA.setText("Puntos " + equipoA.getNombre() + ": " + puntosA);
-        lblPuntosEquipoB.setText("Puntos " + equipoB.getNombre() + ": " + puntosB);
+        if (equipoA == null || equipoB == null) {
+            return;
+        }
+        String textoA = "Puntos " + equipoA.getNombre() + ": " + puntosA;
+        String textoB = "Puntos " + equipoB.getNombre() + ": " + puntosB;
+        if (!textoA.equals(lblPuntosEquipoA.getText())) {
+            lblPuntosEquipoA.setText(textoA);
+        }
+        if (!textoB.equals(lblPuntosEquipoB.getText())) {
+            lblPuntosEquipoB.setText(textoB);
+        }
+    }
+
+    @Override
+    public void actualizarProbabilidades(String texto) {
+        if (!texto.equals(lblProbabilidades.getText())) {
+            lblProbabilidades.setText(texto);
+        }
     }
 
+    @Override
     public void mostrarMensajeEnVista(String mensaje) {
-        areaResultados.append(mensaje + "\n");
-        areaResultados.setCaretPosition(areaResultados.getDocument().getLength());
+        bitacora.agregar(mensaje);
+        listaBitacora.ensureIndexIsVisible(bitacora.getSize() - 1);
     }
 
     public void mostrarGanador(Equipo equipo) {
@@ -221,29 +321,55 @@ public class VistaJuego extends JFrame {
         JOptionPane.showMessageDialog(this, mensaje);
     }
 
+    public ModeloBitacora getBitacora() { return bitacora; }
+
     public JButton getBtnLanzar() { return btnLanzar; }
+
+    @Override
+    public void habilitarBotonLanzar(boolean habilitar) {
+        btnLanzar.setEnabled(habilitar);
+    }
     public JButton getBtnSalir() { return btnSalir; }
+    public JCheckBox getChkAvisarLanzamientos() { return chkAvisarLanzamientos; }
 
+    @Override
     public void setTurno(String nombreEquipo) {
-        lblTurno.setText("Turno de: " + nombreEquipo);
-        lblTurno.setFont(new Font("Segoe UI", Font.BOLD, 22));
-        lblTurno.setForeground(new Color(30, 144, 255));
+        String texto = "Turno de: " + nombreEquipo;
+        if (!texto.equals(lblTurno.getText())) {
+            lblTurno.setText(texto);
+        }
+        // Fuente y color son constantes: si no cambian, Swing no revalida
+        lblTurno.setFont(fuenteTurno);
+        lblTurno.setForeground(colorTurno);
     }
 
+    @Override
     public void resaltarEquipo(Equipo equipoEnTurno) {
+        if (equipoEnTurno == equipoResaltado) {
+            return;
+        }
+        equipoResaltado = equipoEnTurno;
         if (equipoA != null) {
             panelEquipoA.setBorder(equipoA.equals(equipoEnTurno) ? bordeResaltado : bordeNormal);
         }
         if (equipoB != null) {
             panelEquipoB.setBorder(equipoB.equals(equipoEnTurno) ? bordeResaltado : bordeNormal);
         }
-        repaint();
     }
 
+    @Override
     public void resaltarJugador(Jugador jugadorTurno) {
-        for (Map.Entry<Jugador, JPanel> entry : panelesJugadores.entrySet()) {
-            entry.getValue().setBackground(entry.getKey().equals(jugadorTurno) ? colorFondoResaltado : colorFondoNormal);
+        if (jugadorTurno == jugadorResaltado) {
+            return;
+        }
+        JPanel anterior = panelesJugadores.get(jugadorResaltado);
+        if (anterior != null) {
+            anterior.setBackground(colorFondoNormal);
+        }
+        JPanel actual = panelesJugadores.get(jugadorTurno);
+        if (actual != null) {
+            actual.setBackground(colorFondoResaltado);
         }
-        repaint();
+        jugadorResaltado = jugadorTurno;
     }
 }
@@ -0,0 +1,200 @@
+/*
+ Prueba de ActualizadorVista que verifica que los cambios se agrupan en un solo cuadro
+ aplicando solo el último valor, y que los mensajes de la bitácora nunca se agrupan:
+ llegan todos y en orden.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.vista.PantallaJuego;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ActualizadorVistaTest {
+
+    /** Pantalla que anota cada llamada; solo se usa en el hilo de Swing. */
+    private static class PantallaAnotada implements PantallaJuego {
+
+        final List<String> llamadas = new ArrayList<>();
+        final List<String> mensajes = new ArrayList<>();
+
+        private void anotar(String llamada) {
+            assertTrue(SwingUtilities.isEventDispatchThread(), llamada);
+            llamadas.add(llamada);
+        }
+
+        @Override
+        public void mostrarEquipos(List<Equipo> equipos) {
+            anotar("equipos");
+        }
+
+        @Override
+        public void actualizarVista(Map<Equipo, Integer> puntajes) {
+            anotar("tabla " + puntajes.values());
+        }
+
+        @Override
+        public void mostrarMensajeEnVista(String mensaje) {
+            anotar("mensaje");
+            mensajes.add(mensaje);
+        }
+
+        @Override
+        public void actualizarPuntajes(int puntosA, int puntosB) {
+            anotar("puntos " + puntosA + "-" + puntosB);
+        }
+
+        @Override
+        public void actualizarDetalleLanzamiento(String texto) {
+            anotar("detalle " + texto);
+        }
+
+        @Override
+        public void actualizarProbabilidades(String texto) {
+            anotar("probabilidades " + texto);
+        }
+
+        @Override
+        public void setTurno(String nombreEquipo) {
+            anotar("turno " + nombreEquipo);
+        }
+
+        @Override
+        public void resaltarEquipo(Equipo equipo) {
+            anotar("equipo " + equipo.getClave());
+        }
+
+        @Override
+        public void resaltarJugador(Jugador jugador) {
+            anotar("jugador " + jugador.getNombre());
+        }
+
+        @Override
+        public void habilitarBotonLanzar(boolean habilitar) {
+            anotar("boton " + habilitar);
+        }
+    }
+
+    /** Ejecuta la tarea en el hilo de Swing y devuelve su resultado. */
+    private static <T> T enHiloSwing(Callable<T> tarea) throws Exception {
+        AtomicReference<T> resultado = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                resultado.set(tarea.call());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return resultado.get();
+    }
+
+    /**
+     * Muchos cambios registrados antes de un cuadro se aplican una sola vez, con el último
+     * valor de cada elemento; un cuadro sin cambios no toca la pantalla.
+     */
+    @Test
+    public void testAplicaUltimoValor() throws Exception {
+        System.out.println("aplicaUltimoValor");
+        PantallaAnotada pantalla = new PantallaAnotada();
+        ActualizadorVista actualizador = new ActualizadorVista(pantalla, 1);
+        Equipo a = new Equipo("E1", "A");
+        Jugador jugador = new Jugador("J1", "apodo", "");
+        for (int i = 1; i <= 1000; i++) {
+            actualizador.setTurno("T" + i);
+            actualizador.actualizarPuntajes(i, 2 * i);
+            actualizador.actualizarDetalle("lanzamiento " + i);
+            actualizador.resaltarEquipo(a);
+            actualizador.resaltarJugador(jugador);
+            actualizador.habilitarBotonLanzar(i % 2 == 0);
+        }
+        assertEquals(6000, actualizador.getCambios());
+        assertThrows(IllegalStateException.class, actualizador::aplicar);
+
+        List<String> llamadas = enHiloSwing(() -> {
+            actualizador.aplicar();
+            return new ArrayList<>(pantalla.llamadas);
+        });
+        assertEquals(List.of("puntos 1000-2000", "detalle lanzamiento 1000", "turno T1000",
+                "equipo E1", "jugador J1", "boton true"), llamadas);
+        assertEquals(1, actualizador.getCuadros());
+
+        int tamano = enHiloSwing(() -> {
+            actualizador.aplicar();
+            return pantalla.llamadas.size();
+        });
+        assertEquals(6, tamano);
+        assertEquals(2, actualizador.getCuadros());
+    }
+
+    /**
+     * Con el cuadro en manos de la prueba: miles de cambios entre dos cuadros piden un solo
+     * cuadro, cada cuadro muestra el último valor y un cuadro sin cambios no toca la
+     * pantalla ni pide otro.
+     */
+    @Test
+    public void testUnCuadroPorTic() throws Exception {
+        System.out.println("unCuadroPorTic");
+        PantallaAnotada pantalla = new PantallaAnotada();
+        AtomicInteger tics = new AtomicInteger();
+        ActualizadorVista actualizador = new ActualizadorVista(pantalla, tics::incrementAndGet);
+        List<String> esperadas = new ArrayList<>();
+        int ultimo = 0;
+        for (int cuadro = 1; cuadro <= 30; cuadro++) {
+            for (int i = 0; i < 1000; i++) {
+                actualizador.actualizarPuntajes(++ultimo, 0);
+            }
+            assertEquals(cuadro, tics.get());
+            esperadas.add("puntos " + ultimo + "-0");
+            SwingUtilities.invokeAndWait(actualizador::aplicar);
+        }
+        assertEquals(30_000, actualizador.getCambios());
+        assertEquals(30, actualizador.getCuadros());
+        assertEquals(esperadas, enHiloSwing(() -> new ArrayList<>(pantalla.llamadas)));
+
+        SwingUtilities.invokeAndWait(actualizador::aplicar);
+        assertEquals(30, tics.get());
+        assertEquals(esperadas, enHiloSwing(() -> new ArrayList<>(pantalla.llamadas)));
+    }
+
+    /**
+     * Los mensajes para la bitácora se aplican todos y en orden, aunque lleguen cientos
+     * entre dos cuadros y los cuadros se apliquen mientras se siguen registrando.
+     */
+    @Test
+    public void testMensajesNoSeAgrupan() throws Exception {
+        System.out.println("mensajesNoSeAgrupan");
+        PantallaAnotada pantalla = new PantallaAnotada();
+        ActualizadorVista actualizador = new ActualizadorVista(pantalla);
+        List<String> enviados = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String mensaje = "mensaje " + i;
+            enviados.add(mensaje);
+            actualizador.mostrarMensajeEnVista(mensaje);
+            actualizador.setTurno("T" + i);
+            if (i % 1000 == 999) {
+                SwingUtilities.invokeAndWait(actualizador::aplicar);
+            } else if (i % 50 == 0) {
+                Thread.sleep(1);
+            }
+        }
+        List<String> recibidos = enHiloSwing(() -> {
+            actualizador.aplicar();
+            return new ArrayList<>(pantalla.mensajes);
+        });
+        assertEquals(enviados, recibidos);
+        long turnos = enHiloSwing(() -> pantalla.llamadas.stream().filter(l -> l.startsWith("turno ")).count());
+        assertTrue(turnos < 5000 && turnos <= actualizador.getCuadros(), "turnos: " + turnos);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ Prueba de AgregadorEstadisticas que verifica que los contadores acumulados en vivo
+ cuadran con las partidas jugadas, que se guardan y recuperan, y la importación del
+ historial de resultados.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.EstadisticasAcumuladas;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static Udistrital.avanzada.ArgollaLlanera.modelo.EquiposPrueba.crearEquipo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class AgregadorEstadisticasTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Juega partidas con el agregador como receptor y verifica que los contadores de
+     * equipos y jugadores cuadran con lo que informó el motor.
+     */
+    @Test
+    public void testAcumulaPartidas() throws Exception {
+        System.out.println("acumulaPartidas");
+        Equipo a = crearEquipo("E001", "A", 3);
+        Equipo b = crearEquipo("E002", "B", 4);
+        List<Equipo> equipos = Arrays.asList(a, b);
+        AgregadorEstadisticas agregador = new AgregadorEstadisticas();
+        SplittableRandom rand = new SplittableRandom(5);
+        int partidas = 500;
+        int ganadasA = 0;
+        int muerteSubita = 0;
+        long puntosA = 0;
+        long lanzamientos = 0;
+        for (int i = 0; i < partidas; i++) {
+            MotorPartida motor = new MotorPartida(new Juego(equipos, rand), equipos, i % 2);
+            motor.agregarEscucha(agregador);
+            agregador.rondaIniciada(equipos, motor.getEquipoActual(), motor.getJugadorActual(), i + 1);
+            motor.jugarHastaTerminar();
+            ganadasA += motor.getIndiceGanador() == 0 ? 1 : 0;
+            muerteSubita += motor.isMuerteSubita() ? 1 : 0;
+            puntosA += motor.getJuego().getPuntajes().get(a);
+            lanzamientos += motor.getLanzamientos();
+        }
+
+        EstadisticasAcumuladas porEquipo = agregador.instantaneaEquipos();
+        int idA = porEquipo.buscar("E001");
+        int idB = porEquipo.buscar("E002");
+        assertEquals(partidas, porEquipo.getPartidas(idA));
+        assertEquals(ganadasA, porEquipo.getVictorias(idA));
+        assertEquals(partidas - ganadasA, porEquipo.getVictorias(idB));
+        assertEquals(muerteSubita, porEquipo.getMuerteSubita(idA));
+        assertEquals(muerteSubita, porEquipo.getVictoriasMuerteSubita(idA) + porEquipo.getVictoriasMuerteSubita(idB));
+        assertEquals(puntosA, porEquipo.getPuntos(idA));
+
+        EstadisticasAcumuladas porJugador = agregador.instantaneaJugadores();
+        assertEquals(7, porJugador.getCantidad());
+        long lanzamientosJugadores = 0;
+        for (int id = 0; id < porJugador.getCantidad(); id++) {
+            lanzamientosJugadores += porJugador.getLanzamientos(id);
+            assertEquals(partidas, porJugador.getPartidas(id));
+        }
+        assertEquals(lanzamientos, lanzamientosJugadores);
+        assertEquals(ganadasA, porJugador.getVictorias(porJugador.buscar("A2")));
+        assertEquals((double) ganadasA / partidas, porJugador.getTasaVictoria(porJugador.buscar("A1")), 1e-12);
+
+        Path archivo = carpeta.resolve("estadisticas.bin");
+        agregador.guardar(archivo);
+        EstadisticasAcumuladas recuperadas = AgregadorEstadisticas.cargar(archivo).instantaneaJugadores();
+        assertEquals(porJugador.getNombres(), recuperadas.getNombres());
+        for (int id = 0; id < porJugador.getCantidad(); id++) {
+            assertEquals(porJugador.getPuntos(id), recuperadas.getPuntos(id));
+            assertEquals(porJugador.getLanzamientos(id, ResultadoLanzamiento.MONONA),
+                    recuperadas.getLanzamientos(id, ResultadoLanzamiento.MONONA));
+            assertEquals(porJugador.getVictoriasMuerteSubita(id), recuperadas.getVictoriasMuerteSubita(id));
+        }
+    }
+
+    /**
+     * Verifica que el historial guardado aporta partidas y victorias.
+     */
+    @Test
+    public void testImportarHistorial() throws Exception {
+        System.out.println("importarHistorial");
+        Path archivo = carpeta.resolve("resultados.dat");
+        ControlPersistencia persistencia = new ControlPersistencia(archivo.toString());
+        for (int i = 0; i < 3; i++) {
+            persistencia.escribirPartida(
+                    new RegistroResultado("E001", "A", new String[]{"Ana", "Luis", "", ""}, i < 2 ? "Ganó" : "Perdió"),
+                    new RegistroResultado("E002", "B", new String[]{"Eva", "", "", ""}, i < 2 ? "Perdió" : "Ganó"));
+        }
+        persistencia.close();
+
+        AgregadorEstadisticas agregador = new AgregadorEstadisticas();
+        try (LectorResultados lector = new LectorResultados(archivo)) {
+            assertEquals(6, agregador.importar(lector));
+        }
+        EstadisticasAcumuladas porEquipo = agregador.instantaneaEquipos();
+        assertEquals(3, porEquipo.getPartidas(porEquipo.buscar("E001")));
+        assertEquals(2, porEquipo.getVictorias(porEquipo.buscar("E001")));
+        EstadisticasAcumuladas porJugador = agregador.instantaneaJugadores();
+        assertEquals(3, porJugador.getCantidad());
+        assertEquals(1, porJugador.getVictorias(porJugador.buscar("Eva")));
+        assertEquals(-1, porJugador.buscar(""));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ Prueba de ArchivoInstantaneas que verifica que se conserva la instantánea anterior si la
+ última escritura quedó partida, y que ControlJuego continúa una partida interrumpida en
+ el mismo turno y con los mismos puntajes, con la fuente aleatoria en el mismo punto: la
+ semilla de la grabación regenera la partida completa. La repetición de la partida solo
+ llega a los receptores registrados para las repeticiones.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.FuenteAleatoria;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.InstantaneaPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ArchivoInstantaneasTest {
+
+    @TempDir
+    Path carpeta;
+
+    /** Receptor que guarda los últimos puntajes informados. */
+    private static class Marcador implements EscuchaPartida {
+
+        volatile int puntosA;
+        volatile int puntosB;
+        volatile int ronda;
+        volatile boolean reanudada;
+        volatile Jugador enTurno;
+
+        @Override
+        public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+            this.ronda = ronda;
+            enTurno = jugador;
+        }
+
+        @Override
+        public void partidaReanudada(List<Equipo> equipos, Equipo equipoActual, Jugador jugador, int ronda,
+                                     int puntosA, int puntosB) {
+            reanudada = true;
+            this.ronda = ronda;
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+            enTurno = jugador;
+        }
+
+        @Override
+        public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                int puntosA, int puntosB) {
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+        }
+
+        @Override
+        public void siguienteJugador(Equipo equipo, Jugador jugador) {
+            enTurno = jugador;
+        }
+
+        @Override
+        public void cambioTurno(Equipo equipo, Jugador jugador) {
+            enTurno = jugador;
+        }
+    }
+
+    /** Receptor que anota los eventos de fin de partida y de repetición. */
+    private static class Bitacora implements EscuchaPartida {
+
+        final List<String> eventos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+            eventos.add("ganador " + equipo.getClave());
+        }
+
+        @Override
+        public void repeticion(boolean enCurso) {
+            eventos.add(enCurso ? "inicio" : "fin");
+        }
+    }
+
+    private Path escribirEquipos() throws Exception {
+        StringBuilder sb = new StringBuilder("numeroEquipos.count=2\n");
+        for (int e = 1; e <= 2; e++) {
+            sb.append("equipo.").append(e).append(".clave=E").append(e).append('\n')
+              .append("equipo.").append(e).append(".name=Equipo ").append(e).append('\n')
+              .append("equipo.").append(e).append(".numeroJugadores=3\n");
+            for (int j = 1; j <= 3; j++) {
+                sb.append("equipo.").append(e).append(".player.").append(j).append(".name=J").append(e).append(j).append('\n');
+            }
+        }
+        Path archivo = carpeta.resolve("Equipos.properties");
+        Files.writeString(archivo, sb.toString());
+        return archivo;
+    }
+
+    /**
+     * Corrompe la ranura de la última escritura y verifica que al abrir se usa la anterior.
+     */
+    @Test
+    public void testRanuraPartida() throws Exception {
+        System.out.println("ranuraPartida");
+        Path ruta = carpeta.resolve("partida.snap");
+        try (ArchivoInstantaneas archivo = new ArchivoInstantaneas(ruta)) {
+            assertNull(archivo.getUltima());
+            archivo.guardar(new InstantaneaPartida(1, "E1", "E2", 42, 17, 0, 1, 2, 0, 4, 9, 23, 11, new byte[]{0, 1, 2}));
+            archivo.guardar(new InstantaneaPartida(1, "E1", "E2", 42, 18, 0, 1, 0, 0, 4, 10, 23, 14, new byte[]{0, 1, 2, 3}));
+        }
+        try (ArchivoInstantaneas archivo = new ArchivoInstantaneas(ruta)) {
+            assertEquals(10, archivo.getUltima().getLanzamientos());
+        }
+        // la segunda escritura fue a la ranura 0 (secuencia 2): se daña a medias
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{7, 7, 7, 7}), 30);
+        }
+        try (ArchivoInstantaneas archivo = new ArchivoInstantaneas(ruta)) {
+            InstantaneaPartida ultima = archivo.getUltima();
+            assertEquals(9, ultima.getLanzamientos());
+            assertEquals(17, ultima.getConsumos());
+            assertEquals(23, ultima.getPuntos(0));
+            assertEquals(11, ultima.getPuntos(1));
+            assertEquals(2, ultima.getJugadorActual());
+            assertArrayEquals(new byte[]{0, 1, 2}, ultima.getGrabados());
+
+            archivo.guardar(InstantaneaPartida.entreRondas(2, "E1", "E2"));
+            long inicio = System.nanoTime();
+            int n = 10_000;
+            for (int i = 0; i < n; i++) {
+                archivo.guardar(new InstantaneaPartida(1, "E1", "E2", 42, i, 0, i % 2, 0, -1, 4, i, 5, 7, new byte[8]));
+            }
+            double microsegundos = (System.nanoTime() - inicio) / 1e3 / n;
+            System.out.printf("instantánea: %.1f µs%n", microsegundos);
+        }
+    }
+
+    /**
+     * Interrumpe una partida a mitad, abre otro controlador sobre los mismos archivos y
+     * verifica que sigue en el mismo punto, que la grabación completa se puede repetir,
+     * solo hacia los receptores de repeticiones, y que su semilla regenera los mismos
+     * lanzamientos.
+     */
+    @Test
+    public void testReanudaPartida() throws Exception {
+        System.out.println("reanudaPartida");
+        Path equipos = escribirEquipos();
+        Path rutaInstantanea = carpeta.resolve("partida.snap");
+        Path rutaRepeticiones = carpeta.resolve("repeticiones.dat");
+
+        ControlJuego primero = new ControlJuego((ControlPersistencia) null);
+        primero.setGrabador(new GrabadorPartidas(rutaRepeticiones));
+        primero.setInstantaneas(new ArchivoInstantaneas(rutaInstantanea));
+        Marcador antes = new Marcador();
+        primero.agregarEscucha(antes);
+        assertTrue(primero.cargarEquipos(equipos.toFile()));
+        for (int i = 0; i < 4; i++) {
+            primero.lanzarTurno();
+        }
+        primero.cerrar();
+
+        ControlJuego segundo = new ControlJuego((ControlPersistencia) null);
+        segundo.setGrabador(new GrabadorPartidas(rutaRepeticiones));
+        segundo.setInstantaneas(new ArchivoInstantaneas(rutaInstantanea));
+        Marcador despues = new Marcador();
+        segundo.agregarEscucha(despues);
+        assertTrue(segundo.cargarEquipos(equipos.toFile()));
+        assertTrue(despues.reanudada);
+        assertEquals(1, despues.ronda);
+        assertEquals(antes.puntosA, despues.puntosA);
+        assertEquals(antes.puntosB, despues.puntosB);
+        assertEquals(antes.enTurno.getNombre(), despues.enTurno.getNombre());
+
+        Equipo ganador = segundo.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        assertNotNull(ganador);
+        assertEquals(1, segundo.getRondasJugadas());
+        segundo.cerrar();
+
+        List<GrabacionPartida> grabaciones = GrabadorPartidas.leer(rutaRepeticiones);
+        assertEquals(1, grabaciones.size());
+        ControlEquipo cargador = new ControlEquipo();
+        cargador.cargarEquiposDesdeArchivo(equipos.toString());
+        MotorPartida repetida = new ReproductorPartida(grabaciones.get(0), cargador.listarEquipos())
+                .reproducir(0, 1, Collections.emptyList());
+        assertEquals(ganador.getClave(), repetida.getGanador().getClave());
+
+        GrabacionPartida grabacion = grabaciones.get(0);
+        List<Equipo> pareja = new ReproductorPartida(grabacion, cargador.listarEquipos()).getEquipos();
+        FuenteAleatoria fuente = new FuenteAleatoria(grabacion.getSemilla());
+        MotorPartida regenerada = new MotorPartida(new Juego(pareja, fuente), pareja, fuente.nextInt(2));
+        try (GrabadorPartidas otra = new GrabadorPartidas(carpeta.resolve("regenerada.dat"))) {
+            regenerada.agregarEscucha(otra);
+            otra.rondaIniciada(pareja, regenerada.getEquipoActual(), regenerada.getJugadorActual(), 1);
+            regenerada.jugarHastaTerminar();
+            assertArrayEquals(grabacion.getLanzamientos(), otra.getUltima().getLanzamientos());
+        }
+
+        ControlJuego tercero = new ControlJuego((ControlPersistencia) null);
+        Bitacora enVivo = new Bitacora();
+        Bitacora pantalla = new Bitacora();
+        tercero.agregarEscucha(enVivo);
+        tercero.agregarEscuchaRepeticiones(pantalla);
+        assertTrue(tercero.cargarEquipos(equipos.toFile()));
+        assertEquals(ganador.getClave(), tercero.reproducir(grabaciones.get(0), 0).get(10, TimeUnit.SECONDS).getClave());
+        assertEquals(0, tercero.getRondasJugadas());
+        tercero.cerrar();
+        assertEquals(Collections.emptyList(), enVivo.eventos);
+        assertEquals(List.of("inicio", "ganador " + ganador.getClave(), "fin"), pantalla.eventos);
+
+        try (ArchivoInstantaneas archivo = new ArchivoInstantaneas(rutaInstantanea)) {
+            assertFalse(archivo.getUltima().isEnCurso());
+            assertEquals(1, archivo.getUltima().getRondasJugadas());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ Prueba de CalculadoraProbabilidades que compara las probabilidades exactas con casos
+ resueltos a mano y con partidas jugadas por MotorPartida.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ProbabilidadesPartida;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import static Udistrital.avanzada.ArgollaLlanera.modelo.EquiposPrueba.crearEquipo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class CalculadoraProbabilidadesTest {
+
+    /**
+     * Verifica que desde cualquier estado las probabilidades de ganar suman 1.
+     */
+    @Test
+    public void testProbabilidadesSuman1() {
+        System.out.println("probabilidadesSuman1");
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades(
+                crearEquipo("E001", "A", 3), crearEquipo("E002", "B", 4));
+        for (int puntosA = 0; puntosA < 21; puntosA++) {
+            for (int puntosB = 0; puntosB < 21; puntosB++) {
+                ProbabilidadesPartida p = calculadora.calcular(puntosA, puntosB, 1, 2, -1);
+                assertEquals(1.0, p.getProbabilidadA() + p.getProbabilidadB(), 1e-9);
+                assertTrue(p.getProbabilidadMuerteSubita() >= 0 && p.getProbabilidadMuerteSubita() <= 1);
+            }
+        }
+        ProbabilidadesPartida p = calculadora.calcular(25, 10, 1, 0, 0);
+        assertEquals(1.0, p.getProbabilidadA() + p.getProbabilidadB(), 1e-9);
+    }
+
+    /**
+     * Caso resuelto a mano: A ya llegó a 21 y B, con 20 puntos, tiene un solo lanzamiento.
+     * Llega a 21 con cinco de seis resultados; la muerte súbita entre equipos iguales es 50/50.
+     */
+    @Test
+    public void testCasoExacto() {
+        System.out.println("casoExacto");
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades(
+                crearEquipo("E001", "A", 2), crearEquipo("E002", "B", 2));
+        ProbabilidadesPartida p = calculadora.calcular(21, 20, 1, 1, 0);
+        assertEquals(5.0 / 6, p.getProbabilidadMuerteSubita(), 1e-12);
+        assertEquals(1.0 / 6 + 5.0 / 12, p.getProbabilidadA(), 1e-12);
+
+        ProbabilidadesPartida turnoDelPrimero = calculadora.calcular(21, 20, 0, 0, 0);
+        assertEquals(1.0, turnoDelPrimero.getProbabilidadA(), 0.0);
+    }
+
+    /**
+     * Verifica que las probabilidades desde el inicio coinciden con las frecuencias de
+     * muchas partidas jugadas por el motor.
+     */
+    @Test
+    public void testCoincideConMotor() {
+        System.out.println("coincideConMotor");
+        Equipo a = crearEquipo("E001", "A", 3);
+        Equipo b = crearEquipo("E002", "B", 2);
+        List<Equipo> equipos = Arrays.asList(a, b);
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades(a, b);
+        SplittableRandom random = new SplittableRandom(42);
+        int partidas = 200_000;
+        int ganaA = 0;
+        int muerteSubita = 0;
+        for (int i = 0; i < partidas; i++) {
+            MotorPartida motor = new MotorPartida(new Juego(equipos, random), equipos, 1);
+            if (i == 0) {
+                ProbabilidadesPartida inicio = calculadora.calcular(motor);
+                assertEquals(inicio.getProbabilidadA(), calculadora.calcular(0, 0, 1, 0, -1).getProbabilidadA(), 0.0);
+            }
+            motor.jugarHastaTerminar();
+            if (motor.getIndiceGanador() == 0) {
+                ganaA++;
+            }
+            if (motor.isMuerteSubita()) {
+                muerteSubita++;
+            }
+        }
+        ProbabilidadesPartida p = calculadora.calcular(0, 0, 1, 0, -1);
+        assertEquals(p.getProbabilidadA(), (double) ganaA / partidas, 0.01);
+        assertEquals(p.getProbabilidadMuerteSubita(), (double) muerteSubita / partidas, 0.01);
+    }
+}
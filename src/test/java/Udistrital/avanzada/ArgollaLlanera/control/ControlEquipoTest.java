@@ -0,0 +1,94 @@
+/*
+ Prueba de la carga de equipos desde varios archivos de ControlEquipo: combinación en
+ orden, políticas de claves repetidas y estadísticas.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.EstadisticasCarga;
+import Udistrital.avanzada.ArgollaLlanera.modelo.PoliticaDuplicados;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ControlEquipoTest {
+
+    @TempDir
+    Path carpeta;
+
+    private Path archivo(String nombre, String... equipos) throws IOException {
+        StringBuilder sb = new StringBuilder("numeroEquipos.count=" + equipos.length + "\n");
+        for (int i = 0; i < equipos.length; i++) {
+            String prefijo = "equipo." + (i + 1);
+            String[] partes = equipos[i].split(":");
+            sb.append(prefijo).append(".clave=").append(partes[0]).append('\n');
+            sb.append(prefijo).append(".name=").append(partes[1]).append('\n');
+            sb.append(prefijo).append(".numeroJugadores=2\n");
+            sb.append(prefijo).append(".player.1.name=A").append(i).append('\n');
+            sb.append(prefijo).append(".player.2.name=B").append(i).append('\n');
+        }
+        Path ruta = carpeta.resolve(nombre);
+        Files.write(ruta, sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+        return ruta;
+    }
+
+    /**
+     * Verifica la combinación de una carpeta en orden alfabético y las estadísticas.
+     */
+    @Test
+    public void testCargaDesdeDirectorio() throws Exception {
+        System.out.println("cargaDesdeDirectorio");
+        archivo("b-llanos.properties", "E003:Tercero", "E001:Repetido");
+        archivo("a-andes.properties", "E001:Primero", "E002:Segundo");
+        Files.writeString(carpeta.resolve("notas.txt"), "no es un archivo de equipos");
+
+        ControlEquipo control = new ControlEquipo();
+        EstadisticasCarga estadisticas = control.cargarEquiposDesdeDirectorio(carpeta,
+                PoliticaDuplicados.CONSERVAR_PRIMERO);
+
+        assertEquals(2, estadisticas.getCantidadArchivos());
+        assertEquals(3, estadisticas.getEquipos());
+        assertEquals(6, estadisticas.getJugadores());
+        assertEquals(1, estadisticas.getDuplicados());
+        assertTrue(estadisticas.getArchivos().get(0).getRuta().endsWith("a-andes.properties"));
+        assertEquals("Primero", control.getEquipo("E001").getNombre());
+
+        List<String> claves = new ArrayList<>();
+        for (Equipo e : control.listarEquipos()) {
+            claves.add(e.getClave());
+        }
+        assertEquals(List.of("E001", "E002", "E003"), claves);
+    }
+
+    /**
+     * Verifica las políticas de reemplazo y de error, que no modifica los equipos cargados.
+     */
+    @Test
+    public void testPoliticasDuplicados() throws Exception {
+        System.out.println("politicasDuplicados");
+        Path primero = archivo("uno.properties", "E001:Primero");
+        Path segundo = archivo("dos.properties", "E001:Segundo", "E002:Otro");
+
+        ControlEquipo reemplazo = new ControlEquipo();
+        reemplazo.cargarEquiposDesdeArchivos(List.of(primero, segundo), PoliticaDuplicados.REEMPLAZAR);
+        assertEquals("Segundo", reemplazo.getEquipo("E001").getNombre());
+
+        ControlEquipo estricto = new ControlEquipo();
+        estricto.cargarEquiposDesdeArchivos(List.of(primero), PoliticaDuplicados.ERROR);
+        IOException error = assertThrows(IOException.class,
+                () -> estricto.cargarEquiposDesdeArchivos(List.of(segundo), PoliticaDuplicados.ERROR));
+        assertTrue(error.getMessage().contains("E001"), error.getMessage());
+        assertEquals(1, estricto.listarEquipos().size());
+        assertNull(estricto.getEquipo("E002"));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ Prueba de ControlJuego sin vista: la partida corre en el hilo del juego, emite sus
+ eventos a los receptores registrados y guarda el resultado al terminar. Las
+ repeticiones corren en otro hilo y no detienen la partida en vivo, y los ratings
+ siguen al historial y a las partidas en vivo.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ControlJuegoTest {
+
+    @TempDir
+    Path carpeta;
+
+    /** Receptor que registra los eventos y el hilo en que llegan. */
+    private static class Registro implements EscuchaPartida {
+
+        final List<String> eventos = new ArrayList<>();
+        final List<String> hilos = new ArrayList<>();
+        int lanzamientos;
+        int puntosA;
+        int puntosB;
+        Equipo ganador;
+
+        private void anotar(String evento) {
+            eventos.add(evento);
+            hilos.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+            anotar("ronda" + ronda);
+        }
+
+        @Override
+        public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                int puntosA, int puntosB) {
+            lanzamientos++;
+            this.puntosA = puntosA;
+            this.puntosB = puntosB;
+        }
+
+        @Override
+        public void ganador(Equipo equipo, boolean muerteSubita, int puntosA, int puntosB) {
+            anotar("ganador");
+            ganador = equipo;
+        }
+
+        @Override
+        public void mensaje(String texto) {
+            anotar("mensaje");
+        }
+
+        @Override
+        public void juegoTerminado() {
+            anotar("terminado");
+        }
+    }
+
+    private Path escribirEquipos() throws Exception {
+        StringBuilder sb = new StringBuilder("numeroEquipos.count=2\n");
+        for (int e = 1; e <= 2; e++) {
+            sb.append("equipo.").append(e).append(".clave=E").append(e).append('\n')
+              .append("equipo.").append(e).append(".name=Equipo ").append(e).append('\n')
+              .append("equipo.").append(e).append(".numeroJugadores=4\n");
+            for (int j = 1; j <= 4; j++) {
+                sb.append("equipo.").append(e).append(".player.").append(j).append(".name=J").append(e).append(j).append('\n');
+            }
+        }
+        Path archivo = carpeta.resolve("Equipos.properties");
+        Files.writeString(archivo, sb.toString());
+        return archivo;
+    }
+
+    /**
+     * Verifica el flujo de dos rondas sin vista: eventos en el hilo del juego, un
+     * ganador por ronda, resultados guardados y fin del juego al pasar el límite.
+     */
+    @Test
+    public void testRondasSinVista() throws Exception {
+        System.out.println("rondasSinVista");
+        Path datos = carpeta.resolve("resultados.dat");
+        ControlJuego control = new ControlJuego(new ControlPersistencia(datos.toString()));
+        Registro registro = new Registro();
+        control.agregarEscucha(registro);
+
+        assertTrue(control.cargarEquipos(escribirEquipos().toFile()));
+        Equipo primero = control.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        assertNotNull(primero);
+        assertSame(primero, registro.ganador);
+        assertTrue(registro.lanzamientos > 0);
+        assertTrue(Math.max(registro.puntosA, registro.puntosB) >= 21);
+
+        control.nuevaRonda();
+        assertNotNull(control.jugarRondaAutomatica().get(10, TimeUnit.SECONDS));
+        control.nuevaRonda();
+        control.lanzarTurno();
+        control.cerrar();
+
+        assertEquals(List.of("ronda1", "ganador", "ronda2", "ganador", "mensaje", "terminado", "mensaje"),
+                registro.eventos);
+        for (String hilo : registro.hilos) {
+            assertEquals("hilo-juego", hilo);
+        }
+        assertEquals(2, control.getRondasJugadas());
+        assertEquals(4L * ControlPersistencia.RECORD_SIZE, Files.size(datos));
+    }
+
+    /**
+     * Una repetición corre en su propio hilo: mientras está detenida a mitad de camino,
+     * la partida en vivo se juega completa.
+     */
+    @Test
+    public void testRepeticionNoDetieneElJuego() throws Exception {
+        System.out.println("repeticionNoDetieneElJuego");
+        Path equipos = escribirEquipos();
+        Path repeticiones = carpeta.resolve("repeticiones.dat");
+        ControlJuego grabando = new ControlJuego((ControlPersistencia) null);
+        grabando.setGrabador(new GrabadorPartidas(repeticiones));
+        assertTrue(grabando.cargarEquipos(equipos.toFile()));
+        Equipo ganador = grabando.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        grabando.cerrar();
+        GrabacionPartida grabacion = GrabadorPartidas.leer(repeticiones).get(0);
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<String> hilos = new CopyOnWriteArrayList<>();
+        EscuchaPartida pantalla = new EscuchaPartida() {
+            @Override
+            public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+                hilos.add(Thread.currentThread().getName());
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ControlJuego control = new ControlJuego((ControlPersistencia) null);
+        control.agregarEscuchaRepeticiones(pantalla);
+        assertTrue(control.cargarEquipos(equipos.toFile()));
+        Future<Equipo> repeticion = control.reproducir(grabacion, 0);
+
+        assertNotNull(control.jugarRondaAutomatica().get(5, TimeUnit.SECONDS));
+        assertEquals(1, control.getRondasJugadas());
+        assertFalse(repeticion.isDone());
+
+        liberar.countDown();
+        assertEquals(ganador.getClave(), repeticion.get(10, TimeUnit.SECONDS).getClave());
+        control.cerrar();
+        assertEquals(List.of("hilo-repeticion"), hilos);
+    }
+
+    /**
+     * Los ratings parten del historial guardado por una sesión anterior y se actualizan
+     * con la partida en vivo.
+     */
+    @Test
+    public void testRatingsEnVivo() throws Exception {
+        System.out.println("ratingsEnVivo");
+        Path datos = carpeta.resolve("resultados.dat");
+        Path equipos = escribirEquipos();
+        ControlJuego anterior = new ControlJuego(new ControlPersistencia(datos.toString()));
+        assertTrue(anterior.cargarEquipos(equipos.toFile()));
+        Equipo primero = anterior.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        anterior.cerrar();
+
+        ControlJuego control = new ControlJuego(new ControlPersistencia(datos.toString()));
+        MotorRatings ratings = new MotorRatings();
+        assertEquals(1, control.setRatings(ratings));
+        assertSame(ratings, control.getRatings());
+        assertTrue(ratings.getRating(primero.getClave()) > MotorRatings.RATING_INICIAL);
+
+        assertTrue(control.cargarEquipos(equipos.toFile()));
+        Equipo segundo = control.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        control.cerrar();
+        assertEquals(2, ratings.getPartidasRegistradas());
+        assertEquals(2, ratings.getPartidas(segundo.getClave()));
+    }
+}
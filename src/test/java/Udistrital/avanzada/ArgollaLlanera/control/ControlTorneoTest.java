@@ -0,0 +1,122 @@
+/*
+ Prueba de ControlTorneo que verifica la cantidad de encuentros de cada formato, la
+ tabla de posiciones y que el resultado no depende de la cantidad de hilos.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.FormatoTorneo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoEncuentro;
+import Udistrital.avanzada.ArgollaLlanera.modelo.TablaPosiciones;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ControlTorneoTest {
+
+    private static List<Equipo> crearEquipos(int cantidad) {
+        List<Equipo> equipos = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            Equipo equipo = new Equipo("E" + i, "Equipo " + i);
+            for (int j = 1; j <= 4; j++) {
+                equipo.agregarJugador(new Jugador("J" + i + "-" + j, "", ""));
+            }
+            equipos.add(equipo);
+        }
+        return equipos;
+    }
+
+    private static long jugados(ControlTorneo torneo) {
+        return torneo.getEncuentros().stream().filter(r -> !r.esDescanso()).count();
+    }
+
+    /**
+     * Verifica que en todos contra todos cada equipo enfrenta una vez a cada rival
+     * y que la tabla se actualiza con cada encuentro.
+     */
+    @Test
+    public void testTodosContraTodos() throws Exception {
+        System.out.println("todosContraTodos");
+        ControlTorneo torneo = new ControlTorneo(crearEquipos(5), FormatoTorneo.TODOS_CONTRA_TODOS, 7L, 4);
+        AtomicInteger avisos = new AtomicInteger();
+        torneo.setEscucha(r -> avisos.incrementAndGet());
+        Equipo campeon = torneo.jugar();
+
+        assertEquals(5, torneo.getRondas());
+        assertEquals(10, jugados(torneo));
+        assertEquals(15, avisos.get());
+        Set<String> parejas = new HashSet<>();
+        for (ResultadoEncuentro r : torneo.getEncuentros()) {
+            if (!r.esDescanso()) {
+                assertTrue(parejas.add(r.getEquipoA().getClave() + "-" + r.getEquipoB().getClave()));
+            }
+        }
+        for (TablaPosiciones.Fila fila : torneo.getTabla().getFilas()) {
+            assertEquals(4, fila.getJugados());
+            assertEquals(1, fila.getDescansos());
+        }
+        assertSame(campeon, torneo.getTabla().getFilas().get(0).getEquipo());
+    }
+
+    /**
+     * Verifica la cantidad de encuentros de los formatos de eliminación y del suizo.
+     */
+    @Test
+    public void testEliminacionYSuizo() throws Exception {
+        System.out.println("eliminacionYSuizo");
+        ControlTorneo simple = new ControlTorneo(crearEquipos(6), FormatoTorneo.ELIMINACION_SIMPLE, 1L, 4);
+        simple.jugar();
+        assertEquals(5, jugados(simple));
+        assertEquals(3, simple.getRondas());
+
+        ControlTorneo doble = new ControlTorneo(crearEquipos(6), FormatoTorneo.ELIMINACION_DOBLE, 1L, 4);
+        Equipo campeon = doble.jugar();
+        long partidos = jugados(doble);
+        assertTrue(partidos == 10 || partidos == 11, "Eliminación doble con 6 equipos: " + partidos);
+        for (TablaPosiciones.Fila fila : doble.getTabla().getFilas()) {
+            if (fila.getEquipo() == campeon) {
+                assertTrue(fila.getPerdidos() < 2);
+            } else {
+                assertEquals(2, fila.getPerdidos());
+            }
+        }
+
+        ControlTorneo suizo = new ControlTorneo(crearEquipos(8), FormatoTorneo.SUIZO, 1L, 4);
+        suizo.jugar();
+        assertEquals(3, suizo.getRondas());
+        assertEquals(12, jugados(suizo));
+        Set<String> parejas = new HashSet<>();
+        for (ResultadoEncuentro r : suizo.getEncuentros()) {
+            String a = r.getEquipoA().getClave();
+            String b = r.getEquipoB().getClave();
+            assertTrue(parejas.add(a.compareTo(b) < 0 ? a + b : b + a), "Encuentro repetido " + a + " " + b);
+        }
+    }
+
+    /**
+     * Verifica que la misma semilla da el mismo torneo con uno o varios hilos.
+     */
+    @Test
+    public void testReproducibleConVariosHilos() throws Exception {
+        System.out.println("reproducibleConVariosHilos");
+        List<Equipo> equipos = crearEquipos(16);
+        ControlTorneo secuencial = new ControlTorneo(equipos, FormatoTorneo.SUIZO, 99L, 1);
+        ControlTorneo paralelo = new ControlTorneo(equipos, FormatoTorneo.SUIZO, 99L, 8);
+        assertSame(secuencial.jugar(), paralelo.jugar());
+        List<ResultadoEncuentro> a = secuencial.getEncuentros();
+        List<ResultadoEncuentro> b = paralelo.getEncuentros();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).toString(), b.get(i).toString());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ Prueba de DiarioResultados que verifica la confirmación atómica de partidas, la
+ confirmación en grupo y la recuperación del archivo tras una escritura interrumpida.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class DiarioResultadosTest {
+
+    private static final String[] JUGADORES = {"Sofia", "Juan", "Steban", "Francined"};
+
+    @TempDir
+    Path carpeta;
+
+    private static RegistroResultado[] partida(int n) {
+        return new RegistroResultado[]{
+            new RegistroResultado("E" + n, "ELN", JUGADORES, "Ganó"),
+            new RegistroResultado("F" + n, "Casanareños", JUGADORES, "Perdió")
+        };
+    }
+
+    /**
+     * Verifica que con diario se escribe lo mismo que sin él y que la confirmación
+     * en grupo solo llega al archivo de datos al sincronizar.
+     */
+    @Test
+    public void testConfirmacionEnGrupo() throws Exception {
+        System.out.println("confirmacionEnGrupo");
+        Path directo = carpeta.resolve("directo.dat");
+        Path diario = carpeta.resolve("diario.dat");
+
+        ControlPersistencia sinDiario = new ControlPersistencia(directo.toString());
+        ControlPersistencia conDiario = new ControlPersistencia(diario.toString(), true, 3);
+        for (int i = 0; i < 2; i++) {
+            sinDiario.escribirPartida(partida(i));
+            conDiario.escribirPartida(partida(i));
+        }
+        assertEquals(0, Files.size(diario));
+        conDiario.escribirPartida(partida(2));
+        sinDiario.escribirPartida(partida(2));
+        assertEquals(6L * ControlPersistencia.RECORD_SIZE, Files.size(diario));
+
+        conDiario.escribirPartida(partida(3));
+        sinDiario.escribirPartida(partida(3));
+        assertEquals(2, conDiario.buscarPorClave("F3").size() + conDiario.buscarPorClave("E3").size());
+        sinDiario.close();
+        conDiario.close();
+
+        assertArrayEquals(Files.readAllBytes(directo), Files.readAllBytes(diario));
+        assertEquals(0, Files.size(DiarioResultados.rutaDiario(diario)));
+    }
+
+    /**
+     * Simula una caída: un registro partido en los datos, un marco completo en el
+     * diario que no llegó a aplicarse y un marco incompleto al final.
+     */
+    @Test
+    public void testRecuperacion() throws Exception {
+        System.out.println("recuperacion");
+        Path datos = carpeta.resolve("resultados.dat");
+        Path rutaDiario = DiarioResultados.rutaDiario(datos);
+
+        ControlPersistencia persistencia = new ControlPersistencia(datos.toString(), false, 1);
+        persistencia.escribirPartida(partida(0));
+        persistencia.close();
+        byte[] unaPartida = Files.readAllBytes(datos);
+
+        // Diario con dos partidas sincronizadas y un registro de datos que no se aplicó
+        try (FileChannel canal = FileChannel.open(datos, StandardOpenOption.WRITE);
+             DiarioResultados diario = new DiarioResultados(datos, canal, 10)) {
+            diario.confirmarPartida(partida(1));
+            diario.confirmarPartida(partida(2));
+            diario.sincronizar();
+            byte[] diarioCompleto = Files.readAllBytes(rutaDiario);
+            int tamMarco = diarioCompleto.length / 2;
+
+            canal.truncate(unaPartida.length + 50);   // el segundo marco nunca llegó a los datos
+            byte[] conCola = Arrays.copyOf(diarioCompleto, diarioCompleto.length + tamMarco / 2);
+            System.arraycopy(diarioCompleto, 0, conCola, diarioCompleto.length, tamMarco / 2);
+            Files.write(rutaDiario, conCola);
+            // Estado tras la caída, copiado antes de que el cierre haga el punto de control
+            Files.copy(datos, carpeta.resolve("caido.dat"));
+            Files.copy(rutaDiario, carpeta.resolve("caido.dat.wal"));
+        }
+
+        Path caido = carpeta.resolve("caido.dat");
+        ControlPersistencia recuperada = new ControlPersistencia(caido.toString(), true, 1);
+        assertEquals(6L * ControlPersistencia.RECORD_SIZE, Files.size(caido));
+        assertEquals(0, Files.size(DiarioResultados.rutaDiario(caido)));
+        assertEquals(1, recuperada.buscarPorClave("F2").size());
+        recuperada.escribirPartida(partida(3));
+        recuperada.close();
+
+        try (LectorResultados lector = new LectorResultados(caido.toString())) {
+            assertEquals(8, lector.cantidad());
+            assertEquals("F3", lector.get(7).getClave());
+            assertEquals("E2", lector.get(4).getClave());
+        }
+    }
+
+    /**
+     * Verifica que un marco con un registro alterado se descarta al recuperar.
+     */
+    @Test
+    public void testMarcoCorruptoSeDescarta() throws Exception {
+        System.out.println("marcoCorruptoSeDescarta");
+        Path datos = carpeta.resolve("corrupto.dat");
+        Path copia = carpeta.resolve("copia.dat");
+        try (FileChannel canal = FileChannel.open(datos, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             DiarioResultados diario = new DiarioResultados(datos, canal, 10)) {
+            diario.confirmarPartida(partida(0));
+            diario.sincronizar();
+            byte[] marco = Files.readAllBytes(DiarioResultados.rutaDiario(datos));
+            marco[40] ^= 1;
+            Files.write(DiarioResultados.rutaDiario(copia), marco);
+        }
+        try (FileChannel canal = FileChannel.open(copia, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            DiarioResultados.recuperar(copia, canal);
+            assertEquals(0, canal.size());
+        }
+        assertEquals(0, Files.size(DiarioResultados.rutaDiario(copia)));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ Prueba de EscritorResultadosPorLotes que verifica que el modo por lotes produce los mismos
+ registros de tamaño fijo que ControlPersistencia, que solo escribe al vaciar el lote y que
+ los registros antiguos de Specs/Data/resultados.dat se siguen leyendo junto a los nuevos.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class EscritorResultadosPorLotesTest {
+
+    private static final String[] JUGADORES = {"Sofia", "Juan", "Steban", "Francined"};
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Verifica que los registros escritos por lotes son idénticos byte a byte
+     * a los de escribirRegistro.
+     */
+    @Test
+    public void testMismoFormatoQueControlPersistencia() throws Exception {
+        System.out.println("mismoFormatoQueControlPersistencia");
+        Path directo = carpeta.resolve("directo.dat");
+        Path lotes = carpeta.resolve("lotes.dat");
+
+        ControlPersistencia persistencia = new ControlPersistencia(directo.toString());
+        persistencia.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+        persistencia.escribirRegistro("E002", "Casanareños", JUGADORES, "Perdió");
+        persistencia.close();
+
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(lotes.toString(), 8, false)) {
+            escritor.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+            escritor.escribirRegistro("E002", "Casanareños", JUGADORES, "Perdió");
+        }
+
+        assertArrayEquals(Files.readAllBytes(directo), Files.readAllBytes(lotes));
+        assertEquals(2L * ControlPersistencia.RECORD_SIZE, Files.size(lotes));
+    }
+
+    /**
+     * Verifica que cada campo empieza en su columna aunque los textos tengan
+     * caracteres multibyte, y que el resultado queda guardado en el registro.
+     */
+    @Test
+    public void testColumnasFijasConMultibyte() throws Exception {
+        System.out.println("columnasFijasConMultibyte");
+        Path ruta = carpeta.resolve("columnas.dat");
+        String nombreLargo = "ñññññññññññññññññññññññññññññ";   // 29 caracteres de 2 bytes
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(ruta.toString(), 4, false)) {
+            escritor.escribirRegistro("E001", nombreLargo, JUGADORES, "Ganó");
+        }
+        byte[] datos = Files.readAllBytes(ruta);
+        String equipo = new String(datos, FormatoRegistro.POS_EQUIPO, FormatoRegistro.LONG_EQUIPO,
+                StandardCharsets.UTF_8).trim();
+        assertEquals(nombreLargo.substring(0, 15), equipo, "El nombre se corta sin partir caracteres");
+        String resultado = new String(datos, FormatoRegistro.POS_RESULTADO, FormatoRegistro.LONG_RESULTADO,
+                StandardCharsets.UTF_8).trim();
+        assertEquals("Ganó", resultado);
+    }
+
+    /**
+     * Verifica que los registros quedan en el lote hasta que se llena o se confirma.
+     */
+    @Test
+    public void testVaciadoPorLote() throws Exception {
+        System.out.println("vaciadoPorLote");
+        Path ruta = carpeta.resolve("lote.dat");
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(ruta.toString(), 3, false)) {
+            escritor.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+            escritor.escribirRegistro("E002", "Casanareños", JUGADORES, "Perdió");
+            assertEquals(0, Files.size(ruta));
+            escritor.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+            assertEquals(3L * ControlPersistencia.RECORD_SIZE, Files.size(ruta));
+            escritor.escribirRegistro("E002", "Casanareños", JUGADORES, "Perdió");
+            escritor.confirmar();
+            assertEquals(4L * ControlPersistencia.RECORD_SIZE, Files.size(ruta));
+            assertEquals(4, escritor.getRegistrosEscritos());
+        }
+    }
+
+    /**
+     * Agrega registros por lotes a una copia del archivo de resultados del repositorio y
+     * verifica que los registros antiguos (de las dos disposiciones anteriores) y los
+     * nuevos se decodifican con sus campos en su lugar.
+     */
+    @Test
+    public void testLeeArchivoBase() throws Exception {
+        System.out.println("leeArchivoBase");
+        Path ruta = carpeta.resolve("resultados.dat");
+        Files.copy(Paths.get("src/Specs/Data/resultados.dat"), ruta);
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(ruta.toString(), 4, false)) {
+            escritor.escribirRegistro("E001", "ELN", JUGADORES, "Ganó");
+            escritor.escribirRegistro("E002", "Casanareños", JUGADORES, "Perdió");
+        }
+        ByteBuffer datos = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        assertEquals(12L * ControlPersistencia.RECORD_SIZE, datos.capacity());
+
+        int tam = ControlPersistencia.RECORD_SIZE;
+        assertEquals(FormatoRegistro.Disposicion.COMPACTA, FormatoRegistro.detectar(datos, 0));
+        assertEquals(FormatoRegistro.Disposicion.ORIGINAL, FormatoRegistro.detectar(datos, 2 * tam));
+        assertEquals(FormatoRegistro.Disposicion.ACTUAL, FormatoRegistro.detectar(datos, 10 * tam));
+        // sin la marca un registro nunca se toma por uno de la disposición actual
+        ByteBuffer sinMarca = ByteBuffer.allocate(tam);
+        sinMarca.put(0, datos, 10 * tam, tam);
+        sinMarca.put(FormatoRegistro.POS_MARCA, (byte) ' ');
+        sinMarca.put(FormatoRegistro.POS_MARCA + 1, (byte) ' ');
+        assertNotEquals(FormatoRegistro.Disposicion.ACTUAL, FormatoRegistro.detectar(sinMarca, 0));
+
+        RegistroResultado compacto = FormatoRegistro.decodificar(datos, tam);
+        assertEquals("E002", compacto.getClave());
+        assertEquals("Casanarenos", compacto.getNombreEquipo());
+        assertArrayEquals(new String[]{"Raul", "Freddy", "Pablo", "Nelson"}, compacto.getJugadores());
+        assertEquals("Ganó", compacto.getResultado());
+        assertEquals("Perdió", FormatoRegistro.decodificar(datos, 0).getResultado());
+
+        RegistroResultado original = FormatoRegistro.decodificar(datos, 2 * tam);
+        assertEquals("E001", original.getClave());
+        assertEquals("ELN", original.getNombreEquipo());
+        assertArrayEquals(JUGADORES, original.getJugadores());
+        assertEquals("", original.getResultado(), "La disposición original no alcanzaba a guardar el resultado");
+
+        RegistroResultado nuevo = FormatoRegistro.decodificar(datos, 11 * tam);
+        assertEquals("Casanareños", nuevo.getNombreEquipo());
+        assertArrayEquals(JUGADORES, nuevo.getJugadores());
+        assertEquals("Perdió", nuevo.getResultado());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ Prueba del formato binario versión 2 que verifica la escritura y lectura de registros con
+ cantidad variable de jugadores, la reapertura para agregar, el descarte de una entrada
+ incompleta y la migración desde el formato de 160 bytes, también del archivo
+ Specs/Data/resultados.dat del repositorio.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoPartida;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class FormatoBinarioV2Test {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Verifica que los registros se leen igual a como se escribieron, incluso tras
+     * reabrir el archivo para agregar más.
+     */
+    @Test
+    public void testEscribirYLeer() throws Exception {
+        System.out.println("escribirYLeer");
+        Path ruta = carpeta.resolve("resultados.v2");
+        String[] cinco = {"Sofia", "Juan", "Steban", "Francined", "Nombre muy largo que no cabía en treinta"};
+        try (EscritorResultadosV2 escritor = new EscritorResultadosV2(ruta.toString())) {
+            escritor.escribir("E001", "ELN", cinco, ResultadoPartida.GANO, 23, 1_700_000_000_000L);
+            escritor.escribir("E002", "Casanareños", new String[]{"Raul", "Freddy"}, ResultadoPartida.PERDIO, 12,
+                    1_700_000_000_500L);
+        }
+        try (EscritorResultadosV2 escritor = new EscritorResultadosV2(ruta.toString())) {
+            escritor.escribir("E001", "ELN", cinco, ResultadoPartida.PERDIO, 8, 1_700_000_001_000L);
+        }
+
+        try (LectorResultadosV2 lector = new LectorResultadosV2(ruta)) {
+            assertFalse(lector.esLegado());
+            assertTrue(lector.siguiente());
+            RegistroResultado r = lector.getRegistro();
+            assertEquals("E001", r.getClave());
+            assertArrayEquals(cinco, r.getJugadores());
+            assertEquals("Ganó", r.getResultado());
+            assertEquals(23, r.getPuntaje());
+            assertEquals(1_700_000_000_000L, r.getMarcaTiempo());
+            assertTrue(lector.siguiente());
+            assertEquals(2, lector.getRegistro().getJugadores().length);
+            assertTrue(lector.siguiente());
+            assertEquals(ResultadoPartida.PERDIO, lector.getResultado());
+            assertEquals(1_700_000_001_000L, lector.getRegistro().getMarcaTiempo());
+            assertFalse(lector.siguiente());
+        }
+    }
+
+    /**
+     * Verifica que una entrada cortada al final se ignora y que el escritor la descarta
+     * al reabrir.
+     */
+    @Test
+    public void testEntradaIncompletaAlFinal() throws Exception {
+        System.out.println("entradaIncompletaAlFinal");
+        Path ruta = carpeta.resolve("resultados.v2");
+        try (EscritorResultadosV2 escritor = new EscritorResultadosV2(ruta.toString())) {
+            escritor.escribir("E001", "ELN", new String[]{"Sofia"}, ResultadoPartida.GANO, 21, 10L);
+            escritor.escribir("E002", "Casanareños", new String[]{"Raul"}, ResultadoPartida.PERDIO, 3, 20L);
+        }
+        try (RandomAccessFile archivo = new RandomAccessFile(ruta.toFile(), "rw")) {
+            archivo.setLength(archivo.length() - 2);
+        }
+        try (EscritorResultadosV2 escritor = new EscritorResultadosV2(ruta.toString())) {
+            escritor.escribir("E003", "Llaneros", new String[]{"Pablo"}, ResultadoPartida.GANO, 25, 30L);
+        }
+        try (LectorResultadosV2 lector = new LectorResultadosV2(ruta)) {
+            assertTrue(lector.siguiente());
+            assertTrue(lector.siguiente());
+            assertEquals("E003", lector.getRegistro().getClave());
+            assertEquals(30L, lector.getRegistro().getMarcaTiempo());
+            assertFalse(lector.siguiente());
+        }
+    }
+
+    /**
+     * Verifica que el migrador conserva los registros del formato de 160 bytes
+     * y que el archivo resultante es mucho más pequeño.
+     */
+    @Test
+    public void testMigracionDesdeLegado() throws Exception {
+        System.out.println("migracionDesdeLegado");
+        Path legado = carpeta.resolve("resultados.dat");
+        Path nuevo = carpeta.resolve("resultados.v2");
+        ControlPersistencia persistencia = new ControlPersistencia(legado.toString());
+        for (int i = 0; i < 100; i++) {
+            persistencia.escribirRegistro("E00" + (i % 2 + 1), "Equipo " + (i % 2),
+                    new String[]{"Sofia", "Juan", "Steban", "Francined"}, i % 3 == 0 ? "Ganó" : "Perdió");
+        }
+        persistencia.close();
+
+        assertEquals(100, MigradorResultados.migrar(legado, nuevo));
+        assertTrue(Files.size(nuevo) * 10 < Files.size(legado), "El formato v2 debe ser mucho más compacto");
+        try (LectorResultadosV2 lector = new LectorResultadosV2(nuevo)) {
+            assertTrue(lector.siguiente());
+            assertEquals("E001", lector.getRegistro().getClave());
+            assertEquals(ResultadoPartida.GANO, lector.getResultado());
+            assertEquals(RegistroResultado.SIN_PUNTAJE, lector.getRegistro().getPuntaje());
+        }
+    }
+
+    /**
+     * Migra el archivo de resultados del repositorio: los nombres salen completos y los
+     * resultados guardados se conservan; los registros de la disposición original, que
+     * no alcanzaban a guardar el resultado, quedan como DESCONOCIDO.
+     */
+    @Test
+    public void testMigracionArchivoBase() throws Exception {
+        System.out.println("migracionArchivoBase");
+        Path nuevo = carpeta.resolve("resultados.v2");
+        assertEquals(10, MigradorResultados.migrar(Paths.get("src/Specs/Data/resultados.dat"), nuevo));
+        String[] eln = {"Sofia", "Juan", "Steban", "Francined"};
+        String[] casanare = {"Raul", "Freddy", "Pablo", "Nelson"};
+        try (LectorResultadosV2 lector = new LectorResultadosV2(nuevo)) {
+            assertTrue(lector.siguiente());
+            assertEquals("E001", lector.getRegistro().getClave());
+            assertEquals("ELN", lector.getRegistro().getNombreEquipo());
+            assertArrayEquals(eln, lector.getRegistro().getJugadores());
+            assertEquals(ResultadoPartida.PERDIO, lector.getResultado());
+            assertTrue(lector.siguiente());
+            assertEquals("Casanarenos", lector.getRegistro().getNombreEquipo());
+            assertArrayEquals(casanare, lector.getRegistro().getJugadores());
+            assertEquals(ResultadoPartida.GANO, lector.getResultado());
+            for (int i = 2; i < 10; i++) {
+                assertTrue(lector.siguiente());
+                RegistroResultado registro = lector.getRegistro();
+                assertEquals(i % 2 == 0 ? "E001" : "E002", registro.getClave());
+                assertArrayEquals(i % 2 == 0 ? eln : casanare, registro.getJugadores());
+                assertEquals(ResultadoPartida.DESCONOCIDO, lector.getResultado());
+            }
+            assertFalse(lector.siguiente());
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ Prueba de GrabadorPartidas y ReproductorPartida que verifica que las partidas grabadas
+ se repiten con el mismo ganador y puntajes, que una grabación que no coincide no emite
+ eventos, que se tolera un marco partido al final del archivo, que un marco dañado en
+ medio se salta sin perder los siguientes y que la repetición respeta el ritmo pedido.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.GrabacionPartida;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.PerfilLanzamiento;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static Udistrital.avanzada.ArgollaLlanera.modelo.EquiposPrueba.crearEquipo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class GrabadorPartidasTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Juega partidas con el grabador como receptor y las guarda.
+     *
+     * @return motores de las partidas jugadas, en orden
+     */
+    private static List<MotorPartida> jugarYGrabar(GrabadorPartidas grabador, List<Equipo> equipos,
+                                                   int partidas, long semilla) throws Exception {
+        List<MotorPartida> motores = new ArrayList<>();
+        SplittableRandom rand = new SplittableRandom(semilla);
+        for (int i = 0; i < partidas; i++) {
+            long semillaPartida = rand.nextLong();
+            SplittableRandom fuente = new SplittableRandom(semillaPartida);
+            MotorPartida motor = new MotorPartida(new Juego(equipos, fuente), equipos, fuente.nextInt(2));
+            motor.agregarEscucha(grabador);
+            grabador.prepararRonda(semillaPartida);
+            grabador.rondaIniciada(equipos, motor.getEquipoActual(), motor.getJugadorActual(), i + 1);
+            motor.jugarHastaTerminar();
+            assertTrue(grabador.guardarUltima());
+            motores.add(motor);
+        }
+        return motores;
+    }
+
+    /**
+     * Graba partidas con perfiles distintos y verifica que la repetición reproduce cada
+     * una, aun después de cambiar los perfiles.
+     */
+    @Test
+    public void testRepiteMismasPartidas() throws Exception {
+        System.out.println("repiteMismasPartidas");
+        Equipo a = crearEquipo("E001", "A", 3);
+        Equipo b = crearEquipo("E002", "B", 2);
+        a.getJugadores().get(0).setPerfil(PerfilLanzamiento.desdeTexto("moñona:1, hueco:3, otro:6"));
+        List<Equipo> equipos = Arrays.asList(a, b);
+        Path archivo = carpeta.resolve("repeticiones.dat");
+        List<MotorPartida> originales;
+        try (GrabadorPartidas grabador = new GrabadorPartidas(archivo)) {
+            originales = jugarYGrabar(grabador, equipos, 300, 17);
+        }
+
+        List<GrabacionPartida> grabaciones = GrabadorPartidas.leer(archivo);
+        assertEquals(originales.size(), grabaciones.size());
+        a.getJugadores().get(0).setPerfil(null);
+        int muerteSubita = 0;
+        for (int i = 0; i < grabaciones.size(); i++) {
+            MotorPartida original = originales.get(i);
+            GrabacionPartida grabacion = grabaciones.get(i);
+            assertEquals("E001", grabacion.getClaveA());
+            assertEquals(original.getLanzamientos(), grabacion.getCantidadLanzamientos());
+            MotorPartida repetida = new ReproductorPartida(grabacion, Arrays.asList(b, a))
+                    .reproducir(0, 1, Collections.emptyList());
+            assertEquals(original.getIndiceGanador(), repetida.getIndiceGanador());
+            assertEquals(original.getPuntos(0), repetida.getPuntos(0));
+            assertEquals(original.getPuntos(1), repetida.getPuntos(1));
+            assertEquals(original.isMuerteSubita(), repetida.isMuerteSubita());
+            muerteSubita += repetida.isMuerteSubita() ? 1 : 0;
+        }
+        assertTrue(muerteSubita > 0);
+
+        byte[] incompleta = grabaciones.get(0).getLanzamientos();
+        GrabacionPartida cortada = new GrabacionPartida(0, 0, "E001", "E002", grabaciones.get(0).getEquipoInicial(),
+                grabaciones.get(0).getGanador(), Arrays.copyOf(incompleta, incompleta.length - 1));
+        // la grabación se verifica antes de emitir: el receptor no llega a ver la partida
+        List<String> eventos = new ArrayList<>();
+        EscuchaPartida receptor = new EscuchaPartida() {
+            @Override
+            public void rondaIniciada(List<Equipo> equipos, Equipo equipoInicial, Jugador jugador, int ronda) {
+                eventos.add("ronda");
+            }
+
+            @Override
+            public void lanzamiento(Equipo equipo, Jugador jugador, ResultadoLanzamiento resultado,
+                                    int puntosA, int puntosB) {
+                eventos.add("lanzamiento");
+            }
+        };
+        assertThrows(IllegalStateException.class,
+                () -> new ReproductorPartida(cortada, equipos).reproducir(0, 1, List.of(receptor)));
+        assertEquals(Collections.emptyList(), eventos);
+    }
+
+    /**
+     * Simula una escritura interrumpida: la lectura ignora el marco partido y al volver a
+     * abrir el archivo se descarta y se sigue grabando detrás del último marco válido.
+     */
+    @Test
+    public void testColaIncompleta() throws Exception {
+        System.out.println("colaIncompleta");
+        List<Equipo> equipos = Arrays.asList(crearEquipo("E001", "A", 2), crearEquipo("E002", "B", 2));
+        Path archivo = carpeta.resolve("repeticiones.dat");
+        try (GrabadorPartidas grabador = new GrabadorPartidas(archivo)) {
+            jugarYGrabar(grabador, equipos, 3, 3);
+        }
+        long completo = Files.size(archivo);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(completo - 5);
+        }
+        assertEquals(2, GrabadorPartidas.leer(archivo).size());
+
+        try (GrabadorPartidas grabador = new GrabadorPartidas(archivo)) {
+            jugarYGrabar(grabador, equipos, 2, 4);
+        }
+        List<GrabacionPartida> grabaciones = GrabadorPartidas.leer(archivo);
+        assertEquals(4, grabaciones.size());
+        for (GrabacionPartida grabacion : grabaciones) {
+            new ReproductorPartida(grabacion, equipos).reproducir(0, 1, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Daña una partida en medio del archivo: la lectura y la apertura la saltan, las
+     * siguientes siguen disponibles y las nuevas se agregan detrás de ellas. Se prueba con
+     * el CRC dañado y con la longitud dañada.
+     */
+    @Test
+    public void testMarcoDanadoEnMedio() throws Exception {
+        System.out.println("marcoDanadoEnMedio");
+        List<Equipo> equipos = Arrays.asList(crearEquipo("E001", "A", 2), crearEquipo("E002", "B", 2));
+        for (int danarLongitud = 0; danarLongitud < 2; danarLongitud++) {
+            Path archivo = carpeta.resolve("repeticiones" + danarLongitud + ".dat");
+            try (GrabadorPartidas grabador = new GrabadorPartidas(archivo)) {
+                jugarYGrabar(grabador, equipos, 3, 5);
+            }
+            List<GrabacionPartida> originales = GrabadorPartidas.leer(archivo);
+            long segundo = 8;
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                ByteBuffer longitud = ByteBuffer.allocate(4);
+                canal.read(longitud, segundo);
+                segundo += 8 + longitud.getInt(0);
+            }
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                ByteBuffer basura = ByteBuffer.wrap(danarLongitud == 1 ? new byte[]{0x7f, 0, 0, 0} : new byte[]{1, 2});
+                canal.write(basura, danarLongitud == 1 ? segundo : segundo + 12);
+            }
+            long tamano = Files.size(archivo);
+
+            assertEquals(List.of(originales.get(0).getSemilla(), originales.get(2).getSemilla()),
+                    GrabadorPartidas.leer(archivo).stream().map(GrabacionPartida::getSemilla).toList());
+            try (GrabadorPartidas grabador = new GrabadorPartidas(archivo)) {
+                assertEquals(1, grabador.getMarcosDanados());
+                assertEquals(tamano, Files.size(archivo));
+                jugarYGrabar(grabador, equipos, 1, 6);
+            }
+            List<GrabacionPartida> grabaciones = GrabadorPartidas.leer(archivo);
+            assertEquals(3, grabaciones.size());
+            assertEquals(originales.get(2).getSemilla(), grabaciones.get(1).getSemilla());
+            for (GrabacionPartida grabacion : grabaciones) {
+                new ReproductorPartida(grabacion, equipos).reproducir(0, 1, Collections.emptyList());
+            }
+        }
+    }
+
+    /**
+     * Verifica que la repetición a ritmo fijo no va más rápido de lo pedido.
+     */
+    @Test
+    public void testRitmo() throws Exception {
+        System.out.println("ritmo");
+        List<Equipo> equipos = Arrays.asList(crearEquipo("E001", "A", 2), crearEquipo("E002", "B", 2));
+        Path archivo = carpeta.resolve("repeticiones.dat");
+        try (GrabadorPartidas grabador = new GrabadorPartidas(archivo)) {
+            jugarYGrabar(grabador, equipos, 1, 9);
+        }
+        GrabacionPartida grabacion = GrabadorPartidas.leer(archivo).get(0);
+        double ritmo = 200;
+        long inicio = System.nanoTime();
+        MotorPartida motor = new ReproductorPartida(grabacion, equipos).reproducir(ritmo, 1, Collections.emptyList());
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int parejas = 2;   // las parejas de muerte súbita van en el paso del último lanzamiento
+        int pasos = motor.getLanzamientos() - 2 * parejas * motor.getRepeticionesMuerteSubita();
+        assertTrue(segundos >= (pasos - 1) / ritmo, "La repetición fue más rápida que el ritmo pedido");
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ Prueba de HistorialBitacora que verifica que cada mensaje llega al archivo al escribirse,
+ sin esperar a que se cierre el historial.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class HistorialBitacoraTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Los mensajes se leen del archivo mientras el historial sigue abierto, y al abrirlo
+     * de nuevo se agregan al final.
+     */
+    @Test
+    public void testEscribeCadaMensaje() throws Exception {
+        System.out.println("escribeCadaMensaje");
+        Path archivo = carpeta.resolve("bitacora").resolve("historial.txt");
+        try (HistorialBitacora historial = new HistorialBitacora(archivo)) {
+            historial.escribir("primero");
+            List<String> lineas = Files.readAllLines(archivo);
+            assertEquals(1, lineas.size());
+            assertTrue(lineas.get(0).endsWith(" primero"), lineas.get(0));
+            historial.escribir("segundo");
+            assertEquals(2, Files.readAllLines(archivo).size());
+        }
+        try (HistorialBitacora historial = new HistorialBitacora(archivo)) {
+            historial.escribir("tercero");
+            List<String> lineas = Files.readAllLines(archivo);
+            assertEquals(3, lineas.size());
+            assertTrue(lineas.get(2).endsWith(" tercero"), lineas.get(2));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ Prueba de IndiceResultados que verifica que los índices por clave y jugador se mantienen
+ al escribir, se ponen al día con registros escritos por otra vía, se reconstruyen y que
+ un índice de formato desconocido se reconstruye en lugar de impedir abrir la persistencia.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class IndiceResultadosTest {
+
+    private static final String[] ELN = {"Sofia", "Juan", "Steban", "Francined"};
+    private static final String[] CASANARE = {"Raul", "Freddy", "Pablo", "Sofia"};
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Verifica que escribirRegistro mantiene los índices y que las búsquedas
+     * devuelven los registros correctos.
+     */
+    @Test
+    public void testIndicesIncrementales() throws Exception {
+        System.out.println("indicesIncrementales");
+        String ruta = carpeta.resolve("resultados.dat").toString();
+        ControlPersistencia persistencia = new ControlPersistencia(ruta, true);
+        persistencia.escribirRegistro("E001", "ELN", ELN, "Ganó");
+        persistencia.escribirRegistro("E002", "Casanareños", CASANARE, "Perdió");
+        persistencia.escribirRegistro("E001", "ELN", ELN, "Perdió");
+
+        List<RegistroResultado> historial = persistencia.buscarPorClave("E001");
+        assertEquals(2, historial.size());
+        assertEquals("Perdió", historial.get(1).getResultado());
+        assertEquals(3, persistencia.buscarPorJugador("Sofia").size());
+        assertEquals(1, persistencia.buscarPorJugador("Freddy").size());
+        persistencia.close();
+    }
+
+    /**
+     * Verifica que al abrir se indexan los registros escritos por el escritor por lotes
+     * y que la reconstrucción produce los mismos resultados.
+     */
+    @Test
+    public void testPuestaAlDiaYReconstruccion() throws Exception {
+        System.out.println("puestaAlDiaYReconstruccion");
+        String ruta = carpeta.resolve("resultados.dat").toString();
+        ControlPersistencia persistencia = new ControlPersistencia(ruta, true);
+        persistencia.escribirRegistro("E001", "ELN", ELN, "Ganó");
+        persistencia.close();
+
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(ruta, 16, false)) {
+            for (int i = 0; i < 5; i++) {
+                escritor.escribirRegistro("E002", "Casanareños", CASANARE, "Ganó");
+            }
+        }
+
+        try (IndiceResultados indice = IndiceResultados.abrir(ruta)) {
+            assertEquals(6, indice.getRegistrosCubiertos());
+            assertArrayEquals(new long[]{1, 2, 3, 4, 5}, indice.buscarPorClave("E002"));
+            assertEquals(6, indice.buscarPorJugador("Sofia").length);
+            indice.reconstruir();
+            assertArrayEquals(new long[]{0}, indice.buscarPorClave("E001"));
+            assertEquals(6, indice.buscarPorJugador("Sofia").length);
+        }
+    }
+
+    /**
+     * Un índice con otra magia se reconstruye desde la copia del archivo del repositorio,
+     * cuyos registros antiguos quedan indexados por su clave y jugadores reales.
+     */
+    @Test
+    public void testFormatoDesconocidoSeReconstruye() throws Exception {
+        System.out.println("formatoDesconocidoSeReconstruye");
+        Path datos = carpeta.resolve("resultados.dat");
+        Files.copy(Paths.get("src/Specs/Data/resultados.dat"), datos);
+        Files.write(Paths.get(datos + ".idx-equipos"), new byte[]{'X', 'X', 'X', 'X', 0, 0, 0, 9,
+            0, 0, 0, 0, 0, 0, 0, 1});
+
+        ControlPersistencia persistencia = new ControlPersistencia(datos.toString(), true);
+        try {
+            List<RegistroResultado> historial = persistencia.buscarPorClave("E002");
+            assertEquals(5, historial.size());
+            assertEquals("Ganó", historial.get(0).getResultado());
+            assertEquals("Casanarenos", historial.get(4).getNombreEquipo());
+            assertEquals(5, persistencia.buscarPorJugador("Nelson").size());
+            persistencia.escribirRegistro("E002", "Casanareños", CASANARE, "Perdió");
+            assertEquals(6, persistencia.buscarPorClave("E002").size());
+        } finally {
+            persistencia.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ Prueba de LanzadorConsola que verifica la validación de argumentos, que el archivo
+ de resultados es el mismo con uno o varios hilos y que --torneo juega un torneo.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class LanzadorConsolaTest {
+
+    @TempDir
+    Path carpeta;
+
+    private Path escribirEquipos(int cantidad) throws Exception {
+        StringBuilder sb = new StringBuilder("numeroEquipos.count=" + cantidad + "\n");
+        for (int e = 1; e <= cantidad; e++) {
+            sb.append("equipo.").append(e).append(".clave=E").append(e).append('\n')
+              .append("equipo.").append(e).append(".name=Equipo ").append(e).append('\n')
+              .append("equipo.").append(e).append(".numeroJugadores=4\n");
+            for (int j = 1; j <= 4; j++) {
+                sb.append("equipo.").append(e).append(".player.").append(j).append(".name=J").append(e).append(j).append('\n');
+            }
+        }
+        Path archivo = carpeta.resolve("Equipos.properties");
+        Files.writeString(archivo, sb.toString());
+        return archivo;
+    }
+
+    private int ejecutar(ByteArrayOutputStream salida, String... args) {
+        return LanzadorConsola.ejecutar(args, new PrintStream(salida, true, StandardCharsets.UTF_8),
+                new PrintStream(salida, true, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifica que la misma semilla produce el mismo archivo con 1 y con 4 hilos.
+     */
+    @Test
+    public void testMismoArchivoConVariosHilos() throws Exception {
+        System.out.println("mismoArchivoConVariosHilos");
+        String equipos = escribirEquipos(3).toString();
+        Path uno = carpeta.resolve("uno.dat");
+        Path cuatro = carpeta.resolve("cuatro.dat");
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        assertEquals(0, ejecutar(salida, "--consola", "--equipos", equipos, "--partidas", "10000",
+                "--semilla", "5", "--hilos", "1", "--salida", uno.toString()));
+        assertEquals(0, ejecutar(salida, "--equipos", equipos, "--partidas", "10000",
+                "--semilla", "5", "--hilos", "4", "--salida", cuatro.toString()));
+
+        assertEquals(20000L * ControlPersistencia.RECORD_SIZE, Files.size(uno));
+        assertArrayEquals(Files.readAllBytes(uno), Files.readAllBytes(cuatro));
+        String texto = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(texto.contains("Registros escritos: 20000"), texto);
+        assertTrue(texto.contains("Equipo 1 vs Equipo 3: 3333 partidas"), texto);
+    }
+
+    /**
+     * Verifica los códigos de salida ante argumentos inválidos o equipos ausentes.
+     */
+    @Test
+    public void testArgumentosInvalidos() {
+        System.out.println("argumentosInvalidos");
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        assertEquals(2, ejecutar(salida, "--partidas", "10"));
+        assertEquals(2, ejecutar(salida, "--equipos", "x", "--partidas", "diez"));
+        assertEquals(2, ejecutar(salida, "--equipos", "x", "--partidas", "10", "--color", "rojo"));
+        assertEquals(1, ejecutar(salida, "--equipos", carpeta.resolve("nada").toString(), "--partidas", "10"));
+        assertTrue(salida.toString(StandardCharsets.UTF_8).contains("Uso: --consola"));
+    }
+
+    /**
+     * Verifica que --torneo juega el torneo con ControlTorneo, que el resultado no depende
+     * de los hilos y los errores propios de esa opción.
+     */
+    @Test
+    public void testTorneo() throws Exception {
+        System.out.println("torneo");
+        String equipos = escribirEquipos(5).toString();
+        ByteArrayOutputStream uno = new ByteArrayOutputStream();
+        ByteArrayOutputStream cuatro = new ByteArrayOutputStream();
+        assertEquals(0, ejecutar(uno, "--consola", "--equipos", equipos, "--torneo", "todos-contra-todos",
+                "--semilla", "7", "--hilos", "1"));
+        assertEquals(0, ejecutar(cuatro, "--equipos", equipos, "--torneo", "TODOS_CONTRA_TODOS",
+                "--semilla", "7", "--hilos", "4"));
+        String texto = uno.toString(StandardCharsets.UTF_8);
+        assertTrue(texto.startsWith("Torneo TODOS_CONTRA_TODOS | equipos: 5 | hilos: 1 | semilla: 7"), texto);
+        assertEquals(10, texto.lines().filter(l -> l.startsWith("Ronda ") && !l.endsWith(" descansa")).count(), texto);
+        assertTrue(texto.contains("Campeón: Equipo "), texto);
+        // solo cambia la cabecera y el tiempo
+        assertEquals(sinTiempos(texto).replace("hilos: 1", "hilos: 4"),
+                sinTiempos(cuatro.toString(StandardCharsets.UTF_8)));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        assertEquals(0, ejecutar(salida, "--equipos", equipos, "--torneo", "eliminacion-simple", "--semilla", "1"));
+        assertTrue(salida.toString(StandardCharsets.UTF_8).contains("Campeón: "));
+        assertEquals(2, ejecutar(salida, "--equipos", equipos, "--torneo", "liga"));
+        assertEquals(2, ejecutar(salida, "--equipos", equipos, "--torneo", "suizo", "--partidas", "10"));
+    }
+
+    private static String sinTiempos(String texto) {
+        return texto.replaceAll("rondas en [0-9.,]+ s", "rondas");
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ Prueba de LectorResultados que verifica el acceso por índice, el recorrido con cursor
+ y las búsquedas por clave y resultado sobre el archivo de resultados, también sobre el
+ archivo Specs/Data/resultados.dat del repositorio con sus registros antiguos.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.EstadisticasAcumuladas;
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class LectorResultadosTest {
+
+    @TempDir
+    Path carpeta;
+
+    private Path archivo;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        archivo = carpeta.resolve("resultados.dat");
+        ControlPersistencia persistencia = new ControlPersistencia(archivo.toString());
+        for (int i = 0; i < 10; i++) {
+            persistencia.escribirRegistro("E001", "ELN", new String[]{"Sofia", "Juan", "Steban", "Francined"},
+                    i % 2 == 0 ? "Ganó" : "Perdió");
+            persistencia.escribirRegistro("E002", "Casanareños", new String[]{"Raul", "Freddy", "Pablo", "Nelson"},
+                    i % 2 == 0 ? "Perdió" : "Ganó");
+        }
+        persistencia.close();
+    }
+
+    /**
+     * Verifica que get(i) decodifica cada campo del registro.
+     */
+    @Test
+    public void testGetPorIndice() throws Exception {
+        System.out.println("getPorIndice");
+        try (LectorResultados lector = new LectorResultados(archivo)) {
+            assertEquals(20, lector.cantidad());
+            RegistroResultado r = lector.get(3);
+            assertEquals("E002", r.getClave());
+            assertEquals("Casanareños", r.getNombreEquipo());
+            assertArrayEquals(new String[]{"Raul", "Freddy", "Pablo", "Nelson"}, r.getJugadores());
+            assertEquals("Ganó", r.getResultado());
+        }
+    }
+
+    /**
+     * Verifica las búsquedas filtradas por clave, por resultado y combinadas.
+     */
+    @Test
+    public void testBusquedas() throws Exception {
+        System.out.println("busquedas");
+        try (LectorResultados lector = new LectorResultados(archivo)) {
+            assertEquals(10, lector.buscarPorClave("E001").length);
+            assertEquals(10, lector.buscarPorResultado("Ganó").length);
+            assertArrayEquals(new long[]{0, 4, 8, 12, 16}, lector.buscar("E001", "Ganó"));
+            assertEquals(0, lector.buscarPorClave("E999").length);
+        }
+    }
+
+    /**
+     * Verifica que el cursor recorre todos los registros y que los bytes de un
+     * registro incompleto al final se ignoran.
+     */
+    @Test
+    public void testCursorIgnoraRegistroIncompleto() throws Exception {
+        System.out.println("cursorIgnoraRegistroIncompleto");
+        Files.write(archivo, new byte[]{'E', '0'}, StandardOpenOption.APPEND);
+        try (LectorResultados lector = new LectorResultados(archivo)) {
+            LectorResultados.Cursor cursor = lector.cursor();
+            int filas = 0;
+            while (cursor.siguiente()) {
+                assertTrue(cursor.getClave().startsWith("E00"));
+                filas++;
+            }
+            assertEquals(20, filas);
+        }
+    }
+
+    /**
+     * Sobre el archivo de resultados del repositorio: la búsqueda de victorias, las
+     * estadísticas importadas y los ratings reconstruidos salen de los resultados
+     * guardados en los registros antiguos.
+     */
+    @Test
+    public void testArchivoBase() throws Exception {
+        System.out.println("archivoBase");
+        try (LectorResultados lector = new LectorResultados(Paths.get("src/Specs/Data/resultados.dat"))) {
+            assertEquals(10, lector.cantidad());
+            assertArrayEquals(new long[]{1}, lector.buscarPorResultado("Ganó"));
+            assertArrayEquals(new long[]{0}, lector.buscarPorResultado("Perdió"));
+            assertEquals(5, lector.buscarPorClave("E002").length);
+            assertArrayEquals(new String[]{"Raul", "Freddy", "Pablo", "Nelson"}, lector.get(9).getJugadores());
+
+            AgregadorEstadisticas estadisticas = new AgregadorEstadisticas();
+            assertEquals(2, estadisticas.importar(lector));
+            EstadisticasAcumuladas equipos = estadisticas.instantaneaEquipos();
+            assertEquals(1, equipos.getVictorias(equipos.buscar("E002")));
+            assertEquals(1, equipos.getPartidas(equipos.buscar("E001")));
+            EstadisticasAcumuladas jugadores = estadisticas.instantaneaJugadores();
+            assertEquals(1, jugadores.getVictorias(jugadores.buscar("Nelson")));
+            assertEquals(0, jugadores.getVictorias(jugadores.buscar("Francined")));
+
+            MotorRatings ratings = new MotorRatings();
+            assertEquals(1, ratings.reconstruir(lector));
+            assertTrue(ratings.getRating("E002") > ratings.getRating("E001"));
+        }
+    }
+}
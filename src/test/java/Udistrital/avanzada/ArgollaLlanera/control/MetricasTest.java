@@ -0,0 +1,132 @@
+/*
+ Prueba de Metricas y HistogramaLatencia que verifica la precisión de los percentiles,
+ los contadores de la persistencia, la consulta por JMX y el volcado periódico a archivo.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.RegistroResultado;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class MetricasTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Los percentiles quedan dentro del ancho de una casilla (1/32) del valor exacto.
+     */
+    @Test
+    public void testPercentiles() {
+        System.out.println("percentiles");
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        assertEquals(0, histograma.percentil(99));
+        for (long v = 1; v <= 100_000; v++) {
+            histograma.registrar(v);
+        }
+        assertEquals(100_000, histograma.getCantidad());
+        assertEquals(100_000, histograma.getMaximo());
+        assertEquals(50_000.5, histograma.getPromedio(), 1e-9);
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exacto = (long) (p * 1000);
+            long calculado = histograma.percentil(p);
+            assertTrue(calculado >= exacto && calculado <= exacto * 33 / 32, p + ": " + calculado);
+        }
+        assertEquals(100_000, histograma.percentil(100));
+
+        SplittableRandom azar = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            long v = azar.nextLong(Long.MAX_VALUE);
+            int casilla = HistogramaLatencia.casilla(v);
+            assertTrue(v <= HistogramaLatencia.limiteSuperior(casilla));
+            assertTrue(casilla == 0 || v > HistogramaLatencia.limiteSuperior(casilla - 1));
+        }
+    }
+
+    /**
+     * Escribir y leer resultados actualiza los contadores globales.
+     */
+    @Test
+    public void testContadoresPersistencia() throws Exception {
+        System.out.println("contadoresPersistencia");
+        Metricas metricas = Metricas.global();
+        long escritos = metricas.contador("persistencia.registros.escritos").sum();
+        long bytes = metricas.contador("persistencia.bytes.escritos").sum();
+        long leidos = metricas.contador("persistencia.registros.leidos").sum();
+        long escrituras = metricas.histograma("persistencia.escritura.ns").getCantidad();
+
+        ControlPersistencia persistencia = new ControlPersistencia(carpeta.resolve("resultados.dat").toString(), true);
+        try {
+            String[] jugadores = {"J1", "J2", "J3", "J4"};
+            persistencia.escribirPartida(new RegistroResultado("E1", "A", jugadores, "GANO"),
+                    new RegistroResultado("E2", "B", jugadores, "PERDIO"));
+            assertEquals(1, persistencia.buscarPorClave("E1").size());
+        } finally {
+            persistencia.close();
+        }
+        assertEquals(escritos + 2, metricas.contador("persistencia.registros.escritos").sum());
+        assertEquals(bytes + 2 * ControlPersistencia.RECORD_SIZE, metricas.contador("persistencia.bytes.escritos").sum());
+        assertEquals(leidos + 1, metricas.contador("persistencia.registros.leidos").sum());
+        assertEquals(escrituras + 1, metricas.histograma("persistencia.escritura.ns").getCantidad());
+    }
+
+    /**
+     * Las métricas se leen por JMX, incluidas las creadas después del registro.
+     */
+    @Test
+    public void testJmx() throws Exception {
+        System.out.println("jmx");
+        Metricas metricas = new Metricas();
+        ObjectName nombre = metricas.registrarJmx("prueba");
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            metricas.contador("pruebas.eventos").add(5);
+            for (int i = 1; i <= 100; i++) {
+                metricas.histograma("pruebas.tiempo.ns").registrar(i * 1000L);
+            }
+            assertEquals(5L, servidor.getAttribute(nombre, "pruebas.eventos"));
+            assertEquals(100L, servidor.getAttribute(nombre, "pruebas.tiempo.ns.cantidad"));
+            assertEquals(100_000L, servidor.getAttribute(nombre, "pruebas.tiempo.ns.max"));
+            assertEquals(5, servidor.getMBeanInfo(nombre).getAttributes().length);
+            String texto = (String) servidor.invoke(nombre, "volcar", null, null);
+            assertTrue(texto.contains("pruebas.eventos 5\n"), texto);
+            assertTrue(texto.contains("pruebas.tiempo.ns n=100 media=50.5"), texto);
+        } finally {
+            servidor.unregisterMBean(nombre);
+        }
+    }
+
+    /**
+     * El volcado periódico agrega el texto al archivo y escribe uno final al cerrarse.
+     */
+    @Test
+    public void testVolcadoPeriodico() throws Exception {
+        System.out.println("volcadoPeriodico");
+        Metricas metricas = new Metricas();
+        metricas.contador("pruebas.eventos").increment();
+        Path archivo = carpeta.resolve("metricas").resolve("metricas.txt");
+        Closeable volcado = metricas.iniciarVolcado(archivo, Duration.ofMillis(20));
+        for (int i = 0; i < 500 && (!Files.exists(archivo) || Files.size(archivo) == 0); i++) {
+            Thread.sleep(10);
+        }
+        metricas.contador("pruebas.eventos").increment();
+        volcado.close();
+        String texto = Files.readString(archivo);
+        assertTrue(texto.startsWith("# "), texto);
+        assertTrue(texto.contains("pruebas.eventos 1\n"), texto);
+        assertTrue(texto.endsWith("pruebas.eventos 2\n\n"), texto);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ Prueba de MotorRatings que verifica la actualización por partida, que reconstruir desde
+ el archivo de resultados da los mismos ratings que aplicarlos en vivo y la
+ reconstrucción en paralelo de temporadas.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class MotorRatingsTest {
+
+    private static final String[] JUGADORES = {"J1", "J2", "", ""};
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Escribe una temporada al azar en el archivo y la aplica en vivo en {@code ratings}.
+     * Los equipos con número menor ganan más seguido.
+     */
+    private static void escribirTemporada(Path archivo, long semilla, int partidas, MotorRatings ratings)
+            throws Exception {
+        SplittableRandom rand = new SplittableRandom(semilla);
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(archivo.toString(), 4096, false)) {
+            for (int i = 0; i < partidas; i++) {
+                int a = rand.nextInt(8);
+                int b = (a + 1 + rand.nextInt(7)) % 8;
+                boolean ganaA = rand.nextDouble() < (a < b ? 0.7 : 0.3);
+                String ganador = "E" + (ganaA ? a : b);
+                String perdedor = "E" + (ganaA ? b : a);
+                escritor.escribirRegistro(ganador, ganador, JUGADORES, "Ganó");
+                escritor.escribirRegistro(perdedor, perdedor, JUGADORES, "Perdió");
+                ratings.registrarPartida(ganador, perdedor);
+            }
+        }
+    }
+
+    /**
+     * Verifica el efecto de una partida entre equipos nuevos y la siembra.
+     */
+    @Test
+    public void testActualizacionPorPartida() {
+        System.out.println("actualizacionPorPartida");
+        MotorRatings ratings = new MotorRatings();
+        ratings.registrarPartida("E1", "E2");
+        double subio = ratings.getRating("E1") - MotorRatings.RATING_INICIAL;
+        double bajo = MotorRatings.RATING_INICIAL - ratings.getRating("E2");
+        assertTrue(subio > 100, "subió " + subio);
+        assertEquals(subio, bajo, 1e-9);
+        assertTrue(ratings.getDesviacion("E1") < MotorRatings.DESVIACION_INICIAL);
+        assertTrue(ratings.probabilidadVictoria("E1", "E2") > 0.5);
+        assertEquals(MotorRatings.RATING_INICIAL, ratings.getRating("E9"), 0.0);
+
+        Equipo e1 = new Equipo("E1", "Uno");
+        Equipo e2 = new Equipo("E2", "Dos");
+        Equipo e3 = new Equipo("E3", "Tres");
+        ratings.registrarPartida("E2", "E3");
+        ratings.registrarPartida("E1", "E3");
+        assertEquals(Arrays.asList(e1, e2, e3), ratings.sembrar(Arrays.asList(e3, e2, e1)));
+        assertThrows(IllegalArgumentException.class, () -> ratings.registrarPartida("E1", "E1"));
+    }
+
+    /**
+     * Verifica que la reconstrucción desde el archivo coincide con la aplicación en vivo,
+     * aunque haya registros sueltos en medio, y que las temporadas en paralelo dan lo mismo
+     * que una por una.
+     */
+    @Test
+    public void testReconstruirTemporadas() throws Exception {
+        System.out.println("reconstruirTemporadas");
+        List<Path> archivos = new ArrayList<>();
+        List<MotorRatings> enVivo = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Path archivo = carpeta.resolve("temporada" + t + ".dat");
+            MotorRatings ratings = new MotorRatings();
+            escribirTemporada(archivo, t, 50_000, ratings);
+            archivos.add(archivo);
+            enVivo.add(ratings);
+        }
+        // Un registro suelto al final de la primera temporada no cuenta como partida
+        try (EscritorResultadosPorLotes escritor = new EscritorResultadosPorLotes(archivos.get(0).toString(), 16, false)) {
+            escritor.escribirRegistro("E1", "E1", JUGADORES, "Ganó");
+        }
+
+        long inicio = System.nanoTime();
+        List<MotorRatings> reconstruidas = MotorRatings.reconstruirTemporadas(archivos, 4);
+        System.out.printf("%d partidas reconstruidas en %.1f ms%n", 4 * 50_000, (System.nanoTime() - inicio) / 1e6);
+        for (int t = 0; t < archivos.size(); t++) {
+            MotorRatings esperado = enVivo.get(t);
+            MotorRatings obtenido = reconstruidas.get(t);
+            assertEquals(50_000, obtenido.getPartidasRegistradas());
+            for (String clave : esperado.getClaves()) {
+                assertEquals(esperado.getRating(clave), obtenido.getRating(clave), 1e-9);
+                assertEquals(esperado.getDesviacion(clave), obtenido.getDesviacion(clave), 1e-9);
+            }
+        }
+        MotorRatings temporada = reconstruidas.get(0);
+        assertTrue(temporada.getRating("E0") > temporada.getRating("E7"));
+    }
+}
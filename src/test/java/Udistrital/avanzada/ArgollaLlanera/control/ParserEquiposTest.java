@@ -0,0 +1,106 @@
+/*
+ Prueba de ParserEquipos que compara su resultado con la carga mediante java.util.Properties
+ y verifica que las entradas mal formadas se informan con el número de línea.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ParserEquiposTest {
+
+    private static final String CONTENIDO = ""
+            + "# comentario\r\n"
+            + "! otro comentario \\\r\n"
+            + "numeroEquipos.count = 3\r\n"
+            + "\n"
+            + "equipo.2.player.1.name=Ana\n"
+            + "equipo.2.numeroJugadores:2\n"
+            + "   equipo.2.clave E002\n"
+            + "equipo.2.name=Casanare\\u00f1os\n"
+            + "equipo.1.clave=E001\n"
+            + "equipo.1.name=Los \\\n"
+            + "      Llaneros\n"
+            + "equipo.1.numeroJugadores=3\n"
+            + "equipo.1.player.1.name=Sofia\n"
+            + "equipo.1.player.1.nick=Araucana\n"
+            + "equipo.1.player.1.photo=\"src\\\\Specs\\\\Data\\\\files\\\\foto.png\"\n"
+            + "equipo.1.player.1.skill=mo\\u00f1ona:1, otro:3\n"
+            + "equipo.1.player.3.name=Juan\n"
+            + "equipo.1.player.3.skill=1,1,2,2,3,3\n"
+            + "equipo.1.player.3.name=Juan Pablo\n"
+            + "equipo.1.player.4.name=Sobra\n"
+            + "equipo.4.clave=E004\n"
+            + "otra.clave=ignorada\n"
+            + "equipo.1.color=ignorado";
+
+    /**
+     * Verifica que el resultado coincide con la carga mediante Properties, incluidos
+     * comentarios, continuaciones, escapes, claves repetidas y fuera de orden.
+     */
+    @Test
+    public void testMismoResultadoQueProperties() throws Exception {
+        System.out.println("mismoResultadoQueProperties");
+        Properties props = new Properties();
+        props.load(new StringReader(CONTENIDO));
+        ControlEquipo esperado = new ControlEquipo();
+        esperado.cargarEquiposDesdeProperties(props);
+
+        List<Equipo> equipos = ParserEquipos.leer(new StringReader(CONTENIDO), "prueba");
+        assertEquals(3, equipos.size());
+        assertEquals("Los Llaneros", equipos.get(0).getNombre());
+        assertEquals("Casanareños", equipos.get(1).getNombre());
+        assertNull(equipos.get(2).getClave());
+        for (Equipo e : equipos) {
+            Equipo otro = esperado.getEquipo(e.getClave());
+            assertEquals(otro.getNombre(), e.getNombre());
+            assertEquals(otro.getCantidadJugadores(), e.getCantidadJugadores());
+            for (int j = 0; j < e.getCantidadJugadores(); j++) {
+                Jugador a = otro.getJugadores().get(j);
+                Jugador b = e.getJugadores().get(j);
+                assertEquals(a.getNombre(), b.getNombre());
+                assertEquals(a.getApodo(), b.getApodo());
+                assertEquals(a.getFoto(), b.getFoto());
+                assertEquals(a.getPerfil(), b.getPerfil());
+            }
+        }
+        assertEquals("Juan Pablo", equipos.get(0).getJugadores().get(1).getNombre());
+        assertEquals(0.25, equipos.get(0).getJugadores().get(0).getPerfil().getProbabilidad(0), 1e-12);
+        assertTrue(equipos.get(1).getJugadores().get(0).getPerfil().isUniforme());
+        assertEquals("\"src\\Specs\\Data\\files\\foto.png\"", equipos.get(0).getJugadores().get(0).getFoto());
+    }
+
+    /**
+     * Verifica que los errores indican la línea donde empieza la entrada.
+     */
+    @Test
+    public void testErroresConNumeroDeLinea() {
+        System.out.println("erroresConNumeroDeLinea");
+        IOException indice = assertThrows(IOException.class, () -> ParserEquipos.leer(
+                new StringReader("numeroEquipos.count=1\n\n# nota\nequipo.x.clave=E1\n"), "equipos"));
+        assertTrue(indice.getMessage().startsWith("equipos:4:"), indice.getMessage());
+
+        IOException escape = assertThrows(IOException.class, () -> ParserEquipos.leer(
+                new StringReader("numeroEquipos.count=1\r\nequipo.1.name=a\\\r\n  b\\u00g1\r\n"), "equipos"));
+        assertTrue(escape.getMessage().startsWith("equipos:2:"), escape.getMessage());
+
+        IOException cantidad = assertThrows(IOException.class, () -> ParserEquipos.leer(
+                new StringReader("equipo.1.clave=E1\nnumeroEquipos.count=dos\n"), "equipos"));
+        assertTrue(cantidad.getMessage().startsWith("equipos:2:"), cantidad.getMessage());
+
+        IOException perfil = assertThrows(IOException.class, () -> ParserEquipos.leer(
+                new StringReader("numeroEquipos.count=1\nequipo.1.numeroJugadores=1\n"
+                        + "equipo.1.player.1.name=Ana\nequipo.1.player.1.skill=hueco:-1\n"), "equipos"));
+        assertTrue(perfil.getMessage().startsWith("equipos:4:"), perfil.getMessage());
+    }
+}
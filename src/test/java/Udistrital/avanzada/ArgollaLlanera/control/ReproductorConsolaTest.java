@@ -0,0 +1,111 @@
+/*
+ Prueba de ReproductorConsola que verifica que repite las partidas grabadas con el mismo
+ ganador, la validación de argumentos y que una grabación de otros equipos falla sin
+ imprimir lanzamientos.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ReproductorConsolaTest {
+
+    @TempDir
+    Path carpeta;
+
+    private Path escribirEquipos(String nombre, String prefijo) throws Exception {
+        StringBuilder sb = new StringBuilder("numeroEquipos.count=2\n");
+        for (int e = 1; e <= 2; e++) {
+            sb.append("equipo.").append(e).append(".clave=").append(prefijo).append(e).append('\n')
+              .append("equipo.").append(e).append(".name=Equipo ").append(prefijo).append(e).append('\n')
+              .append("equipo.").append(e).append(".numeroJugadores=3\n");
+            for (int j = 1; j <= 3; j++) {
+                sb.append("equipo.").append(e).append(".player.").append(j).append(".name=J").append(e).append(j).append('\n');
+            }
+        }
+        Path archivo = carpeta.resolve(nombre);
+        Files.writeString(archivo, sb.toString());
+        return archivo;
+    }
+
+    private int ejecutar(ByteArrayOutputStream salida, String... args) {
+        return ReproductorConsola.ejecutar(args, new PrintStream(salida, true, StandardCharsets.UTF_8),
+                new PrintStream(salida, true, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Graba dos partidas y verifica que la repetición anuncia los mismos ganadores.
+     */
+    @Test
+    public void testRepiteGrabaciones() throws Exception {
+        System.out.println("repiteGrabaciones");
+        Path equipos = escribirEquipos("Equipos.properties", "E");
+        Path repeticiones = carpeta.resolve("repeticiones.dat");
+        ControlJuego control = new ControlJuego((ControlPersistencia) null);
+        control.setGrabador(new GrabadorPartidas(repeticiones));
+        assertTrue(control.cargarEquipos(equipos.toFile()));
+        Equipo primero = control.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        control.nuevaRonda();
+        Equipo segundo = control.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        control.cerrar();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        assertEquals(0, ejecutar(salida, "--reproducir", repeticiones.toString(), "--equipos", equipos.toString()));
+        String texto = salida.toString(StandardCharsets.UTF_8);
+        int partida1 = texto.indexOf("Partida 1: ");
+        assertTrue(partida1 > 0, texto);
+        assertTrue(texto.substring(0, partida1).contains("Ganó el equipo " + primero.getNombre() + " ("), texto);
+        assertTrue(texto.substring(partida1).contains("Ganó el equipo " + segundo.getNombre() + " ("), texto);
+
+        salida.reset();
+        assertEquals(0, ejecutar(salida, "--reproducir", repeticiones.toString(), "--equipos", equipos.toString(),
+                "--indice", "1"));
+        texto = salida.toString(StandardCharsets.UTF_8);
+        assertFalse(texto.contains("Partida 0: "), texto);
+        assertTrue(texto.contains("Ganó el equipo " + segundo.getNombre() + " ("), texto);
+    }
+
+    /**
+     * Verifica los códigos de salida ante argumentos inválidos, índices fuera del archivo
+     * y grabaciones de equipos que no están cargados.
+     */
+    @Test
+    public void testErrores() throws Exception {
+        System.out.println("errores");
+        Path equipos = escribirEquipos("Equipos.properties", "E");
+        Path otros = escribirEquipos("Otros.properties", "X");
+        Path repeticiones = carpeta.resolve("repeticiones.dat");
+        ControlJuego control = new ControlJuego((ControlPersistencia) null);
+        control.setGrabador(new GrabadorPartidas(repeticiones));
+        assertTrue(control.cargarEquipos(equipos.toFile()));
+        control.jugarRondaAutomatica().get(10, TimeUnit.SECONDS);
+        control.cerrar();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        assertEquals(2, ejecutar(salida, "--equipos", equipos.toString()));
+        assertEquals(2, ejecutar(salida, "--reproducir", repeticiones.toString()));
+        assertEquals(2, ejecutar(salida, "--reproducir", repeticiones.toString(), "--equipos", equipos.toString(),
+                "--indice", "uno"));
+        assertTrue(salida.toString(StandardCharsets.UTF_8).contains("Uso: --reproducir"));
+        assertEquals(1, ejecutar(salida, "--reproducir", repeticiones.toString(), "--equipos", equipos.toString(),
+                "--indice", "1"));
+
+        salida.reset();
+        assertEquals(1, ejecutar(salida, "--reproducir", repeticiones.toString(), "--equipos", otros.toString()));
+        String texto = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(texto.contains("No está cargado el equipo E"), texto);
+        assertFalse(texto.contains(" pts) | "), texto);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ Prueba de ServidorMarcador que verifica el estado en JSON, el flujo de eventos a un
+ cliente que lee y el descarte de un cliente que deja de leer sin frenar al juego,
+ incluido el cierre de su conexión.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoLanzamiento;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static Udistrital.avanzada.ArgollaLlanera.modelo.EquiposPrueba.crearEquipo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ServidorMarcadorTest {
+
+    private static void esperarClientes(ServidorMarcador servidor, int cantidad) throws InterruptedException {
+        for (int i = 0; i < 500 && servidor.getClientes() != cantidad; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(cantidad, servidor.getClientes());
+    }
+
+    /**
+     * Un cliente recibe el estado inicial y luego los eventos en orden; el estado en
+     * /marcador refleja los puntajes.
+     */
+    @Test
+    public void testFlujoEventos() throws Exception {
+        System.out.println("flujoEventos");
+        Equipo a = crearEquipo("E1", "Los \"Tejo\"", 2);
+        Equipo b = crearEquipo("E2", "B", 2);
+        List<Equipo> equipos = Arrays.asList(a, b);
+        try (ServidorMarcador servidor = new ServidorMarcador(new InetSocketAddress("127.0.0.1", 0), 16, 10)) {
+            HttpURLConnection conexion = (HttpURLConnection) new URL(
+                    "http://127.0.0.1:" + servidor.getPuerto() + "/eventos").openConnection();
+            assertEquals(200, conexion.getResponseCode());
+            assertTrue(conexion.getContentType().startsWith("text/event-stream"));
+            BufferedReader lector = new BufferedReader(new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+            esperarClientes(servidor, 1);
+
+            servidor.rondaIniciada(equipos, a, a.getJugadores().get(0), 1);
+            servidor.lanzamiento(a, a.getJugadores().get(0), ResultadoLanzamiento.HUECO, 3, 0);
+            servidor.ganador(b, false, 3, 21);
+
+            StringBuilder eventos = new StringBuilder();
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.startsWith("event: ")) {
+                    eventos.append(linea.substring(7)).append(' ');
+                }
+                if (linea.startsWith("data: ") && linea.contains("\"muerteSubita\":false")) {
+                    assertTrue(linea.contains("\"puntosB\":21"));
+                    break;
+                }
+            }
+            assertEquals("estado ronda lanzamiento ganador ", eventos.toString());
+            conexion.disconnect();
+
+            HttpURLConnection marcador = (HttpURLConnection) new URL(
+                    "http://127.0.0.1:" + servidor.getPuerto() + "/marcador").openConnection();
+            String json = new String(marcador.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"nombre\":\"Los \\\"Tejo\\\"\""), json);
+            assertTrue(json.contains("\"puntos\":21"), json);
+            assertTrue(json.contains("\"ganador\":\"E2\""), json);
+        }
+    }
+
+    /**
+     * Un cliente que se conecta y deja de leer se descarta cuando se llena su cola, sin
+     * que publicar se bloquee, y se le cierra la conexión aunque su hilo esté bloqueado
+     * escribiendo; el cliente que sí lee sigue conectado.
+     */
+    @Test
+    public void testDescartaClienteLento() throws Exception {
+        System.out.println("descartaClienteLento");
+        Equipo a = crearEquipo("E1", "A", 2);
+        Equipo b = crearEquipo("E2", "B", 2);
+        Jugador jugador = a.getJugadores().get(0);
+        String relleno = "x".repeat(16 * 1024);
+        try (ServidorMarcador servidor = new ServidorMarcador(new InetSocketAddress("127.0.0.1", 0), 64, 10);
+             Socket lento = new Socket()) {
+            lento.setReceiveBufferSize(4096);
+            lento.connect(new InetSocketAddress("127.0.0.1", servidor.getPuerto()));
+            OutputStream salida = lento.getOutputStream();
+            salida.write("GET /eventos HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            salida.flush();
+            esperarClientes(servidor, 1);
+
+            HttpURLConnection conexion = (HttpURLConnection) new URL(
+                    "http://127.0.0.1:" + servidor.getPuerto() + "/eventos").openConnection();
+            InputStream rapido = conexion.getInputStream();
+            Thread lector = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    while (rapido.read(buffer) >= 0) {
+                        // descarta lo leído
+                    }
+                } catch (IOException e) {
+                    // conexión cerrada al terminar la prueba
+                }
+            });
+            lector.setDaemon(true);
+            lector.start();
+            esperarClientes(servidor, 2);
+
+            long comienzo = System.nanoTime();
+            servidor.rondaIniciada(Arrays.asList(a, b), a, jugador, 1);
+            long peor = 0;
+            int publicados = 0;
+            while (servidor.getDescartados() == 0 && publicados < 100_000) {
+                for (int i = 0; i < 16; i++) {
+                    long inicio = System.nanoTime();
+                    if (i == 0) {
+                        servidor.lanzamiento(a, jugador, ResultadoLanzamiento.TIMBRE, publicados % 21, 0);
+                    } else {
+                        servidor.mensaje(relleno);
+                    }
+                    peor = Math.max(peor, System.nanoTime() - inicio);
+                    publicados++;
+                }
+                Thread.sleep(1);
+            }
+            System.out.printf("%d eventos hasta descartar; publicación más lenta %.1f µs%n", publicados, peor / 1e3);
+            assertEquals(1, servidor.getDescartados());
+            esperarClientes(servidor, 1);
+
+            lento.setSoTimeout(5000);
+            InputStream entrada = lento.getInputStream();
+            byte[] buffer = new byte[65536];
+            try {
+                while (entrada.read(buffer) >= 0) {
+                    // lo que el servidor alcanzó a enviar antes de cerrar
+                }
+            } catch (SocketException e) {
+                // el cierre también puede llegar como reinicio de la conexión
+            }
+            assertTrue(System.nanoTime() - comienzo < 5_000_000_000L, "el cliente lento no se cerró a tiempo");
+            servidor.mensaje("sigue");
+            assertEquals(1, servidor.getClientes());
+            // al cerrar el servidor termina el flujo del cliente rápido; desconectarlo
+            // antes esperaría a que el hilo lector saliera de su lectura
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ Prueba de MotorPartida y SimuladorPartidas que verifica que las partidas sin interfaz
+ terminan con un ganador y que el simulador acumula correctamente los resultados.
+ */
+package Udistrital.avanzada.ArgollaLlanera.control;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Juego;
+import Udistrital.avanzada.ArgollaLlanera.modelo.ResultadoSimulacion;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static Udistrital.avanzada.ArgollaLlanera.modelo.EquiposPrueba.crearEquipo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class SimuladorPartidasTest {
+
+    /**
+     * Verifica que una partida termina con uno de los dos equipos como ganador
+     * y que el ganador tiene al menos 21 puntos.
+     */
+    @Test
+    public void testPartidaTerminaConGanador() {
+        System.out.println("partidaTerminaConGanador");
+        Equipo a = crearEquipo("E001", "A", 4);
+        Equipo b = crearEquipo("E002", "B", 4);
+        List<Equipo> equipos = Arrays.asList(a, b);
+        for (int i = 0; i < 1000; i++) {
+            Juego juego = new Juego(equipos);
+            MotorPartida motor = new MotorPartida(juego, equipos, i % 2);
+            Equipo ganador = motor.jugarHastaTerminar();
+            assertNotNull(ganador);
+            assertTrue(motor.isTerminada());
+            assertTrue(juego.getPuntajes().get(ganador) >= 21, "El ganador debe tener al menos 21 puntos");
+        }
+    }
+
+    /**
+     * Verifica que el simulador juega exactamente las partidas pedidas
+     * y que las probabilidades suman uno.
+     */
+    @Test
+    public void testSimularAcumulaPartidas() {
+        System.out.println("simularAcumulaPartidas");
+        Equipo a = crearEquipo("E001", "A", 4);
+        Equipo b = crearEquipo("E002", "B", 4);
+        ResultadoSimulacion resultado = new SimuladorPartidas().simular(a, b, 10_001);
+        assertEquals(10_001, resultado.getPartidas());
+        assertEquals(10_001, resultado.getVictoriasA() + resultado.getVictoriasB());
+        assertEquals(1.0, resultado.getProbabilidadA() + resultado.getProbabilidadB(), 1e-9);
+        assertTrue(resultado.getPromedioRondas() >= 1.0);
+    }
+
+    /**
+     * Verifica que dos simuladores con la misma semilla producen exactamente
+     * los mismos resultados aunque las partidas se repartan entre varios hilos.
+     */
+    @Test
+    public void testSimulacionReproducibleConSemilla() {
+        System.out.println("simulacionReproducibleConSemilla");
+        Equipo a = crearEquipo("E001", "A", 4);
+        Equipo b = crearEquipo("E002", "B", 4);
+        ResultadoSimulacion r1 = new SimuladorPartidas(42L).simular(a, b, 50_000);
+        ResultadoSimulacion r2 = new SimuladorPartidas(42L).simular(a, b, 50_000);
+        assertEquals(r1.getVictoriasA(), r2.getVictoriasA());
+        assertEquals(r1.getMuertesSubitas(), r2.getMuertesSubitas());
+        assertEquals(r1.getPromedioLanzamientos(), r2.getPromedioLanzamientos(), 0.0);
+    }
+
+    /**
+     * Verifica que se simula un enfrentamiento por cada pareja de equipos.
+     */
+    @Test
+    public void testSimularTodos() {
+        System.out.println("simularTodos");
+        List<Equipo> equipos = Arrays.asList(crearEquipo("E001", "A", 4),
+                crearEquipo("E002", "B", 3), crearEquipo("E003", "C", 4));
+        List<ResultadoSimulacion> resultados = new SimuladorPartidas().simularTodos(equipos, 100);
+        assertEquals(3, resultados.size());
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ Equipos de prueba compartidos por las pruebas que necesitan equipos armados en memoria,
+ sin leer archivos de propiedades.
+ */
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+/**
+ *
+ * @author juanr
+ */
+public final class EquiposPrueba {
+
+    private EquiposPrueba() {
+    }
+
+    /**
+     * Crea un equipo con jugadores llamados como el equipo seguido de su número (desde 1)
+     * y apodos "apodo1", "apodo2", etc., sin foto.
+     *
+     * @param clave clave del equipo
+     * @param nombre nombre del equipo
+     * @param jugadores cantidad de jugadores
+     * @return equipo armado
+     */
+    public static Equipo crearEquipo(String clave, String nombre, int jugadores) {
+        Equipo equipo = new Equipo(clave, nombre);
+        for (int i = 1; i <= jugadores; i++) {
+            equipo.agregarJugador(new Jugador(nombre + i, "apodo" + i, ""));
+        }
+        return equipo;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ Prueba de FuenteAleatoria que verifica que una fuente recreada con su semilla y sus
+ consumos sigue con la misma secuencia que la original.
+ */
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class FuenteAleatoriaTest {
+
+    /**
+     * Toma valores de distintos tipos, recrea la fuente en el punto alcanzado y verifica
+     * que ambas siguen igual.
+     */
+    @Test
+    public void testContinuaSecuencia() {
+        System.out.println("continuaSecuencia");
+        FuenteAleatoria original = new FuenteAleatoria(99);
+        for (int i = 0; i < 100; i++) {
+            original.nextInt(6);
+            original.nextDouble();
+        }
+        assertTrue(original.getConsumos() >= 200, "consumos: " + original.getConsumos());
+
+        FuenteAleatoria continuada = new FuenteAleatoria(99, original.getConsumos());
+        assertEquals(original.getConsumos(), continuada.getConsumos());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(original.nextInt(6), continuada.nextInt(6));
+            assertEquals(original.nextDouble(), continuada.nextDouble());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new FuenteAleatoria(99, -1));
+    }
+}
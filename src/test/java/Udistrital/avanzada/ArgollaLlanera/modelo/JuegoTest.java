@@ -0,0 +1,50 @@
+/*
+ Prueba de Juego que verifica la tabla de puntajes por posición y su vista de solo
+ lectura como mapa.
+ */
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class JuegoTest {
+
+    /**
+     * Verifica que la vista de puntajes refleja la tabla, conserva el orden de los
+     * equipos y no se puede modificar.
+     */
+    @Test
+    public void testVistaDePuntajes() {
+        System.out.println("vistaDePuntajes");
+        Equipo a = new Equipo("E001", "A");
+        Equipo b = new Equipo("E002", "B");
+        a.agregarJugador(new Jugador("Ana", "", ""));
+        Juego juego = new Juego(Arrays.asList(a, b), new SplittableRandom(1));
+        Map<Equipo, Integer> puntajes = juego.getPuntajes();
+        assertEquals(0, puntajes.get(a));
+        assertEquals(1, juego.indiceDe(b));
+        assertEquals(-1, juego.indiceDe(new Equipo("E001", "A")));
+
+        assertEquals(8, juego.sumarPuntos(1, 8));
+        assertEquals(13, juego.sumarPuntos(1, 5));
+        assertEquals(13, puntajes.get(b));
+        assertEquals(13, juego.getPuntos(1));
+        assertNull(puntajes.get(new Equipo("E003", "C")));
+        assertEquals(List.of(a, b), List.copyOf(puntajes.keySet()));
+        assertEquals(Map.of(a, 0, b, 13), Map.copyOf(puntajes));
+        assertThrows(UnsupportedOperationException.class, () -> puntajes.put(a, 21));
+
+        juego.sumarPuntos(0, 21);
+        assertTrue(juego.equipoHaGanado(a));
+        assertFalse(juego.hayEmpate());
+        assertTrue(juego.lanzarEquipo(a) >= 21);
+    }
+}
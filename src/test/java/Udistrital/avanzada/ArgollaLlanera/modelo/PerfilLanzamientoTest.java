@@ -0,0 +1,105 @@
+/*
+ Prueba de PerfilLanzamiento que verifica la lectura del perfil, que la tabla de alias
+ reproduce la distribución pedida y que el perfil uniforme lanza igual que antes.
+ */
+package Udistrital.avanzada.ArgollaLlanera.modelo;
+
+import Udistrital.avanzada.ArgollaLlanera.control.CalculadoraProbabilidades;
+import Udistrital.avanzada.ArgollaLlanera.control.MotorPartida;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class PerfilLanzamientoTest {
+
+    /**
+     * Verifica las dos formas de escribir un perfil y el rechazo de perfiles inválidos.
+     */
+    @Test
+    public void testDesdeTexto() {
+        System.out.println("desdeTexto");
+        PerfilLanzamiento posicional = PerfilLanzamiento.desdeTexto("1, 1, 2, 2, 4, 10");
+        PerfilLanzamiento conNombres = PerfilLanzamiento.desdeTexto("otro:10,timbre:4,PALMO:2,hueco:2,engarzada:1,monona:1");
+        assertEquals(posicional, conNombres);
+        assertEquals(0.5, posicional.getProbabilidad(ResultadoLanzamiento.OTRO.getCodigo()), 1e-12);
+        assertFalse(posicional.isUniforme());
+        assertTrue(PerfilLanzamiento.desdeTexto("2,2,2,2,2,2").isUniforme());
+        assertEquals(1.0, PerfilLanzamiento.desdeTexto("hueco:1").getProbabilidad(ResultadoLanzamiento.HUECO.getCodigo()), 0.0);
+
+        assertThrows(IllegalArgumentException.class, () -> PerfilLanzamiento.desdeTexto("1,2,3"));
+        assertThrows(IllegalArgumentException.class, () -> PerfilLanzamiento.desdeTexto("hueco:x"));
+        assertThrows(IllegalArgumentException.class, () -> PerfilLanzamiento.desdeTexto("rebote:1"));
+        assertThrows(IllegalArgumentException.class, () -> PerfilLanzamiento.desdeTexto("0,0,0,0,0,0"));
+    }
+
+    /**
+     * Verifica que las frecuencias de la tabla de alias coinciden con las probabilidades.
+     */
+    @Test
+    public void testFrecuenciasDelAlias() {
+        System.out.println("frecuenciasDelAlias");
+        PerfilLanzamiento perfil = new PerfilLanzamiento(new double[]{0.5, 3, 0, 1, 7.5, 12});
+        SplittableRandom rand = new SplittableRandom(7);
+        int n = 1_000_000;
+        int[] conteo = new int[ResultadoLanzamiento.cantidad()];
+        for (int i = 0; i < n; i++) {
+            conteo[perfil.muestrearCodigo(rand)]++;
+        }
+        for (int c = 0; c < conteo.length; c++) {
+            assertEquals(perfil.getProbabilidad(c), (double) conteo[c] / n, 0.002, "código " + c);
+        }
+        assertEquals(0, conteo[2]);
+    }
+
+    /**
+     * Verifica que el perfil uniforme consume la fuente aleatoria igual que Juego.lanzar(),
+     * de modo que las partidas con semilla no cambian.
+     */
+    @Test
+    public void testUniformeReproducible() {
+        System.out.println("uniformeReproducible");
+        Jugador jugador = new Jugador("Ana", "", "");
+        Juego conPerfil = new Juego(List.of(), new SplittableRandom(11));
+        Juego sinPerfil = new Juego(List.of(), new SplittableRandom(11));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(sinPerfil.lanzar(), conPerfil.lanzar(jugador));
+        }
+    }
+
+    /**
+     * Verifica que partidas con perfiles distintos siguen las probabilidades que calcula
+     * CalculadoraProbabilidades con los mismos perfiles.
+     */
+    @Test
+    public void testSimulacionYProbabilidadesUsanElMismoModelo() {
+        System.out.println("simulacionYProbabilidadesUsanElMismoModelo");
+        Equipo a = new Equipo("E001", "A");
+        Equipo b = new Equipo("E002", "B");
+        for (int i = 0; i < 3; i++) {
+            Jugador bueno = new Jugador("A" + i, "", "");
+            bueno.setPerfil(PerfilLanzamiento.desdeTexto("monona:2, engarzada:3, hueco:3, otro:4"));
+            a.agregarJugador(bueno);
+            b.agregarJugador(new Jugador("B" + i, "", ""));
+        }
+        List<Equipo> equipos = Arrays.asList(a, b);
+        double esperada = new CalculadoraProbabilidades(a, b).calcular(0, 0, 0, 0, -1).getProbabilidadA();
+        SplittableRandom rand = new SplittableRandom(3);
+        int partidas = 100_000;
+        int ganaA = 0;
+        for (int i = 0; i < partidas; i++) {
+            MotorPartida motor = new MotorPartida(new Juego(equipos, rand), equipos, 0);
+            motor.jugarHastaTerminar();
+            if (motor.getIndiceGanador() == 0) {
+                ganaA++;
+            }
+        }
+        assertTrue(esperada > 0.5);
+        assertEquals(esperada, (double) ganaA / partidas, 0.01);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ Prueba de CargadorFotos que verifica la normalización de rutas, la decodificación
+ única de una foto compartida y el límite de memoria de la caché.
+ */
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class CargadorFotosTest {
+
+    @TempDir
+    Path carpeta;
+
+    private Path crearImagen(String nombre, int ancho, int alto) throws Exception {
+        Path ruta = carpeta.resolve(nombre);
+        ImageIO.write(new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB), "png", ruta.toFile());
+        return ruta;
+    }
+
+    /**
+     * Verifica que se quitan comillas y barras invertidas.
+     */
+    @Test
+    public void testNormalizarRuta() {
+        System.out.println("normalizarRuta");
+        assertEquals(Paths.get("src/Specs/Data/files/foto.png"),
+                CargadorFotos.normalizarRuta(" \"src\\Specs\\Data\\files\\foto.png\" "));
+        assertEquals(Paths.get("Imagenes/a.jpg"), CargadorFotos.normalizarRuta("Imagenes/./a.jpg"));
+        assertNull(CargadorFotos.normalizarRuta("\"\""));
+        assertNull(CargadorFotos.normalizarRuta(null));
+    }
+
+    /**
+     * Verifica que ocho jugadores con la misma foto provocan una sola decodificación,
+     * que la imagen se reduce conservando la proporción y que una foto ausente da null.
+     */
+    @Test
+    public void testFotoCompartidaSeDecodificaUnaVez() throws Exception {
+        System.out.println("fotoCompartidaSeDecodificaUnaVez");
+        Path foto = crearImagen("foto.png", 200, 100);
+        String conComillas = "\"" + foto.toString().replace('/', '\\') + "\"";
+        CargadorFotos cargador = new CargadorFotos();
+        List<CompletableFuture<BufferedImage>> pedidos = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            pedidos.add(cargador.cargar(i % 2 == 0 ? foto.toString() : conComillas, 48, 48));
+        }
+        BufferedImage primera = pedidos.get(0).get(5, TimeUnit.SECONDS);
+        assertEquals(48, primera.getWidth());
+        assertEquals(24, primera.getHeight());
+        for (CompletableFuture<BufferedImage> pedido : pedidos) {
+            assertSame(primera, pedido.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargador.getDecodificaciones());
+
+        assertNull(cargador.cargar(carpeta.resolve("no-existe.png").toString(), 48, 48).get(5, TimeUnit.SECONDS));
+        assertNull(cargador.cargar(carpeta.resolve("no-existe.png").toString(), 48, 48).get(5, TimeUnit.SECONDS));
+        cargador.cerrar();
+    }
+
+    /**
+     * Verifica que la caché descarta las imágenes menos usadas al superar su capacidad.
+     */
+    @Test
+    public void testCacheLimitada() throws Exception {
+        System.out.println("cacheLimitada");
+        CargadorFotos cargador = new CargadorFotos(2L * 10 * 10 * 4);
+        Path a = crearImagen("a.png", 10, 10);
+        Path b = crearImagen("b.png", 10, 10);
+        Path c = crearImagen("c.png", 10, 10);
+        cargador.cargar(a.toString(), 10, 10).get(5, TimeUnit.SECONDS);
+        cargador.cargar(b.toString(), 10, 10).get(5, TimeUnit.SECONDS);
+        cargador.cargar(a.toString(), 10, 10).get(5, TimeUnit.SECONDS);   // a queda como la más reciente
+        cargador.cargar(c.toString(), 10, 10).get(5, TimeUnit.SECONDS);   // descarta b
+        assertEquals(2, cargador.getCantidadEnCache());
+        assertEquals(800, cargador.getBytesEnCache());
+        assertEquals(3, cargador.getDecodificaciones());
+
+        cargador.cargar(a.toString(), 10, 10).get(5, TimeUnit.SECONDS);
+        assertEquals(3, cargador.getDecodificaciones());
+        cargador.cargar(b.toString(), 10, 10).get(5, TimeUnit.SECONDS);
+        assertEquals(4, cargador.getDecodificaciones());
+        cargador.cerrar();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ Prueba de ModeloBitacora que verifica el límite de líneas del buffer circular y los
+ eventos que recibe la lista.
+ */
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class ModeloBitacoraTest {
+
+    /**
+     * Verifica que se conservan solo las últimas líneas, en orden, y que los mensajes
+     * de varias líneas ocupan una fila por línea.
+     */
+    @Test
+    public void testConservaUltimasLineas() {
+        System.out.println("conservaUltimasLineas");
+        ModeloBitacora bitacora = new ModeloBitacora(3);
+        bitacora.agregar("uno");
+        bitacora.agregar("dos\ntres\n");
+        assertEquals(3, bitacora.getSize());
+        assertEquals("", bitacora.getElementAt(2));
+        assertEquals(1, bitacora.getDescartadas());
+
+        for (int i = 0; i < 10; i++) {
+            bitacora.agregar("m" + i);
+        }
+        assertEquals(3, bitacora.getSize());
+        assertEquals("m7", bitacora.getElementAt(0));
+        assertEquals("m9", bitacora.getElementAt(2));
+        assertEquals(11, bitacora.getDescartadas());
+        assertThrows(IndexOutOfBoundsException.class, () -> bitacora.getElementAt(3));
+
+        bitacora.limpiar();
+        assertEquals(0, bitacora.getSize());
+    }
+
+    /**
+     * Verifica que la lista recibe un evento por línea agregada o descartada.
+     */
+    @Test
+    public void testEventosDeLista() {
+        System.out.println("eventosDeLista");
+        ModeloBitacora bitacora = new ModeloBitacora(2);
+        List<String> eventos = new ArrayList<>();
+        bitacora.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                eventos.add("+" + e.getIndex0());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                eventos.add("-" + e.getIndex0());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                eventos.add("*");
+            }
+        });
+        bitacora.agregar("a\nb\nc");
+        assertEquals(List.of("+0", "+1", "-0", "+1"), eventos);
+    }
+}
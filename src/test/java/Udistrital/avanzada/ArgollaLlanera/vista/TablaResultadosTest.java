@@ -0,0 +1,134 @@
+/*
+ Prueba de TablaResultados que verifica que al cambiar un resultado solo se reemplaza su
+ línea, que una tabla igual no toca el texto y que se reescribe completa si cambia la
+ cantidad de líneas o el texto se modificó por fuera.
+ */
+package Udistrital.avanzada.ArgollaLlanera.vista;
+
+import Udistrital.avanzada.ArgollaLlanera.modelo.Equipo;
+import Udistrital.avanzada.ArgollaLlanera.modelo.Jugador;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JTextArea;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import org.junit.jupiter.api.Test;
+import static Udistrital.avanzada.ArgollaLlanera.modelo.EquiposPrueba.crearEquipo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author juanr
+ */
+public class TablaResultadosTest {
+
+    /**
+     * Anota cada cambio del documento como operación, posición y largo; un borrado
+     * seguido de una inserción (un reemplazo) queda en una sola entrada.
+     */
+    private static List<String> escucharCambios(JTextArea area) {
+        List<String> cambios = new ArrayList<>();
+        area.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                String cambio = "+" + e.getOffset() + ":" + e.getLength();
+                int ultimo = cambios.size() - 1;
+                if (ultimo >= 0 && cambios.get(ultimo).startsWith("-") && !cambios.get(ultimo).contains(" ")) {
+                    cambios.set(ultimo, cambios.get(ultimo) + " " + cambio);
+                } else {
+                    cambios.add(cambio);
+                }
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                cambios.add("-" + e.getOffset() + ":" + e.getLength());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                cambios.add("~" + e.getOffset());
+            }
+        });
+        return cambios;
+    }
+
+    /** Eventos esperados al reemplazar una línea por otra en la posición indicada. */
+    private static String cambio(int posicion, String anterior, String nueva) {
+        return "-" + posicion + ":" + anterior.length() + " +" + posicion + ":" + nueva.length();
+    }
+
+    /**
+     * Cambia el resultado de un jugador y verifica que solo se reemplaza su línea; las
+     * filas sin cambios no generan eventos del documento.
+     */
+    @Test
+    public void testReemplazaSoloLineasCambiadas() {
+        System.out.println("reemplazaSoloLineasCambiadas");
+        Equipo a = crearEquipo("E1", "A", 2);
+        Equipo b = crearEquipo("E2", "B", 2);
+        Map<Equipo, Integer> puntajes = new LinkedHashMap<>();
+        puntajes.put(a, 0);
+        puntajes.put(b, 0);
+        JTextArea area = new JTextArea();
+        TablaResultados tabla = new TablaResultados(area);
+        tabla.mostrar(puntajes);
+        String inicial = "A: 0 puntos\n - A1: null (0 pts)\n - A2: null (0 pts)\n"
+                + "B: 0 puntos\n - B1: null (0 pts)\n - B2: null (0 pts)\n";
+        assertEquals(inicial, area.getText());
+
+        List<String> cambios = escucharCambios(area);
+        tabla.mostrar(puntajes);
+        assertEquals(List.of(), cambios);
+
+        Jugador b1 = b.getJugadores().get(0);
+        b1.setResultado("Hueco");
+        b1.setPuntos(3);
+        puntajes.put(b, 3);
+        tabla.mostrar(puntajes);
+        String esperado = "A: 0 puntos\n - A1: null (0 pts)\n - A2: null (0 pts)\n"
+                + "B: 3 puntos\n - B1: Hueco (3 pts)\n - B2: null (0 pts)\n";
+        assertEquals(esperado, area.getText());
+        int filaB = esperado.indexOf("B: ");
+        int filaB1 = esperado.indexOf(" - B1");
+        assertEquals(List.of(cambio(filaB, "B: 0 puntos", "B: 3 puntos"),
+                cambio(filaB1, " - B1: null (0 pts)", " - B1: Hueco (3 pts)")), cambios);
+
+        cambios.clear();
+        b1.setResultado("Moñona");
+        b1.setPuntos(8);
+        tabla.mostrar(puntajes);
+        assertEquals(List.of(cambio(filaB1, " - B1: Hueco (3 pts)", " - B1: Moñona (8 pts)")), cambios);
+        assertTrue(area.getText().endsWith(" - B1: Moñona (8 pts)\n - B2: null (0 pts)\n"), area.getText());
+    }
+
+    /**
+     * Si cambia la cantidad de líneas o el texto se modificó por fuera, la tabla se
+     * reescribe completa.
+     */
+    @Test
+    public void testReescribeSiCambiaLaForma() {
+        System.out.println("reescribeSiCambiaLaForma");
+        Equipo a = crearEquipo("E1", "A", 2);
+        Map<Equipo, Integer> puntajes = new LinkedHashMap<>();
+        puntajes.put(a, 0);
+        JTextArea area = new JTextArea();
+        TablaResultados tabla = new TablaResultados(area);
+        tabla.mostrar(puntajes);
+
+        List<String> cambios = escucharCambios(area);
+        a.agregarJugador(new Jugador("A3", "apodo", ""));
+        tabla.mostrar(puntajes);
+        assertEquals("A: 0 puntos\n - A1: null (0 pts)\n - A2: null (0 pts)\n - A3: null (0 pts)\n", area.getText());
+        String anterior = "A: 0 puntos\n - A1: null (0 pts)\n - A2: null (0 pts)\n";
+        assertEquals(List.of("-0:" + anterior.length() + " +0:" + area.getText().length()), cambios);
+
+        area.append("ajeno\n");
+        cambios.clear();
+        tabla.mostrar(puntajes);
+        assertEquals("A: 0 puntos\n - A1: null (0 pts)\n - A2: null (0 pts)\n - A3: null (0 pts)\n", area.getText());
+        assertEquals(List.of("-0:" + (area.getText().length() + 6) + " +0:" + area.getText().length()), cambios);
+    }
+}